@@ -0,0 +1,131 @@
+package com.logifin.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for background work.
+ * Each pipeline gets its own bounded pool so a backlog in one cannot starve the others.
+ */
+@Configuration
+@Slf4j
+public class AsyncConfig {
+
+    public static final String DOCUMENT_PREVIEW_EXECUTOR = "documentPreviewExecutor";
+    public static final String BULK_UPLOAD_EXECUTOR = "bulkUploadExecutor";
+    public static final String SEARCH_INDEX_EXECUTOR = "searchIndexExecutor";
+    public static final String COUNT_QUERY_EXECUTOR = "countQueryExecutor";
+
+    @Value("${app.async.document-preview.pool-size:2}")
+    private int documentPreviewPoolSize;
+
+    @Value("${app.async.document-preview.queue-capacity:200}")
+    private int documentPreviewQueueCapacity;
+
+    @Value("${app.async.bulk-upload.pool-size:2}")
+    private int bulkUploadPoolSize;
+
+    @Value("${app.async.bulk-upload.queue-capacity:50}")
+    private int bulkUploadQueueCapacity;
+
+    @Value("${app.async.search-index.queue-capacity:10000}")
+    private int searchIndexQueueCapacity;
+
+    @Value("${app.async.count-query.pool-size:4}")
+    private int countQueryPoolSize;
+
+    @Value("${app.async.count-query.queue-capacity:100}")
+    private int countQueryQueueCapacity;
+
+    /**
+     * Default executor for plain @Async methods (e.g. emails).
+     * Declared explicitly because defining any other executor bean disables Spring Boot's default one.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Executor for thumbnail/preview generation of uploaded trip documents.
+     * When the queue is full new work is dropped - previews are best-effort and
+     * regenerated on the next upload of the document.
+     */
+    @Bean(name = DOCUMENT_PREVIEW_EXECUTOR)
+    public ThreadPoolTaskExecutor documentPreviewExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(documentPreviewPoolSize);
+        executor.setMaxPoolSize(documentPreviewPoolSize);
+        executor.setQueueCapacity(documentPreviewQueueCapacity);
+        executor.setThreadNamePrefix("doc-preview-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Document preview queue is full ({} pending) - skipping preview generation",
+                        pool.getQueue().size()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Executor for asynchronous bulk upload jobs.
+     * When the queue is full the job simply stays QUEUED in the database; workers pick up
+     * queued jobs when they finish their current one, and on startup.
+     */
+    @Bean(name = BULK_UPLOAD_EXECUTOR)
+    public ThreadPoolTaskExecutor bulkUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bulkUploadPoolSize);
+        executor.setMaxPoolSize(bulkUploadPoolSize);
+        executor.setQueueCapacity(bulkUploadQueueCapacity);
+        executor.setThreadNamePrefix("bulk-upload-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Bulk upload queue is full ({} pending) - job stays queued until a worker is free",
+                        pool.getQueue().size()));
+        // Interrupted jobs resume from their last committed chunk, no need to hold up shutdown
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Executor for search index maintenance.
+     * A single thread applies index changes in the order transactions committed.
+     * When the queue is full the change is dropped and the index stays stale for
+     * those trips until the next rebuild (on startup).
+     */
+    @Bean(name = SEARCH_INDEX_EXECUTOR)
+    public ThreadPoolTaskExecutor searchIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(searchIndexQueueCapacity);
+        executor.setThreadNamePrefix("search-index-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Search index queue is full ({} pending) - index is stale until the next rebuild",
+                        pool.getQueue().size()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Executor for optional total counts of paginated listings.
+     * When the queue is full the submission is rejected and the caller omits the total
+     * rather than waiting for a slow COUNT.
+     */
+    @Bean(name = COUNT_QUERY_EXECUTOR)
+    public ThreadPoolTaskExecutor countQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(countQueryPoolSize);
+        executor.setMaxPoolSize(countQueryPoolSize);
+        executor.setQueueCapacity(countQueryQueueCapacity);
+        executor.setThreadNamePrefix("count-query-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
@@ -18,6 +19,9 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -25,6 +29,8 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Cache configuration with Redis as the backing store.
@@ -87,12 +93,36 @@ public class CacheConfig extends CachingConfigurerSupport {
     @Value("${cache.ttl.contract-types:120}")
     private long contractTypesTtlMinutes;
 
+    // Tag sets outlive the entries they list, so keep this at least the longest TTL above
+    @Value("${cache.ttl.tags:120}")
+    private long tagsTtlMinutes;
+
+    // In-process level: entries per cache, and a TTL well below Redis so missed invalidations heal
+    @Value("${cache.local.maximum-size:1000}")
+    private long localMaximumSize;
+
+    @Value("${cache.local.ttl:5}")
+    private long localTtlMinutes;
+
     /**
-     * Primary Redis Cache Manager with custom TTL per cache.
+     * Primary Cache Manager: the two-level caches, wrapped so values put into the list and
+     * lookup caches below are tagged with the ids they hold; writes evict those tags through
+     * CacheTagService instead of clearing the whole cache.
      */
     @Bean
     @Primary
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(TwoLevelCacheManager twoLevelCacheManager, CacheTagRegistry cacheTagRegistry) {
+        return new TaggingCacheManager(twoLevelCacheManager, cacheTagRegistry, tagResolvers());
+    }
+
+    /**
+     * Redis caches with custom TTL per cache, each fronted by a bounded in-process cache.
+     * Local copies are invalidated across nodes over Redis pub/sub.
+     */
+    @Bean
+    public TwoLevelCacheManager twoLevelCacheManager(RedisConnectionFactory connectionFactory,
+                                                     StringRedisTemplate stringRedisTemplate,
+                                                     MeterRegistry meterRegistry) {
         // Default cache configuration
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(defaultTtlMinutes))
@@ -139,11 +169,60 @@ public class CacheConfig extends CachingConfigurerSupport {
         cacheConfigurations.put(CACHE_CONTRACT_TYPE_BY_ID, defaultConfig.entryTtl(Duration.ofMinutes(contractTypesTtlMinutes)));
         cacheConfigurations.put(CACHE_CONTRACT_TYPE_BY_NAME, defaultConfig.entryTtl(Duration.ofMinutes(contractTypesTtlMinutes)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
-                .transactionAware()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Transaction awareness sits on the two-level caches, so both levels change after commit
+        TwoLevelCacheManager twoLevelCacheManager = new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate,
+                meterRegistry, localMaximumSize, Duration.ofMinutes(localTtlMinutes));
+        twoLevelCacheManager.setTransactionAware(true);
+        return twoLevelCacheManager;
+    }
+
+    /**
+     * Delivers invalidations from other nodes to the local cache level.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cache.local.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager twoLevelCacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(twoLevelCacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    /**
+     * Tag resolvers, by cache name.
+     */
+    private static Map<String, Function<Object, Set<String>>> tagResolvers() {
+        // Caches keyed by something other than the id, and lists, are evicted by tag
+        Map<String, Function<Object, Set<String>>> tagResolvers = new HashMap<>();
+        tagResolvers.put(CACHE_USERS, CacheTags.byEntityList(CacheTags.USER));
+        tagResolvers.put(CACHE_ACTIVE_USERS, CacheTags.byEntityList(CacheTags.USER));
+        tagResolvers.put(CACHE_USER_SEARCH, CacheTags.byEntityList(CacheTags.USER));
+        tagResolvers.put(CACHE_USER_BY_EMAIL, CacheTags.byEntity(CacheTags.USER));
+        tagResolvers.put(CACHE_COMPANIES, CacheTags.byEntityList(CacheTags.COMPANY));
+        tagResolvers.put(CACHE_CONTRACTS, CacheTags.byEntityList(CacheTags.CONTRACT));
+        tagResolvers.put(CACHE_CONTRACT_BY_NUMBER, CacheTags.byEntity(CacheTags.CONTRACT));
+        tagResolvers.put(CACHE_ROLES, CacheTags.byEntityList(CacheTags.ROLE));
+        tagResolvers.put(CACHE_ROLE_BY_NAME, CacheTags.byEntity(CacheTags.ROLE));
+        tagResolvers.put(CACHE_LOAN_STAGES, CacheTags.byEntityList(CacheTags.LOAN_STAGE));
+        tagResolvers.put(CACHE_LOAN_STAGE_BY_NAME, CacheTags.byEntity(CacheTags.LOAN_STAGE));
+        tagResolvers.put(CACHE_CONTRACT_TYPES, CacheTags.byEntityList(CacheTags.CONTRACT_TYPE));
+        tagResolvers.put(CACHE_CONTRACT_TYPE_BY_NAME, CacheTags.byEntity(CacheTags.CONTRACT_TYPE));
+        return tagResolvers;
+    }
+
+    /**
+     * Redis sets of cache entries by tag.
+     */
+    @Bean
+    public CacheTagRegistry cacheTagRegistry(StringRedisTemplate stringRedisTemplate) {
+        return new CacheTagRegistry(stringRedisTemplate, Duration.ofMinutes(tagsTtlMinutes));
     }
 
     /**
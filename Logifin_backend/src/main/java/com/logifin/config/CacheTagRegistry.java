@@ -0,0 +1,77 @@
+package com.logifin.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Redis sets recording which cache entries carry each tag.
+ * A member is "cacheName::key", the same form RedisCache uses for its keys. Sets expire
+ * after the longest cache TTL once no entry is added, so members of expired entries go too.
+ */
+@Slf4j
+public class CacheTagRegistry {
+
+    static final String TAG_KEY_PREFIX = "cache-tag:";
+    static final String MEMBER_SEPARATOR = "::";
+    private static final long CLAIM_BATCH_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration tagTtl;
+
+    public CacheTagRegistry(StringRedisTemplate redisTemplate, Duration tagTtl) {
+        this.redisTemplate = redisTemplate;
+        this.tagTtl = tagTtl;
+    }
+
+    /**
+     * Record a cache entry under each of its tags, in one pipelined round trip
+     */
+    public void record(String cacheName, Object key, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        String member = member(cacheName, key);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String tag : tags) {
+                    ops.opsForSet().add(TAG_KEY_PREFIX + tag, member);
+                    ops.expire(TAG_KEY_PREFIX + tag, tagTtl);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Take the entries recorded under a tag, as "cacheName::key", removing them from its set.
+     * Popping claims them atomically: an entry cached and tagged again meanwhile is either
+     * popped here, and evicted, or left in the set for the next eviction.
+     */
+    public Set<String> claim(String tag) {
+        Set<String> claimed = new HashSet<>();
+        List<String> batch;
+        do {
+            batch = redisTemplate.opsForSet().pop(TAG_KEY_PREFIX + tag, CLAIM_BATCH_SIZE);
+            if (batch != null) {
+                claimed.addAll(batch);
+            }
+        } while (batch != null && batch.size() == CLAIM_BATCH_SIZE);
+        return claimed;
+    }
+
+    static String member(String cacheName, Object key) {
+        return cacheName + MEMBER_SEPARATOR + key;
+    }
+}
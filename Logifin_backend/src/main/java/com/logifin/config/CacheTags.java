@@ -0,0 +1,93 @@
+package com.logifin.config;
+
+import com.logifin.dto.PagedResponse;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Cache tag names and the resolvers that derive tags from cached values.
+ * An entity tag ("contract:42") is carried by every cached entry holding that entity;
+ * a list tag ("contract:lists") by every cached list of that entity, for writes that
+ * change list membership rather than one entity.
+ */
+public final class CacheTags {
+
+    public static final String CONTRACT = "contract";
+    public static final String USER = "user";
+    public static final String COMPANY = "company";
+    public static final String ROLE = "role";
+    public static final String LOAN_STAGE = "loanStage";
+    public static final String CONTRACT_TYPE = "contractType";
+
+    private static final String LISTS_SUFFIX = ":lists";
+
+    private CacheTags() {
+    }
+
+    /**
+     * Tag of the cached entries holding one entity
+     */
+    public static String entity(String entity, Object id) {
+        return entity + ":" + id;
+    }
+
+    /**
+     * Tag of the cached lists of an entity
+     */
+    public static String lists(String entity) {
+        return entity + LISTS_SUFFIX;
+    }
+
+    /**
+     * Resolver tagging a single DTO with its entity tag
+     */
+    public static Function<Object, Set<String>> byEntity(String entity) {
+        return value -> entityTags(entity, value);
+    }
+
+    /**
+     * Resolver tagging a list or page of DTOs with each element's entity tag and the list tag
+     */
+    public static Function<Object, Set<String>> byEntityList(String entity) {
+        return value -> {
+            Set<String> tags = entityTags(entity, value);
+            tags.add(lists(entity));
+            return tags;
+        };
+    }
+
+    private static Set<String> entityTags(String entity, Object value) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (Object element : elements(value)) {
+            Object id = idOf(element);
+            if (id != null) {
+                tags.add(entity(entity, id));
+            }
+        }
+        return tags;
+    }
+
+    private static Collection<?> elements(Object value) {
+        if (value instanceof PagedResponse) {
+            return ((PagedResponse<?>) value).getContent();
+        }
+        if (value instanceof Collection) {
+            return (Collection<?>) value;
+        }
+        return value == null ? Collections.emptyList() : Collections.singletonList(value);
+    }
+
+    private static Object idOf(Object element) {
+        if (element == null) {
+            return null;
+        }
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(element);
+        return wrapper.isReadableProperty("id") ? wrapper.getPropertyValue("id") : null;
+    }
+}
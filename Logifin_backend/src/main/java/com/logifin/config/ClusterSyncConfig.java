@@ -0,0 +1,30 @@
+package com.logifin.config;
+
+import com.logifin.event.ContractPartyIndexSync;
+import com.logifin.event.TripSearchIndexSync;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis pub/sub subscriptions keeping per-instance state (the trip search index and the
+ * three-party contract index) in step across instances. Disabled in tests, which run a single instance without Redis.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cluster-sync.enabled", havingValue = "true", matchIfMissing = true)
+public class ClusterSyncConfig {
+
+    @Bean
+    public RedisMessageListenerContainer clusterSyncListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                      TripSearchIndexSync tripSearchIndexSync,
+                                                                      ContractPartyIndexSync contractPartyIndexSync) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(tripSearchIndexSync, new ChannelTopic(TripSearchIndexSync.CHANNEL));
+        container.addMessageListener(contractPartyIndexSync, new ChannelTopic(ContractPartyIndexSync.CHANNEL));
+        return container;
+    }
+}
@@ -76,6 +76,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers(HttpMethod.GET, "/api/v1/companies/paged").permitAll()
                 .antMatchers(HttpMethod.GET, "/api/v1/companies/active").permitAll()
                 .antMatchers(HttpMethod.GET, "/api/v1/companies/active/paged").permitAll()
+                .antMatchers(HttpMethod.GET, "/api/v1/companies/*/logo").permitAll()
                 .antMatchers(HttpMethod.POST, "/api/v1/companies").permitAll()
                 // Public Role endpoints (no auth required)
                 .antMatchers(HttpMethod.GET, "/api/v1/roles").permitAll()
@@ -0,0 +1,128 @@
+package com.logifin.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * CacheManager decorator recording the tags of every value put into a tagged cache.
+ * Caches without a tag resolver are returned as they are.
+ */
+public class TaggingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final CacheTagRegistry tagRegistry;
+    private final Map<String, Function<Object, Set<String>>> tagResolvers;
+    private final Map<String, Cache> taggingCaches = new ConcurrentHashMap<>();
+
+    public TaggingCacheManager(CacheManager delegate, CacheTagRegistry tagRegistry,
+                               Map<String, Function<Object, Set<String>>> tagResolvers) {
+        this.delegate = delegate;
+        this.tagRegistry = tagRegistry;
+        this.tagResolvers = tagResolvers;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        Function<Object, Set<String>> resolver = tagResolvers.get(name);
+        if (cache == null || resolver == null) {
+            return cache;
+        }
+        return taggingCaches.computeIfAbsent(name, n -> new TaggingCache(cache, resolver));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * The underlying manager, for evicting without the transaction-aware decoration
+     */
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    private class TaggingCache implements Cache {
+
+        private final Cache target;
+        private final Function<Object, Set<String>> resolver;
+
+        TaggingCache(Cache target, Function<Object, Set<String>> resolver) {
+            this.target = target;
+            this.resolver = resolver;
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return target.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return target.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return target.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            // Tags first: a tag without its entry is harmless, an entry without its tag would go stale
+            tag(key, value);
+            target.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            tag(key, value);
+            return target.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            target.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return target.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            target.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return target.invalidate();
+        }
+
+        private void tag(Object key, Object value) {
+            if (value == null) {
+                return;
+            }
+            tagRegistry.record(getName(), key, resolver.apply(value));
+        }
+    }
+}
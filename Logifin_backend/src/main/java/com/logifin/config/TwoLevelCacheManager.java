@@ -0,0 +1,257 @@
+package com.logifin.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * CacheManager serving each cache from a bounded in-process Caffeine cache (L1) in front of
+ * the Redis cache of the same name (L2).
+ * Writes go to Redis first, then to the local copy, and are announced on a Redis channel so
+ * other nodes drop their local copies. Local entries expire after the local TTL, capped at half
+ * the Redis cache's TTL, so a missed invalidation message only serves a stale value until then
+ * and a copy taken just before its Redis entry expires does not double the cache's staleness.
+ * Local values are shared instances: callers must not mutate what a cached method returns.
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+    private static final String SEPARATOR = "|";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, com.github.benmanes.caffeine.cache.Cache<String, Object>> localCaches =
+            new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry, long localMaximumSize, Duration localTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return remoteCacheManager.getCacheNames().stream()
+                .map(this::getMissingCache)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        return remote == null ? null : new TwoLevelCache(name, localCache(name, localTtlFor(remote)), remote);
+    }
+
+    /**
+     * A local copy is taken from Redis at an unknown point of the entry's life, so it may outlive
+     * it by its own TTL; at most half the Redis TTL keeps any value under 1.5 times that TTL old
+     */
+    private Duration localTtlFor(Cache remote) {
+        if (remote instanceof RedisCache) {
+            Duration remoteTtl = ((RedisCache) remote).getCacheConfiguration().getTtl();
+            if (!remoteTtl.isZero() && !remoteTtl.isNegative() && remoteTtl.dividedBy(2).compareTo(localTtl) < 0) {
+                return remoteTtl.dividedBy(2);
+            }
+        }
+        return localTtl;
+    }
+
+    /**
+     * Drop local copies changed on another node
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 4);
+        if (parts.length < 3 || nodeId.equals(parts[1])) {
+            return;
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = localCaches.get(parts[2]);
+        if (local == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[0])) {
+            local.invalidateAll();
+        } else if (EVICT.equals(parts[0]) && parts.length == 4) {
+            local.invalidate(parts[3]);
+        }
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> localCache(String name, Duration ttl) {
+        return localCaches.computeIfAbsent(name, n -> {
+            com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                    .maximumSize(localMaximumSize)
+                    .expireAfterWrite(ttl)
+                    .build();
+            Gauge.builder("cache.level.size", local, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                    .description("Entries held in the local cache level")
+                    .tag("cache", n)
+                    .tag("level", "l1")
+                    .register(meterRegistry);
+            return local;
+        });
+    }
+
+    private void publish(String... parts) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join(SEPARATOR, parts));
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the local TTL; the write itself already reached Redis
+            log.error("Cache invalidation publish error - message: {}, error: {}",
+                    String.join(SEPARATOR, parts), e.getMessage());
+        }
+    }
+
+    private Counter gets(String cacheName, String level, String result) {
+        return Counter.builder("cache.level.gets")
+                .description("Cache lookups by level and result")
+                .tag("cache", cacheName)
+                .tag("level", level)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Keys are normalized to strings, as RedisCache does, so an entry cached under the id 42
+     * is the one evicted by key "42" from a tag eviction
+     */
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private class TwoLevelCache extends AbstractValueAdaptingCache {
+
+        private final String name;
+        private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+        private final Cache remote;
+        private final Counter localHits;
+        private final Counter localMisses;
+        private final Counter remoteHits;
+        private final Counter remoteMisses;
+
+        TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local, Cache remote) {
+            // Redis caches here do not store nulls, so neither does the local level
+            super(false);
+            this.name = name;
+            this.local = local;
+            this.remote = remote;
+            this.localHits = gets(name, "l1", "hit");
+            this.localMisses = gets(name, "l1", "miss");
+            this.remoteHits = gets(name, "l2", "hit");
+            this.remoteMisses = gets(name, "l2", "miss");
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return remote.getNativeCache();
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            String localKey = localKey(key);
+            Object value = local.getIfPresent(localKey);
+            if (value != null) {
+                localHits.increment();
+                return value;
+            }
+            localMisses.increment();
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper == null || wrapper.get() == null) {
+                remoteMisses.increment();
+                return null;
+            }
+            remoteHits.increment();
+            value = wrapper.get();
+            local.put(localKey, value);
+            return value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            Object value = lookup(key);
+            if (value != null) {
+                return (T) value;
+            }
+            T loaded = remote.get(key, valueLoader);
+            if (loaded != null) {
+                local.put(localKey(key), loaded);
+            }
+            return loaded;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (value == null) {
+                evict(key);
+                return;
+            }
+            remote.put(key, value);
+            local.put(localKey(key), value);
+            publish(EVICT, nodeId, name, localKey(key));
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            ValueWrapper existing = remote.putIfAbsent(key, value);
+            if (existing == null || existing.get() == null) {
+                if (value != null) {
+                    local.put(localKey(key), value);
+                    publish(EVICT, nodeId, name, localKey(key));
+                }
+                return null;
+            }
+            local.put(localKey(key), existing.get());
+            return existing;
+        }
+
+        @Override
+        public void evict(Object key) {
+            // Local copy first, so it is gone even if Redis fails
+            local.invalidate(localKey(key));
+            remote.evict(key);
+            publish(EVICT, nodeId, name, localKey(key));
+        }
+
+        @Override
+        public void clear() {
+            local.invalidateAll();
+            remote.clear();
+            publish(CLEAR, nodeId, name);
+        }
+    }
+}
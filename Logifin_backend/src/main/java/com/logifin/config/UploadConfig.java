@@ -0,0 +1,34 @@
+package com.logifin.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Limits applied to binary (multipart) uploads of trip documents, payment proofs and bulk upload files.
+ * The servlet container rejects requests above spring.servlet.multipart.max-request-size,
+ * these limits are checked per file before any bytes are read from the part.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.upload")
+@Getter
+@Setter
+public class UploadConfig {
+
+    /**
+     * Maximum size of a single trip document
+     */
+    private DataSize maxDocumentSize = DataSize.ofMegabytes(10);
+
+    /**
+     * Maximum size of a single payment proof image
+     */
+    private DataSize maxProofSize = DataSize.ofMegabytes(5);
+
+    /**
+     * Maximum size of a bulk trip upload file submitted as a background job
+     */
+    private DataSize maxBulkUploadSize = DataSize.ofMegabytes(20);
+}
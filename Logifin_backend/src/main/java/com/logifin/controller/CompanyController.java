@@ -1,6 +1,7 @@
 package com.logifin.controller;
 
 import com.logifin.dto.ApiResponse;
+import com.logifin.dto.BinaryContentDTO;
 import com.logifin.dto.CompanyDTO;
 import com.logifin.dto.PagedResponse;
 import com.logifin.service.CompanyService;
@@ -15,7 +16,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -24,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/companies")
@@ -237,6 +241,31 @@ public class CompanyController {
         return ResponseEntity.ok(ApiResponse.success("Company deleted successfully", null));
     }
 
+    @Operation(
+            summary = "Get Company Logo",
+            description = "Get the company logo image. The logo URL in company responses changes when the logo " +
+                    "is replaced, so the response is cacheable for a year. Public endpoint - no authentication required."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Logo image"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Company not found or has no logo",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @GetMapping("/{id}/logo")
+    public ResponseEntity<byte[]> getCompanyLogo(
+            @Parameter(description = "Company ID") @PathVariable Long id) {
+        BinaryContentDTO logo = companyService.getCompanyLogo(id);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic())
+                .eTag(logo.getEtag())
+                .contentType(MediaType.parseMediaType(logo.getContentType()))
+                .body(logo.getData());
+    }
+
     @Operation(
             summary = "Activate Company",
             description = "Activate a company. Requires ADMIN or SUPER_ADMIN role."
@@ -374,7 +403,9 @@ public class CompanyController {
 
     @Operation(
             summary = "Search Companies (Paginated)",
-            description = "Search companies by keyword with pagination support. Requires authentication."
+            description = "Search companies by keyword with pagination support. " +
+                    "With ranked=true results are ordered by relevance (trigram similarity, tolerates typos). " +
+                    "Requires authentication."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -385,13 +416,16 @@ public class CompanyController {
     @GetMapping("/search/paged")
     public ResponseEntity<ApiResponse<PagedResponse<CompanyDTO>>> searchCompaniesPaged(
             @Parameter(description = "Keyword to search for") @RequestParam String keyword,
+            @Parameter(description = "Order by relevance instead of sortBy") @RequestParam(defaultValue = "false") boolean ranked,
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "createdAt") String sortBy,
             @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        PagedResponse<CompanyDTO> companies = companyService.searchCompanies(keyword, pageable);
+        PagedResponse<CompanyDTO> companies = ranked
+                ? companyService.searchCompaniesRanked(keyword, pageable)
+                : companyService.searchCompanies(keyword, pageable);
         return ResponseEntity.ok(ApiResponse.success(companies));
     }
 
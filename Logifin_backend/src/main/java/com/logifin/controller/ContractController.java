@@ -13,10 +13,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.time.LocalDate;
@@ -138,6 +143,28 @@ public class ContractController {
         return ResponseEntity.ok(ApiResponse.success("Contracts retrieved successfully", contracts));
     }
 
+    @Operation(
+            summary = "Search Contracts by Keyword",
+            description = "Search contracts by contract number, manager name or consigner company name. " +
+                    "With ranked=true results are ordered by relevance (trigram similarity, tolerates typos) " +
+                    "and sortBy/sortDir are ignored. Requires authentication."
+    )
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<PagedResponse<ContractResponse>>> searchContractsByKeyword(
+            @Parameter(description = "Keyword to search for") @RequestParam String keyword,
+            @Parameter(description = "Order by relevance instead of sortBy") @RequestParam(defaultValue = "false") boolean ranked,
+            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort by field") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+        PagedResponse<ContractResponse> contracts = ranked
+                ? contractService.searchContractsByKeywordRanked(keyword, pageable)
+                : contractService.searchContractsByKeyword(keyword, pageable);
+        return ResponseEntity.ok(ApiResponse.success("Contracts retrieved successfully", contracts));
+    }
+
     @Operation(
             summary = "Update Contract",
             description = "Update an existing contract. Requires TRUST_ACCOUNT role."
@@ -195,6 +222,50 @@ public class ContractController {
         return ResponseEntity.ok(ApiResponse.success("Contract deleted successfully", null));
     }
 
+    @Operation(
+            summary = "Download Contract Document",
+            description = "Download the contract document as a file. The ETag is the content hash. Requires authentication."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Contract document"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Contract or document not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @GetMapping("/{id}/document")
+    public ResponseEntity<StreamingResponseBody> downloadContractDocument(
+            @Parameter(description = "Contract ID") @PathVariable Long id) {
+        BinaryContentDTO document = contractService.getContractDocumentMetadata(id);
+        StreamingResponseBody body = out -> contractService.writeContractDocument(id, document.getEtag(), out);
+        // Quotes and backslashes in the stored name are escaped, so it cannot break out of the header value
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(document.getFileName())
+                .build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .eTag(document.getEtag())
+                .contentType(toMediaType(document.getContentType()))
+                .contentLength(document.getSize())
+                .body(body);
+    }
+
+    /**
+     * Media type of a stored document; content types saved before validation may be malformed
+     */
+    private static MediaType toMediaType(String contentType) {
+        if (contentType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
     // ==================== Contract Parties Management ====================
 
     @Operation(
@@ -301,6 +372,17 @@ public class ContractController {
 
     // ==================== Statistics Endpoints ====================
 
+    @Operation(
+            summary = "Get Contract Statistics",
+            description = "Get all contract statistics from the precomputed snapshot, with the time it was computed. " +
+                    "Requires authentication."
+    )
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<ContractStatisticsDTO>> getContractStatistics() {
+        ContractStatisticsDTO stats = contractService.getContractStatistics();
+        return ResponseEntity.ok(ApiResponse.success("Statistics retrieved successfully", stats));
+    }
+
     @Operation(
             summary = "Get Contract Count by Type",
             description = "Get statistics on contract count by type. Requires authentication."
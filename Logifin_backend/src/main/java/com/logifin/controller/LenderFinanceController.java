@@ -5,6 +5,7 @@ import com.logifin.entity.TripFinanceProposal.ProposalStatus;
 import com.logifin.security.CurrentUser;
 import com.logifin.security.UserPrincipal;
 import com.logifin.service.TripFinanceProposalService;
+import com.logifin.service.TripService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,13 +14,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.util.List;
 
 /**
  * REST Controller for Lender Finance Operations.
@@ -33,6 +34,7 @@ import java.util.List;
 public class LenderFinanceController {
 
     private final TripFinanceProposalService financeService;
+    private final TripService tripService;
 
     @Operation(
             summary = "Mark Interest in Multiple Trips (Batch)",
@@ -68,7 +70,7 @@ public class LenderFinanceController {
 
     @Operation(
             summary = "Get My Finance Interests",
-            description = "Get all trips where lender has shown interest. " +
+            description = "Get trips where lender has shown interest, newest first, one page at a time. " +
                          "Optionally filter by status (PENDING, ACCEPTED, REJECTED, WITHDRAWN). Requires LENDER role."
     )
     @ApiResponses(value = {
@@ -83,18 +85,52 @@ public class LenderFinanceController {
     })
     @GetMapping("/finance-interests")
     @PreAuthorize("hasRole('LENDER')")
-    public ResponseEntity<ApiResponse<List<FinanceInterestForLenderDTO>>> getMyInterests(
+    public ResponseEntity<ApiResponse<PagedResponse<FinanceInterestForLenderDTO>>> getMyInterests(
             @Parameter(description = "Filter by status (optional)")
             @RequestParam(required = false) ProposalStatus status,
+            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @CurrentUser UserPrincipal currentUser) {
 
-        List<FinanceInterestForLenderDTO> interests = financeService.getMyInterests(
-                currentUser.getId(), status);
+        PagedResponse<FinanceInterestForLenderDTO> interests = financeService.getMyInterests(
+                currentUser.getId(), status, PageRequest.of(page, size));
 
         return ResponseEntity
                 .ok(ApiResponse.success("Interests retrieved successfully", interests));
     }
 
+    @Operation(
+            summary = "Get Financeable Trips (Marketplace)",
+            description = "Trips the lender can mark interest in right now, newest first: the trip's transporter " +
+                         "and consigner share an active contract with the lender and no proposal has been accepted. " +
+                         "Pass nextCursor from the previous response to get the next page. Requires LENDER role."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Page of financeable trips",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied - requires LENDER role",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @GetMapping("/marketplace/trips")
+    @PreAuthorize("hasRole('LENDER')")
+    public ResponseEntity<ApiResponse<CursorPagedResponse<TripResponseDTO>>> getFinanceableTrips(
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser UserPrincipal currentUser) {
+
+        CursorPagedResponse<TripResponseDTO> trips = tripService.getFinanceableTrips(
+                currentUser.getId(), cursor, size);
+
+        return ResponseEntity
+                .ok(ApiResponse.success("Financeable trips retrieved successfully", trips));
+    }
+
     @Operation(
             summary = "Get Specific Finance Interest",
             description = "Get details of a specific finance interest by ID. Requires LENDER role."
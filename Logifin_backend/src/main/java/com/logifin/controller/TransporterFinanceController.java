@@ -2,6 +2,7 @@ package com.logifin.controller;
 
 import com.logifin.dto.ApiResponse;
 import com.logifin.dto.FinanceInterestForTransporterDTO;
+import com.logifin.dto.PagedResponse;
 import com.logifin.security.CurrentUser;
 import com.logifin.security.UserPrincipal;
 import com.logifin.service.TripFinanceProposalService;
@@ -13,12 +14,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /**
  * REST Controller for Transporter Finance Operations.
  * Handles viewing and responding to lender interests in transporter's trips.
@@ -57,12 +57,14 @@ public class TransporterFinanceController {
     })
     @GetMapping("/trips/{tripId}/finance-interests")
     @PreAuthorize("hasRole('TRANSPORTER')")
-    public ResponseEntity<ApiResponse<List<FinanceInterestForTransporterDTO>>> getInterestsForTrip(
+    public ResponseEntity<ApiResponse<PagedResponse<FinanceInterestForTransporterDTO>>> getInterestsForTrip(
             @Parameter(description = "Trip ID") @PathVariable Long tripId,
+            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @CurrentUser UserPrincipal currentUser) {
 
-        List<FinanceInterestForTransporterDTO> interests = financeService.getInterestsForMyTrip(
-                currentUser.getId(), tripId);
+        PagedResponse<FinanceInterestForTransporterDTO> interests = financeService.getInterestsForMyTrip(
+                currentUser.getId(), tripId, PageRequest.of(page, size));
 
         return ResponseEntity
                 .ok(ApiResponse.success("Interests retrieved successfully", interests));
@@ -70,7 +72,8 @@ public class TransporterFinanceController {
 
     @Operation(
             summary = "Get All Finance Interests for My Trips",
-            description = "View all finance interests across all trips belonging to this transporter. Requires TRANSPORTER role."
+            description = "View finance interests across all trips belonging to this transporter, newest first, " +
+                         "one page at a time. Requires TRANSPORTER role."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -84,11 +87,13 @@ public class TransporterFinanceController {
     })
     @GetMapping("/finance-interests")
     @PreAuthorize("hasRole('TRANSPORTER')")
-    public ResponseEntity<ApiResponse<List<FinanceInterestForTransporterDTO>>> getAllInterests(
+    public ResponseEntity<ApiResponse<PagedResponse<FinanceInterestForTransporterDTO>>> getAllInterests(
+            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @CurrentUser UserPrincipal currentUser) {
 
-        List<FinanceInterestForTransporterDTO> interests = financeService.getAllInterestsForMyTrips(
-                currentUser.getId());
+        PagedResponse<FinanceInterestForTransporterDTO> interests = financeService.getAllInterestsForMyTrips(
+                currentUser.getId(), PageRequest.of(page, size));
 
         return ResponseEntity
                 .ok(ApiResponse.success("All interests retrieved successfully", interests));
@@ -106,8 +111,8 @@ public class TransporterFinanceController {
                     description = "Lender accepted successfully. Other pending interests auto-rejected.",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
-                    responseCode = "400",
-                    description = "Interest cannot be accepted (not in PENDING status or trip already financed)",
+                    responseCode = "409",
+                    description = "Interest cannot be accepted (no longer PENDING or trip already financed)",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "404",
@@ -3,6 +3,8 @@ package com.logifin.controller;
 import com.logifin.dto.*;
 import com.logifin.security.CurrentUser;
 import com.logifin.security.UserPrincipal;
+import com.logifin.service.BulkUploadJobService;
+import com.logifin.service.DocumentThumbnailService;
 import com.logifin.service.TripService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -22,12 +25,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST Controller for Trip Management APIs.
@@ -40,7 +48,12 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class TripController {
 
+    // Deflater output buffer for gzip-encoded exports
+    private static final int EXPORT_GZIP_BUFFER_SIZE = 64 * 1024;
+
     private final TripService tripService;
+    private final DocumentThumbnailService documentThumbnailService;
+    private final BulkUploadJobService bulkUploadJobService;
 
     // ==================== CRUD Operations (TRANSPORTER Only) ====================
 
@@ -151,6 +164,62 @@ public class TripController {
         return ResponseEntity.ok(ApiResponse.success(response.getMessage(), response));
     }
 
+    @Operation(
+            summary = "Submit Bulk Upload Job",
+            description = "Upload a CSV or Excel file for background processing and return a job ID immediately. " +
+                    "Rows are committed in chunks; poll the job endpoint for progress. Requires TRANSPORTER role."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "202",
+                    description = "Bulk upload job queued",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid file format",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "413",
+                    description = "File larger than the allowed size",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @PostMapping(value = "/trip/upload/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('TRANSPORTER')")
+    public ResponseEntity<ApiResponse<BulkUploadJobDTO>> submitBulkUploadJob(
+            @Parameter(description = "CSV or Excel file containing trips")
+            @RequestParam("file") MultipartFile file,
+            @CurrentUser UserPrincipal currentUser) {
+        BulkUploadJobDTO job = bulkUploadJobService.submitJob(file, currentUser.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Bulk upload job queued", job));
+    }
+
+    @Operation(
+            summary = "Get Bulk Upload Job",
+            description = "Get status, progress, throughput and a page of row errors of a bulk upload job " +
+                    "submitted by the current user. Requires TRANSPORTER role."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Job status retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Job not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @GetMapping("/trip/upload/jobs/{jobId}")
+    @PreAuthorize("hasRole('TRANSPORTER')")
+    public ResponseEntity<ApiResponse<BulkUploadJobDTO>> getBulkUploadJob(
+            @Parameter(description = "Job ID") @PathVariable UUID jobId,
+            @Parameter(description = "Page of row errors (0-indexed)") @RequestParam(defaultValue = "0") int errorPage,
+            @Parameter(description = "Row errors per page (max 500)") @RequestParam(defaultValue = "100") int errorSize,
+            @CurrentUser UserPrincipal currentUser) {
+        BulkUploadJobDTO job = bulkUploadJobService.getJob(jobId, currentUser.getId(), errorPage, errorSize);
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
     // ==================== Read Operations (Any Authenticated User) ====================
 
     @Operation(
@@ -224,6 +293,108 @@ public class TripController {
         return ResponseEntity.ok(ApiResponse.success(trips));
     }
 
+    @Operation(
+            summary = "Scroll Trips",
+            description = "Retrieve trips newest first with cursor pagination. Pass nextCursor from the previous " +
+                    "response to get the next page; deep pages are as fast as the first one. The total count is " +
+                    "only computed when includeTotal=true. Available to any authenticated user."
+    )
+    @GetMapping("/trips/scroll")
+    public ResponseEntity<ApiResponse<CursorPagedResponse<TripResponseDTO>>> scrollTrips(
+            @Parameter(description = "Pickup location filter") @RequestParam(required = false) String pickup,
+            @Parameter(description = "Destination filter") @RequestParam(required = false) String destination,
+            @Parameter(description = "Sender name filter") @RequestParam(required = false) String sender,
+            @Parameter(description = "Receiver name filter") @RequestParam(required = false) String receiver,
+            @Parameter(description = "Transporter filter") @RequestParam(required = false) String transporter,
+            @Parameter(description = "Status filter") @RequestParam(required = false) String status,
+            @Parameter(description = "Load type filter") @RequestParam(required = false) String loadType,
+            @Parameter(description = "Keyword search") @RequestParam(required = false) String keyword,
+            @Parameter(description = "Start date (yyyy-MM-dd)") @RequestParam(required = false) String createdFrom,
+            @Parameter(description = "End date (yyyy-MM-dd)") @RequestParam(required = false) String createdTo,
+            @Parameter(description = "Filter by user ID who created the trip") @RequestParam(required = false) Long createdByUserId,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Also count all matching trips") @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        TripSearchCriteria criteria = TripSearchCriteria.builder()
+                .pickup(pickup)
+                .destination(destination)
+                .sender(sender)
+                .receiver(receiver)
+                .transporter(transporter)
+                .status(status != null ? com.logifin.entity.Trip.TripStatus.valueOf(status) : null)
+                .loadType(loadType)
+                .keyword(keyword)
+                .createdFrom(createdFrom != null ? LocalDate.parse(createdFrom) : null)
+                .createdTo(createdTo != null ? LocalDate.parse(createdTo) : null)
+                .createdByUserId(createdByUserId)
+                .build();
+
+        CursorPagedResponse<TripResponseDTO> trips = tripService.searchTrips(criteria, cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(trips));
+    }
+
+    @Operation(
+            summary = "Search Trips by Keyword",
+            description = "Search trips by keyword across pickup, destination, receiver and sender/transporter names. " +
+                    "With ranked=true results are ordered by relevance (trigram similarity, tolerates typos) " +
+                    "and sortBy/sortDir are ignored. Available to any authenticated user."
+    )
+    @GetMapping("/trips/search")
+    public ResponseEntity<ApiResponse<PagedResponse<TripResponseDTO>>> searchTripsByKeyword(
+            @Parameter(description = "Keyword to search for") @RequestParam String keyword,
+            @Parameter(description = "Order by relevance instead of sortBy") @RequestParam(defaultValue = "false") boolean ranked,
+            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+        PagedResponse<TripResponseDTO> trips = ranked
+                ? tripService.searchByKeywordRanked(keyword, pageable)
+                : tripService.searchByKeyword(keyword, pageable);
+        return ResponseEntity.ok(ApiResponse.success(trips));
+    }
+
+    @Operation(
+            summary = "Faceted Trip Search",
+            description = "Search trips through the full-text index, newest first. Text filters match word prefixes. " +
+                    "Returns the requested page plus status, load type and top lane counts over all matches. " +
+                    "Recent changes become searchable within moments of being saved. Available to any authenticated user."
+    )
+    @GetMapping("/trips/faceted-search")
+    public ResponseEntity<ApiResponse<TripFacetedSearchResultDTO>> facetedSearchTrips(
+            @Parameter(description = "Keyword across pickup, destination, receiver, load type and notes") @RequestParam(required = false) String keyword,
+            @Parameter(description = "Pickup location filter") @RequestParam(required = false) String pickup,
+            @Parameter(description = "Destination filter") @RequestParam(required = false) String destination,
+            @Parameter(description = "Receiver name filter") @RequestParam(required = false) String receiver,
+            @Parameter(description = "Status filter") @RequestParam(required = false) String status,
+            @Parameter(description = "Load type filter") @RequestParam(required = false) String loadType,
+            @Parameter(description = "Minimum loan amount") @RequestParam(required = false) BigDecimal minLoanAmount,
+            @Parameter(description = "Maximum loan amount") @RequestParam(required = false) BigDecimal maxLoanAmount,
+            @Parameter(description = "Start date (yyyy-MM-dd)") @RequestParam(required = false) String createdFrom,
+            @Parameter(description = "End date (yyyy-MM-dd)") @RequestParam(required = false) String createdTo,
+            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Maximum values returned per facet (1-100)") @RequestParam(defaultValue = "10") int facetLimit) {
+
+        TripSearchCriteria criteria = TripSearchCriteria.builder()
+                .keyword(keyword)
+                .pickup(pickup)
+                .destination(destination)
+                .receiver(receiver)
+                .status(status != null ? com.logifin.entity.Trip.TripStatus.valueOf(status) : null)
+                .loadType(loadType)
+                .minLoanAmount(minLoanAmount)
+                .maxLoanAmount(maxLoanAmount)
+                .createdFrom(createdFrom != null ? LocalDate.parse(createdFrom) : null)
+                .createdTo(createdTo != null ? LocalDate.parse(createdTo) : null)
+                .build();
+
+        TripFacetedSearchResultDTO result = tripService.facetedSearch(criteria, page, size, facetLimit);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
     @Operation(
             summary = "Get Trip Statistics",
             description = "Get trip statistics and analytics. Available to any authenticated user."
@@ -266,44 +437,62 @@ public class TripController {
 
     @Operation(
             summary = "Export Trips to CSV",
-            description = "Export trips to CSV file. Available to any authenticated user."
+            description = "Export trips to CSV file. Rows are streamed from the database as they are written, " +
+                    "and the response is gzip-encoded when the client sends Accept-Encoding: gzip. " +
+                    "Available to any authenticated user."
     )
     @GetMapping("/trips/export/csv")
-    public ResponseEntity<byte[]> exportTripsToCsv(
+    public ResponseEntity<StreamingResponseBody> exportTripsToCsv(
             @Parameter(description = "Transporter filter") @RequestParam(required = false) String transporter,
             @Parameter(description = "Status filter") @RequestParam(required = false) String status,
             @Parameter(description = "Start date (yyyy-MM-dd)") @RequestParam(required = false) String createdFrom,
-            @Parameter(description = "End date (yyyy-MM-dd)") @RequestParam(required = false) String createdTo) {
+            @Parameter(description = "End date (yyyy-MM-dd)") @RequestParam(required = false) String createdTo,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
         TripSearchCriteria criteria = buildExportCriteria(transporter, status, createdFrom, createdTo);
-        byte[] content = tripService.exportTripsToCsv(criteria);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, EXPORT_GZIP_BUFFER_SIZE);
+                tripService.writeTripsCsv(criteria, gzipOut);
+                gzipOut.finish();
+            } else {
+                tripService.writeTripsCsv(criteria, out);
+            }
+        };
 
         String filename = "trips_export_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(content);
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.parseMediaType("text/csv"));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @Operation(
             summary = "Export Trips to Excel",
-            description = "Export trips to Excel file. Available to any authenticated user."
+            description = "Export trips to Excel file. The workbook is written to the response as rows are read " +
+                    "from the database, keeping memory use flat for large exports. Available to any authenticated user."
     )
     @GetMapping("/trips/export/excel")
-    public ResponseEntity<byte[]> exportTripsToExcel(
+    public ResponseEntity<StreamingResponseBody> exportTripsToExcel(
             @Parameter(description = "Transporter filter") @RequestParam(required = false) String transporter,
             @Parameter(description = "Status filter") @RequestParam(required = false) String status,
             @Parameter(description = "Start date (yyyy-MM-dd)") @RequestParam(required = false) String createdFrom,
             @Parameter(description = "End date (yyyy-MM-dd)") @RequestParam(required = false) String createdTo) {
 
         TripSearchCriteria criteria = buildExportCriteria(transporter, status, createdFrom, createdTo);
-        byte[] content = tripService.exportTripsToExcel(criteria);
+        StreamingResponseBody body = out -> tripService.writeTripsExcel(criteria, out);
 
         String filename = "trips_export_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx";
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(content);
+                .body(body);
     }
 
     // ==================== Document Operations ====================
@@ -324,6 +513,44 @@ public class TripController {
                 .body(ApiResponse.success("Document uploaded successfully", uploaded));
     }
 
+    @Operation(
+            summary = "Upload Trip Document File",
+            description = "Upload a document for a trip as multipart/form-data binary content. " +
+                    "Preferred over the base64 JSON endpoint for large files. Requires TRANSPORTER role."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "201",
+                    description = "Document uploaded successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "File missing or empty",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "413",
+                    description = "File larger than the allowed size",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Trip or document type not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @PostMapping(value = "/trip/{tripId}/document/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('TRANSPORTER')")
+    public ResponseEntity<ApiResponse<TripDocumentDTO.TripDocumentMetadataDTO>> uploadDocumentFile(
+            @Parameter(description = "Trip ID") @PathVariable Long tripId,
+            @Parameter(description = "Document type code (e.g., EWAY_BILL, BILTY, POD)") @RequestParam String documentTypeCode,
+            @Parameter(description = "Document reference number") @RequestParam(required = false) String documentNumber,
+            @Parameter(description = "Document file") @RequestParam("file") MultipartFile file,
+            @CurrentUser UserPrincipal currentUser) {
+        TripDocumentDTO.TripDocumentMetadataDTO uploaded = tripService.uploadDocumentFile(
+                tripId, documentTypeCode.toUpperCase(), documentNumber, file, currentUser.getId());
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Document uploaded successfully", uploaded));
+    }
+
     @Operation(
             summary = "Get Trip Documents",
             description = "Get all documents for a trip. Available to any authenticated user."
@@ -372,6 +599,32 @@ public class TripController {
                 .body(data);
     }
 
+    @Operation(
+            summary = "Get Document Thumbnail",
+            description = "Get a small JPEG preview of an image or PDF document. The response is cacheable " +
+                    "for a year; the thumbnail URL in document listings changes when the document is replaced. " +
+                    "Available to any authenticated user."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Thumbnail image"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Document not found or thumbnail not generated yet",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @GetMapping("/trip/document/{documentId}/thumbnail")
+    public ResponseEntity<byte[]> getDocumentThumbnail(
+            @Parameter(description = "Document ID") @PathVariable Long documentId) {
+        BinaryContentDTO thumbnail = documentThumbnailService.getThumbnail(documentId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate())
+                .eTag(thumbnail.getEtag())
+                .contentType(MediaType.parseMediaType(thumbnail.getContentType()))
+                .body(thumbnail.getData());
+    }
+
     @Operation(
             summary = "Delete Document",
             description = "Delete a trip document. Requires TRANSPORTER role."
@@ -431,4 +684,33 @@ public class TripController {
                 .createdTo(createdTo != null ? LocalDate.parse(createdTo) : null)
                 .build();
     }
+
+    /**
+     * Whether an Accept-Encoding header lists gzip with a non-zero quality (e.g. "gzip;q=0" refuses it)
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            if (!name.equals("gzip") && !name.equals("x-gzip")) {
+                continue;
+            }
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().toLowerCase();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            return quality > 0;
+        }
+        return false;
+    }
 }
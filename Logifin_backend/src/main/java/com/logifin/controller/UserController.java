@@ -281,7 +281,9 @@ public class UserController {
 
     @Operation(
             summary = "Search Users (Paginated)",
-            description = "Search users by keyword (first name, last name, or email) with pagination support. Requires CSR, ADMIN, or SUPER_ADMIN role."
+            description = "Search users by keyword (first name, last name, or email) with pagination support. " +
+                    "With ranked=true results are ordered by relevance (trigram similarity, tolerates typos). " +
+                    "Requires CSR, ADMIN, or SUPER_ADMIN role."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -292,13 +294,16 @@ public class UserController {
     @GetMapping("/search/paged")
     public ResponseEntity<ApiResponse<PagedResponse<UserDTO>>> searchUsersPaged(
             @Parameter(description = "Keyword to search for") @RequestParam String keyword,
+            @Parameter(description = "Order by relevance instead of sortBy") @RequestParam(defaultValue = "false") boolean ranked,
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "createdAt") String sortBy,
             @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        PagedResponse<UserDTO> users = userService.searchUsers(keyword, pageable);
+        PagedResponse<UserDTO> users = ranked
+                ? userService.searchUsersRanked(keyword, pageable)
+                : userService.searchUsers(keyword, pageable);
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 
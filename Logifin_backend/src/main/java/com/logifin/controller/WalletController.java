@@ -15,13 +15,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/wallets")
@@ -165,6 +168,21 @@ public class WalletController {
                 .body(ApiResponse.success("Repayment transfer completed successfully", response));
     }
 
+    @PostMapping(value = "/transactions/{transactionId}/proof", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Upload payment proof",
+               description = "Attach a proof of payment to an existing transaction as multipart/form-data binary content. " +
+                           "Preferred over the 'proofImageBase64' JSON field for large images.")
+    public ResponseEntity<ApiResponse<TransactionDocumentDTO>> uploadProof(
+            @PathVariable UUID transactionId,
+            @RequestParam("file") MultipartFile file) {
+
+        TransactionDocumentDTO document = walletService.uploadProofDocument(transactionId, file);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Proof uploaded successfully", document));
+    }
+
     @GetMapping("/statement/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'LENDER', 'TRANSPORTER', 'TRUST_ACCOUNT')")
     @Operation(summary = "Get wallet statement",
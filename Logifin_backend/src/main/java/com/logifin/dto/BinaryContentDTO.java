@@ -0,0 +1,22 @@
+package com.logifin.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Binary content served directly to the client (not wrapped in ApiResponse).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BinaryContentDTO {
+    private byte[] data;
+    private String contentType;
+    private String fileName;
+    private Long size;
+    private String etag;
+    private LocalDateTime lastModified;
+}
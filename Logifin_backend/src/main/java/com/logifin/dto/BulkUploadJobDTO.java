@@ -0,0 +1,63 @@
+package com.logifin.dto;
+
+import com.logifin.entity.BulkUploadJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for asynchronous bulk upload jobs.
+ * Reports progress, throughput and a page of the accumulated row errors.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Status and progress of an asynchronous bulk trip upload")
+public class BulkUploadJobDTO {
+
+    @Schema(description = "Job ID", example = "3f2b6c1e-8d4a-4b7e-9a51-2c0f4e6d7a90")
+    private UUID jobId;
+
+    @Schema(description = "Uploaded file name", example = "trips.xlsx")
+    private String fileName;
+
+    @Schema(description = "Job status", example = "PROCESSING")
+    private BulkUploadJob.JobStatus status;
+
+    @Schema(description = "Number of data rows processed so far", example = "12500")
+    private int processedRows;
+
+    @Schema(description = "Number of trips created so far", example = "12480")
+    private int successCount;
+
+    @Schema(description = "Number of failed rows so far", example = "20")
+    private int failureCount;
+
+    @Schema(description = "Last file row committed (1-indexed, row 1 is the header)", example = "12501")
+    private int lastRowNumber;
+
+    @Schema(description = "Average throughput since the job started, in rows per second", example = "850.5")
+    private Double rowsPerSecond;
+
+    @Schema(description = "Reason the job failed, if it did")
+    private String errorMessage;
+
+    @Schema(description = "When the job was submitted")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "When processing started")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "When processing finished")
+    private LocalDateTime completedAt;
+
+    @Schema(description = "Requested page of row errors, in file row order")
+    @Builder.Default
+    private List<ErrorRowDTO> errors = new ArrayList<>();
+}
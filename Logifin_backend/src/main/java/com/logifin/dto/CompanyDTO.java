@@ -1,5 +1,6 @@
 package com.logifin.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import javax.validation.constraints.Email;
@@ -23,8 +24,13 @@ public class CompanyDTO {
     @Size(max = 150, message = "Display name must not exceed 150 characters")
     private String displayName;
 
+    // Accepted on create/update (empty string removes the logo); responses carry logoUrl instead
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String logoBase64;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String logoUrl;
+
     private String description;
 
     @Size(max = 255, message = "Website must not exceed 255 characters")
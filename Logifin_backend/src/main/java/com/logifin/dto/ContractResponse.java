@@ -27,15 +27,15 @@ public class ContractResponse {
 
     // ==================== Contract Document ====================
 
-    @Schema(description = "Contract document encoded as base16 (hexadecimal) string")
-    private String contractDocument;
-
     @Schema(description = "Name of the contract document file", example = "contract_agreement.pdf")
     private String contractDocumentName;
 
     @Schema(description = "MIME type of the document", example = "application/pdf")
     private String contractDocumentContentType;
 
+    @Schema(description = "Link to download the contract document", example = "/api/v1/contracts/1/document")
+    private String contractDocumentUrl;
+
     // ==================== Financial Terms ====================
 
     @Schema(description = "Loan percentage", example = "75.50")
@@ -0,0 +1,51 @@
+package com.logifin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the precomputed contract statistics snapshot.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Contract statistics as of the last snapshot refresh")
+public class ContractStatisticsDTO {
+
+    @Schema(description = "Time the snapshot was computed", example = "2024-01-15T10:30:00")
+    private LocalDateTime asOf;
+
+    @Schema(description = "Total number of contracts", example = "1200")
+    private long totalContracts;
+
+    @Schema(description = "Average loan percent", example = "75.5")
+    private BigDecimal averageLoanPercent;
+
+    @Schema(description = "Average loan-to-value ratio", example = "80.0")
+    private BigDecimal averageLtv;
+
+    @Schema(description = "Average penalty ratio", example = "5.0")
+    private BigDecimal averagePenaltyRatio;
+
+    @Schema(description = "Contract count by type")
+    private Map<String, Long> contractsByType;
+
+    @Schema(description = "Contract count by status")
+    private Map<String, Long> contractsByStatus;
+
+    @Schema(description = "Contract count by loan stage")
+    private Map<String, Long> contractsByLoanStage;
+
+    @Schema(description = "Top contract managers (id, firstName, lastName, contractCount)")
+    private List<Map<String, Object>> topContractManagers;
+
+    @Schema(description = "Top consigner companies (id, name, contractCount)")
+    private List<Map<String, Object>> topConsignerCompanies;
+}
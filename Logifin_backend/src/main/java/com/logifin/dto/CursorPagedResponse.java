@@ -0,0 +1,33 @@
+package com.logifin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Generic cursor-paginated response wrapper.
+ * Unlike PagedResponse there is no page number; the next page is requested with nextCursor.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Cursor-paginated response")
+public class CursorPagedResponse<T> {
+
+    private List<T> content;
+
+    @Schema(description = "Requested page size", example = "20")
+    private int size;
+
+    @Schema(description = "Whether more results follow this page")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque cursor for the next page, null on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Total number of matches, only present when requested", example = "1500")
+    private Long totalElements;
+}
@@ -41,6 +41,10 @@ public class DocumentInfoDTO {
     @Schema(description = "File size in bytes", example = "102400")
     private Long fileSize;
 
+    @Schema(description = "Thumbnail URL (null until the preview has been generated)",
+            example = "/api/v1/trip/document/1/thumbnail?v=1735689600")
+    private String thumbnailUrl;
+
     @Schema(description = "Upload timestamp")
     private LocalDateTime uploadedAt;
 
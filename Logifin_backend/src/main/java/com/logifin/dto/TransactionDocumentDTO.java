@@ -0,0 +1,23 @@
+package com.logifin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionDocumentDTO {
+    private Long documentId;
+    private UUID transactionId;
+    private String documentType;
+    private String fileName;
+    private String mimeType;
+    private Integer fileSize;
+    private LocalDateTime uploadedAt;
+}
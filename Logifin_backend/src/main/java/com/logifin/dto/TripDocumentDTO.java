@@ -77,6 +77,7 @@ public class TripDocumentDTO {
         private String documentNumber;
         private String contentType;
         private Long fileSize;
+        private String thumbnailUrl;
         private Long uploadedByUserId;
         private String uploadedByUserName;
         private LocalDateTime createdAt;
@@ -0,0 +1,30 @@
+package com.logifin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * DTO for a faceted trip search: one page of trips plus counts over all matches.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Page of matching trips with facet counts over all matches")
+public class TripFacetedSearchResultDTO {
+
+    @Schema(description = "Requested page of matching trips")
+    private PagedResponse<TripResponseDTO> trips;
+
+    @Schema(description = "Matching trip count by status")
+    private Map<String, Long> statusCounts;
+
+    @Schema(description = "Matching trip count by load type")
+    private Map<String, Long> loadTypeCounts;
+
+    @Schema(description = "Most frequent pickup -> destination lanes among matching trips")
+    private Map<String, Long> topLanes;
+}
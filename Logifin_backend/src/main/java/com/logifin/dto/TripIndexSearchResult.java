@@ -0,0 +1,24 @@
+package com.logifin.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a trip search index query: one page of matching trip ids, in index order,
+ * plus the total hit count and facet counts over all matches.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TripIndexSearchResult {
+
+    private List<Long> tripIds;
+    private long totalHits;
+    private Map<String, Long> statusCounts;
+    private Map<String, Long> loadTypeCounts;
+    private Map<String, Long> topLanes;
+}
@@ -0,0 +1,35 @@
+package com.logifin.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Audit and optimistic locking columns shared by all entities.
+ * Entities that need a non-IDENTITY id strategy (e.g. for JDBC insert batching)
+ * extend this class directly and declare their own id.
+ */
+@Getter
+@Setter
+@MappedSuperclass
+public abstract class AuditableEntity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+}
@@ -0,0 +1,98 @@
+package com.logifin.entity;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity representing an asynchronous trip bulk upload.
+ * The uploaded file is stored with the job so it can be resumed after a restart;
+ * progress columns are updated together with each committed chunk of trips.
+ * Progress is written through repository update queries, so the file content is
+ * only loaded when a worker starts processing the job.
+ */
+@Entity
+@Table(name = "bulk_upload_jobs", indexes = {
+    @Index(name = "idx_buj_status_created_at", columnList = "status, created_at"),
+    @Index(name = "idx_buj_created_by", columnList = "created_by_user_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUploadJob {
+
+    @Id
+    @GeneratedValue(generator = "uuid2")
+    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @Column(name = "job_id", updatable = false, nullable = false)
+    private UUID jobId;
+
+    @NotNull(message = "Created by user ID is required")
+    @Column(name = "created_by_user_id", nullable = false)
+    private Long createdByUserId;
+
+    @NotBlank(message = "File name is required")
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "file_data", columnDefinition = "BYTEA")
+    @org.hibernate.annotations.Type(type = "org.hibernate.type.BinaryType")
+    private byte[] fileData;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private JobStatus status = JobStatus.QUEUED;
+
+    @Column(name = "last_row_number", nullable = false)
+    @Builder.Default
+    private Integer lastRowNumber = 0;
+
+    @Column(name = "processed_rows", nullable = false)
+    @Builder.Default
+    private Integer processedRows = 0;
+
+    @Column(name = "success_count", nullable = false)
+    @Builder.Default
+    private Integer successCount = 0;
+
+    @Column(name = "failure_count", nullable = false)
+    @Builder.Default
+    private Integer failureCount = 0;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "claim_token")
+    private UUID claimToken;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /**
+     * Job status enumeration
+     */
+    public enum JobStatus {
+        QUEUED,
+        PROCESSING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,49 @@
+package com.logifin.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity representing one failed row of a bulk upload job.
+ * Mirrors ErrorRowDTO; the error messages are stored newline-separated.
+ */
+@Entity
+@Table(name = "bulk_upload_job_errors", indexes = {
+    @Index(name = "idx_buje_job_row", columnList = "job_id, row_number")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUploadJobError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private UUID jobId;
+
+    @Column(name = "row_number", nullable = false)
+    private Integer rowNumber;
+
+    @Column(name = "row_identifier", length = 500)
+    private String rowIdentifier;
+
+    @Column(name = "error_type", nullable = false, length = 30)
+    private String errorType;
+
+    @Column(name = "messages", columnDefinition = "TEXT")
+    private String messages;
+
+    @Column(name = "raw_data", columnDefinition = "TEXT")
+    private String rawData;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
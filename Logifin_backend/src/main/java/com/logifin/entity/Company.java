@@ -33,8 +33,9 @@ public class Company extends BaseEntity {
     @Column(name = "display_name", length = 150)
     private String displayName;
 
-    @Column(name = "logo_base64", columnDefinition = "TEXT")
-    private String logoBase64;
+    // Content hash of the logo in company_logos, null when the company has no logo
+    @Column(name = "logo_hash", length = 64)
+    private String logoHash;
 
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
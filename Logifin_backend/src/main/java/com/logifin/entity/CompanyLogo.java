@@ -0,0 +1,50 @@
+package com.logifin.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding the normalized logo image of a company.
+ * Kept out of the companies table so company reads, lists and cache entries carry
+ * only the logo URL; the image is read only by the logo endpoint.
+ */
+@Entity
+@Table(name = "company_logos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompanyLogo {
+
+    @Id
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id")
+    private Company company;
+
+    @Column(name = "logo_data", nullable = false, columnDefinition = "BYTEA")
+    @org.hibernate.annotations.Type(type = "org.hibernate.type.BinaryType")
+    private byte[] logoData;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    // MD5 of logoData, used as the ETag and to version the logo URL
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -11,7 +11,8 @@ import java.util.Set;
 
 /**
  * Entity representing a contract agreement
- * Main table storing contract details including financial terms and document
+ * Main table storing contract details including financial terms and document metadata.
+ * The document itself lives in ContractDocument and is only read on download.
  */
 @Entity
 @Table(name = "contracts", indexes = {
@@ -32,12 +33,7 @@ import java.util.Set;
 @Builder
 public class Contract extends BaseEntity {
 
-    // Contract Document stored as base16 (hexadecimal) encoded string
-    @NotBlank(message = "Contract document is required")
-    @Column(name = "contract_document", nullable = false, columnDefinition = "TEXT")
-    @Lob
-    private String contractDocument;
-
+    // Contract Document metadata (content is stored in contract_documents)
     @Size(max = 255, message = "Document name must not exceed 255 characters")
     @Column(name = "contract_document_name", length = 255)
     private String contractDocumentName;
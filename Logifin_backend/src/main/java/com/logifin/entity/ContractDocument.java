@@ -0,0 +1,49 @@
+package com.logifin.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding the document of a contract.
+ * Kept out of the contracts table so contract reads, lists and cache entries carry
+ * only document metadata; the bytes are read only when the document is downloaded.
+ */
+@Entity
+@Table(name = "contract_documents")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractDocument {
+
+    @Id
+    @Column(name = "contract_id")
+    private Long contractId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "contract_id")
+    private Contract contract;
+
+    @Column(name = "document_data", nullable = false, columnDefinition = "BYTEA")
+    @org.hibernate.annotations.Type(type = "org.hibernate.type.BinaryType")
+    private byte[] documentData;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,60 @@
+package com.logifin.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * Entity holding one precomputed contract count of the statistics snapshot,
+ * e.g. the number of contracts of one type or managed by one user.
+ */
+@Entity
+@Table(name = "contract_stat_counts",
+    indexes = {
+        @Index(name = "idx_csc_dimension_sort_order", columnList = "dimension, sort_order")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractStatCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 20)
+    private Dimension dimension;
+
+    // Id of the manager or company; null for the other dimensions
+    @Column(name = "ref_id")
+    private Long refId;
+
+    @Column(name = "label", length = 255)
+    private String label;
+
+    // Manager last name; null for the other dimensions
+    @Column(name = "secondary_label", length = 255)
+    private String secondaryLabel;
+
+    @Column(name = "contract_count", nullable = false)
+    private long contractCount;
+
+    // Order within the dimension, as the grouping query returned it
+    @Column(name = "sort_order", nullable = false)
+    private int sortOrder;
+
+    /**
+     * What a count is grouped by
+     */
+    public enum Dimension {
+        TYPE,       // Contract type name
+        STATUS,     // Contract status
+        LOAN_STAGE, // Loan stage name
+        MANAGER,    // Contract manager, top N by count
+        COMPANY     // Consigner company, top N by count
+    }
+}
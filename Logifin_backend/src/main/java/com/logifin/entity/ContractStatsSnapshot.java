@@ -0,0 +1,48 @@
+package com.logifin.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding the precomputed contract totals and averages, one row for the whole table.
+ * Its per-dimension counts are ContractStatCount rows; both are replaced together by the
+ * contract statistics refresh, so readers always see one consistent snapshot.
+ */
+@Entity
+@Table(name = "contract_stats_snapshot")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractStatsSnapshot {
+
+    /** Id of the single snapshot row */
+    public static final Long SNAPSHOT_ID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "total_contracts", nullable = false)
+    private long totalContracts;
+
+    @Column(name = "average_loan_percent", precision = 9, scale = 4)
+    private BigDecimal averageLoanPercent;
+
+    @Column(name = "average_ltv", precision = 9, scale = 4)
+    private BigDecimal averageLtv;
+
+    @Column(name = "average_penalty_ratio", precision = 9, scale = 4)
+    private BigDecimal averagePenaltyRatio;
+
+    // Null until the first refresh
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+
+    @Column(name = "refresh_duration_ms", nullable = false)
+    private long refreshDurationMs;
+}
@@ -0,0 +1,60 @@
+package com.logifin.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing one trip in a lender's financeable-trips feed.
+ * Rows are derived data, written only by LenderTripFeedService; ids are kept as plain
+ * columns so maintenance runs as set-based SQL without loading trips or users.
+ */
+@Entity
+@Table(name = "lender_trip_feed", indexes = {
+    @Index(name = "idx_ltf_lender_created", columnList = "lender_id, trip_created_at, trip_id"),
+    @Index(name = "idx_ltf_trip", columnList = "trip_id")
+})
+@IdClass(LenderTripFeedEntry.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LenderTripFeedEntry {
+
+    @Id
+    @Column(name = "lender_id")
+    private Long lenderId;
+
+    @Id
+    @Column(name = "trip_id")
+    private Long tripId;
+
+    /**
+     * Copy of trips.created_at so the feed is ordered from its own index
+     */
+    @Column(name = "trip_created_at", nullable = false)
+    private LocalDateTime tripCreatedAt;
+
+    /**
+     * Latest expiry date among the contracts that make the trip financeable
+     */
+    @Column(name = "valid_until", nullable = false)
+    private LocalDate validUntil;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long lenderId;
+        private Long tripId;
+    }
+}
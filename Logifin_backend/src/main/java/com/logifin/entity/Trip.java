@@ -13,12 +13,14 @@ import java.util.List;
  * Contains route details, financial terms, and cargo specifications.
  * Documents (EWAY_BILL, BILTY, TRUCK_INVOICE, POD, FINAL_INVOICE) are stored in trip_documents table.
  * E-way Bill Number is stored in trip_documents with document_type = EWAY_BILL.
+ * Ids come from a pooled sequence (not IDENTITY) so inserts can be JDBC-batched during bulk upload.
  */
 @Entity
 @Table(name = "trips", indexes = {
     @Index(name = "idx_trip_sender", columnList = "sender_user_id"),
     @Index(name = "idx_trip_transporter", columnList = "transporter_user_id"),
     @Index(name = "idx_trip_created_at", columnList = "created_at"),
+    @Index(name = "idx_trip_created_at_id", columnList = "created_at DESC, id DESC"),
     @Index(name = "idx_trip_pickup", columnList = "pickup"),
     @Index(name = "idx_trip_destination", columnList = "destination"),
     @Index(name = "idx_trip_created_by", columnList = "created_by_user_id")
@@ -28,7 +30,14 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Trip extends BaseEntity {
+public class Trip extends AuditableEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_id_generator")
+    @SequenceGenerator(name = "trip_id_generator", sequenceName = "trips_id_seq", allocationSize = 50)
+    private Long id;
 
     @NotBlank(message = "Pickup location is required")
     @Size(max = 255, message = "Pickup location must not exceed 255 characters")
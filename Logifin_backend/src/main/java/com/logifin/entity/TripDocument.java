@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
  * Entity representing documents attached to a Trip.
  * Supports multiple document types: E-Way Bill, Bilty, Advance Invoice, POD, Final Invoice.
  * Each document can have an optional reference number (e.g., E-way Bill Number, Bilty Number).
+ * Ids come from a pooled sequence (not IDENTITY) so inserts can be JDBC-batched.
  */
 @Entity
 @Table(name = "trip_documents", indexes = {
@@ -26,7 +27,8 @@ import java.time.LocalDateTime;
 public class TripDocument {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_document_id_generator")
+    @SequenceGenerator(name = "trip_document_id_generator", sequenceName = "trip_documents_id_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Trip is required")
@@ -54,6 +56,17 @@ public class TripDocument {
     @Column(name = "file_size")
     private Long fileSize;
 
+    @Column(name = "thumbnail_data", columnDefinition = "BYTEA")
+    @org.hibernate.annotations.Type(type = "org.hibernate.type.BinaryType")
+    private byte[] thumbnailData;
+
+    @Size(max = 50, message = "Thumbnail content type must not exceed 50 characters")
+    @Column(name = "thumbnail_content_type", length = 50)
+    private String thumbnailContentType;
+
+    @Column(name = "thumbnail_generated_at")
+    private LocalDateTime thumbnailGeneratedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploaded_by_user_id")
     private User uploadedByUser;
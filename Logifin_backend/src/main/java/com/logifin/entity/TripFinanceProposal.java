@@ -36,7 +36,9 @@ import java.time.LocalDateTime;
 public class TripFinanceProposal {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_finance_proposal_id_generator")
+    @SequenceGenerator(name = "trip_finance_proposal_id_generator",
+            sequenceName = "trip_finance_proposals_id_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Trip is required")
@@ -90,6 +92,7 @@ public class TripFinanceProposal {
         PENDING,    // Waiting for transporter's decision
         ACCEPTED,   // Transporter accepted this proposal
         REJECTED,   // Transporter rejected this proposal
-        WITHDRAWN   // Lender withdrew this proposal
+        WITHDRAWN,  // Lender withdrew this proposal
+        EXPIRED     // Swept while pending: trip closed, contract ended, or left unanswered too long
     }
 }
@@ -0,0 +1,43 @@
+package com.logifin.event;
+
+import com.logifin.config.AsyncConfig;
+import com.logifin.service.BulkUploadJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Runs bulk upload jobs on the bounded bulk upload executor.
+ * Jobs are dispatched after the submitting transaction commits, and jobs left
+ * queued or interrupted by a shutdown are re-dispatched once the application is ready.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkUploadJobEventListener {
+
+    private final BulkUploadJobService bulkUploadJobService;
+
+    @Async(AsyncConfig.BULK_UPLOAD_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobSubmitted(BulkUploadJobSubmittedEvent event) {
+        try {
+            bulkUploadJobService.runJob(event.getJobId());
+        } catch (Exception e) {
+            log.error("Error running bulk upload job {}: {}", event.getJobId(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            bulkUploadJobService.resumePendingJobs();
+        } catch (Exception e) {
+            log.error("Error resuming bulk upload jobs: {}", e.getMessage());
+        }
+    }
+}
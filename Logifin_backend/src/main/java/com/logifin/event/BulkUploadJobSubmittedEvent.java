@@ -0,0 +1,17 @@
+package com.logifin.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Published when a bulk upload job is ready to be processed.
+ * Listeners run after the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkUploadJobSubmittedEvent {
+
+    private final UUID jobId;
+}
@@ -0,0 +1,19 @@
+package com.logifin.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Published when a contract is created, deleted, or its status, expiry or parties change.
+ * Carries the party user ids from before and after the change, so trips that stop
+ * qualifying through the contract are found as well as trips that start to.
+ */
+@Getter
+@AllArgsConstructor
+public class ContractPartiesChangedEvent {
+
+    private final Long contractId;
+    private final Set<Long> partyUserIds;
+}
@@ -0,0 +1,40 @@
+package com.logifin.event;
+
+import com.logifin.service.ContractPartyIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the in-memory three-party contract index in step with contract changes.
+ * Refreshes run after commit, so the index never shows a contract that was rolled back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContractPartyIndexEventListener {
+
+    private final ContractPartyIndexService contractPartyIndexService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContractPartiesChanged(ContractPartiesChangedEvent event) {
+        try {
+            contractPartyIndexService.refreshContract(event.getContractId());
+        } catch (Exception e) {
+            log.error("Error refreshing contract party index for contract {}: {}",
+                    event.getContractId(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            contractPartyIndexService.rebuild();
+        } catch (Exception e) {
+            log.error("Error building contract party index: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.logifin.event;
+
+import com.logifin.service.ContractPartyIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Propagates contract party changes between instances, each of which keeps its own
+ * three-party contract index. Receivers re-read the contract from the database, so
+ * a contract created elsewhere, or one that lost a party, is reflected everywhere.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster-sync.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ContractPartyIndexSync implements MessageListener {
+
+    public static final String CHANNEL = "contracts:parties-changed";
+
+    private static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ContractPartyIndexService contractPartyIndexService;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContractPartiesChanged(ContractPartiesChangedEvent event) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + event.getContractId());
+        } catch (RuntimeException e) {
+            // Other instances still confirm index hits against the database before using them
+            log.error("Error publishing contract party change {}: {}", event.getContractId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 2);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            contractPartyIndexService.refreshContract(Long.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed contract party change message: {}", parts[1]);
+        } catch (Exception e) {
+            log.error("Error refreshing contract party index for contract {}: {}", parts[1], e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.logifin.event;
+
+import com.logifin.service.LenderTripFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the lender financeable-trips feed in step with trips, contracts and proposals.
+ * Runs just before the publishing transaction commits, so the feed never lags the data
+ * and a failed refresh rolls the change back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LenderTripFeedEventListener {
+
+    private final LenderTripFeedService lenderTripFeedService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTripsChanged(TripsChangedEvent event) {
+        List<Long> tripIds = new ArrayList<>(event.getDeletedTripIds());
+        event.getSavedTrips().forEach(trip -> tripIds.add(trip.getId()));
+        lenderTripFeedService.refreshTrips(tripIds);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onContractPartiesChanged(ContractPartiesChangedEvent event) {
+        log.debug("Refreshing lender trip feed for contract {}", event.getContractId());
+        lenderTripFeedService.refreshTripsOfUsers(event.getPartyUserIds());
+    }
+}
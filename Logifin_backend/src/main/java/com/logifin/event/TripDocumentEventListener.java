@@ -0,0 +1,31 @@
+package com.logifin.event;
+
+import com.logifin.config.AsyncConfig;
+import com.logifin.service.DocumentThumbnailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Listens for trip document uploads and generates previews on the bounded preview executor.
+ * Runs only after the upload transaction has committed, so the document row is visible.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TripDocumentEventListener {
+
+    private final DocumentThumbnailService documentThumbnailService;
+
+    @Async(AsyncConfig.DOCUMENT_PREVIEW_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentUploaded(TripDocumentUploadedEvent event) {
+        try {
+            documentThumbnailService.generateThumbnail(event.getDocumentId());
+        } catch (Exception e) {
+            log.error("Error generating thumbnail for document {}: {}", event.getDocumentId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.logifin.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when the binary content of a trip document is created or replaced.
+ * Listeners run after the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class TripDocumentUploadedEvent {
+
+    private final Long documentId;
+}
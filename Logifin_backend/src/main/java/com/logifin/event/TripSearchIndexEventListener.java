@@ -0,0 +1,75 @@
+package com.logifin.event;
+
+import com.logifin.config.AsyncConfig;
+import com.logifin.repository.projection.TripExportRow;
+import com.logifin.service.TripSearchIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the trip search index in step with the database.
+ * Everything runs on the single-threaded search index executor, so changes are applied
+ * in commit order and changes committed during a rebuild are applied after it. Changes
+ * made on other instances arrive through TripSearchIndexSync.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TripSearchIndexEventListener {
+
+    private final TripSearchIndexService tripSearchIndexService;
+
+    @Value("${app.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Async(AsyncConfig.SEARCH_INDEX_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsChanged(TripsChangedEvent event) {
+        try {
+            if (!event.getSavedTrips().isEmpty()) {
+                tripSearchIndexService.upsert(event.getSavedTrips().stream()
+                        .map(TripExportRow::from)
+                        .collect(Collectors.toList()));
+            }
+            if (!event.getDeletedTripIds().isEmpty()) {
+                tripSearchIndexService.delete(event.getDeletedTripIds());
+            }
+        } catch (Exception e) {
+            log.error("Error updating trip search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply trips changed on another instance, reading their current state from the database
+     */
+    @Async(AsyncConfig.SEARCH_INDEX_EXECUTOR)
+    public void onRemoteTripsChanged(List<Long> tripIds) {
+        try {
+            tripSearchIndexService.reindex(tripIds);
+        } catch (Exception e) {
+            log.error("Error applying remote trip changes to search index: {}", e.getMessage());
+        }
+    }
+
+    @Async(AsyncConfig.SEARCH_INDEX_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            tripSearchIndexService.rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding trip search index: {}", e.getMessage());
+        }
+    }
+}
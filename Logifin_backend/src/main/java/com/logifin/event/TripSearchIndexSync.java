@@ -0,0 +1,74 @@
+package com.logifin.event;
+
+import com.logifin.entity.Trip;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Propagates trip changes between instances, each of which keeps its own search index.
+ * Only trip ids travel: receivers re-read the trips from the database, so a message
+ * applied late or twice still leaves the index matching the database. A message missed
+ * while an instance is down is covered by the rebuild on its startup.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster-sync.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class TripSearchIndexSync implements MessageListener {
+
+    public static final String CHANNEL = "trips:changed";
+
+    private static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate redisTemplate;
+    private final TripSearchIndexEventListener tripSearchIndexEventListener;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsChanged(TripsChangedEvent event) {
+        List<Long> tripIds = Stream.concat(
+                        event.getSavedTrips().stream().map(Trip::getId),
+                        event.getDeletedTripIds().stream())
+                .collect(Collectors.toList());
+        if (tripIds.isEmpty()) {
+            return;
+        }
+        String message = nodeId + SEPARATOR + tripIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (RuntimeException e) {
+            // Other instances pick the change up on their next rebuild
+            log.error("Error publishing trip changes {}: {}", tripIds, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 2);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            List<Long> tripIds = Arrays.stream(parts[1].split(","))
+                    .map(Long::valueOf)
+                    .collect(Collectors.toList());
+            tripSearchIndexEventListener.onRemoteTripsChanged(tripIds);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed trip change message: {}", parts[1]);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.logifin.event;
+
+import com.logifin.entity.Trip;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Published when trips are created, updated or deleted, so derived data (the search index)
+ * can follow. Listeners run after the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TripsChangedEvent {
+
+    private final List<Trip> savedTrips;
+    private final List<Long> deletedTripIds;
+
+    public static TripsChangedEvent saved(List<Trip> trips) {
+        return new TripsChangedEvent(trips, Collections.emptyList());
+    }
+
+    public static TripsChangedEvent deleted(Long tripId) {
+        return new TripsChangedEvent(Collections.emptyList(), Collections.singletonList(tripId));
+    }
+}
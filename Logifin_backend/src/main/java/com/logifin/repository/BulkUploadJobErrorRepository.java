@@ -0,0 +1,21 @@
+package com.logifin.repository;
+
+import com.logifin.entity.BulkUploadJobError;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository for BulkUploadJobError entity.
+ */
+@Repository
+public interface BulkUploadJobErrorRepository extends JpaRepository<BulkUploadJobError, Long> {
+
+    /**
+     * Find the errors of a job in file row order
+     */
+    Page<BulkUploadJobError> findByJobIdOrderByRowNumberAscIdAsc(UUID jobId, Pageable pageable);
+}
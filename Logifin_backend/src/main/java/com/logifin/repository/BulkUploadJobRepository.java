@@ -0,0 +1,101 @@
+package com.logifin.repository;
+
+import com.logifin.entity.BulkUploadJob;
+import com.logifin.repository.projection.BulkUploadJobView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for BulkUploadJob entity.
+ * Status and progress are read and written with targeted queries so the stored
+ * upload file is never loaded just to report or advance progress.
+ */
+@Repository
+public interface BulkUploadJobRepository extends JpaRepository<BulkUploadJob, UUID> {
+
+    /**
+     * Find job status and progress without the file content
+     */
+    @Query("SELECT j.jobId AS jobId, j.createdByUserId AS createdByUserId, j.fileName AS fileName, " +
+           "j.status AS status, j.lastRowNumber AS lastRowNumber, j.processedRows AS processedRows, " +
+           "j.successCount AS successCount, j.failureCount AS failureCount, j.errorMessage AS errorMessage, " +
+           "j.createdAt AS createdAt, j.startedAt AS startedAt, j.completedAt AS completedAt " +
+           "FROM BulkUploadJob j WHERE j.jobId = :jobId")
+    Optional<BulkUploadJobView> findViewById(@Param("jobId") UUID jobId);
+
+    /**
+     * Load the uploaded file content of a job
+     */
+    @Query("SELECT j.fileData FROM BulkUploadJob j WHERE j.jobId = :jobId")
+    Optional<byte[]> findFileDataById(@Param("jobId") UUID jobId);
+
+    /**
+     * Claim a job for processing under a new claim token. Succeeds for queued jobs, and for
+     * jobs still marked PROCESSING whose worker stopped sending heartbeats (e.g. the node was
+     * restarted). Taking over a job replaces the token, which fences off the previous worker.
+     * @return 1 if this caller now owns the job, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE BulkUploadJob j SET j.status = :processing, j.claimToken = :claimToken, " +
+           "j.startedAt = COALESCE(j.startedAt, :now), j.heartbeatAt = :now " +
+           "WHERE j.jobId = :jobId AND (j.status = :queued " +
+           "OR (j.status = :processing AND j.heartbeatAt < :staleBefore))")
+    int claim(@Param("jobId") UUID jobId, @Param("claimToken") UUID claimToken,
+              @Param("queued") BulkUploadJob.JobStatus queued,
+              @Param("processing") BulkUploadJob.JobStatus processing, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Refresh the heartbeat of a job still owned by the claim token
+     * @return 0 if the job was taken over by another worker
+     */
+    @Modifying
+    @Query("UPDATE BulkUploadJob j SET j.heartbeatAt = :now " +
+           "WHERE j.jobId = :jobId AND j.claimToken = :claimToken")
+    int heartbeat(@Param("jobId") UUID jobId, @Param("claimToken") UUID claimToken,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Record a committed chunk: advance the resume point, add to the counters and refresh the heartbeat
+     * @return 0 if the job was taken over by another worker
+     */
+    @Modifying
+    @Query("UPDATE BulkUploadJob j SET j.lastRowNumber = :lastRowNumber, " +
+           "j.processedRows = j.processedRows + :successDelta + :failureDelta, " +
+           "j.successCount = j.successCount + :successDelta, j.failureCount = j.failureCount + :failureDelta, " +
+           "j.heartbeatAt = :now WHERE j.jobId = :jobId AND j.claimToken = :claimToken")
+    int recordChunk(@Param("jobId") UUID jobId, @Param("claimToken") UUID claimToken,
+                    @Param("lastRowNumber") int lastRowNumber,
+                    @Param("successDelta") int successDelta, @Param("failureDelta") int failureDelta,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * Finish a job owned by the claim token and release its stored file
+     * @return 0 if the job was taken over by another worker
+     */
+    @Modifying
+    @Query("UPDATE BulkUploadJob j SET j.status = :status, j.errorMessage = :errorMessage, " +
+           "j.completedAt = :now, j.heartbeatAt = :now, j.fileData = NULL " +
+           "WHERE j.jobId = :jobId AND j.claimToken = :claimToken")
+    int finish(@Param("jobId") UUID jobId, @Param("claimToken") UUID claimToken,
+               @Param("status") BulkUploadJob.JobStatus status,
+               @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+
+    /**
+     * Find jobs a worker can pick up: queued jobs and jobs abandoned mid-processing, oldest first
+     */
+    @Query("SELECT j.jobId FROM BulkUploadJob j " +
+           "WHERE j.status = :queued OR (j.status = :processing AND j.heartbeatAt < :staleBefore) " +
+           "ORDER BY j.createdAt ASC")
+    List<UUID> findRunnableJobIds(@Param("queued") BulkUploadJob.JobStatus queued,
+                                  @Param("processing") BulkUploadJob.JobStatus processing,
+                                  @Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -0,0 +1,19 @@
+package com.logifin.repository;
+
+import com.logifin.entity.CompanyLogo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CompanyLogoRepository extends JpaRepository<CompanyLogo, Long> {
+
+    /**
+     * Delete a company's logo, when it is removed or ahead of deleting the company itself
+     */
+    @Modifying
+    @Query("DELETE FROM CompanyLogo l WHERE l.companyId = :companyId")
+    int deleteByCompanyId(@Param("companyId") Long companyId);
+}
@@ -53,6 +53,28 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
            "OR LOWER(c.state) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<Company> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
+    /**
+     * Search companies by keyword, most relevant first (PostgreSQL pg_trgm).
+     * Matches substrings like searchByKeyword plus near misses through the trigram % operator.
+     * The Pageable must be unsorted.
+     */
+    @Query(value = "SELECT c.* FROM companies c WHERE " + COMPANY_RANKED_FILTER +
+                   " ORDER BY GREATEST(similarity(lower(c.name), lower(:keyword)), " +
+                   "similarity(lower(c.display_name), lower(:keyword)), " +
+                   "similarity(lower(c.email), lower(:keyword)), " +
+                   "similarity(lower(c.city), lower(:keyword)), " +
+                   "similarity(lower(c.state), lower(:keyword))) DESC, c.id DESC",
+           countQuery = "SELECT COUNT(*) FROM companies c WHERE " + COMPANY_RANKED_FILTER,
+           nativeQuery = true)
+    Page<Company> searchByKeywordRanked(@Param("keyword") String keyword, Pageable pageable);
+
+    String COMPANY_RANKED_FILTER =
+            "lower(c.name) LIKE CONCAT('%', lower(:keyword), '%') OR lower(c.name) % lower(:keyword) OR " +
+            "lower(c.display_name) LIKE CONCAT('%', lower(:keyword), '%') OR lower(c.display_name) % lower(:keyword) OR " +
+            "lower(c.email) LIKE CONCAT('%', lower(:keyword), '%') OR lower(c.email) % lower(:keyword) OR " +
+            "lower(c.city) LIKE CONCAT('%', lower(:keyword), '%') OR lower(c.city) % lower(:keyword) OR " +
+            "lower(c.state) LIKE CONCAT('%', lower(:keyword), '%') OR lower(c.state) % lower(:keyword)";
+
     @Query("SELECT c FROM Company c WHERE c.city = :city")
     Page<Company> findByCity(@Param("city") String city, Pageable pageable);
 
@@ -0,0 +1,31 @@
+package com.logifin.repository;
+
+import com.logifin.entity.ContractDocument;
+import com.logifin.repository.projection.ContractDocumentView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ContractDocumentRepository extends JpaRepository<ContractDocument, Long>, ContractDocumentStreamRepository {
+
+    /**
+     * Find the metadata of a contract's document without loading the document data
+     */
+    @Query("SELECT d.contractId AS contractId, c.contractDocumentName AS fileName, " +
+           "c.contractDocumentContentType AS contentType, d.fileSize AS fileSize, " +
+           "d.contentHash AS contentHash, d.updatedAt AS updatedAt " +
+           "FROM ContractDocument d JOIN d.contract c WHERE d.contractId = :contractId")
+    Optional<ContractDocumentView> findViewByContractId(@Param("contractId") Long contractId);
+
+    /**
+     * Delete a contract's document, ahead of deleting the contract itself
+     */
+    @Modifying
+    @Query("DELETE FROM ContractDocument d WHERE d.contractId = :contractId")
+    int deleteByContractId(@Param("contractId") Long contractId);
+}
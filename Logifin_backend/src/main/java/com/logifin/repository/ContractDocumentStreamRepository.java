@@ -0,0 +1,24 @@
+package com.logifin.repository;
+
+import java.io.OutputStream;
+
+/**
+ * Custom repository fragment for copying contract documents to a response without an entity.
+ */
+public interface ContractDocumentStreamRepository {
+
+    /**
+     * Copy a contract's document to the given stream from the JDBC result set, without
+     * creating an entity. The PostgreSQL driver still reads the whole bytea value into
+     * memory, so this saves the entity copy only; documents are not streamed from disk.
+     * Only the version with the given content hash is copied, so the bytes always match
+     * metadata read earlier in another transaction.
+     * Must be called inside a transaction.
+     *
+     * @param contractId Contract ID
+     * @param contentHash Content hash of the expected document version
+     * @param out Stream to write the document to
+     * @return true if the document was copied, false if the contract has no document with that hash
+     */
+    boolean writeDocument(Long contractId, String contentHash, OutputStream out);
+}
@@ -0,0 +1,48 @@
+package com.logifin.repository;
+
+import org.hibernate.Session;
+import org.springframework.util.StreamUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Implementation of ContractDocumentStreamRepository on the transaction's JDBC connection.
+ */
+public class ContractDocumentStreamRepositoryImpl implements ContractDocumentStreamRepository {
+
+    private static final String SELECT_DOCUMENT =
+            "SELECT document_data FROM contract_documents WHERE contract_id = ? AND content_hash = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean writeDocument(Long contractId, String contentHash, OutputStream out) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_DOCUMENT)) {
+                statement.setLong(1, contractId);
+                statement.setString(2, contentHash);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    try (InputStream in = resultSet.getBinaryStream(1)) {
+                        if (in != null) {
+                            StreamUtils.copy(in, out);
+                        }
+                    }
+                    return true;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
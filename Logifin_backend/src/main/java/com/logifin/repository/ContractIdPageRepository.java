@@ -0,0 +1,24 @@
+package com.logifin.repository;
+
+import com.logifin.entity.Contract;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Custom repository fragment for the first phase of two-phase contract paging.
+ */
+public interface ContractIdPageRepository {
+
+    /**
+     * Find one page of matching contract ids in the pageable's sort order, with id as tie-breaker.
+     * Only the contracts table and the specification's predicates take part, so the database
+     * pages on an id list instead of wide joined rows; hydrate the ids with findAllWithDetailsByIdIn.
+     * The count query is skipped when the first page is not full.
+     *
+     * @param spec Filter to apply, or null for all contracts
+     * @param pageable Page and sort to apply
+     * @return Page of contract ids
+     */
+    Page<Long> findIdPage(Specification<Contract> spec, Pageable pageable);
+}
@@ -2,11 +2,14 @@ package com.logifin.repository;
 
 import com.logifin.entity.Contract;
 import com.logifin.entity.ContractParty;
+import com.logifin.repository.projection.ContractPartyRow;
+import com.logifin.repository.projection.ThreePartyContractRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -88,4 +91,41 @@ public interface ContractPartyRepository extends JpaRepository<ContractParty, Lo
             @Param("userId1") Long userId1,
             @Param("userId2") Long userId2,
             @Param("userId3") Long userId3);
+
+    /**
+     * Batch form of findActiveContractsByThreeParties for one lender and many
+     * (transporter, sender) pairs. Returns a row per matching contract and pair,
+     * furthest expiry first; callers pick the first row for each pair.
+     */
+    @Query("SELECT new com.logifin.repository.projection.ThreePartyContractRow(cp2.user.id, cp3.user.id, c) " +
+           "FROM Contract c " +
+           "JOIN ContractParty cp1 ON cp1.contract.id = c.id " +
+           "JOIN ContractParty cp2 ON cp2.contract.id = c.id " +
+           "JOIN ContractParty cp3 ON cp3.contract.id = c.id " +
+           "WHERE cp1.user.id = :lenderId " +
+           "AND cp2.user.id IN :transporterIds " +
+           "AND cp3.user.id IN :senderIds " +
+           "AND c.status = 'ACTIVE' " +
+           "AND c.expiryDate > CURRENT_DATE " +
+           "ORDER BY c.expiryDate DESC, c.id")
+    List<ThreePartyContractRow> findActiveContractsForLender(
+            @Param("lenderId") Long lenderId,
+            @Param("transporterIds") Collection<Long> transporterIds,
+            @Param("senderIds") Collection<Long> senderIds);
+
+    /**
+     * Parties of all active, non-expired contracts, for building the three-party contract index
+     */
+    @Query("SELECT new com.logifin.repository.projection.ContractPartyRow(c.id, cp.user.id, c.expiryDate) " +
+           "FROM ContractParty cp JOIN cp.contract c " +
+           "WHERE c.status = 'ACTIVE' AND c.expiryDate > CURRENT_DATE")
+    List<ContractPartyRow> findActiveContractPartyRows();
+
+    /**
+     * Parties of one contract if it is active and not expired, for refreshing the three-party contract index
+     */
+    @Query("SELECT new com.logifin.repository.projection.ContractPartyRow(c.id, cp.user.id, c.expiryDate) " +
+           "FROM ContractParty cp JOIN cp.contract c " +
+           "WHERE c.id = :contractId AND c.status = 'ACTIVE' AND c.expiryDate > CURRENT_DATE")
+    List<ContractPartyRow> findActiveContractPartyRowsByContractId(@Param("contractId") Long contractId);
 }
@@ -6,12 +6,18 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +25,8 @@ import java.util.Optional;
  * Repository for Contract entity with JPA Specification support for dynamic filtering.
  */
 @Repository
-public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSpecificationExecutor<Contract> {
+public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSpecificationExecutor<Contract>,
+        ContractIdPageRepository {
 
     // ==================== Basic CRUD with EntityGraph ====================
 
@@ -81,18 +88,52 @@ public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSp
     boolean existsByContractNumber(String contractNumber);
 
     /**
-     * Search contracts by keyword across multiple fields
+     * Search contracts by keyword across multiple fields.
+     * Manager and company names are matched through subqueries instead of an OR across
+     * LEFT JOINs, so each LOWER(column) LIKE predicate stays on a single table. JPQL has no
+     * UNION, so the ORed branches still scan contracts; searchByKeywordRanked collects
+     * candidates through the trigram indexes and is the one to use on large tables.
      */
     @EntityGraph(attributePaths = {"contractType", "contractManager", "consignerCompany", "loanStage"})
-    @Query("SELECT c FROM Contract c " +
-           "LEFT JOIN c.contractManager cm " +
-           "LEFT JOIN c.consignerCompany cc " +
-           "WHERE LOWER(c.contractNumber) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(cm.firstName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(cm.lastName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(cc.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    @Query("SELECT c FROM Contract c WHERE " +
+           "LOWER(c.contractNumber) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "c.contractManager.id IN (SELECT u.id FROM User u WHERE " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :keyword, '%'))) OR " +
+           "c.consignerCompany.id IN (SELECT co.id FROM Company co WHERE " +
+           "LOWER(co.name) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<Contract> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
+    /**
+     * Search contracts by keyword, most relevant first (PostgreSQL pg_trgm).
+     * Matches substrings like searchByKeyword plus near misses through the trigram % operator,
+     * and orders by the best similarity() of contract number, manager name and company name.
+     * Candidate ids are collected with a UNION of one branch per indexed column, so each
+     * branch can use its trigram index instead of an OR forcing a scan of contracts.
+     * The Pageable must be unsorted.
+     */
+    @Query(value = "SELECT c.* FROM contracts c " +
+                   "LEFT JOIN users cm ON cm.id = c.contract_manager_id " +
+                   "LEFT JOIN companies cc ON cc.id = c.consigner_company_id " +
+                   "WHERE c.id IN (" + CONTRACT_RANKED_CANDIDATES + ")" +
+                   " ORDER BY GREATEST(similarity(lower(c.contract_number), lower(:keyword)), " +
+                   "similarity(lower(cm.first_name), lower(:keyword)), " +
+                   "similarity(lower(cm.last_name), lower(:keyword)), " +
+                   "similarity(lower(cc.name), lower(:keyword))) DESC, c.id DESC",
+           countQuery = "SELECT COUNT(*) FROM (" + CONTRACT_RANKED_CANDIDATES + ") candidates",
+           nativeQuery = true)
+    Page<Contract> searchByKeywordRanked(@Param("keyword") String keyword, Pageable pageable);
+
+    String CONTRACT_RANKED_CANDIDATES =
+            "SELECT id FROM contracts WHERE " +
+            "lower(contract_number) LIKE CONCAT('%', lower(:keyword), '%') OR " +
+            "lower(contract_number) % lower(:keyword) " +
+            "UNION SELECT m.id FROM contracts m JOIN users u ON u.id = m.contract_manager_id WHERE " +
+            "lower(u.first_name) LIKE CONCAT('%', lower(:keyword), '%') OR lower(u.first_name) % lower(:keyword) OR " +
+            "lower(u.last_name) LIKE CONCAT('%', lower(:keyword), '%') OR lower(u.last_name) % lower(:keyword) " +
+            "UNION SELECT m.id FROM contracts m JOIN companies co ON co.id = m.consigner_company_id WHERE " +
+            "lower(co.name) LIKE CONCAT('%', lower(:keyword), '%') OR lower(co.name) % lower(:keyword)";
+
     /**
      * Find contracts expiring within a date range
      */
@@ -121,6 +162,28 @@ public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSp
     @Query("SELECT c FROM Contract c WHERE c.expiryDate BETWEEN CURRENT_DATE AND :expiryDate AND c.status = 'ACTIVE'")
     List<Contract> findContractsExpiringSoon(@Param("expiryDate") LocalDate expiryDate);
 
+    // ==================== Contract Expiry ====================
+
+    /**
+     * Lock a page of ACTIVE contracts whose expiry date is before :today, by id.
+     * The lock timeout hint -2 is Hibernate's SKIP_LOCKED: contracts locked by another
+     * instance's expiry job (or an update in flight) are skipped instead of waited for. This
+     * needs the PostgreSQL95Dialect line or later, see SkipLockedQueryTest.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT c FROM Contract c WHERE c.status = 'ACTIVE' AND c.expiryDate < :today ORDER BY c.id")
+    List<Contract> lockExpiredActive(@Param("today") LocalDate today, Pageable pageable);
+
+    /**
+     * Move the given contracts to EXPIRED if they are still ACTIVE, bumping the version
+     * so concurrent edits of a loaded contract fail optimistic locking
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Contract c SET c.status = 'EXPIRED', c.updatedAt = CURRENT_TIMESTAMP, c.version = c.version + 1 " +
+           "WHERE c.id IN :ids AND c.status = 'ACTIVE'")
+    int expireActive(@Param("ids") Collection<Long> ids);
+
     // ==================== Statistics & Aggregation Queries ====================
 
     /**
@@ -166,6 +229,12 @@ public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSp
     @Query("SELECT COALESCE(AVG(c.penaltyRatio), 0) FROM Contract c")
     BigDecimal getAveragePenaltyRatio();
 
+    /**
+     * Get the contract count and the loan percent, LTV and penalty ratio averages in one pass
+     */
+    @Query("SELECT COUNT(c), AVG(c.loanPercent), AVG(c.ltv), AVG(c.penaltyRatio) FROM Contract c")
+    List<Object[]> getContractTotals();
+
     /**
      * Get contracts count by type
      */
@@ -203,17 +272,38 @@ public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSp
     // ==================== User-specific Queries ====================
 
     /**
-     * Find contracts where user is a party (via ContractParty)
+     * Find ids of contracts where user is a party (via ContractParty).
+     * EXISTS keeps one row per contract, so the database pages without DISTINCT.
      */
-    @EntityGraph(attributePaths = {"contractType", "contractManager", "consignerCompany", "loanStage"})
-    @Query("SELECT DISTINCT c FROM Contract c JOIN c.contractParties cp WHERE cp.user.id = :userId")
-    Page<Contract> findContractsByPartyUserId(@Param("userId") Long userId, Pageable pageable);
+    @Query(value = "SELECT c.id FROM Contract c WHERE EXISTS " +
+                   "(SELECT cp.id FROM ContractParty cp WHERE cp.contract = c AND cp.user.id = :userId)",
+           countQuery = "SELECT COUNT(c) FROM Contract c WHERE EXISTS " +
+                        "(SELECT cp.id FROM ContractParty cp WHERE cp.contract = c AND cp.user.id = :userId)")
+    Page<Long> findContractIdsByPartyUserId(@Param("userId") Long userId, Pageable pageable);
 
     /**
-     * Find contracts related to a user (manager or party)
+     * Find ids of contracts related to a user (manager or party)
      */
-    @EntityGraph(attributePaths = {"contractType", "contractManager", "consignerCompany", "loanStage"})
-    @Query("SELECT DISTINCT c FROM Contract c LEFT JOIN c.contractParties cp " +
-           "WHERE c.contractManager.id = :userId OR cp.user.id = :userId")
-    Page<Contract> findContractsByUserInvolvement(@Param("userId") Long userId, Pageable pageable);
+    @Query(value = "SELECT c.id FROM Contract c WHERE c.contractManager.id = :userId OR EXISTS " +
+                   "(SELECT cp.id FROM ContractParty cp WHERE cp.contract = c AND cp.user.id = :userId)",
+           countQuery = "SELECT COUNT(c) FROM Contract c WHERE c.contractManager.id = :userId OR EXISTS " +
+                        "(SELECT cp.id FROM ContractParty cp WHERE cp.contract = c AND cp.user.id = :userId)")
+    Page<Long> findContractIdsByUserInvolvement(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Hydrate one page of contract ids with everything the response needs, parties included,
+     * in a single query. The result is unordered; callers restore the order of the id page.
+     */
+    @EntityGraph(attributePaths = {"contractType", "contractManager", "consignerCompany", "loanStage", "createdBy",
+            "contractParties", "contractParties.user"})
+    @Query("SELECT DISTINCT c FROM Contract c WHERE c.id IN :ids")
+    List<Contract> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Load contracts with their parties, to confirm contracts found through the in-memory
+     * party index still link the expected users
+     */
+    @EntityGraph(attributePaths = {"contractParties"})
+    @Query("SELECT DISTINCT c FROM Contract c WHERE c.id IN :ids")
+    List<Contract> findAllWithPartiesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,25 @@
+package com.logifin.repository;
+
+import com.logifin.entity.ContractStatCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContractStatCountRepository extends JpaRepository<ContractStatCount, Long> {
+
+    /**
+     * All counts of the snapshot, grouped by dimension in their stored order
+     */
+    List<ContractStatCount> findAllByOrderByDimensionAscSortOrderAsc();
+
+    /**
+     * Remove the previous snapshot's counts ahead of inserting the new ones
+     */
+    @Modifying
+    @Query("DELETE FROM ContractStatCount c")
+    int deleteAllCounts();
+}
@@ -0,0 +1,29 @@
+package com.logifin.repository;
+
+import com.logifin.entity.ContractStatsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ContractStatsSnapshotRepository extends JpaRepository<ContractStatsSnapshot, Long> {
+
+    /**
+     * Lock the snapshot row, so instances refreshing at the same time replace the counts one after another
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ContractStatsSnapshot s WHERE s.id = :id")
+    Optional<ContractStatsSnapshot> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Time of the last refresh, without loading the snapshot
+     */
+    @Query("SELECT s.refreshedAt FROM ContractStatsSnapshot s WHERE s.id = :id")
+    Optional<LocalDateTime> findRefreshedAtById(@Param("id") Long id);
+}
@@ -0,0 +1,76 @@
+package com.logifin.repository;
+
+import com.logifin.entity.LenderTripFeedEntry;
+import com.logifin.entity.Trip;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the lender financeable-trips feed
+ */
+@Repository
+public interface LenderTripFeedRepository extends JpaRepository<LenderTripFeedEntry, LenderTripFeedEntry.Key> {
+
+    /**
+     * Remove the feed rows of the given trips
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM lender_trip_feed WHERE trip_id IN (:tripIds)", nativeQuery = true)
+    int deleteByTripIds(@Param("tripIds") Collection<Long> tripIds);
+
+    /**
+     * Insert a feed row for every lender that can currently finance one of the given trips:
+     * the lender shares an ACTIVE, unexpired contract with the trip's transporter (creator) and
+     * consigner (sender), the trip is not linked to a contract and has no accepted proposal.
+     * Same rule as TripFinanceProposalService.markInterestInMultipleTrips.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO lender_trip_feed (lender_id, trip_id, trip_created_at, valid_until) " +
+            "SELECT lp.user_id, t.id, t.created_at, MAX(c.expiry_date) " +
+            "FROM trips t " +
+            "JOIN contract_parties tp ON tp.user_id = t.created_by_user_id " +
+            "JOIN contracts c ON c.id = tp.contract_id " +
+            "JOIN contract_parties sp ON sp.contract_id = c.id AND sp.user_id = t.sender_user_id " +
+            "JOIN contract_parties lp ON lp.contract_id = c.id " +
+            "JOIN users u ON u.id = lp.user_id " +
+            "JOIN user_roles r ON r.id = u.role_id " +
+            "WHERE t.id IN (:tripIds) " +
+            "AND t.contract_id IS NULL " +
+            "AND c.status = 'ACTIVE' " +
+            "AND c.expiry_date > CURRENT_DATE " +
+            "AND r.role_name = 'ROLE_LENDER' " +
+            "AND NOT EXISTS (SELECT 1 FROM trip_finance_proposals p " +
+            "WHERE p.trip_id = t.id AND p.status = 'ACCEPTED') " +
+            "GROUP BY lp.user_id, t.id, t.created_at", nativeQuery = true)
+    int insertFinanceableTrips(@Param("tripIds") Collection<Long> tripIds);
+
+    /**
+     * First page of a lender's financeable trips, newest first (served by idx_ltf_lender_created)
+     */
+    @Query("SELECT t FROM LenderTripFeedEntry f JOIN Trip t ON t.id = f.tripId " +
+            "WHERE f.lenderId = :lenderId AND f.validUntil > CURRENT_DATE " +
+            "ORDER BY f.tripCreatedAt DESC, f.tripId DESC")
+    List<Trip> findFinanceableTrips(@Param("lenderId") Long lenderId, Pageable pageable);
+
+    /**
+     * Next page of a lender's financeable trips, after the given (createdAt, id) position.
+     * The leading tripCreatedAt <= bound starts the idx_ltf_lender_created range at the cursor.
+     */
+    @Query("SELECT t FROM LenderTripFeedEntry f JOIN Trip t ON t.id = f.tripId " +
+            "WHERE f.lenderId = :lenderId AND f.validUntil > CURRENT_DATE " +
+            "AND f.tripCreatedAt <= :createdAt " +
+            "AND (f.tripCreatedAt < :createdAt OR (f.tripCreatedAt = :createdAt AND f.tripId < :tripId)) " +
+            "ORDER BY f.tripCreatedAt DESC, f.tripId DESC")
+    List<Trip> findFinanceableTripsAfter(@Param("lenderId") Long lenderId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("tripId") Long tripId,
+                                         Pageable pageable);
+}
@@ -0,0 +1,21 @@
+package com.logifin.repository;
+
+import com.logifin.entity.Trip;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for high-volume trip inserts.
+ */
+public interface TripBatchRepository {
+
+    /**
+     * Persist trips in JDBC batches, flushing and clearing the persistence context
+     * every hibernate.jdbc.batch_size rows so memory stays bounded for large uploads.
+     * Ids are assigned from the pooled sequence on persist, so they are available
+     * on the passed entities once this method returns.
+     *
+     * @param trips New (transient) trips to insert
+     */
+    void persistInBatches(List<Trip> trips);
+}
@@ -0,0 +1,41 @@
+package com.logifin.repository;
+
+import com.logifin.entity.Trip;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * Implementation of TripBatchRepository using the EntityManager directly.
+ * Avoids SimpleJpaRepository.save(), whose isNew() check and per-entity merge
+ * semantics add overhead that is pointless for freshly built trips.
+ */
+@Slf4j
+public class TripBatchRepositoryImpl implements TripBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public void persistInBatches(List<Trip> trips) {
+        int count = 0;
+        for (Trip trip : trips) {
+            entityManager.persist(trip);
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        log.debug("Persisted {} trips in batches of {}", trips.size(), batchSize);
+    }
+}
@@ -2,12 +2,14 @@ package com.logifin.repository;
 
 import com.logifin.entity.DocumentType;
 import com.logifin.entity.TripDocument;
+import com.logifin.repository.projection.TripDocumentThumbnailView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -93,4 +95,23 @@ public interface TripDocumentRepository extends JpaRepository<TripDocument, Long
      */
     @Query("SELECT COUNT(td) FROM TripDocument td WHERE td.documentType.id = :documentTypeId")
     long countByDocumentTypeId(@Param("documentTypeId") Long documentTypeId);
+
+    /**
+     * Find the thumbnail of a document without loading the original document data
+     */
+    @Query("SELECT td.id AS id, td.thumbnailData AS thumbnailData, td.thumbnailContentType AS thumbnailContentType, " +
+           "td.thumbnailGeneratedAt AS thumbnailGeneratedAt FROM TripDocument td WHERE td.id = :documentId")
+    Optional<TripDocumentThumbnailView> findThumbnailById(@Param("documentId") Long documentId);
+
+    /**
+     * Store a generated thumbnail, only if the document has not been replaced since it was read
+     */
+    @Modifying
+    @Query("UPDATE TripDocument td SET td.thumbnailData = :thumbnailData, td.thumbnailContentType = :thumbnailContentType, " +
+           "td.thumbnailGeneratedAt = :generatedAt WHERE td.id = :documentId AND td.updatedAt = :sourceUpdatedAt")
+    int updateThumbnail(@Param("documentId") Long documentId,
+                        @Param("thumbnailData") byte[] thumbnailData,
+                        @Param("thumbnailContentType") String thumbnailContentType,
+                        @Param("generatedAt") LocalDateTime generatedAt,
+                        @Param("sourceUpdatedAt") LocalDateTime sourceUpdatedAt);
 }
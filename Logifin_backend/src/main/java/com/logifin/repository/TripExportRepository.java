@@ -0,0 +1,24 @@
+package com.logifin.repository;
+
+import com.logifin.entity.Trip;
+import com.logifin.repository.projection.TripExportRow;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Custom repository fragment for exporting large numbers of trips.
+ */
+public interface TripExportRepository {
+
+    /**
+     * Stream matching trips, ordered by id, as flat export rows over a forward-only cursor.
+     * Rows are fetched from the database app.export.fetch-size at a time and are never
+     * attached to the persistence context, so memory stays flat regardless of the result size.
+     * Must be called inside a transaction, and the returned stream must be closed.
+     *
+     * @param spec Filter to apply, or null for all trips
+     * @return Stream of export rows
+     */
+    Stream<TripExportRow> streamForExport(Specification<Trip> spec);
+}
@@ -0,0 +1,67 @@
+package com.logifin.repository;
+
+import com.logifin.entity.Trip;
+import com.logifin.repository.projection.TripExportRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of TripExportRepository using a Criteria constructor projection.
+ * Hibernate's Query.stream() is backed by a FORWARD_ONLY ScrollableResults, so
+ * with a fetch size set PostgreSQL returns the rows through a server-side cursor.
+ */
+public class TripExportRepositoryImpl implements TripExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<TripExportRow> streamForExport(Specification<Trip> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TripExportRow> query = cb.createQuery(TripExportRow.class);
+        Root<Trip> root = query.from(Trip.class);
+
+        // sender.id / transporter.id resolve to the foreign key columns, no join needed
+        query.select(cb.construct(TripExportRow.class,
+                root.get("id"),
+                root.get("pickup"),
+                root.get("destination"),
+                root.get("sender").get("id"),
+                root.get("receiver"),
+                root.get("transporter").get("id"),
+                root.get("loanAmount"),
+                root.get("interestRate"),
+                root.get("maturityDays"),
+                root.get("distanceKm"),
+                root.get("loadType"),
+                root.get("weightKg"),
+                root.get("notes"),
+                root.get("status"),
+                root.get("createdAt")));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .unwrap(org.hibernate.query.Query.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .stream();
+    }
+}
@@ -1,13 +1,26 @@
 package com.logifin.repository;
 
+import com.logifin.entity.Trip;
 import com.logifin.entity.TripFinanceProposal;
 import com.logifin.entity.TripFinanceProposal.ProposalStatus;
+import com.logifin.entity.User;
+import com.logifin.repository.projection.LenderInterestRow;
+import com.logifin.repository.projection.TransporterInterestRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,30 +42,12 @@ public interface TripFinanceProposalRepository extends JpaRepository<TripFinance
      */
     List<TripFinanceProposal> findByTripIdAndStatus(Long tripId, ProposalStatus status);
 
-    /**
-     * Find all proposals made by a specific lender
-     * Used by lenders to view trips they've shown interest in
-     */
-    List<TripFinanceProposal> findByLenderId(Long lenderId);
-
-    /**
-     * Find all proposals made by a specific lender with a given status
-     */
-    List<TripFinanceProposal> findByLenderIdAndStatus(Long lenderId, ProposalStatus status);
-
     /**
      * Find a specific proposal by trip, lender, and contract
      */
     Optional<TripFinanceProposal> findByTripIdAndLenderIdAndContractId(
             Long tripId, Long lenderId, Long contractId);
 
-    /**
-     * Check if a proposal exists for the given trip, lender, and contract combination
-     * Used to prevent duplicate interests
-     */
-    boolean existsByTripIdAndLenderIdAndContractId(
-            Long tripId, Long lenderId, Long contractId);
-
     /**
      * Find existing proposals for a lender across multiple trips
      * Used for batch operations to check for duplicates
@@ -62,6 +57,15 @@ public interface TripFinanceProposalRepository extends JpaRepository<TripFinance
             @Param("tripIds") List<Long> tripIds,
             @Param("lenderId") Long lenderId);
 
+    /**
+     * Find (tripId, contractId) pairs a lender has already proposed on, across multiple trips
+     * Used by batch interest creation to check for duplicates in one query
+     */
+    @Query("SELECT p.trip.id, p.contract.id FROM TripFinanceProposal p WHERE p.lender.id = :lenderId AND p.trip.id IN :tripIds")
+    List<Object[]> findTripAndContractIdsByLenderIdAndTripIdIn(
+            @Param("lenderId") Long lenderId,
+            @Param("tripIds") Collection<Long> tripIds);
+
     /**
      * Find a proposal by ID and lender ID
      * Used to verify ownership before withdrawal
@@ -77,6 +81,24 @@ public interface TripFinanceProposalRepository extends JpaRepository<TripFinance
             @Param("proposalId") Long proposalId,
             @Param("transporterId") Long transporterId);
 
+    /**
+     * Atomically accept a pending proposal on one of the transporter's trips, unless the trip
+     * already has an accepted proposal. Returns 0 when any condition fails, including losing a
+     * race to a concurrent acceptance (which the partial unique index on accepted proposals
+     * turns into a constraint violation when both statements pass their checks).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TripFinanceProposal p SET p.status = :accepted, p.respondedAt = CURRENT_TIMESTAMP, " +
+           "p.updatedAt = CURRENT_TIMESTAMP, p.updatedBy = :transporter " +
+           "WHERE p.id = :proposalId AND p.status = :pending " +
+           "AND p.trip.id IN (SELECT t.id FROM Trip t WHERE t.createdByUser = :transporter) " +
+           "AND NOT EXISTS (SELECT a.id FROM TripFinanceProposal a WHERE a.trip.id = p.trip.id AND a.status = :accepted)")
+    int acceptIfPending(
+            @Param("proposalId") Long proposalId,
+            @Param("transporter") User transporter,
+            @Param("pending") ProposalStatus pending,
+            @Param("accepted") ProposalStatus accepted);
+
     /**
      * Update all pending proposals for a trip to REJECTED status
      * Used when transporter accepts one proposal
@@ -93,20 +115,102 @@ public interface TripFinanceProposalRepository extends JpaRepository<TripFinance
      */
     long countByTripIdAndStatus(Long tripId, ProposalStatus status);
 
-    /**
-     * Find all proposals for trips belonging to a specific transporter
-     */
-    @Query("SELECT p FROM TripFinanceProposal p WHERE p.trip.createdByUser.id = :transporterId")
-    List<TripFinanceProposal> findAllByTransporterId(@Param("transporterId") Long transporterId);
-
     /**
      * Find proposals by lender and contract
      * Useful to see all trips a lender is interested in using a specific contract
      */
     List<TripFinanceProposal> findByLenderIdAndContractId(Long lenderId, Long contractId);
 
+    // ==================== Stale Proposal Sweeper ====================
+
+    /**
+     * Lock a page of PENDING proposals that can no longer be accepted, oldest first.
+     * Stale means the trip is financed or in one of :closedTripStatuses, the contract is no
+     * longer active, or the proposal is older than :proposedBefore. The lock timeout hint -2 is
+     * Hibernate's SKIP_LOCKED: rows held by another sweeper (or a transporter's accept) are
+     * skipped instead of waited for. Only the PostgreSQL95Dialect line and later render it as
+     * FOR UPDATE SKIP LOCKED, see SkipLockedQueryTest. Only proposal rows are locked.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM TripFinanceProposal p WHERE p.status = :pending AND (" +
+           "p.proposedAt < :proposedBefore " +
+           "OR EXISTS (SELECT t.id FROM Trip t WHERE t = p.trip " +
+           "AND (t.contract IS NOT NULL OR t.status IN :closedTripStatuses)) " +
+           "OR EXISTS (SELECT c.id FROM Contract c WHERE c = p.contract " +
+           "AND (c.status <> 'ACTIVE' OR c.expiryDate <= CURRENT_DATE))) " +
+           "ORDER BY p.id")
+    List<TripFinanceProposal> lockStalePending(
+            @Param("pending") ProposalStatus pending,
+            @Param("proposedBefore") LocalDateTime proposedBefore,
+            @Param("closedTripStatuses") Collection<Trip.TripStatus> closedTripStatuses,
+            Pageable pageable);
+
+    /**
+     * Reject the given pending proposals whose trip has been financed through another proposal
+     */
+    @Modifying
+    @Query(value = "UPDATE trip_finance_proposals SET status = 'REJECTED', " +
+                   "responded_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE id IN (:ids) AND status = 'PENDING' AND EXISTS (SELECT 1 FROM trips t " +
+                   "WHERE t.id = trip_finance_proposals.trip_id AND t.contract_id IS NOT NULL)",
+           nativeQuery = true)
+    int rejectFinancedElsewhere(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Expire the given proposals that are still pending
+     */
+    @Modifying
+    @Query(value = "UPDATE trip_finance_proposals SET status = 'EXPIRED', " +
+                   "responded_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE id IN (:ids) AND status = 'PENDING'",
+           nativeQuery = true)
+    int expirePending(@Param("ids") Collection<Long> ids);
+
+    // ==================== Listing Projections ====================
+
+    String LENDER_INTEREST_ROW = "SELECT new com.logifin.repository.projection.LenderInterestRow(" +
+            "p.id, p.status, p.proposedAt, p.respondedAt, t.id, t.pickup, t.destination, t.loanAmount, " +
+            "tu.id, tu.firstName, tu.lastName, tc.name, c.id, c.interestRate, c.maturityDays) " +
+            "FROM TripFinanceProposal p JOIN p.trip t LEFT JOIN t.createdByUser tu LEFT JOIN tu.company tc " +
+            "JOIN p.contract c ";
+
+    String TRANSPORTER_INTEREST_ROW = "SELECT new com.logifin.repository.projection.TransporterInterestRow(" +
+            "p.id, p.status, p.proposedAt, p.respondedAt, l.id, l.firstName, l.lastName, lc.name, " +
+            "c.id, c.interestRate, c.maturityDays, c.expiryDate, c.loanPercent, c.ltv, c.penaltyRatio) " +
+            "FROM TripFinanceProposal p JOIN p.lender l LEFT JOIN l.company lc JOIN p.contract c ";
+
+    /**
+     * Page of a lender's proposals as display rows, newest first
+     */
+    @Query(value = LENDER_INTEREST_ROW + "WHERE p.lender.id = :lenderId ORDER BY p.proposedAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM TripFinanceProposal p WHERE p.lender.id = :lenderId")
+    Page<LenderInterestRow> findLenderInterestRows(@Param("lenderId") Long lenderId, Pageable pageable);
+
+    /**
+     * Page of a lender's proposals with a given status as display rows, newest first
+     */
+    @Query(value = LENDER_INTEREST_ROW + "WHERE p.lender.id = :lenderId AND p.status = :status " +
+                   "ORDER BY p.proposedAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM TripFinanceProposal p WHERE p.lender.id = :lenderId AND p.status = :status")
+    Page<LenderInterestRow> findLenderInterestRowsByStatus(
+            @Param("lenderId") Long lenderId,
+            @Param("status") ProposalStatus status,
+            Pageable pageable);
+
+    /**
+     * Page of the proposals on one trip as display rows, newest first
+     */
+    @Query(value = TRANSPORTER_INTEREST_ROW + "WHERE p.trip.id = :tripId ORDER BY p.proposedAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM TripFinanceProposal p WHERE p.trip.id = :tripId")
+    Page<TransporterInterestRow> findTransporterInterestRowsByTripId(@Param("tripId") Long tripId, Pageable pageable);
+
     /**
-     * Check if a trip has any accepted proposal
+     * Page of the proposals on all trips of a transporter (createdByUser of trip) as display rows, newest first
      */
-    boolean existsByTripIdAndStatus(Long tripId, ProposalStatus status);
+    @Query(value = TRANSPORTER_INTEREST_ROW + "WHERE p.trip.createdByUser.id = :transporterId " +
+                   "ORDER BY p.proposedAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM TripFinanceProposal p WHERE p.trip.createdByUser.id = :transporterId")
+    Page<TransporterInterestRow> findTransporterInterestRowsByTransporterId(
+            @Param("transporterId") Long transporterId, Pageable pageable);
 }
@@ -0,0 +1,22 @@
+package com.logifin.repository;
+
+import com.logifin.entity.Trip;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for keyset (cursor) pagination of trips.
+ */
+public interface TripKeysetRepository {
+
+    /**
+     * Find the newest matching trips, ordered by (createdAt DESC, id DESC), without a count query.
+     * Combine with TripSpecification.createdBefore to continue after the last trip of a previous page.
+     *
+     * @param spec Filter to apply, or null for all trips
+     * @param limit Maximum number of trips to return
+     * @return Matching trips, newest first
+     */
+    List<Trip> findNewestFirst(Specification<Trip> spec, int limit);
+}
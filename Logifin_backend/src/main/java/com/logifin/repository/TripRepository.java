@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +19,8 @@ import java.util.Optional;
  * Repository for Trip entity with JPA Specification support for dynamic filtering.
  */
 @Repository
-public interface TripRepository extends JpaRepository<Trip, Long>, JpaSpecificationExecutor<Trip> {
+public interface TripRepository extends JpaRepository<Trip, Long>, JpaSpecificationExecutor<Trip>, TripBatchRepository,
+        TripExportRepository, TripKeysetRepository {
 
     /**
      * Find trips by transporter name
@@ -41,16 +43,63 @@ public interface TripRepository extends JpaRepository<Trip, Long>, JpaSpecificat
     Page<Trip> findByCreatedByUserId(Long userId, Pageable pageable);
 
     /**
-     * Search trips by keyword across multiple fields
+     * Search trips by keyword across multiple fields.
+     * Sender and transporter are matched by name through a subquery on users, so every
+     * LOWER(column) LIKE predicate stays on a single table. JPQL has no UNION, so the ORed
+     * branches still scan trips; searchByKeywordRanked collects candidates through the
+     * trigram indexes and is the one to use on large tables.
      */
     @Query("SELECT t FROM Trip t WHERE " +
            "LOWER(t.pickup) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(t.destination) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(t.sender) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(t.receiver) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(t.transporter) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+           "t.sender.id IN (SELECT u.id FROM User u WHERE " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :keyword, '%'))) OR " +
+           "t.transporter.id IN (SELECT u.id FROM User u WHERE " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<Trip> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
+    /**
+     * Search trips by keyword, most relevant first (PostgreSQL pg_trgm).
+     * Matches the same fields as searchByKeyword, by substring plus near misses through the
+     * trigram % operator, and orders by the best similarity() of any of them.
+     * Candidate ids are collected with a UNION of one branch per indexed column: an OR of
+     * LIKEs and IN subqueries would turn into a hashed SubPlan over a sequential scan of trips.
+     * The Pageable must be unsorted.
+     */
+    @Query(value = "SELECT t.* FROM trips t " +
+                   "JOIN users ts ON ts.id = t.sender_user_id " +
+                   "JOIN users tt ON tt.id = t.transporter_user_id " +
+                   "WHERE t.id IN (" + TRIP_RANKED_CANDIDATES + ")" +
+                   " ORDER BY GREATEST(similarity(lower(t.pickup), lower(:keyword)), " +
+                   "similarity(lower(t.destination), lower(:keyword)), " +
+                   "similarity(lower(t.receiver), lower(:keyword)), " +
+                   "similarity(lower(ts.first_name), lower(:keyword)), " +
+                   "similarity(lower(ts.last_name), lower(:keyword)), " +
+                   "similarity(lower(tt.first_name), lower(:keyword)), " +
+                   "similarity(lower(tt.last_name), lower(:keyword))) DESC, t.id DESC",
+           countQuery = "SELECT COUNT(*) FROM (" + TRIP_RANKED_CANDIDATES + ") candidates",
+           nativeQuery = true)
+    Page<Trip> searchByKeywordRanked(@Param("keyword") String keyword, Pageable pageable);
+
+    String USER_NAME_RANKED_FILTER =
+            "lower(u.first_name) LIKE CONCAT('%', lower(:keyword), '%') OR lower(u.first_name) % lower(:keyword) OR " +
+            "lower(u.last_name) LIKE CONCAT('%', lower(:keyword), '%') OR lower(u.last_name) % lower(:keyword)";
+
+    String TRIP_RANKED_CANDIDATES =
+            "SELECT id FROM trips WHERE " +
+            "lower(pickup) LIKE CONCAT('%', lower(:keyword), '%') OR lower(pickup) % lower(:keyword) " +
+            "UNION SELECT id FROM trips WHERE " +
+            "lower(destination) LIKE CONCAT('%', lower(:keyword), '%') OR lower(destination) % lower(:keyword) " +
+            "UNION SELECT id FROM trips WHERE " +
+            "lower(receiver) LIKE CONCAT('%', lower(:keyword), '%') OR lower(receiver) % lower(:keyword) " +
+            "UNION SELECT s.id FROM trips s JOIN users u ON u.id = s.sender_user_id WHERE " +
+            USER_NAME_RANKED_FILTER + " " +
+            "UNION SELECT s.id FROM trips s JOIN users u ON u.id = s.transporter_user_id WHERE " +
+            USER_NAME_RANKED_FILTER;
+
     /**
      * Find trips by date range
      */
@@ -151,4 +200,16 @@ public interface TripRepository extends JpaRepository<Trip, Long>, JpaSpecificat
      */
     @Query("SELECT t FROM Trip t")
     List<Trip> findAllForExport();
+
+    /**
+     * Find ids of trips created by (transporter) or sent by (consigner) any of the given users
+     */
+    @Query("SELECT t.id FROM Trip t WHERE t.createdByUser.id IN :userIds OR t.sender.id IN :userIds")
+    List<Long> findIdsByCreatedByUserOrSender(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Find trips by ids with transporter (createdByUser) and sender fetched in the same query
+     */
+    @Query("SELECT t FROM Trip t LEFT JOIN FETCH t.createdByUser LEFT JOIN FETCH t.sender WHERE t.id IN :ids")
+    List<Trip> findAllWithPartiesByIdIn(@Param("ids") Collection<Long> ids);
 }
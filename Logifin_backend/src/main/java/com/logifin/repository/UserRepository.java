@@ -45,6 +45,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<User> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
+    /**
+     * Search users by keyword, most relevant first (PostgreSQL pg_trgm).
+     * Matches substrings like searchByKeyword plus near misses through the trigram % operator.
+     * The Pageable must be unsorted.
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE " + USER_RANKED_FILTER +
+                   " ORDER BY GREATEST(similarity(lower(u.first_name), lower(:keyword)), " +
+                   "similarity(lower(u.last_name), lower(:keyword)), " +
+                   "similarity(lower(u.email), lower(:keyword))) DESC, u.id DESC",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE " + USER_RANKED_FILTER,
+           nativeQuery = true)
+    Page<User> searchByKeywordRanked(@Param("keyword") String keyword, Pageable pageable);
+
+    String USER_RANKED_FILTER =
+            "lower(u.first_name) LIKE CONCAT('%', lower(:keyword), '%') OR lower(u.first_name) % lower(:keyword) OR " +
+            "lower(u.last_name) LIKE CONCAT('%', lower(:keyword), '%') OR lower(u.last_name) % lower(:keyword) OR " +
+            "lower(u.email) LIKE CONCAT('%', lower(:keyword), '%') OR lower(u.email) % lower(:keyword)";
+
     Page<User> findByRole_RoleName(String roleName, Pageable pageable);
 
     @Query(value = "SELECT * FROM users u INNER JOIN user_roles r ON u.role_id = r.id WHERE r.role_name = 'ROLE_SUPER_ADMIN' AND u.active = true ORDER BY u.id ASC LIMIT 1", nativeQuery = true)
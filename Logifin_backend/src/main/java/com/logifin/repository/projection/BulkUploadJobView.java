@@ -0,0 +1,36 @@
+package com.logifin.repository.projection;
+
+import com.logifin.entity.BulkUploadJob;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a bulk upload job's status and progress, without the uploaded file.
+ */
+public interface BulkUploadJobView {
+
+    UUID getJobId();
+
+    Long getCreatedByUserId();
+
+    String getFileName();
+
+    BulkUploadJob.JobStatus getStatus();
+
+    Integer getLastRowNumber();
+
+    Integer getProcessedRows();
+
+    Integer getSuccessCount();
+
+    Integer getFailureCount();
+
+    String getErrorMessage();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getStartedAt();
+
+    LocalDateTime getCompletedAt();
+}
@@ -0,0 +1,21 @@
+package com.logifin.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a contract document's metadata, without the document data.
+ */
+public interface ContractDocumentView {
+
+    Long getContractId();
+
+    String getFileName();
+
+    String getContentType();
+
+    Long getFileSize();
+
+    String getContentHash();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,19 @@
+package com.logifin.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * One party of an active contract, with the contract expiry.
+ * Source rows for the in-memory three-party contract index.
+ */
+@Getter
+@AllArgsConstructor
+public class ContractPartyRow {
+
+    private final Long contractId;
+    private final Long userId;
+    private final LocalDate expiryDate;
+}
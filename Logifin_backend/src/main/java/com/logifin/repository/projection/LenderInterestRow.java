@@ -0,0 +1,33 @@
+package com.logifin.repository.projection;
+
+import com.logifin.entity.TripFinanceProposal.ProposalStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of a proposal as listed to its lender: the proposal, its trip and transporter,
+ * and the contract terms. Read in one statement instead of walking lazy associations.
+ */
+@Getter
+@AllArgsConstructor
+public class LenderInterestRow {
+
+    private final Long id;
+    private final ProposalStatus status;
+    private final LocalDateTime proposedAt;
+    private final LocalDateTime respondedAt;
+    private final Long tripId;
+    private final String pickup;
+    private final String destination;
+    private final BigDecimal loanAmount;
+    private final Long transporterId;
+    private final String transporterFirstName;
+    private final String transporterLastName;
+    private final String transporterCompanyName;
+    private final Long contractId;
+    private final BigDecimal interestRate;
+    private final Integer maturityDays;
+}
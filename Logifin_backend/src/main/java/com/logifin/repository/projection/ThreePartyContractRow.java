@@ -0,0 +1,18 @@
+package com.logifin.repository.projection;
+
+import com.logifin.entity.Contract;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An active contract together with the transporter and sender it was matched on,
+ * as returned by the batch three-party contract lookup.
+ */
+@Getter
+@AllArgsConstructor
+public class ThreePartyContractRow {
+
+    private final Long transporterId;
+    private final Long senderId;
+    private final Contract contract;
+}
@@ -0,0 +1,34 @@
+package com.logifin.repository.projection;
+
+import com.logifin.entity.TripFinanceProposal.ProposalStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of a proposal as listed to the trip's transporter: the proposal, its lender,
+ * and the contract terms. Read in one statement instead of walking lazy associations.
+ */
+@Getter
+@AllArgsConstructor
+public class TransporterInterestRow {
+
+    private final Long id;
+    private final ProposalStatus status;
+    private final LocalDateTime proposedAt;
+    private final LocalDateTime respondedAt;
+    private final Long lenderId;
+    private final String lenderFirstName;
+    private final String lenderLastName;
+    private final String lenderCompanyName;
+    private final Long contractId;
+    private final BigDecimal interestRate;
+    private final Integer maturityDays;
+    private final LocalDate contractExpiryDate;
+    private final BigDecimal loanPercent;
+    private final BigDecimal ltv;
+    private final BigDecimal penaltyRatio;
+}
@@ -0,0 +1,17 @@
+package com.logifin.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a trip document's thumbnail columns, without the original document data.
+ */
+public interface TripDocumentThumbnailView {
+
+    Long getId();
+
+    byte[] getThumbnailData();
+
+    String getThumbnailContentType();
+
+    LocalDateTime getThumbnailGeneratedAt();
+}
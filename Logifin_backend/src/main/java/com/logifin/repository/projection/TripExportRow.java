@@ -0,0 +1,56 @@
+package com.logifin.repository.projection;
+
+import com.logifin.entity.Trip;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only row of the trip columns written by exports and the search index.
+ * Sender and transporter are carried as ids only, so no user rows are loaded.
+ */
+@Getter
+@AllArgsConstructor
+public class TripExportRow {
+
+    private final Long id;
+    private final String pickup;
+    private final String destination;
+    private final Long senderId;
+    private final String receiver;
+    private final Long transporterId;
+    private final BigDecimal loanAmount;
+    private final BigDecimal interestRate;
+    private final Integer maturityDays;
+    private final BigDecimal distanceKm;
+    private final String loadType;
+    private final BigDecimal weightKg;
+    private final String notes;
+    private final Trip.TripStatus status;
+    private final LocalDateTime createdAt;
+
+    /**
+     * Snapshot an already loaded trip. Reading the sender/transporter ids does not
+     * initialize lazy proxies, so this is safe after the session has closed.
+     */
+    public static TripExportRow from(Trip trip) {
+        return new TripExportRow(
+                trip.getId(),
+                trip.getPickup(),
+                trip.getDestination(),
+                trip.getSender() != null ? trip.getSender().getId() : null,
+                trip.getReceiver(),
+                trip.getTransporter() != null ? trip.getTransporter().getId() : null,
+                trip.getLoanAmount(),
+                trip.getInterestRate(),
+                trip.getMaturityDays(),
+                trip.getDistanceKm(),
+                trip.getLoadType(),
+                trip.getWeightKg(),
+                trip.getNotes(),
+                trip.getStatus(),
+                trip.getCreatedAt());
+    }
+}
@@ -1,13 +1,16 @@
 package com.logifin.repository.specification;
 
 import com.logifin.dto.ContractSearchCriteria;
+import com.logifin.entity.Company;
 import com.logifin.entity.Contract;
+import com.logifin.entity.ContractParty;
+import com.logifin.entity.User;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
-import javax.persistence.criteria.Join;
-import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
@@ -133,12 +136,16 @@ public class ContractSpecification {
                 ));
             }
 
-            // Party user ID (contracts where user is a party)
+            // Party user ID (contracts where user is a party). EXISTS instead of a join keeps
+            // one row per contract, so the query needs no DISTINCT and pages in the database.
             if (criteria.getPartyUserId() != null) {
-                Join<Object, Object> partiesJoin = root.join("contractParties", JoinType.LEFT);
-                predicates.add(criteriaBuilder.equal(
-                        partiesJoin.get("user").get("id"), criteria.getPartyUserId()
-                ));
+                Subquery<Long> party = query.subquery(Long.class);
+                Root<ContractParty> contractParty = party.from(ContractParty.class);
+                party.select(contractParty.get("id")).where(
+                        criteriaBuilder.equal(contractParty.get("contract"), root),
+                        criteriaBuilder.equal(contractParty.get("user").get("id"), criteria.getPartyUserId())
+                );
+                predicates.add(criteriaBuilder.exists(party));
             }
 
             // Created by user ID (exact match)
@@ -148,32 +155,35 @@ public class ContractSpecification {
                 ));
             }
 
-            // Keyword search across multiple fields
+            // Keyword search across multiple fields. Manager and company names are matched through
+            // subqueries rather than an OR across joins, so each LIKE can use its table's trigram index.
             if (StringUtils.hasText(criteria.getKeyword())) {
                 String keyword = "%" + criteria.getKeyword().toLowerCase() + "%";
 
-                // Join with related entities for keyword search
-                Join<Object, Object> managerJoin = root.join("contractManager", JoinType.LEFT);
-                Join<Object, Object> companyJoin = root.join("consignerCompany", JoinType.LEFT);
+                Subquery<Long> managerIds = query.subquery(Long.class);
+                Root<User> manager = managerIds.from(User.class);
+                managerIds.select(manager.get("id")).where(criteriaBuilder.or(
+                        criteriaBuilder.like(criteriaBuilder.lower(manager.get("firstName")), keyword),
+                        criteriaBuilder.like(criteriaBuilder.lower(manager.get("lastName")), keyword)
+                ));
+
+                Subquery<Long> companyIds = query.subquery(Long.class);
+                Root<Company> company = companyIds.from(Company.class);
+                companyIds.select(company.get("id")).where(
+                        criteriaBuilder.like(criteriaBuilder.lower(company.get("name")), keyword)
+                );
 
                 Predicate keywordPredicate = criteriaBuilder.or(
                         // Contract number
                         criteriaBuilder.like(criteriaBuilder.lower(root.get("contractNumber")), keyword),
-                        // Manager first name
-                        criteriaBuilder.like(criteriaBuilder.lower(managerJoin.get("firstName")), keyword),
-                        // Manager last name
-                        criteriaBuilder.like(criteriaBuilder.lower(managerJoin.get("lastName")), keyword),
+                        // Manager first or last name
+                        root.get("contractManager").get("id").in(managerIds),
                         // Company name
-                        criteriaBuilder.like(criteriaBuilder.lower(companyJoin.get("name")), keyword)
+                        root.get("consignerCompany").get("id").in(companyIds)
                 );
                 predicates.add(keywordPredicate);
             }
 
-            // Avoid duplicate results when using joins
-            if (query != null) {
-                query.distinct(true);
-            }
-
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
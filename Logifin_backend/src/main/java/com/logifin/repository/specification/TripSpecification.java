@@ -2,10 +2,14 @@ package com.logifin.repository.specification;
 
 import com.logifin.dto.TripSearchCriteria;
 import com.logifin.entity.Trip;
+import com.logifin.entity.User;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -144,15 +148,24 @@ public class TripSpecification {
                 ));
             }
 
-            // Keyword search across multiple fields
+            // Keyword search across multiple fields. Sender and transporter are matched by name
+            // through a subquery on users, so each LIKE can use its table's trigram index.
             if (StringUtils.hasText(criteria.getKeyword())) {
                 String keyword = "%" + criteria.getKeyword().toLowerCase() + "%";
+
+                Subquery<Long> userIds = query.subquery(Long.class);
+                Root<User> user = userIds.from(User.class);
+                userIds.select(user.get("id")).where(criteriaBuilder.or(
+                        criteriaBuilder.like(criteriaBuilder.lower(user.get("firstName")), keyword),
+                        criteriaBuilder.like(criteriaBuilder.lower(user.get("lastName")), keyword)
+                ));
+
                 Predicate keywordPredicate = criteriaBuilder.or(
                         criteriaBuilder.like(criteriaBuilder.lower(root.get("pickup")), keyword),
                         criteriaBuilder.like(criteriaBuilder.lower(root.get("destination")), keyword),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("sender")), keyword),
                         criteriaBuilder.like(criteriaBuilder.lower(root.get("receiver")), keyword),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("transporter")), keyword)
+                        root.get("sender").get("id").in(userIds),
+                        root.get("transporter").get("id").in(userIds)
                 );
                 predicates.add(keywordPredicate);
             }
@@ -199,4 +212,19 @@ public class TripSpecification {
             return criteriaBuilder.equal(root.get("company").get("id"), companyId);
         };
     }
+
+    /**
+     * Create keyset specification for trips after the given position in (createdAt DESC, id DESC) order.
+     * The leading createdAt <= bound is redundant logically but lets PostgreSQL start an index range
+     * scan on idx_trip_created_at_id at the cursor; the OR alone is only applied as a filter.
+     */
+    public static Specification<Trip> createdBefore(LocalDateTime createdAt, Long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), createdAt),
+                criteriaBuilder.or(
+                        criteriaBuilder.lessThan(root.get("createdAt"), createdAt),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("createdAt"), createdAt),
+                                criteriaBuilder.lessThan(root.get("id"), id))));
+    }
 }
@@ -0,0 +1,51 @@
+package com.logifin.service;
+
+import com.logifin.dto.BulkUploadJobDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+/**
+ * Service interface for asynchronous trip bulk upload jobs.
+ */
+public interface BulkUploadJobService {
+
+    /**
+     * Store an uploaded CSV/Excel file as a new job and queue it for background processing
+     * @param file Uploaded file (CSV, XLS, or XLSX)
+     * @param userId ID of the user uploading
+     * @return Queued job
+     */
+    BulkUploadJobDTO submitJob(MultipartFile file, Long userId);
+
+    /**
+     * Get status, progress and a page of row errors of a job owned by the user
+     * @param jobId Job ID
+     * @param userId ID of the user requesting the status
+     * @param errorPage Page of row errors to include (0-indexed)
+     * @param errorSize Number of row errors per page
+     * @return Job status
+     */
+    BulkUploadJobDTO getJob(UUID jobId, Long userId, int errorPage, int errorSize);
+
+    /**
+     * Process a job, committing trips and progress one chunk at a time.
+     * Does nothing if the job is already owned by another worker. Afterwards, picks up
+     * any jobs that are still queued so a saturated executor never strands work.
+     * @param jobId Job ID
+     */
+    void runJob(UUID jobId);
+
+    /**
+     * Re-dispatch queued jobs and jobs abandoned mid-processing (e.g. after a restart)
+     */
+    void resumePendingJobs();
+
+    /**
+     * Refresh the heartbeat of every job this instance is processing, so a slow chunk does not
+     * get its job reclaimed. A job found taken over by another worker is stopped at its next row.
+     * Runs every app.bulk-upload.heartbeat-interval on a dedicated thread, independently of
+     * app.scheduling.enabled.
+     */
+    void refreshHeartbeats();
+}
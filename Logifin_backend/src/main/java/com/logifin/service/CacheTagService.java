@@ -0,0 +1,16 @@
+package com.logifin.service;
+
+/**
+ * Service interface for evicting cache entries by tag instead of clearing whole caches.
+ */
+public interface CacheTagService {
+
+    /**
+     * Evict every cache entry recorded under any of the tags (see CacheTags).
+     * Inside a transaction the eviction runs after commit, like @CacheEvict on a
+     * transaction-aware cache; otherwise it runs immediately.
+     *
+     * @param tags Tags to evict
+     */
+    void evictTags(String... tags);
+}
@@ -1,5 +1,6 @@
 package com.logifin.service;
 
+import com.logifin.dto.BinaryContentDTO;
 import com.logifin.dto.CompanyDTO;
 import com.logifin.dto.PagedResponse;
 import org.springframework.data.domain.Pageable;
@@ -28,6 +29,11 @@ public interface CompanyService {
 
     void deleteCompany(Long id);
 
+    /**
+     * Normalized logo image of a company, with its content hash as ETag
+     */
+    BinaryContentDTO getCompanyLogo(Long id);
+
     void activateCompany(Long id);
 
     void deactivateCompany(Long id);
@@ -47,6 +53,8 @@ public interface CompanyService {
 
     PagedResponse<CompanyDTO> searchCompanies(String keyword, Pageable pageable);
 
+    PagedResponse<CompanyDTO> searchCompaniesRanked(String keyword, Pageable pageable);
+
     PagedResponse<CompanyDTO> getCompaniesByCity(String city, Pageable pageable);
 
     PagedResponse<CompanyDTO> getCompaniesByState(String state, Pageable pageable);
@@ -0,0 +1,14 @@
+package com.logifin.service;
+
+/**
+ * Service interface for moving contracts past their expiry date to EXPIRED.
+ */
+public interface ContractExpiryService {
+
+    /**
+     * Expire ACTIVE contracts whose expiry date has passed, in batches, one transaction per batch.
+     * Safe to run on several instances at once: each batch skips contracts locked by another.
+     * @return number of contracts expired
+     */
+    int expireOverdueContracts();
+}
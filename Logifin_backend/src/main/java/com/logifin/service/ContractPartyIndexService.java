@@ -0,0 +1,35 @@
+package com.logifin.service;
+
+import java.util.List;
+
+/**
+ * Service interface for the in-memory index of active contracts by their three parties.
+ * Answers (lender, transporter, sender) lookups by intersecting per-user contract sets instead of
+ * running a multi-join query.
+ * The index is built on startup and refreshed after each committed contract change, on this node
+ * and, over Redis pub/sub, on the others. Callers confirm hits and misses against the database,
+ * since a change on another node may not have arrived yet.
+ */
+public interface ContractPartyIndexService {
+
+    /**
+     * Rebuild the whole index from contract_parties
+     */
+    void rebuild();
+
+    /**
+     * Re-read one contract and replace its index entries (removes it if deleted, inactive or expired)
+     */
+    void refreshContract(Long contractId);
+
+    /**
+     * Whether the index has been built and can answer lookups
+     */
+    boolean isReady();
+
+    /**
+     * Ids of active, non-expired contracts having all three users as parties, furthest expiry first.
+     * Empty when there is no such contract in the index or the index is not ready.
+     */
+    List<Long> findActiveContractIds(Long lenderId, Long transporterId, Long senderId);
+}
@@ -3,6 +3,8 @@ package com.logifin.service;
 import com.logifin.dto.*;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -25,10 +27,27 @@ public interface ContractService {
 
     PagedResponse<ContractResponse> searchContracts(ContractSearchCriteria criteria, Pageable pageable);
 
+    PagedResponse<ContractResponse> searchContractsByKeyword(String keyword, Pageable pageable);
+
+    PagedResponse<ContractResponse> searchContractsByKeywordRanked(String keyword, Pageable pageable);
+
     ContractResponse updateContract(Long id, UpdateContractRequest request);
 
     void deleteContract(Long id);
 
+    // ==================== Contract Document ====================
+
+    /**
+     * Metadata of a contract's document for the download response; data is not populated
+     */
+    BinaryContentDTO getContractDocumentMetadata(Long contractId);
+
+    /**
+     * Write a contract's document, failing if it is no longer the version described by the
+     * ETag of getContractDocumentMetadata, so the body always matches the response headers
+     */
+    void writeContractDocument(Long contractId, String etag, OutputStream out) throws IOException;
+
     // ==================== Contract Parties Management ====================
 
     ContractResponse addPartyToContract(Long contractId, ContractPartyDTO partyDTO);
@@ -87,6 +106,11 @@ public interface ContractService {
 
     List<Map<String, Object>> getTopConsignerCompanies(int limit);
 
+    /**
+     * Get all contract statistics from the precomputed snapshot, with the time it was computed
+     */
+    ContractStatisticsDTO getContractStatistics();
+
     // ==================== Business Logic ====================
 
     void expireOverdueContracts();
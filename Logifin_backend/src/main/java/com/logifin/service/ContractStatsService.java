@@ -0,0 +1,32 @@
+package com.logifin.service;
+
+import com.logifin.dto.ContractStatisticsDTO;
+
+/**
+ * Service interface for the precomputed contract statistics snapshot.
+ */
+public interface ContractStatsService {
+
+    /**
+     * Get the current snapshot, computing the first one if none exists yet
+     * @return Counts, averages and the time they were computed
+     */
+    ContractStatisticsDTO getStatistics();
+
+    /**
+     * Recompute the snapshot from the contracts table and replace it in one transaction
+     */
+    void refresh();
+
+    /**
+     * Refresh when the snapshot is older than its maximum age or enough contracts
+     * changed since the last refresh on this instance. Runs on a schedule.
+     */
+    void refreshIfStale();
+
+    /**
+     * Record contract writes that change the statistics, counted toward the refresh threshold
+     * @param count Number of contracts created, updated or deleted
+     */
+    void recordContractWrites(int count);
+}
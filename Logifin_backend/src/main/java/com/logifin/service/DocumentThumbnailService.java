@@ -0,0 +1,23 @@
+package com.logifin.service;
+
+import com.logifin.dto.BinaryContentDTO;
+
+/**
+ * Service interface for generating and serving trip document thumbnails.
+ */
+public interface DocumentThumbnailService {
+
+    /**
+     * Generate and store the thumbnail for a document
+     * @param documentId Document ID
+     * @return true if a thumbnail was stored
+     */
+    boolean generateThumbnail(Long documentId);
+
+    /**
+     * Get the thumbnail of a document
+     * @param documentId Document ID
+     * @return Thumbnail content
+     */
+    BinaryContentDTO getThumbnail(Long documentId);
+}
@@ -0,0 +1,20 @@
+package com.logifin.service;
+
+import java.util.Collection;
+
+/**
+ * Service interface for maintaining the lender financeable-trips feed.
+ * Feed writes join the caller's transaction, so the feed commits together with the change.
+ */
+public interface LenderTripFeedService {
+
+    /**
+     * Recompute the feed rows of the given trips
+     */
+    void refreshTrips(Collection<Long> tripIds);
+
+    /**
+     * Recompute the feed rows of every trip created or sent by the given users
+     */
+    void refreshTripsOfUsers(Collection<Long> userIds);
+}
@@ -0,0 +1,14 @@
+package com.logifin.service;
+
+/**
+ * Service interface for retiring finance proposals that can no longer be accepted.
+ */
+public interface ProposalSweeperService {
+
+    /**
+     * Expire or reject stale PENDING proposals in batches, one transaction per batch.
+     * Safe to run on several instances at once: each batch skips rows locked by another.
+     * @return number of proposals swept
+     */
+    int sweepStaleProposals();
+}
@@ -0,0 +1,19 @@
+package com.logifin.service;
+
+import com.logifin.dto.TripSearchCriteria;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service interface for counting trips off the request thread.
+ */
+public interface TripCountService {
+
+    /**
+     * Count trips matching the criteria on the count query executor
+     *
+     * @param criteria Search criteria
+     * @return Future completed with the number of matching trips
+     */
+    CompletableFuture<Long> countTrips(TripSearchCriteria criteria);
+}
@@ -2,8 +2,7 @@ package com.logifin.service;
 
 import com.logifin.dto.*;
 import com.logifin.entity.TripFinanceProposal.ProposalStatus;
-
-import java.util.List;
+import org.springframework.data.domain.Pageable;
 
 /**
  * Service interface for managing Trip Finance Proposals (Lender Interests).
@@ -22,12 +21,13 @@ public interface TripFinanceProposalService {
     BatchFinanceInterestResponse markInterestInMultipleTrips(Long lenderId, CreateFinanceInterestRequest request);
 
     /**
-     * Get all interests marked by a lender
+     * Get interests marked by a lender, newest first
      * @param lenderId ID of the lender
      * @param status Optional status filter (PENDING, ACCEPTED, REJECTED, WITHDRAWN)
-     * @return List of finance interests from lender's perspective
+     * @param pageable Page to return
+     * @return Page of finance interests from lender's perspective
      */
-    List<FinanceInterestForLenderDTO> getMyInterests(Long lenderId, ProposalStatus status);
+    PagedResponse<FinanceInterestForLenderDTO> getMyInterests(Long lenderId, ProposalStatus status, Pageable pageable);
 
     /**
      * Get a specific interest by ID (for lender)
@@ -47,12 +47,13 @@ public interface TripFinanceProposalService {
     // ==================== Transporter Operations ====================
 
     /**
-     * Get all interests for a specific trip (for transporter)
+     * Get interests for a specific trip (for transporter), newest first
      * @param transporterId ID of the transporter
      * @param tripId ID of the trip
-     * @return List of finance interests from transporter's perspective
+     * @param pageable Page to return
+     * @return Page of finance interests from transporter's perspective
      */
-    List<FinanceInterestForTransporterDTO> getInterestsForMyTrip(Long transporterId, Long tripId);
+    PagedResponse<FinanceInterestForTransporterDTO> getInterestsForMyTrip(Long transporterId, Long tripId, Pageable pageable);
 
     /**
      * Accept a lender's interest (auto-rejects other pending interests for the trip)
@@ -69,9 +70,10 @@ public interface TripFinanceProposalService {
     void rejectLender(Long transporterId, Long interestId);
 
     /**
-     * Get all interests for all trips of a transporter
+     * Get interests for all trips of a transporter, newest first
      * @param transporterId ID of the transporter
-     * @return List of all finance interests
+     * @param pageable Page to return
+     * @return Page of finance interests
      */
-    List<FinanceInterestForTransporterDTO> getAllInterestsForMyTrips(Long transporterId);
+    PagedResponse<FinanceInterestForTransporterDTO> getAllInterestsForMyTrips(Long transporterId, Pageable pageable);
 }
@@ -0,0 +1,46 @@
+package com.logifin.service;
+
+import com.logifin.dto.TripIndexSearchResult;
+import com.logifin.dto.TripSearchCriteria;
+import com.logifin.repository.projection.TripExportRow;
+
+import java.util.List;
+
+/**
+ * Service interface for the embedded trip full-text search index.
+ * The index is local to each application instance, kept in step with changes made on other
+ * instances over Redis pub/sub; the database stays the source of truth.
+ */
+public interface TripSearchIndexService {
+
+    /**
+     * Add or replace the index entries of the given trips
+     */
+    void upsert(List<TripExportRow> trips);
+
+    /**
+     * Remove the index entries of the given trips
+     */
+    void delete(List<Long> tripIds);
+
+    /**
+     * Re-read the given trips from the database, indexing those that exist and removing the rest
+     */
+    void reindex(List<Long> tripIds);
+
+    /**
+     * Re-index every trip from the database
+     */
+    void rebuild();
+
+    /**
+     * Search the index, newest trips first
+     *
+     * @param criteria Keyword, text, status, loan amount and created date filters
+     * @param page 0-indexed page number
+     * @param size Page size
+     * @param facetLimit Maximum number of values returned per facet (1 to 100)
+     * @return Page of matching trip ids with total hits and facet counts
+     */
+    TripIndexSearchResult search(TripSearchCriteria criteria, int page, int size, int facetLimit);
+}
@@ -4,7 +4,10 @@ import com.logifin.dto.*;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for Trip management operations.
@@ -60,6 +63,29 @@ public interface TripService {
      */
     PagedResponse<TripResponseDTO> searchTrips(TripSearchCriteria criteria, Pageable pageable);
 
+    /**
+     * Search trips with criteria using keyset pagination on (createdAt DESC, id DESC).
+     * Cost does not grow with depth, and no count query runs unless the total is requested.
+     * @param criteria Search criteria
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param size Page size (1 to 100)
+     * @param includeTotal Whether to count all matches; the count runs concurrently with the page query
+     * @return Page of trips with the cursor of the next page
+     */
+    CursorPagedResponse<TripResponseDTO> searchTrips(TripSearchCriteria criteria, String cursor, int size,
+                                                     boolean includeTotal);
+
+    /**
+     * Get the trips a lender can finance now, newest first, from the precomputed lender feed:
+     * trips whose transporter and consigner share an active contract with the lender and that
+     * have no accepted proposal yet.
+     * @param lenderId Lender user ID
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param size Page size (1 to 100)
+     * @return Page of trips with the cursor of the next page
+     */
+    CursorPagedResponse<TripResponseDTO> getFinanceableTrips(Long lenderId, String cursor, int size);
+
     /**
      * Search trips by keyword
      * @param keyword Keyword to search
@@ -68,6 +94,25 @@ public interface TripService {
      */
     PagedResponse<TripResponseDTO> searchByKeyword(String keyword, Pageable pageable);
 
+    /**
+     * Search trips by keyword, most relevant first (trigram similarity, tolerates typos)
+     * @param keyword Keyword to search
+     * @param pageable Pagination info; any sort is ignored
+     * @return Paginated search results ordered by relevance
+     */
+    PagedResponse<TripResponseDTO> searchByKeywordRanked(String keyword, Pageable pageable);
+
+    /**
+     * Search trips through the embedded full-text index, newest first.
+     * Matching ids and facet counts come from the index; only the requested page is loaded from the database.
+     * @param criteria Keyword, text, status, loan amount and created date filters
+     * @param page 0-indexed page number
+     * @param size Page size
+     * @param facetLimit Maximum number of values returned per facet
+     * @return Page of trips with status, load type and top lane counts over all matches
+     */
+    TripFacetedSearchResultDTO facetedSearch(TripSearchCriteria criteria, int page, int size, int facetLimit);
+
     /**
      * Finance a trip by linking it to a lender's contract
      * @param tripId Trip ID to finance
@@ -80,13 +125,24 @@ public interface TripService {
     // ==================== Bulk Operations ====================
 
     /**
-     * Bulk upload trips from CSV/Excel file
+     * Bulk upload trips from CSV/Excel file.
+     * Rows are inserted in chunks that each commit in their own transaction.
      * @param file Uploaded file (CSV, XLS, or XLSX)
      * @param userId ID of the user uploading
      * @return Bulk upload response with success/failure details
      */
     BulkUploadResponseDTO bulkUploadTrips(MultipartFile file, Long userId);
 
+    /**
+     * Build and insert one chunk of parsed bulk upload rows.
+     * Runs in the caller's transaction; created trip ids and per-row errors are added to the response.
+     * A failed insert is rethrown so the caller rolls back the whole chunk.
+     * @param rows Parsed rows keyed by their row number in the uploaded file
+     * @param userId ID of the user uploading
+     * @param response Accumulator for created trip ids and row errors
+     */
+    void saveBulkUploadChunk(Map<Integer, TripRequestDTO> rows, Long userId, BulkUploadResponseDTO response);
+
     // ==================== Export Operations ====================
 
     /**
@@ -96,6 +152,14 @@ public interface TripService {
      */
     byte[] exportTripsToCsv(TripSearchCriteria criteria);
 
+    /**
+     * Write trips as CSV straight to a stream, reading them from a database cursor
+     * @param criteria Optional search criteria
+     * @param out Destination stream; flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    void writeTripsCsv(TripSearchCriteria criteria, OutputStream out) throws IOException;
+
     /**
      * Export trips to Excel
      * @param criteria Optional search criteria
@@ -103,6 +167,14 @@ public interface TripService {
      */
     byte[] exportTripsToExcel(TripSearchCriteria criteria);
 
+    /**
+     * Write trips as an Excel workbook straight to a stream, reading them from a database cursor
+     * @param criteria Optional search criteria
+     * @param out Destination stream; flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    void writeTripsExcel(TripSearchCriteria criteria, OutputStream out) throws IOException;
+
     /**
      * Get CSV template for bulk upload
      * @return CSV template content as bytes
@@ -134,6 +206,18 @@ public interface TripService {
      */
     TripDocumentDTO.TripDocumentMetadataDTO uploadDocument(Long tripId, TripDocumentDTO documentDTO, Long userId);
 
+    /**
+     * Upload a document for a trip as a multipart binary file
+     * @param tripId Trip ID
+     * @param documentTypeCode Document type code (e.g., "EWAY_BILL")
+     * @param documentNumber Optional document reference number
+     * @param file Uploaded file
+     * @param userId ID of the user uploading
+     * @return Document metadata response
+     */
+    TripDocumentDTO.TripDocumentMetadataDTO uploadDocumentFile(Long tripId, String documentTypeCode,
+                                                               String documentNumber, MultipartFile file, Long userId);
+
     /**
      * Get all documents for a trip
      * @param tripId Trip ID
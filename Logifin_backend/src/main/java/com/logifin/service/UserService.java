@@ -37,5 +37,7 @@ public interface UserService {
 
     PagedResponse<UserDTO> searchUsers(String keyword, Pageable pageable);
 
+    PagedResponse<UserDTO> searchUsersRanked(String keyword, Pageable pageable);
+
     PagedResponse<UserDTO> getUsersByRole(String roleName, Pageable pageable);
 }
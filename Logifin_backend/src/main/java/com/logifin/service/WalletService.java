@@ -3,9 +3,11 @@ package com.logifin.service;
 import com.logifin.dto.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 public interface WalletService {
 
@@ -33,6 +35,11 @@ public interface WalletService {
      */
     TransactionResponseDTO processRepaymentTransfer(RepaymentTransferRequest request, Long enteredByUserId);
 
+    /**
+     * Attach a payment proof uploaded as multipart binary content to an existing transaction
+     */
+    TransactionDocumentDTO uploadProofDocument(UUID transactionId, MultipartFile file);
+
     WalletStatementDTO getWalletStatement(Long userId, LocalDateTime fromDate, LocalDateTime toDate);
 
     Page<TransactionEntryDTO> getWalletHistory(Long userId, Pageable pageable);
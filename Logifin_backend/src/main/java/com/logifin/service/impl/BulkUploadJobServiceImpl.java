@@ -0,0 +1,456 @@
+package com.logifin.service.impl;
+
+import com.logifin.config.UploadConfig;
+import com.logifin.dto.BulkUploadJobDTO;
+import com.logifin.dto.BulkUploadResponseDTO;
+import com.logifin.dto.ErrorRowDTO;
+import com.logifin.dto.TripRequestDTO;
+import com.logifin.entity.BulkUploadJob;
+import com.logifin.entity.BulkUploadJobError;
+import com.logifin.event.BulkUploadJobSubmittedEvent;
+import com.logifin.exception.BadRequestException;
+import com.logifin.exception.ResourceNotFoundException;
+import com.logifin.repository.BulkUploadJobErrorRepository;
+import com.logifin.repository.BulkUploadJobRepository;
+import com.logifin.repository.projection.BulkUploadJobView;
+import com.logifin.service.BulkUploadJobService;
+import com.logifin.service.TripService;
+import com.logifin.util.FileUploadUtil;
+import com.logifin.util.TripExcelParser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of BulkUploadJobService.
+ * A job streams its stored file through TripExcelParser and commits every chunk of rows
+ * in its own transaction together with the job progress. The progress therefore always
+ * matches what was saved, and a job interrupted by a restart resumes after its last
+ * committed row without creating duplicate trips.
+ * Each claim carries a fresh token that every progress write must match, so a worker whose
+ * job was reclaimed (e.g. after a long pause) rolls back its chunk and stops instead of
+ * writing alongside the new owner.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkUploadJobServiceImpl implements BulkUploadJobService {
+
+    private static final int MAX_ERROR_PAGE_SIZE = 500;
+
+    private final BulkUploadJobRepository jobRepository;
+    private final BulkUploadJobErrorRepository jobErrorRepository;
+    private final TripService tripService;
+    private final TripExcelParser tripExcelParser;
+    private final UploadConfig uploadConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.bulk-upload.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.bulk-upload.stale-after:PT5M}")
+    private Duration staleAfter;
+
+    @Value("${app.bulk-upload.heartbeat-interval:PT1M}")
+    private Duration heartbeatInterval;
+
+    // Claim tokens of the jobs this instance is processing
+    private final Map<UUID, UUID> activeClaims = new ConcurrentHashMap<>();
+
+    // Heartbeats get their own thread: they must keep running when app.scheduling.enabled is off
+    // and must not queue behind the maintenance jobs sharing the default scheduler thread
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "bulk-upload-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void startHeartbeats() {
+        long interval = heartbeatInterval.toMillis();
+        heartbeatExecutor.scheduleWithFixedDelay(this::refreshHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopHeartbeats() {
+        heartbeatExecutor.shutdownNow();
+    }
+
+    @Override
+    @Transactional
+    public BulkUploadJobDTO submitJob(MultipartFile file, Long userId) {
+        String filename = file.getOriginalFilename();
+        if (filename == null || !isSupportedFile(filename)) {
+            throw new BadRequestException("Unsupported file format. Please use CSV, XLS, or XLSX");
+        }
+        byte[] data = FileUploadUtil.readBounded(file, uploadConfig.getMaxBulkUploadSize().toBytes());
+
+        BulkUploadJob job = jobRepository.save(BulkUploadJob.builder()
+                .createdByUserId(userId)
+                .fileName(filename)
+                .fileData(data)
+                .build());
+        eventPublisher.publishEvent(new BulkUploadJobSubmittedEvent(job.getJobId()));
+
+        log.info("Bulk upload job {} queued for user {} ({} bytes)", job.getJobId(), userId, data.length);
+        return BulkUploadJobDTO.builder()
+                .jobId(job.getJobId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .createdAt(job.getCreatedAt())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BulkUploadJobDTO getJob(UUID jobId, Long userId, int errorPage, int errorSize) {
+        BulkUploadJobView job = jobRepository.findViewById(jobId)
+                .filter(view -> view.getCreatedByUserId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("BulkUploadJob", "id", jobId));
+
+        int size = Math.min(Math.max(errorSize, 1), MAX_ERROR_PAGE_SIZE);
+        List<ErrorRowDTO> errors = jobErrorRepository
+                .findByJobIdOrderByRowNumberAscIdAsc(jobId, PageRequest.of(Math.max(errorPage, 0), size))
+                .map(this::mapToErrorRow)
+                .getContent();
+
+        return BulkUploadJobDTO.builder()
+                .jobId(job.getJobId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .processedRows(job.getProcessedRows())
+                .successCount(job.getSuccessCount())
+                .failureCount(job.getFailureCount())
+                .lastRowNumber(job.getLastRowNumber())
+                .rowsPerSecond(calculateThroughput(job))
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .errors(new ArrayList<>(errors))
+                .build();
+    }
+
+    @Override
+    public void runJob(UUID jobId) {
+        boolean ran = processJob(jobId);
+
+        // Drain jobs left queued because the executor was saturated, or abandoned by a dead worker
+        while (ran) {
+            ran = false;
+            List<UUID> runnable = new TransactionTemplate(transactionManager)
+                    .execute(status -> findRunnableJobIds());
+            for (UUID next : runnable) {
+                if (processJob(next)) {
+                    ran = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void resumePendingJobs() {
+        List<UUID> runnable = new TransactionTemplate(transactionManager)
+                .execute(status -> findRunnableJobIds());
+        if (!runnable.isEmpty()) {
+            log.info("Resuming {} pending bulk upload job(s)", runnable.size());
+        }
+        runnable.forEach(jobId -> eventPublisher.publishEvent(new BulkUploadJobSubmittedEvent(jobId)));
+    }
+
+    @Override
+    public void refreshHeartbeats() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        activeClaims.forEach((jobId, claimToken) -> {
+            try {
+                Integer updated = transaction.execute(status ->
+                        jobRepository.heartbeat(jobId, claimToken, LocalDateTime.now()));
+                if (updated == null || updated == 0) {
+                    log.warn("Bulk upload job {} was claimed by another worker", jobId);
+                    activeClaims.remove(jobId, claimToken);
+                }
+            } catch (RuntimeException e) {
+                // The next tick retries; the job only goes stale after several missed heartbeats
+                log.error("Bulk upload job {} heartbeat failed: {}", jobId, e.getMessage());
+            }
+        });
+    }
+
+    // ==================== Job Processing ====================
+
+    /**
+     * Claim and process a single job.
+     * @return true if this worker claimed the job
+     */
+    private boolean processJob(UUID jobId) {
+        UUID claimToken = UUID.randomUUID();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer claimed = transaction.execute(status ->
+                jobRepository.claim(jobId, claimToken, BulkUploadJob.JobStatus.QUEUED,
+                        BulkUploadJob.JobStatus.PROCESSING, LocalDateTime.now(), staleBefore()));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+        activeClaims.put(jobId, claimToken);
+
+        try {
+            BulkUploadJobView job = jobRepository.findViewById(jobId)
+                    .orElseThrow(() -> new ResourceNotFoundException("BulkUploadJob", "id", jobId));
+            byte[] data = jobRepository.findFileDataById(jobId).orElse(null);
+            if (data == null) {
+                finishJob(jobId, claimToken, BulkUploadJob.JobStatus.FAILED, "Uploaded file is no longer available");
+                return true;
+            }
+            if (job.getLastRowNumber() > 0) {
+                log.info("Resuming bulk upload job {} after row {}", jobId, job.getLastRowNumber());
+            }
+
+            JobChunkWriter writer = new JobChunkWriter(jobId, claimToken, job.getCreatedByUserId(),
+                    job.getLastRowNumber());
+            if (job.getFileName().toLowerCase().endsWith(".csv")) {
+                tripExcelParser.parseCsvParallel(new ByteArrayInputStream(data), writer.parseResult, writer::accept);
+            } else {
+                tripExcelParser.parseExcel(new ByteArrayInputStream(data), job.getFileName(),
+                        writer.parseResult, writer::accept);
+            }
+            String fileError = writer.finish();
+
+            if (fileError != null) {
+                finishJob(jobId, claimToken, BulkUploadJob.JobStatus.FAILED, fileError);
+            } else {
+                finishJob(jobId, claimToken, BulkUploadJob.JobStatus.COMPLETED, null);
+            }
+            log.info("Bulk upload job {} finished", jobId);
+        } catch (ClaimLostException e) {
+            log.warn("Bulk upload job {} stopped: {}", jobId, e.getMessage());
+        } catch (Exception e) {
+            log.error("Bulk upload job {} failed: {}", jobId, e.getMessage());
+            finishJob(jobId, claimToken, BulkUploadJob.JobStatus.FAILED, e.getMessage());
+        } finally {
+            activeClaims.remove(jobId, claimToken);
+        }
+        return true;
+    }
+
+    private void finishJob(UUID jobId, UUID claimToken, BulkUploadJob.JobStatus status, String errorMessage) {
+        Integer updated = new TransactionTemplate(transactionManager).execute(tx ->
+                jobRepository.finish(jobId, claimToken, status, errorMessage, LocalDateTime.now()));
+        if (updated == null || updated == 0) {
+            log.warn("Bulk upload job {} was claimed by another worker, not marking it {}", jobId, status);
+        }
+    }
+
+    /**
+     * Receives parsed rows of one job and commits them chunk by chunk.
+     * Rows (and their parse errors) up to the job's resume point were committed by an
+     * earlier run and are skipped.
+     */
+    private class JobChunkWriter {
+
+        private final UUID jobId;
+        private final UUID claimToken;
+        private final Long userId;
+        private final int resumeAfterRow;
+        private final BulkUploadResponseDTO parseResult = BulkUploadResponseDTO.builder().build();
+        private final Map<Integer, TripRequestDTO> pendingRows = new LinkedHashMap<>();
+        private int lastRowNumber;
+        private String fileError;
+
+        JobChunkWriter(UUID jobId, UUID claimToken, Long userId, int resumeAfterRow) {
+            this.jobId = jobId;
+            this.claimToken = claimToken;
+            this.userId = userId;
+            this.resumeAfterRow = resumeAfterRow;
+            this.lastRowNumber = resumeAfterRow;
+        }
+
+        void accept(int rowNumber, TripRequestDTO request) {
+            if (!claimToken.equals(activeClaims.get(jobId))) {
+                throw new ClaimLostException(jobId);
+            }
+            if (rowNumber <= resumeAfterRow) {
+                return;
+            }
+            pendingRows.put(rowNumber, request);
+            lastRowNumber = Math.max(lastRowNumber, rowNumber);
+            if (pendingRows.size() >= chunkSize) {
+                commitChunk(false);
+            }
+        }
+
+        /**
+         * Commit the remaining rows and errors
+         * @return File-level error message if the file could not be read, null otherwise
+         */
+        String finish() {
+            commitChunk(true);
+            return fileError;
+        }
+
+        private void commitChunk(boolean lastChunk) {
+            List<ErrorRowDTO> parseErrors = drainParseErrors(lastChunk);
+            if (pendingRows.isEmpty() && parseErrors.isEmpty()) {
+                return;
+            }
+
+            BulkUploadResponseDTO chunkResult = BulkUploadResponseDTO.builder().build();
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            try {
+                transaction.executeWithoutResult(status -> {
+                    if (!pendingRows.isEmpty()) {
+                        tripService.saveBulkUploadChunk(pendingRows, userId, chunkResult);
+                    }
+                    List<ErrorRowDTO> errors = new ArrayList<>(parseErrors);
+                    errors.addAll(chunkResult.getErrors());
+                    recordChunk(chunkResult.getSuccessfulTripIds().size(), errors);
+                });
+            } catch (ClaimLostException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                // The chunk was rolled back - none of its trips exist, report every row as failed
+                log.error("Bulk upload job {} chunk ending at row {} failed: {}", jobId, lastRowNumber, e.getMessage());
+                Map<Integer, ErrorRowDTO> rowErrors = chunkResult.getErrors().stream()
+                        .collect(Collectors.toMap(ErrorRowDTO::getRowNumber, error -> error, (a, b) -> a));
+                List<ErrorRowDTO> errors = new ArrayList<>(parseErrors);
+                pendingRows.forEach((rowNumber, request) -> errors.add(rowErrors.containsKey(rowNumber)
+                        ? rowErrors.get(rowNumber)
+                        : databaseError(rowNumber, request, e.getMessage())));
+                transaction.executeWithoutResult(status -> recordChunk(0, errors));
+            }
+            pendingRows.clear();
+        }
+
+        /**
+         * Record the chunk's errors and progress; throwing when the job was taken over rolls
+         * back the chunk, trips included
+         */
+        private void recordChunk(int successCount, List<ErrorRowDTO> errors) {
+            jobErrorRepository.saveAll(errors.stream()
+                    .map(error -> mapToErrorEntity(jobId, error))
+                    .collect(Collectors.toList()));
+            if (jobRepository.recordChunk(jobId, claimToken, lastRowNumber, successCount, errors.size(),
+                    LocalDateTime.now()) == 0) {
+                activeClaims.remove(jobId, claimToken);
+                throw new ClaimLostException(jobId);
+            }
+        }
+
+        /**
+         * Take the parser's accumulated row errors, dropping those committed by an earlier run.
+         * Errors past the last row handed over wait for a later chunk: committing them now would
+         * move the resume point past valid rows still to come. The last chunk takes them all.
+         * Row 0 errors mean the file itself could not be read and fail the job.
+         */
+        private List<ErrorRowDTO> drainParseErrors(boolean all) {
+            List<ErrorRowDTO> errors = new ArrayList<>();
+            Iterator<ErrorRowDTO> pending = parseResult.getErrors().iterator();
+            while (pending.hasNext()) {
+                ErrorRowDTO error = pending.next();
+                if (error.getRowNumber() == 0) {
+                    fileError = error.getErrors().isEmpty() ? "Error processing file" : error.getErrors().get(0);
+                } else if (error.getRowNumber() > resumeAfterRow) {
+                    if (!all && error.getRowNumber() > lastRowNumber) {
+                        continue;
+                    }
+                    errors.add(error);
+                    lastRowNumber = Math.max(lastRowNumber, error.getRowNumber());
+                }
+                pending.remove();
+            }
+            return errors;
+        }
+    }
+
+    /**
+     * Thrown when a job was claimed by another worker; stops processing without touching the job
+     */
+    private static class ClaimLostException extends RuntimeException {
+
+        ClaimLostException(UUID jobId) {
+            super("job " + jobId + " was claimed by another worker");
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private boolean isSupportedFile(String filename) {
+        String lowerFilename = filename.toLowerCase();
+        return lowerFilename.endsWith(".csv") || lowerFilename.endsWith(".xlsx") || lowerFilename.endsWith(".xls");
+    }
+
+    private List<UUID> findRunnableJobIds() {
+        return jobRepository.findRunnableJobIds(
+                BulkUploadJob.JobStatus.QUEUED, BulkUploadJob.JobStatus.PROCESSING, staleBefore());
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minus(staleAfter);
+    }
+
+    private Double calculateThroughput(BulkUploadJobView job) {
+        if (job.getStartedAt() == null || job.getProcessedRows() == 0) {
+            return null;
+        }
+        LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+        long millis = Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1);
+        return Math.round(job.getProcessedRows() * 10000.0 / millis) / 10.0;
+    }
+
+    private ErrorRowDTO databaseError(int rowNumber, TripRequestDTO request, String message) {
+        return ErrorRowDTO.builder()
+                .rowNumber(rowNumber)
+                .rowIdentifier("TransporterID:" + request.getTransporterId() + " - " + request.getPickup())
+                .errorType(ErrorRowDTO.ErrorType.DATABASE_ERROR)
+                .errors(new ArrayList<>(Collections.singletonList(message)))
+                .build();
+    }
+
+    private BulkUploadJobError mapToErrorEntity(UUID jobId, ErrorRowDTO error) {
+        return BulkUploadJobError.builder()
+                .jobId(jobId)
+                .rowNumber(error.getRowNumber())
+                .rowIdentifier(truncate(error.getRowIdentifier(), 500))
+                .errorType(error.getErrorType() != null
+                        ? error.getErrorType().name() : ErrorRowDTO.ErrorType.VALIDATION_ERROR.name())
+                .messages(error.getErrors() != null ? String.join("\n", error.getErrors()) : null)
+                .rawData(error.getRawData())
+                .build();
+    }
+
+    private ErrorRowDTO mapToErrorRow(BulkUploadJobError error) {
+        return ErrorRowDTO.builder()
+                .rowNumber(error.getRowNumber())
+                .rowIdentifier(error.getRowIdentifier())
+                .errorType(error.getErrorType() != null ? ErrorRowDTO.ErrorType.valueOf(error.getErrorType()) : null)
+                .errors(error.getMessages() != null
+                        ? new ArrayList<>(Arrays.asList(error.getMessages().split("\n")))
+                        : new ArrayList<>())
+                .rawData(error.getRawData())
+                .build();
+    }
+
+    private String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
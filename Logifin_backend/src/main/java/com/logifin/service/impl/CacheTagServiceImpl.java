@@ -0,0 +1,105 @@
+package com.logifin.service.impl;
+
+import com.logifin.config.CacheTagRegistry;
+import com.logifin.config.TaggingCacheManager;
+import com.logifin.service.CacheTagService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of CacheTagService.
+ * Evicts through the undecorated caches: the eviction already runs after commit, and a
+ * transaction-aware cache would defer it to a synchronization that no longer fires.
+ */
+@Service
+@Slf4j
+public class CacheTagServiceImpl implements CacheTagService {
+
+    private final CacheManager cacheManager;
+    private final CacheTagRegistry tagRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public CacheTagServiceImpl(CacheManager cacheManager, CacheTagRegistry tagRegistry, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager instanceof TaggingCacheManager
+                ? ((TaggingCacheManager) cacheManager).getDelegate() : cacheManager;
+        this.tagRegistry = tagRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void evictTags(String... tags) {
+        List<String> tagList = Arrays.asList(tags);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(tagList);
+                }
+            });
+        } else {
+            evictNow(tagList);
+        }
+    }
+
+    private void evictNow(List<String> tags) {
+        for (String tag : tags) {
+            try {
+                Set<String> members = tagRegistry.claim(tag);
+                int evicted = 0;
+                for (String member : members) {
+                    if (evict(member)) {
+                        evicted++;
+                    }
+                }
+                fanOut(tag).record(evicted);
+                log.debug("Evicted {} cache entries tagged {}", evicted, tag);
+            } catch (RuntimeException e) {
+                // Same policy as CustomCacheErrorHandler: a cache failure must not fail the write
+                log.error("Cache tag eviction error - tag: {}, error: {}", tag, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Evict one "cacheName::key" member, returning false if its cache is unknown
+     */
+    private boolean evict(String member) {
+        int separator = member.indexOf("::");
+        if (separator < 0) {
+            return false;
+        }
+        Cache cache = cacheManager.getCache(member.substring(0, separator));
+        if (cache == null) {
+            return false;
+        }
+        if (cache instanceof TransactionAwareCacheDecorator) {
+            cache = ((TransactionAwareCacheDecorator) cache).getTargetCache();
+        }
+        cache.evict(member.substring(separator + 2));
+        return true;
+    }
+
+    /**
+     * Entries evicted per tag, by tag kind ("contract", "contract:lists") so ids stay out of the meter tags
+     */
+    private DistributionSummary fanOut(String tag) {
+        int idSeparator = tag.lastIndexOf(':');
+        String kind = tag.endsWith(":lists") || idSeparator < 0 ? tag : tag.substring(0, idSeparator);
+        return DistributionSummary.builder("cache.tag.eviction.fanout")
+                .description("Cache entries evicted per tag eviction")
+                .baseUnit("entries")
+                .tag("tag", kind)
+                .register(meterRegistry);
+    }
+}
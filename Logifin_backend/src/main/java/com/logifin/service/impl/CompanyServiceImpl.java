@@ -1,25 +1,36 @@
 package com.logifin.service.impl;
 
 import com.logifin.config.CacheConfig;
+import com.logifin.config.CacheTags;
+import com.logifin.dto.BinaryContentDTO;
 import com.logifin.dto.CompanyDTO;
 import com.logifin.dto.PagedResponse;
 import com.logifin.entity.Company;
+import com.logifin.entity.CompanyLogo;
 import com.logifin.entity.User;
+import com.logifin.exception.BadRequestException;
 import com.logifin.exception.DuplicateResourceException;
 import com.logifin.exception.ResourceNotFoundException;
+import com.logifin.repository.CompanyLogoRepository;
 import com.logifin.repository.CompanyRepository;
 import com.logifin.repository.UserRepository;
+import com.logifin.service.CacheTagService;
 import com.logifin.service.CompanyService;
+import com.logifin.util.CompanyLogoUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,11 +41,17 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CompanyServiceImpl implements CompanyService {
 
+    private static final String LOGO_URL_PREFIX = "/api/v1/companies/";
+
     private final CompanyRepository companyRepository;
+    private final CompanyLogoRepository companyLogoRepository;
     private final UserRepository userRepository;
+    private final CacheTagService cacheTagService;
+
+    @Value("${app.company.logo.max-dimension:256}")
+    private int logoMaxDimension;
 
     @Override
-    @CacheEvict(value = CacheConfig.CACHE_COMPANIES, allEntries = true)
     public CompanyDTO createCompany(CompanyDTO companyDTO) {
         log.debug("Creating company: {}", companyDTO.getName());
 
@@ -59,8 +76,13 @@ public class CompanyServiceImpl implements CompanyService {
             throw new DuplicateResourceException("Company", "companyRegistrationNumber", companyDTO.getCompanyRegistrationNumber());
         }
 
+        byte[] logo = StringUtils.hasText(companyDTO.getLogoBase64()) ? normalizeLogo(companyDTO.getLogoBase64()) : null;
         Company company = mapToEntity(companyDTO);
         Company savedCompany = companyRepository.save(company);
+        if (logo != null) {
+            saveLogo(savedCompany, logo);
+        }
+        cacheTagService.evictTags(CacheTags.lists(CacheTags.COMPANY));
         return mapToDTO(savedCompany);
     }
 
@@ -130,10 +152,7 @@ public class CompanyServiceImpl implements CompanyService {
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_COMPANIES, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id")
     public CompanyDTO updateCompany(Long id, CompanyDTO companyDTO) {
         log.debug("Updating company with id: {}", id);
         Company existingCompany = companyRepository.findById(id)
@@ -167,7 +186,15 @@ public class CompanyServiceImpl implements CompanyService {
         // Update fields
         existingCompany.setName(companyDTO.getName());
         existingCompany.setDisplayName(companyDTO.getDisplayName());
-        existingCompany.setLogoBase64(companyDTO.getLogoBase64());
+        // Responses no longer echo the logo, so a missing logoBase64 keeps it and an empty one removes it
+        if (companyDTO.getLogoBase64() != null) {
+            if (StringUtils.hasText(companyDTO.getLogoBase64())) {
+                saveLogo(existingCompany, normalizeLogo(companyDTO.getLogoBase64()));
+            } else if (existingCompany.getLogoHash() != null) {
+                companyLogoRepository.deleteByCompanyId(id);
+                existingCompany.setLogoHash(null);
+            }
+        }
         existingCompany.setDescription(companyDTO.getDescription());
         existingCompany.setWebsite(companyDTO.getWebsite());
         existingCompany.setEmail(companyDTO.getEmail());
@@ -187,53 +214,60 @@ public class CompanyServiceImpl implements CompanyService {
         }
 
         Company updatedCompany = companyRepository.save(existingCompany);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.COMPANY, id));
         return mapToDTO(updatedCompany);
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_COMPANIES, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id")
     public void deleteCompany(Long id) {
         log.debug("Deleting company with id: {}", id);
         if (!companyRepository.existsById(id)) {
             throw new ResourceNotFoundException("Company", "id", id);
         }
+        companyLogoRepository.deleteByCompanyId(id);
         companyRepository.deleteById(id);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.COMPANY, id));
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_COMPANIES, allEntries = true)
-    })
+    @Transactional(readOnly = true)
+    public BinaryContentDTO getCompanyLogo(Long id) {
+        CompanyLogo logo = companyLogoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("CompanyLogo", "companyId", id));
+        return BinaryContentDTO.builder()
+                .data(logo.getLogoData())
+                .contentType(logo.getContentType())
+                .size((long) logo.getLogoData().length)
+                .etag("\"" + logo.getContentHash() + "\"")
+                .lastModified(logo.getUpdatedAt())
+                .build();
+    }
+
+    @Override
+    @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id")
     public void activateCompany(Long id) {
         log.debug("Activating company with id: {}", id);
         Company company = companyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Company", "id", id));
         company.setIsActive(true);
         companyRepository.save(company);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.COMPANY, id));
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_COMPANIES, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id")
     public void deactivateCompany(Long id) {
         log.debug("Deactivating company with id: {}", id);
         Company company = companyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Company", "id", id));
         company.setIsActive(false);
         companyRepository.save(company);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.COMPANY, id));
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_COMPANIES, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_COMPANY_BY_ID, key = "#id")
     public void verifyCompany(Long id, Long verifiedByUserId) {
         log.debug("Verifying company with id: {} by user: {}", id, verifiedByUserId);
         Company company = companyRepository.findById(id)
@@ -246,6 +280,7 @@ public class CompanyServiceImpl implements CompanyService {
         company.setVerifiedAt(LocalDateTime.now());
         company.setVerifiedBy(verifiedBy);
         companyRepository.save(company);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.COMPANY, id));
     }
 
     // Paginated methods
@@ -316,6 +351,19 @@ public class CompanyServiceImpl implements CompanyService {
         return PagedResponse.of(companyPage, companyDTOs);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<CompanyDTO> searchCompaniesRanked(String keyword, Pageable pageable) {
+        log.debug("Searching companies by keyword ranked by relevance: {} with pagination: page={}, size={}", keyword, pageable.getPageNumber(), pageable.getPageSize());
+        // Relevance is the order; a caller-supplied sort would be appended to the native query
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Company> companyPage = companyRepository.searchByKeywordRanked(keyword.trim(), unsorted);
+        List<CompanyDTO> companyDTOs = companyPage.getContent().stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+        return PagedResponse.of(companyPage, companyDTOs);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PagedResponse<CompanyDTO> getCompaniesByCity(String city, Pageable pageable) {
@@ -338,12 +386,44 @@ public class CompanyServiceImpl implements CompanyService {
         return PagedResponse.of(companyPage, companyDTOs);
     }
 
+    /**
+     * Decode an uploaded logo and downscale it to the configured size as PNG
+     */
+    private byte[] normalizeLogo(String logoBase64) {
+        try {
+            byte[] logo = CompanyLogoUtil.normalize(CompanyLogoUtil.decodeBase64(logoBase64), logoMaxDimension);
+            if (logo == null) {
+                throw new BadRequestException("Company logo must be a PNG, JPEG, GIF or BMP image");
+            }
+            return logo;
+        } catch (CompanyLogoUtil.ImageTooLargeException e) {
+            throw new BadRequestException("Company logo must be at most "
+                    + CompanyLogoUtil.MAX_SOURCE_PIXELS / 1_000_000 + " megapixels");
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadRequestException("Company logo must be a base64 encoded image");
+        }
+    }
+
+    /**
+     * Create or replace the stored logo of a company and version its logo URL
+     */
+    private void saveLogo(Company company, byte[] logoData) {
+        CompanyLogo logo = companyLogoRepository.findById(company.getId())
+                .orElseGet(() -> CompanyLogo.builder().company(company).build());
+        logo.setLogoData(logoData);
+        logo.setContentType(CompanyLogoUtil.LOGO_CONTENT_TYPE);
+        logo.setContentHash(DigestUtils.md5DigestAsHex(logoData));
+        companyLogoRepository.save(logo);
+        company.setLogoHash(logo.getContentHash());
+    }
+
     private CompanyDTO mapToDTO(Company company) {
         return CompanyDTO.builder()
                 .id(company.getId())
                 .name(company.getName())
                 .displayName(company.getDisplayName())
-                .logoBase64(company.getLogoBase64())
+                .logoUrl(company.getLogoHash() != null
+                        ? LOGO_URL_PREFIX + company.getId() + "/logo?v=" + company.getLogoHash() : null)
                 .description(company.getDescription())
                 .website(company.getWebsite())
                 .email(company.getEmail())
@@ -372,7 +452,6 @@ public class CompanyServiceImpl implements CompanyService {
         return Company.builder()
                 .name(dto.getName())
                 .displayName(dto.getDisplayName())
-                .logoBase64(dto.getLogoBase64())
                 .description(dto.getDescription())
                 .website(dto.getWebsite())
                 .email(dto.getEmail())
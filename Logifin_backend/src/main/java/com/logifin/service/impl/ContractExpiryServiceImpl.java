@@ -0,0 +1,121 @@
+package com.logifin.service.impl;
+
+import com.logifin.config.CacheConfig;
+import com.logifin.config.CacheTags;
+import com.logifin.entity.Contract;
+import com.logifin.repository.ContractRepository;
+import com.logifin.service.CacheTagService;
+import com.logifin.service.ContractExpiryService;
+import com.logifin.service.ContractStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of ContractExpiryService.
+ * The contract party index and the lender trip feed already ignore contracts past their
+ * expiry date at read time, so only the status and the contract caches need updating.
+ */
+@Service
+@Slf4j
+public class ContractExpiryServiceImpl implements ContractExpiryService {
+
+    private final ContractRepository contractRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+    private final ContractStatsService contractStatsService;
+    private final CacheTagService cacheTagService;
+    private final Counter expiredCounter;
+    private final Timer runTimer;
+
+    @Value("${app.contracts.expiry.batch-size:500}")
+    private int batchSize;
+
+    public ContractExpiryServiceImpl(ContractRepository contractRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     CacheManager cacheManager,
+                                     ContractStatsService contractStatsService,
+                                     CacheTagService cacheTagService,
+                                     MeterRegistry meterRegistry) {
+        this.contractRepository = contractRepository;
+        this.transactionManager = transactionManager;
+        this.cacheManager = cacheManager;
+        this.contractStatsService = contractStatsService;
+        this.cacheTagService = cacheTagService;
+        this.expiredCounter = Counter.builder("contracts.expired")
+                .description("Contracts moved to EXPIRED by the expiry job")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("contracts.expiry.run")
+                .description("Duration of contract expiry job runs")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.contracts.expiry.interval:PT1H}",
+               initialDelayString = "${app.contracts.expiry.initial-delay:PT2M}")
+    public int expireOverdueContracts() {
+        return runTimer.record(() -> {
+            LocalDate today = LocalDate.now();
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            int total = 0;
+            List<Contract> batch;
+            do {
+                // Row locks are held only until this batch commits
+                batch = transaction.execute(status -> expireBatch(today));
+                evictFromCaches(batch);
+                total += batch.size();
+            } while (batch.size() == batchSize);
+
+            if (total > 0) {
+                contractStatsService.recordContractWrites(total);
+                log.info("Expired {} contracts past their expiry date", total);
+            }
+            return total;
+        });
+    }
+
+    /**
+     * Lock and expire one batch, returning the locked contracts
+     */
+    private List<Contract> expireBatch(LocalDate today) {
+        List<Contract> contracts = contractRepository.lockExpiredActive(today, PageRequest.of(0, batchSize));
+        if (contracts.isEmpty()) {
+            return contracts;
+        }
+        List<Long> ids = contracts.stream().map(Contract::getId).collect(Collectors.toList());
+        int expired = contractRepository.expireActive(ids);
+        expiredCounter.increment(expired);
+        log.debug("Contract expiry batch: {} locked, {} expired", contracts.size(), expired);
+        return contracts;
+    }
+
+    /**
+     * Evict after commit, so a concurrent read cannot cache the contract as ACTIVE again.
+     * Lookups by number and cached pages holding these contracts go by tag.
+     */
+    private void evictFromCaches(List<Contract> contracts) {
+        if (contracts.isEmpty()) {
+            return;
+        }
+        Cache byId = cacheManager.getCache(CacheConfig.CACHE_CONTRACT_BY_ID);
+        if (byId != null) {
+            contracts.forEach(contract -> byId.evict(contract.getId()));
+        }
+        cacheTagService.evictTags(contracts.stream()
+                .map(contract -> CacheTags.entity(CacheTags.CONTRACT, contract.getId()))
+                .toArray(String[]::new));
+    }
+}
@@ -0,0 +1,165 @@
+package com.logifin.service.impl;
+
+import com.logifin.repository.ContractPartyRepository;
+import com.logifin.repository.projection.ContractPartyRow;
+import com.logifin.service.ContractPartyIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of ContractPartyIndexService.
+ * Each user maps to the set of active contracts they are a party to; a lookup intersects the
+ * sets of its three users, which matches the self-joins of
+ * ContractPartyRepository.findActiveContractsByThreeParties. Memory grows linearly with the
+ * number of parties. Sets are replaced, never mutated, so lookups read without locking;
+ * writers serialize on a lock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContractPartyIndexServiceImpl implements ContractPartyIndexService {
+
+    private static final Comparator<IndexedContract> FURTHEST_EXPIRY_FIRST =
+            Comparator.comparing(IndexedContract::getExpiryDate).reversed()
+                    .thenComparing(IndexedContract::getContractId);
+
+    private final ContractPartyRepository contractPartyRepository;
+
+    private final Object lock = new Object();
+
+    /** Null until the first rebuild completes */
+    private volatile PartyIndex index;
+
+    /** Contracts refreshed while a rebuild is reading, re-applied on top of its snapshot */
+    private Set<Long> refreshedDuringRebuild;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (lock) {
+            refreshedDuringRebuild = new HashSet<>();
+        }
+        long start = System.currentTimeMillis();
+        Map<Long, List<ContractPartyRow>> rowsByContract = contractPartyRepository.findActiveContractPartyRows().stream()
+                .collect(Collectors.groupingBy(ContractPartyRow::getContractId));
+
+        PartyIndex built = new PartyIndex();
+        Map<Long, Set<Long>> contractIdsByUser = new HashMap<>();
+        rowsByContract.forEach((contractId, rows) -> {
+            IndexedContract contract = toIndexedContract(rows);
+            built.contracts.put(contractId, contract);
+            contract.getPartyIds().forEach(userId ->
+                    contractIdsByUser.computeIfAbsent(userId, id -> new HashSet<>()).add(contractId));
+        });
+        contractIdsByUser.forEach((userId, contractIds) ->
+                built.contractIdsByUser.put(userId, Collections.unmodifiableSet(contractIds)));
+
+        Set<Long> pending;
+        synchronized (lock) {
+            index = built;
+            pending = refreshedDuringRebuild;
+            refreshedDuringRebuild = null;
+        }
+        pending.forEach(this::refreshContract);
+        log.info("Built contract party index: {} contracts, {} parties in {} ms",
+                built.contracts.size(), built.contractIdsByUser.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void refreshContract(Long contractId) {
+        synchronized (lock) {
+            if (refreshedDuringRebuild != null) {
+                refreshedDuringRebuild.add(contractId);
+            }
+            PartyIndex current = index;
+            if (current == null) {
+                return;
+            }
+            // Read under the lock so refreshes of the same contract apply in order
+            List<ContractPartyRow> rows = contractPartyRepository.findActiveContractPartyRowsByContractId(contractId);
+
+            IndexedContract previous = current.contracts.remove(contractId);
+            if (previous != null) {
+                previous.getPartyIds().forEach(userId -> current.contractIdsByUser.computeIfPresent(userId,
+                        (id, contractIds) -> {
+                            Set<Long> remaining = new HashSet<>(contractIds);
+                            remaining.remove(contractId);
+                            return remaining.isEmpty() ? null : Collections.unmodifiableSet(remaining);
+                        }));
+            }
+            if (!rows.isEmpty()) {
+                IndexedContract contract = toIndexedContract(rows);
+                current.contracts.put(contractId, contract);
+                contract.getPartyIds().forEach(userId -> current.contractIdsByUser.merge(userId,
+                        Collections.singleton(contractId), (contractIds, added) -> {
+                            Set<Long> merged = new HashSet<>(contractIds);
+                            merged.addAll(added);
+                            return Collections.unmodifiableSet(merged);
+                        }));
+            }
+        }
+        log.debug("Refreshed contract party index for contract {}", contractId);
+    }
+
+    @Override
+    public boolean isReady() {
+        return index != null;
+    }
+
+    @Override
+    public List<Long> findActiveContractIds(Long lenderId, Long transporterId, Long senderId) {
+        PartyIndex current = index;
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        List<Set<Long>> partySets = new ArrayList<>(3);
+        for (Long userId : Arrays.asList(lenderId, transporterId, senderId)) {
+            Set<Long> contractIds = current.contractIdsByUser.get(userId);
+            if (contractIds == null) {
+                return Collections.emptyList();
+            }
+            partySets.add(contractIds);
+        }
+        partySets.sort(Comparator.comparingInt(Set::size));
+
+        // Expiry is checked at read time, so contracts drop out on their expiry date without a refresh
+        LocalDate today = LocalDate.now();
+        return partySets.get(0).stream()
+                .filter(contractId -> partySets.get(1).contains(contractId) && partySets.get(2).contains(contractId))
+                .map(current.contracts::get)
+                .filter(contract -> contract != null && contract.getExpiryDate().isAfter(today))
+                .sorted(FURTHEST_EXPIRY_FIRST)
+                .map(IndexedContract::getContractId)
+                .collect(Collectors.toList());
+    }
+
+    private static IndexedContract toIndexedContract(List<ContractPartyRow> rows) {
+        return new IndexedContract(rows.get(0).getContractId(), rows.get(0).getExpiryDate(),
+                rows.stream().map(ContractPartyRow::getUserId).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Contract ids by party user id, and the indexed contracts by id
+     */
+    private static class PartyIndex {
+        private final Map<Long, Set<Long>> contractIdsByUser = new ConcurrentHashMap<>();
+        private final Map<Long, IndexedContract> contracts = new ConcurrentHashMap<>();
+    }
+
+    @Value
+    private static class IndexedContract {
+        Long contractId;
+        LocalDate expiryDate;
+        Set<Long> partyIds;
+    }
+}
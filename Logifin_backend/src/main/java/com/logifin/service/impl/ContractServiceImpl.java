@@ -1,30 +1,42 @@
 package com.logifin.service.impl;
 
+import com.logifin.config.CacheTags;
 import com.logifin.dto.*;
 import com.logifin.entity.*;
+import com.logifin.event.ContractPartiesChangedEvent;
 import com.logifin.exception.BadRequestException;
 import com.logifin.exception.DuplicateResourceException;
 import com.logifin.exception.ResourceNotFoundException;
 import com.logifin.repository.*;
+import com.logifin.repository.projection.ContractDocumentView;
 import com.logifin.repository.specification.ContractSpecification;
+import com.logifin.service.CacheTagService;
+import com.logifin.service.ContractExpiryService;
 import com.logifin.service.ContractService;
+import com.logifin.service.ContractStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,21 +48,23 @@ public class ContractServiceImpl implements ContractService {
     private static final String CACHE_CONTRACTS = "contracts";
     private static final String CACHE_CONTRACT_BY_ID = "contractById";
     private static final String CACHE_CONTRACT_BY_NUMBER = "contractByNumber";
+    private static final String DOCUMENT_URL_PREFIX = "/api/v1/contracts/";
 
     private final ContractRepository contractRepository;
     private final ContractTypeRepository contractTypeRepository;
     private final LoanStageRepository loanStageRepository;
     private final ContractPartyRepository contractPartyRepository;
+    private final ContractDocumentRepository contractDocumentRepository;
     private final UserRepository userRepository;
     private final CompanyRepository companyRepository;
+    private final ContractExpiryService contractExpiryService;
+    private final ContractStatsService contractStatsService;
+    private final CacheTagService cacheTagService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== CRUD Operations ====================
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CACHE_CONTRACTS, allEntries = true),
-            @CacheEvict(value = CACHE_CONTRACT_BY_NUMBER, allEntries = true)
-    })
     public ContractResponse createContract(CreateContractRequest request, Long createdByUserId) {
         log.debug("Creating contract: {}", request.getContractNumber());
 
@@ -81,8 +95,8 @@ public class ContractServiceImpl implements ContractService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", createdByUserId));
 
         // Build entity
+        byte[] documentData = decodeHexDocument(request.getContractDocument());
         Contract contract = Contract.builder()
-                .contractDocument(request.getContractDocument())
                 .contractDocumentName(request.getContractDocumentName())
                 .contractDocumentContentType(request.getContractDocumentContentType())
                 .loanPercent(request.getLoanPercent())
@@ -102,6 +116,7 @@ public class ContractServiceImpl implements ContractService {
 
         // Save contract
         Contract savedContract = contractRepository.save(contract);
+        saveDocument(savedContract, documentData);
 
         // Add parties if provided
         if (request.getContractParties() != null && !request.getContractParties().isEmpty()) {
@@ -118,8 +133,12 @@ public class ContractServiceImpl implements ContractService {
                 savedContract.addContractParty(contractParty);
             }
             savedContract = contractRepository.save(savedContract);
+            publishPartiesChanged(savedContract.getId(), partyUserIds(savedContract));
         }
 
+        contractStatsService.recordContractWrites(1);
+        // A new contract can land on any cached page
+        cacheTagService.evictTags(CacheTags.lists(CacheTags.CONTRACT));
         log.info("Contract created successfully with id: {}", savedContract.getId());
         return mapToResponse(savedContract);
     }
@@ -161,7 +180,27 @@ public class ContractServiceImpl implements ContractService {
     public PagedResponse<ContractResponse> searchContracts(ContractSearchCriteria criteria, Pageable pageable) {
         log.debug("Searching contracts with criteria: {}", criteria);
         Specification<Contract> spec = ContractSpecification.fromCriteria(criteria);
-        Page<Contract> contractsPage = contractRepository.findAll(spec, pageable);
+        return hydratePage(contractRepository.findIdPage(spec, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<ContractResponse> searchContractsByKeyword(String keyword, Pageable pageable) {
+        log.debug("Searching contracts by keyword: {}", keyword);
+        Page<Contract> contractsPage = contractRepository.searchByKeyword(keyword, pageable);
+        List<ContractResponse> content = contractsPage.getContent().stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        return PagedResponse.of(contractsPage, content);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<ContractResponse> searchContractsByKeywordRanked(String keyword, Pageable pageable) {
+        log.debug("Searching contracts by keyword ranked by relevance: {}", keyword);
+        // Relevance is the order; a caller-supplied sort would be appended to the native query
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Contract> contractsPage = contractRepository.searchByKeywordRanked(keyword.trim(), unsorted);
         List<ContractResponse> content = contractsPage.getContent().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
@@ -169,16 +208,13 @@ public class ContractServiceImpl implements ContractService {
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CACHE_CONTRACT_BY_ID, key = "#id"),
-            @CacheEvict(value = CACHE_CONTRACT_BY_NUMBER, allEntries = true),
-            @CacheEvict(value = CACHE_CONTRACTS, allEntries = true)
-    })
+    @CacheEvict(value = CACHE_CONTRACT_BY_ID, key = "#id")
     public ContractResponse updateContract(Long id, UpdateContractRequest request) {
         log.debug("Updating contract with id: {}", id);
 
         Contract existingContract = contractRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Contract", "id", id));
+        Set<Long> previousPartyUserIds = partyUserIds(existingContract);
 
         // Validate contract number uniqueness if changed
         if (StringUtils.hasText(request.getContractNumber())
@@ -189,7 +225,7 @@ public class ContractServiceImpl implements ContractService {
 
         // Update fields if provided
         if (StringUtils.hasText(request.getContractDocument())) {
-            existingContract.setContractDocument(request.getContractDocument());
+            saveDocument(existingContract, decodeHexDocument(request.getContractDocument()));
         }
         if (StringUtils.hasText(request.getContractDocumentName())) {
             existingContract.setContractDocumentName(request.getContractDocumentName());
@@ -269,32 +305,111 @@ public class ContractServiceImpl implements ContractService {
         }
 
         Contract updatedContract = contractRepository.save(existingContract);
+
+        // Only status, expiry and parties decide which trips the contract makes financeable
+        if (request.getExpiryDate() != null || StringUtils.hasText(request.getStatus())
+                || request.getContractParties() != null) {
+            Set<Long> partyUserIds = partyUserIds(updatedContract);
+            partyUserIds.addAll(previousPartyUserIds);
+            publishPartiesChanged(id, partyUserIds);
+        }
+        contractStatsService.recordContractWrites(1);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.CONTRACT, id));
         log.info("Contract updated successfully with id: {}", updatedContract.getId());
         return mapToResponse(updatedContract);
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CACHE_CONTRACT_BY_ID, key = "#id"),
-            @CacheEvict(value = CACHE_CONTRACT_BY_NUMBER, allEntries = true),
-            @CacheEvict(value = CACHE_CONTRACTS, allEntries = true)
-    })
+    @CacheEvict(value = CACHE_CONTRACT_BY_ID, key = "#id")
     public void deleteContract(Long id) {
         log.debug("Deleting contract with id: {}", id);
         if (!contractRepository.existsById(id)) {
             throw new ResourceNotFoundException("Contract", "id", id);
         }
+        Set<Long> partyUserIds = contractPartyRepository.findByContractId(id).stream()
+                .map(party -> party.getUser().getId())
+                .collect(Collectors.toSet());
+        contractDocumentRepository.deleteByContractId(id);
         contractRepository.deleteById(id);
+        publishPartiesChanged(id, partyUserIds);
+        contractStatsService.recordContractWrites(1);
+        // Pages after the deleted contract shift, so every cached page goes
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.CONTRACT, id), CacheTags.lists(CacheTags.CONTRACT));
         log.info("Contract deleted successfully with id: {}", id);
     }
 
+    // ==================== Contract Document ====================
+
+    @Override
+    @Transactional(readOnly = true)
+    public BinaryContentDTO getContractDocumentMetadata(Long contractId) {
+        ContractDocumentView document = contractDocumentRepository.findViewByContractId(contractId)
+                .orElseThrow(() -> new ResourceNotFoundException("ContractDocument", "contractId", contractId));
+        return BinaryContentDTO.builder()
+                .contentType(StringUtils.hasText(document.getContentType())
+                        ? document.getContentType() : "application/octet-stream")
+                .fileName(StringUtils.hasText(document.getFileName())
+                        ? document.getFileName() : "contract_" + contractId)
+                .size(document.getFileSize())
+                .etag("\"" + document.getContentHash() + "\"")
+                .lastModified(document.getUpdatedAt())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeContractDocument(Long contractId, String etag, OutputStream out) throws IOException {
+        // Headers were sent from metadata read in another transaction; only copy that version
+        String contentHash = etag.replace("\"", "");
+        try {
+            if (!contractDocumentRepository.writeDocument(contractId, contentHash, out)) {
+                throw new ResourceNotFoundException("ContractDocument", "contentHash", contentHash);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Create or replace the stored document of a contract
+     */
+    private void saveDocument(Contract contract, byte[] documentData) {
+        ContractDocument document = contract.getId() != null
+                ? contractDocumentRepository.findById(contract.getId()).orElse(null)
+                : null;
+        if (document == null) {
+            document = ContractDocument.builder().contract(contract).build();
+        }
+        document.setDocumentData(documentData);
+        document.setFileSize((long) documentData.length);
+        document.setContentHash(DigestUtils.md5DigestAsHex(documentData));
+        contractDocumentRepository.save(document);
+    }
+
+    /**
+     * Decode a base16 (hexadecimal) encoded document as sent by clients
+     */
+    private static byte[] decodeHexDocument(String hex) {
+        String value = hex.trim();
+        if (value.length() % 2 != 0) {
+            throw new BadRequestException("Contract document must be base16 (hex) encoded");
+        }
+        byte[] data = new byte[value.length() / 2];
+        for (int i = 0; i < data.length; i++) {
+            int high = Character.digit(value.charAt(2 * i), 16);
+            int low = Character.digit(value.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new BadRequestException("Contract document must be base16 (hex) encoded");
+            }
+            data[i] = (byte) ((high << 4) | low);
+        }
+        return data;
+    }
+
     // ==================== Contract Parties Management ====================
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CACHE_CONTRACT_BY_ID, key = "#contractId"),
-            @CacheEvict(value = CACHE_CONTRACTS, allEntries = true)
-    })
+    @CacheEvict(value = CACHE_CONTRACT_BY_ID, key = "#contractId")
     public ContractResponse addPartyToContract(Long contractId, ContractPartyDTO partyDTO) {
         log.debug("Adding party {} to contract {}", partyDTO.getUserId(), contractId);
 
@@ -316,15 +431,14 @@ public class ContractServiceImpl implements ContractService {
 
         contract.addContractParty(contractParty);
         Contract updatedContract = contractRepository.save(contract);
+        publishPartiesChanged(contractId, partyUserIds(updatedContract));
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.CONTRACT, contractId));
         log.info("Party added successfully to contract {}", contractId);
         return mapToResponse(updatedContract);
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CACHE_CONTRACT_BY_ID, key = "#contractId"),
-            @CacheEvict(value = CACHE_CONTRACTS, allEntries = true)
-    })
+    @CacheEvict(value = CACHE_CONTRACT_BY_ID, key = "#contractId")
     public ContractResponse removePartyFromContract(Long contractId, Long userId) {
         log.debug("Removing party {} from contract {}", userId, contractId);
 
@@ -334,9 +448,12 @@ public class ContractServiceImpl implements ContractService {
         ContractParty contractParty = contractPartyRepository.findByContractIdAndUserId(contractId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("ContractParty", "userId", userId));
 
+        Set<Long> partyUserIds = partyUserIds(contract);
         contract.removeContractParty(contractParty);
         contractPartyRepository.delete(contractParty);
         Contract updatedContract = contractRepository.save(contract);
+        publishPartiesChanged(contractId, partyUserIds);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.CONTRACT, contractId));
         log.info("Party removed successfully from contract {}", contractId);
         return mapToResponse(updatedContract);
     }
@@ -412,22 +529,14 @@ public class ContractServiceImpl implements ContractService {
     @Transactional(readOnly = true)
     public PagedResponse<ContractResponse> getContractsByPartyUser(Long userId, Pageable pageable) {
         log.debug("Fetching contracts by party user: {}", userId);
-        Page<Contract> contractsPage = contractRepository.findContractsByPartyUserId(userId, pageable);
-        List<ContractResponse> content = contractsPage.getContent().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-        return PagedResponse.of(contractsPage, content);
+        return hydratePage(contractRepository.findContractIdsByPartyUserId(userId, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public PagedResponse<ContractResponse> getContractsByUserInvolvement(Long userId, Pageable pageable) {
         log.debug("Fetching contracts by user involvement: {}", userId);
-        Page<Contract> contractsPage = contractRepository.findContractsByUserInvolvement(userId, pageable);
-        List<ContractResponse> content = contractsPage.getContent().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-        return PagedResponse.of(contractsPage, content);
+        return hydratePage(contractRepository.findContractIdsByUserInvolvement(userId, pageable));
     }
 
     @Override
@@ -495,101 +604,68 @@ public class ContractServiceImpl implements ContractService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BigDecimal getAverageLoanPercent() {
-        return contractRepository.getAverageLoanPercent();
+        return contractStatsService.getStatistics().getAverageLoanPercent();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BigDecimal getAverageLtv() {
-        return contractRepository.getAverageLtv();
+        return contractStatsService.getStatistics().getAverageLtv();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BigDecimal getAveragePenaltyRatio() {
-        return contractRepository.getAveragePenaltyRatio();
+        return contractStatsService.getStatistics().getAveragePenaltyRatio();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Long> getContractCountByType() {
-        List<Object[]> results = contractRepository.getContractCountByType();
-        Map<String, Long> countMap = new LinkedHashMap<>();
-        for (Object[] result : results) {
-            countMap.put((String) result[0], (Long) result[1]);
-        }
-        return countMap;
+        return contractStatsService.getStatistics().getContractsByType();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Long> getContractCountByStatus() {
-        List<Object[]> results = contractRepository.getContractCountByStatus();
-        Map<String, Long> countMap = new LinkedHashMap<>();
-        for (Object[] result : results) {
-            countMap.put((String) result[0], (Long) result[1]);
-        }
-        return countMap;
+        return contractStatsService.getStatistics().getContractsByStatus();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Long> getContractCountByLoanStage() {
-        List<Object[]> results = contractRepository.getContractCountByLoanStage();
-        Map<String, Long> countMap = new LinkedHashMap<>();
-        for (Object[] result : results) {
-            countMap.put((String) result[0], (Long) result[1]);
-        }
-        return countMap;
+        return contractStatsService.getStatistics().getContractsByLoanStage();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Map<String, Object>> getTopContractManagers(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Object[]> results = contractRepository.getTopContractManagers(pageable);
-        List<Map<String, Object>> topManagers = new ArrayList<>();
-        for (Object[] result : results) {
-            Map<String, Object> manager = new HashMap<>();
-            manager.put("id", result[0]);
-            manager.put("firstName", result[1]);
-            manager.put("lastName", result[2]);
-            manager.put("contractCount", result[3]);
-            topManagers.add(manager);
-        }
-        return topManagers;
+        List<Map<String, Object>> topManagers = contractStatsService.getStatistics().getTopContractManagers();
+        return topManagers.subList(0, Math.max(0, Math.min(limit, topManagers.size())));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Map<String, Object>> getTopConsignerCompanies(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Object[]> results = contractRepository.getTopConsignerCompanies(pageable);
-        List<Map<String, Object>> topCompanies = new ArrayList<>();
-        for (Object[] result : results) {
-            Map<String, Object> company = new HashMap<>();
-            company.put("id", result[0]);
-            company.put("name", result[1]);
-            company.put("contractCount", result[2]);
-            topCompanies.add(company);
-        }
-        return topCompanies;
+        List<Map<String, Object>> topCompanies = contractStatsService.getStatistics().getTopConsignerCompanies();
+        return topCompanies.subList(0, Math.max(0, Math.min(limit, topCompanies.size())));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContractStatisticsDTO getContractStatistics() {
+        return contractStatsService.getStatistics();
     }
 
     // ==================== Business Logic ====================
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void expireOverdueContracts() {
-        log.info("Expiring overdue contracts");
-        List<Contract> expiredContracts = contractRepository.findExpiredContracts();
-        for (Contract contract : expiredContracts) {
-            contract.setStatus("EXPIRED");
-            contractRepository.save(contract);
-        }
-        log.info("Expired {} contracts", expiredContracts.size());
+        // Runs its own batch transactions and cache evictions
+        contractExpiryService.expireOverdueContracts();
     }
 
     @Override
@@ -611,9 +687,9 @@ public class ContractServiceImpl implements ContractService {
     private ContractResponse mapToResponse(Contract contract) {
         ContractResponse.ContractResponseBuilder builder = ContractResponse.builder()
                 .id(contract.getId())
-                .contractDocument(contract.getContractDocument())
                 .contractDocumentName(contract.getContractDocumentName())
                 .contractDocumentContentType(contract.getContractDocumentContentType())
+                .contractDocumentUrl(DOCUMENT_URL_PREFIX + contract.getId() + "/document")
                 .loanPercent(contract.getLoanPercent())
                 .ltv(contract.getLtv())
                 .penaltyRatio(contract.getPenaltyRatio())
@@ -671,6 +747,24 @@ public class ContractServiceImpl implements ContractService {
         return builder.build();
     }
 
+    /**
+     * Second phase of id-first paging: load the page's contracts with their details in one
+     * query and map them in the order of the id page
+     */
+    private PagedResponse<ContractResponse> hydratePage(Page<Long> idPage) {
+        if (idPage.isEmpty()) {
+            return PagedResponse.of(idPage, Collections.<ContractResponse>emptyList());
+        }
+        Map<Long, Contract> contractsById = contractRepository.findAllWithDetailsByIdIn(idPage.getContent()).stream()
+                .collect(Collectors.toMap(Contract::getId, Function.identity()));
+        List<ContractResponse> content = idPage.getContent().stream()
+                .map(contractsById::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        return PagedResponse.of(idPage, content);
+    }
+
     private ContractPartyDTO mapPartyToDTO(ContractParty contractParty) {
         ContractPartyDTO.ContractPartyDTOBuilder builder = ContractPartyDTO.builder()
                 .id(contractParty.getId())
@@ -684,4 +778,16 @@ public class ContractServiceImpl implements ContractService {
 
         return builder.build();
     }
+
+    private Set<Long> partyUserIds(Contract contract) {
+        return contract.getContractParties().stream()
+                .map(party -> party.getUser().getId())
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private void publishPartiesChanged(Long contractId, Set<Long> partyUserIds) {
+        if (!partyUserIds.isEmpty()) {
+            eventPublisher.publishEvent(new ContractPartiesChangedEvent(contractId, partyUserIds));
+        }
+    }
 }
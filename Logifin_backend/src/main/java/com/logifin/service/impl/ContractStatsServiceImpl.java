@@ -0,0 +1,239 @@
+package com.logifin.service.impl;
+
+import com.logifin.dto.ContractStatisticsDTO;
+import com.logifin.entity.ContractStatCount;
+import com.logifin.entity.ContractStatCount.Dimension;
+import com.logifin.entity.ContractStatsSnapshot;
+import com.logifin.repository.ContractRepository;
+import com.logifin.repository.ContractStatCountRepository;
+import com.logifin.repository.ContractStatsSnapshotRepository;
+import com.logifin.service.ContractStatsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of ContractStatsService.
+ * The snapshot row is locked for the whole refresh, so instances refreshing together take
+ * turns; readers are never blocked and see the previous snapshot until the refresh commits.
+ */
+@Service
+@Slf4j
+public class ContractStatsServiceImpl implements ContractStatsService {
+
+    private final ContractRepository contractRepository;
+    private final ContractStatsSnapshotRepository snapshotRepository;
+    private final ContractStatCountRepository statCountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer refreshTimer;
+
+    /** Contract writes on this instance since its last refresh */
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    @Value("${app.contracts.stats.top-limit:100}")
+    private int topLimit;
+
+    @Value("${app.contracts.stats.max-age:PT15M}")
+    private Duration maxAge;
+
+    @Value("${app.contracts.stats.write-threshold:50}")
+    private int writeThreshold;
+
+    public ContractStatsServiceImpl(ContractRepository contractRepository,
+                                    ContractStatsSnapshotRepository snapshotRepository,
+                                    ContractStatCountRepository statCountRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.contractRepository = contractRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.statCountRepository = statCountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refreshTimer = Timer.builder("contracts.stats.refresh")
+                .description("Duration of contract statistics snapshot refreshes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ContractStatisticsDTO getStatistics() {
+        ContractStatisticsDTO statistics = transactionTemplate.execute(status -> readSnapshot());
+        if (statistics != null) {
+            return statistics;
+        }
+        refresh();
+        return transactionTemplate.execute(status -> readSnapshot());
+    }
+
+    @Override
+    public void refresh() {
+        pendingWrites.set(0);
+        LocalDateTime requestedAt = LocalDateTime.now();
+        refreshTimer.record(() -> transactionTemplate.executeWithoutResult(status -> replaceSnapshot(requestedAt)));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.contracts.stats.check-interval:PT30S}",
+               initialDelayString = "${app.contracts.stats.initial-delay:PT1M}")
+    public void refreshIfStale() {
+        int writes = pendingWrites.get();
+        if (writes >= writeThreshold) {
+            log.debug("Refreshing contract statistics after {} contract writes", writes);
+            refresh();
+            return;
+        }
+        Optional<LocalDateTime> refreshedAt = snapshotRepository.findRefreshedAtById(ContractStatsSnapshot.SNAPSHOT_ID);
+        if (!refreshedAt.isPresent() || refreshedAt.get().plus(maxAge).isBefore(LocalDateTime.now())) {
+            refresh();
+        }
+    }
+
+    @Override
+    public void recordContractWrites(int count) {
+        pendingWrites.addAndGet(count);
+    }
+
+    /**
+     * Read the snapshot and its counts, or null if no refresh has completed yet
+     */
+    private ContractStatisticsDTO readSnapshot() {
+        ContractStatsSnapshot snapshot = snapshotRepository.findById(ContractStatsSnapshot.SNAPSHOT_ID).orElse(null);
+        if (snapshot == null || snapshot.getRefreshedAt() == null) {
+            return null;
+        }
+        Map<String, Long> byType = new LinkedHashMap<>();
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        Map<String, Long> byLoanStage = new LinkedHashMap<>();
+        List<Map<String, Object>> topManagers = new ArrayList<>();
+        List<Map<String, Object>> topCompanies = new ArrayList<>();
+        for (ContractStatCount count : statCountRepository.findAllByOrderByDimensionAscSortOrderAsc()) {
+            switch (count.getDimension()) {
+                case TYPE:
+                    byType.put(count.getLabel(), count.getContractCount());
+                    break;
+                case STATUS:
+                    byStatus.put(count.getLabel(), count.getContractCount());
+                    break;
+                case LOAN_STAGE:
+                    byLoanStage.put(count.getLabel(), count.getContractCount());
+                    break;
+                case MANAGER:
+                    Map<String, Object> manager = new HashMap<>();
+                    manager.put("id", count.getRefId());
+                    manager.put("firstName", count.getLabel());
+                    manager.put("lastName", count.getSecondaryLabel());
+                    manager.put("contractCount", count.getContractCount());
+                    topManagers.add(manager);
+                    break;
+                case COMPANY:
+                    Map<String, Object> company = new HashMap<>();
+                    company.put("id", count.getRefId());
+                    company.put("name", count.getLabel());
+                    company.put("contractCount", count.getContractCount());
+                    topCompanies.add(company);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return ContractStatisticsDTO.builder()
+                .asOf(snapshot.getRefreshedAt())
+                .totalContracts(snapshot.getTotalContracts())
+                .averageLoanPercent(snapshot.getAverageLoanPercent())
+                .averageLtv(snapshot.getAverageLtv())
+                .averagePenaltyRatio(snapshot.getAveragePenaltyRatio())
+                .contractsByType(byType)
+                .contractsByStatus(byStatus)
+                .contractsByLoanStage(byLoanStage)
+                .topContractManagers(topManagers)
+                .topConsignerCompanies(topCompanies)
+                .build();
+    }
+
+    /**
+     * Recompute every statistic and replace the stored snapshot, under the snapshot row lock.
+     * Skipped when another instance refreshed the snapshot while this one waited for the lock.
+     */
+    private void replaceSnapshot(LocalDateTime requestedAt) {
+        long start = System.currentTimeMillis();
+        ContractStatsSnapshot snapshot = snapshotRepository.findByIdForUpdate(ContractStatsSnapshot.SNAPSHOT_ID)
+                .orElseGet(() -> ContractStatsSnapshot.builder().id(ContractStatsSnapshot.SNAPSHOT_ID).build());
+        if (snapshot.getRefreshedAt() != null && snapshot.getRefreshedAt().isAfter(requestedAt)) {
+            log.debug("Contract statistics already refreshed at {}, skipping", snapshot.getRefreshedAt());
+            return;
+        }
+
+        List<ContractStatCount> counts = new ArrayList<>();
+        addCounts(counts, Dimension.TYPE, contractRepository.getContractCountByType());
+        addCounts(counts, Dimension.STATUS, contractRepository.getContractCountByStatus());
+        addCounts(counts, Dimension.LOAN_STAGE, contractRepository.getContractCountByLoanStage());
+        int order = 0;
+        for (Object[] row : contractRepository.getTopContractManagers(PageRequest.of(0, topLimit))) {
+            counts.add(ContractStatCount.builder()
+                    .dimension(Dimension.MANAGER)
+                    .refId((Long) row[0])
+                    .label((String) row[1])
+                    .secondaryLabel((String) row[2])
+                    .contractCount((Long) row[3])
+                    .sortOrder(order++)
+                    .build());
+        }
+        order = 0;
+        for (Object[] row : contractRepository.getTopConsignerCompanies(PageRequest.of(0, topLimit))) {
+            counts.add(ContractStatCount.builder()
+                    .dimension(Dimension.COMPANY)
+                    .refId((Long) row[0])
+                    .label((String) row[1])
+                    .contractCount((Long) row[2])
+                    .sortOrder(order++)
+                    .build());
+        }
+
+        Object[] totals = contractRepository.getContractTotals().get(0);
+        snapshot.setTotalContracts(((Number) totals[0]).longValue());
+        snapshot.setAverageLoanPercent(average(totals[1]));
+        snapshot.setAverageLtv(average(totals[2]));
+        snapshot.setAveragePenaltyRatio(average(totals[3]));
+        snapshot.setRefreshedAt(LocalDateTime.now());
+
+        statCountRepository.deleteAllCounts();
+        statCountRepository.saveAll(counts);
+        snapshot.setRefreshDurationMs(System.currentTimeMillis() - start);
+        snapshotRepository.save(snapshot);
+        log.info("Refreshed contract statistics: {} contracts, {} counts in {} ms",
+                snapshot.getTotalContracts(), counts.size(), snapshot.getRefreshDurationMs());
+    }
+
+    private static void addCounts(List<ContractStatCount> counts, Dimension dimension, List<Object[]> rows) {
+        int order = 0;
+        for (Object[] row : rows) {
+            counts.add(ContractStatCount.builder()
+                    .dimension(dimension)
+                    .label((String) row[0])
+                    .contractCount((Long) row[1])
+                    .sortOrder(order++)
+                    .build());
+        }
+    }
+
+    /**
+     * AVG comes back as a Double, or null when there are no contracts; the endpoints report 0 then
+     */
+    private static BigDecimal average(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return new BigDecimal(value.toString()).setScale(4, RoundingMode.HALF_UP);
+    }
+}
@@ -1,17 +1,18 @@
 package com.logifin.service.impl;
 
+import com.logifin.config.CacheTags;
 import com.logifin.dto.ContractTypeDTO;
 import com.logifin.dto.PagedResponse;
 import com.logifin.entity.ContractType;
 import com.logifin.exception.DuplicateResourceException;
 import com.logifin.exception.ResourceNotFoundException;
 import com.logifin.repository.ContractTypeRepository;
+import com.logifin.service.CacheTagService;
 import com.logifin.service.ContractTypeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -31,9 +32,9 @@ public class ContractTypeServiceImpl implements ContractTypeService {
     private static final String CACHE_CONTRACT_TYPE_BY_NAME = "contractTypeByName";
 
     private final ContractTypeRepository contractTypeRepository;
+    private final CacheTagService cacheTagService;
 
     @Override
-    @CacheEvict(value = CACHE_CONTRACT_TYPES, allEntries = true)
     public ContractTypeDTO createContractType(ContractTypeDTO contractTypeDTO) {
         log.debug("Creating contract type: {}", contractTypeDTO.getTypeName());
 
@@ -43,6 +44,7 @@ public class ContractTypeServiceImpl implements ContractTypeService {
 
         ContractType contractType = mapToEntity(contractTypeDTO);
         ContractType savedContractType = contractTypeRepository.save(contractType);
+        cacheTagService.evictTags(CacheTags.lists(CacheTags.CONTRACT_TYPE));
         return mapToDTO(savedContractType);
     }
 
@@ -106,11 +108,7 @@ public class ContractTypeServiceImpl implements ContractTypeService {
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CACHE_CONTRACT_TYPE_BY_ID, key = "#id"),
-            @CacheEvict(value = CACHE_CONTRACT_TYPE_BY_NAME, allEntries = true),
-            @CacheEvict(value = CACHE_CONTRACT_TYPES, allEntries = true)
-    })
+    @CacheEvict(value = CACHE_CONTRACT_TYPE_BY_ID, key = "#id")
     public ContractTypeDTO updateContractType(Long id, ContractTypeDTO contractTypeDTO) {
         log.debug("Updating contract type with id: {}", id);
         ContractType existingContractType = contractTypeRepository.findById(id)
@@ -126,21 +124,19 @@ public class ContractTypeServiceImpl implements ContractTypeService {
         existingContractType.setPartyCount(contractTypeDTO.getPartyCount());
 
         ContractType updatedContractType = contractTypeRepository.save(existingContractType);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.CONTRACT_TYPE, id));
         return mapToDTO(updatedContractType);
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CACHE_CONTRACT_TYPE_BY_ID, key = "#id"),
-            @CacheEvict(value = CACHE_CONTRACT_TYPE_BY_NAME, allEntries = true),
-            @CacheEvict(value = CACHE_CONTRACT_TYPES, allEntries = true)
-    })
+    @CacheEvict(value = CACHE_CONTRACT_TYPE_BY_ID, key = "#id")
     public void deleteContractType(Long id) {
         log.debug("Deleting contract type with id: {}", id);
         if (!contractTypeRepository.existsById(id)) {
             throw new ResourceNotFoundException("ContractType", "id", id);
         }
         contractTypeRepository.deleteById(id);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.CONTRACT_TYPE, id));
     }
 
     @Override
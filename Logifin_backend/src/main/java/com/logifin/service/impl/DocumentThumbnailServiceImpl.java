@@ -0,0 +1,83 @@
+package com.logifin.service.impl;
+
+import com.logifin.dto.BinaryContentDTO;
+import com.logifin.entity.TripDocument;
+import com.logifin.exception.ResourceNotFoundException;
+import com.logifin.repository.TripDocumentRepository;
+import com.logifin.repository.projection.TripDocumentThumbnailView;
+import com.logifin.service.DocumentThumbnailService;
+import com.logifin.util.DocumentThumbnailUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Implementation of DocumentThumbnailService.
+ * Thumbnails are stored next to the original document; generation is triggered
+ * asynchronously by {@link com.logifin.event.TripDocumentEventListener}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentThumbnailServiceImpl implements DocumentThumbnailService {
+
+    private final TripDocumentRepository tripDocumentRepository;
+
+    @Value("${app.thumbnail.max-dimension:240}")
+    private int maxDimension;
+
+    @Override
+    @Transactional
+    public boolean generateThumbnail(Long documentId) {
+        TripDocument document = tripDocumentRepository.findById(documentId).orElse(null);
+        if (document == null) {
+            log.debug("Document {} no longer exists - skipping thumbnail", documentId);
+            return false;
+        }
+        if (!DocumentThumbnailUtil.isSupported(document.getContentType())) {
+            log.debug("No thumbnail for document {} with content type {}", documentId, document.getContentType());
+            return false;
+        }
+
+        byte[] thumbnail;
+        try {
+            thumbnail = DocumentThumbnailUtil.createThumbnail(
+                    document.getDocumentData(), document.getContentType(), maxDimension);
+        } catch (Exception e) {
+            log.warn("Could not render thumbnail for document {}: {}", documentId, e.getMessage());
+            return false;
+        }
+        if (thumbnail == null) {
+            return false;
+        }
+
+        // Conditional on updatedAt so a thumbnail of replaced content is never stored
+        int updated = tripDocumentRepository.updateThumbnail(documentId, thumbnail,
+                DocumentThumbnailUtil.THUMBNAIL_CONTENT_TYPE, LocalDateTime.now(), document.getUpdatedAt());
+        log.debug("Thumbnail for document {}: {} bytes, stored: {}", documentId, thumbnail.length, updated > 0);
+        return updated > 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BinaryContentDTO getThumbnail(Long documentId) {
+        TripDocumentThumbnailView view = tripDocumentRepository.findThumbnailById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("TripDocument", "id", documentId));
+        if (view.getThumbnailData() == null) {
+            throw new ResourceNotFoundException("Thumbnail", "documentId", documentId);
+        }
+
+        return BinaryContentDTO.builder()
+                .data(view.getThumbnailData())
+                .contentType(view.getThumbnailContentType())
+                .fileName("thumbnail_" + documentId + ".jpg")
+                .etag(documentId + "-" + view.getThumbnailGeneratedAt().toEpochSecond(ZoneOffset.UTC))
+                .lastModified(view.getThumbnailGeneratedAt())
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.logifin.service.impl;
+
+import com.logifin.repository.LenderTripFeedRepository;
+import com.logifin.repository.TripRepository;
+import com.logifin.service.LenderTripFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of LenderTripFeedService.
+ * Rows are recomputed per trip with one DELETE and one INSERT ... SELECT per batch of ids.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class LenderTripFeedServiceImpl implements LenderTripFeedService {
+
+    // Keeps the IN lists well below driver bind parameter limits
+    static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final LenderTripFeedRepository feedRepository;
+    private final TripRepository tripRepository;
+
+    @Override
+    public void refreshTrips(Collection<Long> tripIds) {
+        if (tripIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(tripIds);
+        int inserted = 0;
+        for (int from = 0; from < ids.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + REFRESH_BATCH_SIZE, ids.size()));
+            feedRepository.deleteByTripIds(batch);
+            inserted += feedRepository.insertFinanceableTrips(batch);
+        }
+        log.debug("Lender trip feed refreshed for {} trips ({} rows)", ids.size(), inserted);
+    }
+
+    @Override
+    public void refreshTripsOfUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        refreshTrips(tripRepository.findIdsByCreatedByUserOrSender(userIds));
+    }
+}
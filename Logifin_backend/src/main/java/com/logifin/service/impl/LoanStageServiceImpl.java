@@ -1,17 +1,18 @@
 package com.logifin.service.impl;
 
+import com.logifin.config.CacheTags;
 import com.logifin.dto.LoanStageDTO;
 import com.logifin.dto.PagedResponse;
 import com.logifin.entity.LoanStage;
 import com.logifin.exception.DuplicateResourceException;
 import com.logifin.exception.ResourceNotFoundException;
 import com.logifin.repository.LoanStageRepository;
+import com.logifin.service.CacheTagService;
 import com.logifin.service.LoanStageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -31,9 +32,9 @@ public class LoanStageServiceImpl implements LoanStageService {
     private static final String CACHE_LOAN_STAGE_BY_NAME = "loanStageByName";
 
     private final LoanStageRepository loanStageRepository;
+    private final CacheTagService cacheTagService;
 
     @Override
-    @CacheEvict(value = CACHE_LOAN_STAGES, allEntries = true)
     public LoanStageDTO createLoanStage(LoanStageDTO loanStageDTO) {
         log.debug("Creating loan stage: {}", loanStageDTO.getStageName());
 
@@ -47,6 +48,7 @@ public class LoanStageServiceImpl implements LoanStageService {
 
         LoanStage loanStage = mapToEntity(loanStageDTO);
         LoanStage savedLoanStage = loanStageRepository.save(loanStage);
+        cacheTagService.evictTags(CacheTags.lists(CacheTags.LOAN_STAGE));
         return mapToDTO(savedLoanStage);
     }
 
@@ -92,11 +94,7 @@ public class LoanStageServiceImpl implements LoanStageService {
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CACHE_LOAN_STAGE_BY_ID, key = "#id"),
-            @CacheEvict(value = CACHE_LOAN_STAGE_BY_NAME, allEntries = true),
-            @CacheEvict(value = CACHE_LOAN_STAGES, allEntries = true)
-    })
+    @CacheEvict(value = CACHE_LOAN_STAGE_BY_ID, key = "#id")
     public LoanStageDTO updateLoanStage(Long id, LoanStageDTO loanStageDTO) {
         log.debug("Updating loan stage with id: {}", id);
         LoanStage existingLoanStage = loanStageRepository.findById(id)
@@ -117,21 +115,19 @@ public class LoanStageServiceImpl implements LoanStageService {
         existingLoanStage.setStageOrder(loanStageDTO.getStageOrder());
 
         LoanStage updatedLoanStage = loanStageRepository.save(existingLoanStage);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.LOAN_STAGE, id));
         return mapToDTO(updatedLoanStage);
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CACHE_LOAN_STAGE_BY_ID, key = "#id"),
-            @CacheEvict(value = CACHE_LOAN_STAGE_BY_NAME, allEntries = true),
-            @CacheEvict(value = CACHE_LOAN_STAGES, allEntries = true)
-    })
+    @CacheEvict(value = CACHE_LOAN_STAGE_BY_ID, key = "#id")
     public void deleteLoanStage(Long id) {
         log.debug("Deleting loan stage with id: {}", id);
         if (!loanStageRepository.existsById(id)) {
             throw new ResourceNotFoundException("LoanStage", "id", id);
         }
         loanStageRepository.deleteById(id);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.LOAN_STAGE, id));
     }
 
     @Override
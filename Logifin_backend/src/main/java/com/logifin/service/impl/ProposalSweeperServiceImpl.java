@@ -0,0 +1,73 @@
+package com.logifin.service.impl;
+
+import com.logifin.entity.Trip;
+import com.logifin.entity.TripFinanceProposal;
+import com.logifin.entity.TripFinanceProposal.ProposalStatus;
+import com.logifin.repository.TripFinanceProposalRepository;
+import com.logifin.service.ProposalSweeperService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProposalSweeperServiceImpl implements ProposalSweeperService {
+
+    private static final List<Trip.TripStatus> CLOSED_TRIP_STATUSES =
+            Arrays.asList(Trip.TripStatus.COMPLETED, Trip.TripStatus.CANCELLED);
+
+    private final TripFinanceProposalRepository proposalRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.proposals.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.proposals.sweeper.max-pending-age:P30D}")
+    private Duration maxPendingAge;
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.proposals.sweeper.interval:PT15M}",
+               initialDelayString = "${app.proposals.sweeper.initial-delay:PT1M}")
+    public int sweepStaleProposals() {
+        LocalDateTime proposedBefore = LocalDateTime.now().minus(maxPendingAge);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int swept;
+        do {
+            // Row locks are held only until this batch commits
+            swept = transaction.execute(status -> sweepBatch(proposedBefore));
+            total += swept;
+        } while (swept == batchSize);
+
+        if (total > 0) {
+            log.info("Swept {} stale finance proposals", total);
+        }
+        return total;
+    }
+
+    private int sweepBatch(LocalDateTime proposedBefore) {
+        List<Long> ids = proposalRepository.lockStalePending(ProposalStatus.PENDING, proposedBefore,
+                        CLOSED_TRIP_STATUSES, PageRequest.of(0, batchSize)).stream()
+                .map(TripFinanceProposal::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int rejected = proposalRepository.rejectFinancedElsewhere(ids);
+        int expired = proposalRepository.expirePending(ids);
+        log.debug("Proposal sweep batch: {} rejected (trip financed elsewhere), {} expired", rejected, expired);
+        return ids.size();
+    }
+}
@@ -1,18 +1,19 @@
 package com.logifin.service.impl;
 
 import com.logifin.config.CacheConfig;
+import com.logifin.config.CacheTags;
 import com.logifin.dto.PagedResponse;
 import com.logifin.dto.RoleDTO;
 import com.logifin.entity.Role;
 import com.logifin.exception.DuplicateResourceException;
 import com.logifin.exception.ResourceNotFoundException;
 import com.logifin.repository.RoleRepository;
+import com.logifin.service.CacheTagService;
 import com.logifin.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,9 +29,9 @@ import java.util.stream.Collectors;
 public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
+    private final CacheTagService cacheTagService;
 
     @Override
-    @CacheEvict(value = CacheConfig.CACHE_ROLES, allEntries = true)
     public RoleDTO createRole(RoleDTO roleDTO) {
         log.debug("Creating role: {}", roleDTO.getRoleName());
         if (roleRepository.existsByRoleName(roleDTO.getRoleName())) {
@@ -39,6 +40,7 @@ public class RoleServiceImpl implements RoleService {
 
         Role role = mapToEntity(roleDTO);
         Role savedRole = roleRepository.save(role);
+        cacheTagService.evictTags(CacheTags.lists(CacheTags.ROLE));
         return mapToDTO(savedRole);
     }
 
@@ -73,11 +75,7 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_ROLE_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_ROLE_BY_NAME, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_ROLES, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_ROLE_BY_ID, key = "#id")
     public RoleDTO updateRole(Long id, RoleDTO roleDTO) {
         log.debug("Updating role with id: {}", id);
         Role existingRole = roleRepository.findById(id)
@@ -92,21 +90,19 @@ public class RoleServiceImpl implements RoleService {
         existingRole.setDescription(roleDTO.getDescription());
 
         Role updatedRole = roleRepository.save(existingRole);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.ROLE, id));
         return mapToDTO(updatedRole);
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_ROLE_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_ROLE_BY_NAME, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_ROLES, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_ROLE_BY_ID, key = "#id")
     public void deleteRole(Long id) {
         log.debug("Deleting role with id: {}", id);
         if (!roleRepository.existsById(id)) {
             throw new ResourceNotFoundException("Role", "id", id);
         }
         roleRepository.deleteById(id);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.ROLE, id));
     }
 
     private RoleDTO mapToDTO(Role role) {
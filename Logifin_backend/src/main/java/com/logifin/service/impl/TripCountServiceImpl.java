@@ -0,0 +1,34 @@
+package com.logifin.service.impl;
+
+import com.logifin.config.AsyncConfig;
+import com.logifin.dto.TripSearchCriteria;
+import com.logifin.repository.TripRepository;
+import com.logifin.repository.specification.TripSpecification;
+import com.logifin.service.TripCountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementation of TripCountService.
+ * Kept in its own bean so the @Async proxy applies when called from TripServiceImpl.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripCountServiceImpl implements TripCountService {
+
+    private final TripRepository tripRepository;
+
+    @Override
+    @Async(AsyncConfig.COUNT_QUERY_EXECUTOR)
+    @Transactional(readOnly = true)
+    public CompletableFuture<Long> countTrips(TripSearchCriteria criteria) {
+        log.debug("Counting trips with criteria");
+        return CompletableFuture.completedFuture(tripRepository.count(TripSpecification.fromCriteria(criteria)));
+    }
+}
@@ -3,20 +3,39 @@ package com.logifin.service.impl;
 import com.logifin.dto.*;
 import com.logifin.entity.*;
 import com.logifin.entity.TripFinanceProposal.ProposalStatus;
+import com.logifin.event.TripsChangedEvent;
 import com.logifin.exception.BadRequestException;
+import com.logifin.exception.ConflictException;
 import com.logifin.exception.ResourceNotFoundException;
 import com.logifin.repository.*;
+import com.logifin.repository.projection.LenderInterestRow;
+import com.logifin.repository.projection.ThreePartyContractRow;
+import com.logifin.repository.projection.TransporterInterestRow;
+import com.logifin.service.ContractPartyIndexService;
 import com.logifin.service.TripFinanceProposalService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +49,8 @@ public class TripFinanceProposalServiceImpl implements TripFinanceProposalServic
     private final UserRepository userRepository;
     private final ContractRepository contractRepository;
     private final ContractPartyRepository contractPartyRepository;
+    private final ContractPartyIndexService contractPartyIndexService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== Lender Operations ====================
 
@@ -41,158 +62,245 @@ public class TripFinanceProposalServiceImpl implements TripFinanceProposalServic
         User lender = userRepository.findById(lenderId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", lenderId));
 
-        // Process each trip
-        List<InterestCreationResult> results = new ArrayList<>();
-        int successCount = 0;
-        int failureCount = 0;
+        List<Long> tripIds = request.getTripIds();
+        Set<Long> distinctTripIds = new LinkedHashSet<>(tripIds);
+
+        // Load all trips with transporter and sender in one query
+        Map<Long, Trip> tripsById = distinctTripIds.isEmpty() ? Collections.emptyMap()
+                : tripRepository.findAllWithPartiesByIdIn(distinctTripIds).stream()
+                        .collect(Collectors.toMap(Trip::getId, Function.identity()));
+
+        // Resolve the best contract for every (transporter, sender) pair in one query
+        Map<String, Contract> contractsByParties = findContractsByParties(lenderId, tripsById.values());
 
-        for (Long tripId : request.getTripIds()) {
-            InterestCreationResult result = processSingleTrip(tripId, lenderId, lender);
-            results.add(result);
+        // Existing (trip, contract) interests of this lender in one query
+        Set<String> existingInterests = new HashSet<>();
+        if (!tripsById.isEmpty()) {
+            for (Object[] row : proposalRepository.findTripAndContractIdsByLenderIdAndTripIdIn(lenderId, tripsById.keySet())) {
+                existingInterests.add(key((Long) row[0], (Long) row[1]));
+            }
+        }
 
-            if (result.isSuccess()) {
-                successCount++;
-            } else {
-                failureCount++;
+        // Decide per trip, in request order, then insert all new proposals together
+        List<InterestCreationResult> results = new ArrayList<>();
+        List<TripFinanceProposal> proposals = new ArrayList<>();
+        Map<Integer, TripFinanceProposal> proposalByResultIndex = new HashMap<>();
+
+        for (Long tripId : tripIds) {
+            TripFinanceProposal proposal = prepareProposal(
+                    tripId, tripsById.get(tripId), lender, contractsByParties, existingInterests, results);
+            if (proposal != null) {
+                proposalByResultIndex.put(results.size() - 1, proposal);
+                proposals.add(proposal);
             }
         }
 
+        // Ids come from a pooled sequence, so these inserts are JDBC batched on flush
+        proposalRepository.saveAll(proposals);
+        proposalByResultIndex.forEach((index, proposal) -> results.get(index).setInterestId(proposal.getId()));
+
+        int successCount = proposals.size();
+        int failureCount = results.size() - successCount;
         log.info("Batch processing completed: {} successes, {} failures", successCount, failureCount);
 
         return BatchFinanceInterestResponse.builder()
-                .totalRequested(request.getTripIds().size())
+                .totalRequested(tripIds.size())
                 .successCount(successCount)
                 .failureCount(failureCount)
                 .results(results)
                 .build();
     }
 
-    private InterestCreationResult processSingleTrip(Long tripId, Long lenderId, User lender) {
-        try {
-            // Fetch trip
-            Trip trip = tripRepository.findById(tripId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Trip", "id", tripId));
-
-            // Get trip number for response
-            String tripNumber = generateTripNumber(trip);
-
-            // Validate trip is available for financing
-            validateTripForFinancing(trip);
-
-            // Get transporter and sender from trip
-            User transporter = trip.getCreatedByUser();
-            User sender = trip.getSender();
-
-            if (transporter == null) {
-                return InterestCreationResult.builder()
-                        .tripId(tripId)
-                        .tripNumber(tripNumber)
-                        .success(false)
-                        .message("Trip does not have a transporter assigned")
-                        .build();
+    private Map<String, Contract> findContractsByParties(Long lenderId, Collection<Trip> trips) {
+        // Distinct (transporter, sender) pairs of the trips
+        Map<String, Long[]> pairs = new HashMap<>();
+        for (Trip trip : trips) {
+            if (trip.getCreatedByUser() != null && trip.getSender() != null) {
+                Long transporterId = trip.getCreatedByUser().getId();
+                Long senderId = trip.getSender().getId();
+                pairs.put(key(transporterId, senderId), new Long[]{transporterId, senderId});
             }
+        }
+        if (pairs.isEmpty()) {
+            return Collections.emptyMap();
+        }
 
-            if (sender == null) {
-                return InterestCreationResult.builder()
-                        .tripId(tripId)
-                        .tripNumber(tripNumber)
-                        .success(false)
-                        .message("Trip does not have a sender/consigner assigned")
-                        .build();
+        Map<String, Contract> contracts = new HashMap<>();
+        Map<String, Long[]> unresolved = new HashMap<>();
+        if (!contractPartyIndexService.isReady()) {
+            unresolved.putAll(pairs);
+        } else {
+            Map<String, Long> contractIdByPair = new HashMap<>();
+            for (Map.Entry<String, Long[]> pair : pairs.entrySet()) {
+                List<Long> contractIds = contractPartyIndexService.findActiveContractIds(
+                        lenderId, pair.getValue()[0], pair.getValue()[1]);
+                if (contractIds.isEmpty()) {
+                    unresolved.put(pair.getKey(), pair.getValue());
+                } else {
+                    contractIdByPair.put(pair.getKey(), contractIds.get(0));
+                }
             }
-
-            // Find contract between lender, transporter, and sender
-            List<Contract> contracts = contractPartyRepository.findActiveContractsByThreeParties(
-                    lenderId, transporter.getId(), sender.getId());
-
-            if (contracts.isEmpty()) {
-                return InterestCreationResult.builder()
-                        .tripId(tripId)
-                        .tripNumber(tripNumber)
-                        .success(false)
-                        .message(String.format("No active contract found between you (lender), transporter (%s %s), and consigner (%s %s)",
-                                transporter.getFirstName(), transporter.getLastName(),
-                                sender.getFirstName(), sender.getLastName()))
-                        .build();
+            if (!contractIdByPair.isEmpty()) {
+                Map<Long, Contract> loaded = contractRepository.findAllWithPartiesByIdIn(
+                                new HashSet<>(contractIdByPair.values())).stream()
+                        .collect(Collectors.toMap(Contract::getId, Function.identity()));
+                Set<Long> staleContractIds = new HashSet<>();
+                contractIdByPair.forEach((pair, contractId) -> {
+                    Contract contract = loaded.get(contractId);
+                    Long[] parties = pairs.get(pair);
+                    if (isActive(contract) && hasParties(contract, lenderId, parties[0], parties[1])) {
+                        contracts.put(pair, contract);
+                    } else {
+                        staleContractIds.add(contractId);
+                    }
+                });
+                // Changed on another node since it was indexed: re-read it and resolve those pairs by query
+                for (Long contractId : staleContractIds) {
+                    contractPartyIndexService.refreshContract(contractId);
+                }
+                contractIdByPair.forEach((pair, contractId) -> {
+                    if (staleContractIds.contains(contractId)) {
+                        unresolved.put(pair, pairs.get(pair));
+                    }
+                });
             }
+        }
 
-            // Use the first contract (ordered by furthest expiry date)
-            Contract contract = contracts.get(0);
-
-            // Check for duplicate interest
-            if (proposalRepository.existsByTripIdAndLenderIdAndContractId(tripId, lenderId, contract.getId())) {
-                return InterestCreationResult.builder()
-                        .tripId(tripId)
-                        .tripNumber(tripNumber)
-                        .success(false)
-                        .message("You have already marked interest in this trip")
-                        .build();
+        // Index misses are confirmed by query, as the contract may have been created on another node
+        if (!unresolved.isEmpty()) {
+            Set<Long> transporterIds = new HashSet<>();
+            Set<Long> senderIds = new HashSet<>();
+            unresolved.values().forEach(pair -> {
+                transporterIds.add(pair[0]);
+                senderIds.add(pair[1]);
+            });
+            // Rows come furthest expiry first, so the first contract seen for a pair wins
+            for (ThreePartyContractRow row : contractPartyRepository.findActiveContractsForLender(
+                    lenderId, transporterIds, senderIds)) {
+                String pair = key(row.getTransporterId(), row.getSenderId());
+                if (unresolved.containsKey(pair)) {
+                    contracts.putIfAbsent(pair, row.getContract());
+                }
             }
+        }
+        return contracts;
+    }
+
+    private static boolean hasParties(Contract contract, Long... userIds) {
+        Set<Long> partyUserIds = contract.getContractParties().stream()
+                .filter(party -> party.getUser() != null)
+                .map(party -> party.getUser().getId())
+                .collect(Collectors.toSet());
+        return partyUserIds.containsAll(Arrays.asList(userIds));
+    }
+
+    private static boolean isActive(Contract contract) {
+        return contract != null
+                && "ACTIVE".equals(contract.getStatus())
+                && contract.getExpiryDate() != null
+                && contract.getExpiryDate().isAfter(LocalDate.now());
+    }
 
-            // Create the proposal
-            TripFinanceProposal proposal = TripFinanceProposal.builder()
-                    .trip(trip)
-                    .lender(lender)
-                    .contract(contract)
-                    .status(ProposalStatus.PENDING)
-                    .proposedAt(LocalDateTime.now())
-                    .createdBy(lender)
-                    .build();
-
-            TripFinanceProposal saved = proposalRepository.save(proposal);
-
-            log.debug("Interest created successfully for trip {} using contract {}", tripId, contract.getId());
-
-            return InterestCreationResult.builder()
-                    .tripId(tripId)
-                    .tripNumber(tripNumber)
-                    .success(true)
-                    .message(String.format("Interest marked successfully (Contract ID: %d)", contract.getId()))
-                    .interestId(saved.getId())
-                    .build();
-
-        } catch (ResourceNotFoundException e) {
+    /**
+     * Validate a single trip against the preloaded data and append its result.
+     * Returns the proposal to insert, or null when the trip is rejected.
+     */
+    private TripFinanceProposal prepareProposal(Long tripId, Trip trip, User lender,
+                                                Map<String, Contract> contractsByParties,
+                                                Set<String> existingInterests,
+                                                List<InterestCreationResult> results) {
+        if (trip == null) {
             log.warn("Trip not found: {}", tripId);
-            return InterestCreationResult.builder()
-                    .tripId(tripId)
-                    .tripNumber("N/A")
-                    .success(false)
-                    .message("Trip not found")
-                    .build();
+            results.add(failure(tripId, "N/A", "Trip not found"));
+            return null;
+        }
+
+        // Get trip number for response
+        String tripNumber = generateTripNumber(trip);
+
+        try {
+            // Validate trip is available for financing
+            validateTripForFinancing(trip);
         } catch (BadRequestException e) {
             log.warn("Validation failed for trip {}: {}", tripId, e.getMessage());
-            return InterestCreationResult.builder()
-                    .tripId(tripId)
-                    .tripNumber("N/A")
-                    .success(false)
-                    .message(e.getMessage())
-                    .build();
-        } catch (Exception e) {
-            log.error("Error processing trip {}: {}", tripId, e.getMessage(), e);
-            return InterestCreationResult.builder()
-                    .tripId(tripId)
-                    .tripNumber("N/A")
-                    .success(false)
-                    .message("Internal error: " + e.getMessage())
-                    .build();
+            results.add(failure(tripId, "N/A", e.getMessage()));
+            return null;
         }
+
+        // Get transporter and sender from trip
+        User transporter = trip.getCreatedByUser();
+        User sender = trip.getSender();
+
+        if (transporter == null) {
+            results.add(failure(tripId, tripNumber, "Trip does not have a transporter assigned"));
+            return null;
+        }
+
+        if (sender == null) {
+            results.add(failure(tripId, tripNumber, "Trip does not have a sender/consigner assigned"));
+            return null;
+        }
+
+        // Contract between lender, transporter, and sender (furthest expiry date)
+        Contract contract = contractsByParties.get(key(transporter.getId(), sender.getId()));
+        if (contract == null) {
+            results.add(failure(tripId, tripNumber,
+                    String.format("No active contract found between you (lender), transporter (%s %s), and consigner (%s %s)",
+                            transporter.getFirstName(), transporter.getLastName(),
+                            sender.getFirstName(), sender.getLastName())));
+            return null;
+        }
+
+        // Check for duplicate interest, including a trip repeated within this request
+        if (!existingInterests.add(key(tripId, contract.getId()))) {
+            results.add(failure(tripId, tripNumber, "You have already marked interest in this trip"));
+            return null;
+        }
+
+        log.debug("Interest prepared for trip {} using contract {}", tripId, contract.getId());
+        results.add(InterestCreationResult.builder()
+                .tripId(tripId)
+                .tripNumber(tripNumber)
+                .success(true)
+                .message(String.format("Interest marked successfully (Contract ID: %d)", contract.getId()))
+                .build());
+
+        return TripFinanceProposal.builder()
+                .trip(trip)
+                .lender(lender)
+                .contract(contract)
+                .status(ProposalStatus.PENDING)
+                .proposedAt(LocalDateTime.now())
+                .createdBy(lender)
+                .build();
+    }
+
+    private static InterestCreationResult failure(Long tripId, String tripNumber, String message) {
+        return InterestCreationResult.builder()
+                .tripId(tripId)
+                .tripNumber(tripNumber)
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    private static String key(Long first, Long second) {
+        return first + ":" + second;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<FinanceInterestForLenderDTO> getMyInterests(Long lenderId, ProposalStatus status) {
+    public PagedResponse<FinanceInterestForLenderDTO> getMyInterests(Long lenderId, ProposalStatus status, Pageable pageable) {
         log.debug("Fetching interests for lender {} with status {}", lenderId, status);
 
-        List<TripFinanceProposal> proposals;
+        Page<LenderInterestRow> rows;
         if (status != null) {
-            proposals = proposalRepository.findByLenderIdAndStatus(lenderId, status);
+            rows = proposalRepository.findLenderInterestRowsByStatus(lenderId, status, pageable);
         } else {
-            proposals = proposalRepository.findByLenderId(lenderId);
+            rows = proposalRepository.findLenderInterestRows(lenderId, pageable);
         }
 
-        return proposals.stream()
-                .map(this::mapToLenderDTO)
-                .collect(Collectors.toList());
+        return PagedResponse.of(rows.map(this::mapToLenderDTO));
     }
 
     @Override
@@ -229,7 +337,8 @@ public class TripFinanceProposalServiceImpl implements TripFinanceProposalServic
 
     @Override
     @Transactional(readOnly = true)
-    public List<FinanceInterestForTransporterDTO> getInterestsForMyTrip(Long transporterId, Long tripId) {
+    public PagedResponse<FinanceInterestForTransporterDTO> getInterestsForMyTrip(Long transporterId, Long tripId,
+                                                                                 Pageable pageable) {
         log.debug("Fetching interests for trip {} of transporter {}", tripId, transporterId);
 
         // Verify trip belongs to transporter
@@ -240,35 +349,35 @@ public class TripFinanceProposalServiceImpl implements TripFinanceProposalServic
             throw new BadRequestException("This trip does not belong to you");
         }
 
-        List<TripFinanceProposal> proposals = proposalRepository.findByTripId(tripId);
-
-        return proposals.stream()
-                .map(this::mapToTransporterDTO)
-                .collect(Collectors.toList());
+        return PagedResponse.of(proposalRepository.findTransporterInterestRowsByTripId(tripId, pageable)
+                .map(this::mapToTransporterDTO));
     }
 
     @Override
     public void acceptLender(Long transporterId, Long interestId) {
         log.debug("Transporter {} accepting interest {}", transporterId, interestId);
 
+        // Decide the acceptance in one conditional UPDATE; no prior read, no row locks held across statements
+        int accepted;
+        try {
+            accepted = proposalRepository.acceptIfPending(interestId, userRepository.getReferenceById(transporterId),
+                    ProposalStatus.PENDING, ProposalStatus.ACCEPTED);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent acceptance for the same trip committed first (uq_tfp_trip_accepted)
+            log.info("Interest {} lost a concurrent acceptance for its trip", interestId);
+            throw new ConflictException("This trip already has an accepted financing proposal");
+        }
+
         TripFinanceProposal proposal = proposalRepository.findByIdAndTransporterId(interestId, transporterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Finance Interest", "id", interestId));
 
-        if (proposal.getStatus() != ProposalStatus.PENDING) {
-            throw new BadRequestException("Only pending interests can be accepted. Current status: " + proposal.getStatus());
-        }
-
-        // Check if trip already has an accepted proposal
-        if (proposalRepository.existsByTripIdAndStatus(proposal.getTrip().getId(), ProposalStatus.ACCEPTED)) {
-            throw new BadRequestException("This trip already has an accepted financing proposal");
+        if (accepted == 0) {
+            if (proposal.getStatus() != ProposalStatus.PENDING) {
+                throw new ConflictException("Only pending interests can be accepted. Current status: " + proposal.getStatus());
+            }
+            throw new ConflictException("This trip already has an accepted financing proposal");
         }
 
-        // Accept this proposal
-        proposal.setStatus(ProposalStatus.ACCEPTED);
-        proposal.setRespondedAt(LocalDateTime.now());
-        proposal.setUpdatedBy(proposal.getTrip().getCreatedByUser());
-        proposalRepository.save(proposal);
-
         // Link trip to the accepted contract and update financial terms
         Trip trip = proposal.getTrip();
         Contract contract = proposal.getContract();
@@ -276,6 +385,7 @@ public class TripFinanceProposalServiceImpl implements TripFinanceProposalServic
         trip.setInterestRate(contract.getInterestRate());
         trip.setMaturityDays(contract.getMaturityDays());
         tripRepository.save(trip);
+        eventPublisher.publishEvent(TripsChangedEvent.saved(Collections.singletonList(trip)));
 
         // Reject all other pending proposals for this trip
         int rejectedCount = proposalRepository.rejectOtherPendingProposals(proposal.getTrip().getId(), interestId);
@@ -305,14 +415,11 @@ public class TripFinanceProposalServiceImpl implements TripFinanceProposalServic
 
     @Override
     @Transactional(readOnly = true)
-    public List<FinanceInterestForTransporterDTO> getAllInterestsForMyTrips(Long transporterId) {
+    public PagedResponse<FinanceInterestForTransporterDTO> getAllInterestsForMyTrips(Long transporterId, Pageable pageable) {
         log.debug("Fetching all interests for transporter {}", transporterId);
 
-        List<TripFinanceProposal> proposals = proposalRepository.findAllByTransporterId(transporterId);
-
-        return proposals.stream()
-                .map(this::mapToTransporterDTO)
-                .collect(Collectors.toList());
+        return PagedResponse.of(proposalRepository.findTransporterInterestRowsByTransporterId(transporterId, pageable)
+                .map(this::mapToTransporterDTO));
     }
 
     // ==================== Validation Methods ====================
@@ -349,31 +456,52 @@ public class TripFinanceProposalServiceImpl implements TripFinanceProposalServic
                 .build();
     }
 
-    private FinanceInterestForTransporterDTO mapToTransporterDTO(TripFinanceProposal proposal) {
-        User lender = proposal.getLender();
-        Contract contract = proposal.getContract();
+    private FinanceInterestForLenderDTO mapToLenderDTO(LenderInterestRow row) {
+        return FinanceInterestForLenderDTO.builder()
+                .id(row.getId())
+                .status(row.getStatus())
+                .interestedAt(row.getProposedAt())
+                .respondedAt(row.getRespondedAt())
+                .tripId(row.getTripId())
+                .tripNumber(generateTripNumber(row.getTripId()))
+                .origin(row.getPickup())
+                .destination(row.getDestination())
+                .estimatedAmount(row.getLoanAmount())
+                .transporterId(row.getTransporterId())
+                .transporterName(row.getTransporterFirstName() + " " + row.getTransporterLastName())
+                .transporterCompanyName(row.getTransporterCompanyName() != null ? row.getTransporterCompanyName() : "N/A")
+                .contractId(row.getContractId())
+                .interestRate(row.getInterestRate())
+                .maturityDays(row.getMaturityDays())
+                .build();
+    }
 
+    private FinanceInterestForTransporterDTO mapToTransporterDTO(TransporterInterestRow row) {
         return FinanceInterestForTransporterDTO.builder()
-                .id(proposal.getId())
-                .status(proposal.getStatus())
-                .interestedAt(proposal.getProposedAt())
-                .respondedAt(proposal.getRespondedAt())
-                .lenderId(lender.getId())
-                .lenderName(lender.getFirstName() + " " + lender.getLastName())
-                .lenderCompanyName(lender.getCompany() != null ? lender.getCompany().getName() : "N/A")
-                .contractId(contract.getId())
-                .interestRate(contract.getInterestRate())
-                .maturityDays(contract.getMaturityDays())
-                .contractExpiryDate(contract.getExpiryDate())
-                .loanPercent(contract.getLoanPercent())
-                .ltv(contract.getLtv())
-                .penaltyRatio(contract.getPenaltyRatio())
+                .id(row.getId())
+                .status(row.getStatus())
+                .interestedAt(row.getProposedAt())
+                .respondedAt(row.getRespondedAt())
+                .lenderId(row.getLenderId())
+                .lenderName(row.getLenderFirstName() + " " + row.getLenderLastName())
+                .lenderCompanyName(row.getLenderCompanyName() != null ? row.getLenderCompanyName() : "N/A")
+                .contractId(row.getContractId())
+                .interestRate(row.getInterestRate())
+                .maturityDays(row.getMaturityDays())
+                .contractExpiryDate(row.getContractExpiryDate())
+                .loanPercent(row.getLoanPercent())
+                .ltv(row.getLtv())
+                .penaltyRatio(row.getPenaltyRatio())
                 .build();
     }
 
     private String generateTripNumber(Trip trip) {
+        return generateTripNumber(trip.getId());
+    }
+
+    private String generateTripNumber(Long tripId) {
         // Generate a trip number if it doesn't exist
         // You might have a tripNumber field in Trip entity, or generate one
-        return "TRP-" + trip.getId();
+        return "TRP-" + tripId;
     }
 }
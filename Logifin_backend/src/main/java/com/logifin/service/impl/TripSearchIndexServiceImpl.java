@@ -0,0 +1,398 @@
+package com.logifin.service.impl;
+
+import com.logifin.dto.TripIndexSearchResult;
+import com.logifin.dto.TripSearchCriteria;
+import com.logifin.exception.BadRequestException;
+import com.logifin.repository.TripRepository;
+import com.logifin.repository.projection.TripExportRow;
+import com.logifin.service.TripSearchIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.*;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of TripSearchIndexService on an on-disk Lucene index.
+ * Writes come from a single thread (the search index executor); searches run
+ * concurrently against the last refreshed point-in-time reader.
+ * Commits are time-based since the index is rebuilt from the database on startup anyway.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripSearchIndexServiceImpl implements TripSearchIndexService {
+
+    static final int MAX_RESULT_WINDOW = 10000;
+
+    // Lucene preallocates a queue of this size per facet
+    static final int MAX_FACET_LIMIT = 100;
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_ID_SORT = "id_sort";
+    private static final String FIELD_TEXT = "text";
+    private static final String FIELD_PICKUP = "pickup";
+    private static final String FIELD_DESTINATION = "destination";
+    private static final String FIELD_RECEIVER = "receiver";
+    private static final String FIELD_LOAD_TYPE = "loadType";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_LOAN_AMOUNT = "loanAmount";
+    private static final String FIELD_CREATED_AT = "createdAt";
+    private static final String FIELD_CREATED_AT_SORT = "createdAt_sort";
+
+    private static final String FACET_STATUS = "status";
+    private static final String FACET_LOAD_TYPE = "loadType";
+    private static final String FACET_LANE = "lane";
+
+    private static final Sort NEWEST_FIRST = new Sort(
+            new SortField(FIELD_CREATED_AT_SORT, SortField.Type.LONG, true),
+            new SortField(FIELD_ID_SORT, SortField.Type.LONG, true));
+
+    private final TripRepository tripRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.index-dir:${java.io.tmpdir}/logifin-trip-index}")
+    private String indexDir;
+
+    @Value("${app.search.commit-interval:PT30S}")
+    private Duration commitInterval;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private long lastCommitNanos;
+
+    // Facet ordinals are computed per reader; rebuilt only when the reader changes
+    private IndexReader facetStateReader;
+    private SortedSetDocValuesReaderState facetState;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path path = Paths.get(indexDir);
+        Files.createDirectories(path);
+        directory = FSDirectory.open(path);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        lastCommitNanos = System.nanoTime();
+        log.info("Trip search index opened at {} with {} documents", path, writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            searcherManager.close();
+            writer.commit();
+            writer.close();
+            directory.close();
+        } catch (IOException e) {
+            log.error("Error closing trip search index: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void upsert(List<TripExportRow> trips) {
+        try {
+            for (TripExportRow trip : trips) {
+                writer.updateDocument(new Term(FIELD_ID, trip.getId().toString()), toDocument(trip));
+            }
+            afterWrite();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void delete(List<Long> tripIds) {
+        try {
+            Term[] terms = tripIds.stream()
+                    .map(id -> new Term(FIELD_ID, id.toString()))
+                    .toArray(Term[]::new);
+            writer.deleteDocuments(terms);
+            afterWrite();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void reindex(List<Long> tripIds) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        List<TripExportRow> rows = transaction.execute(status -> {
+            try (Stream<TripExportRow> stream = tripRepository.streamForExport(
+                    (root, query, cb) -> root.get("id").in(tripIds))) {
+                return stream.collect(Collectors.toList());
+            }
+        });
+        Set<Long> found = rows.stream().map(TripExportRow::getId).collect(Collectors.toSet());
+        List<Long> missing = tripIds.stream().filter(id -> !found.contains(id)).collect(Collectors.toList());
+        if (!rows.isEmpty()) {
+            upsert(rows);
+        }
+        if (!missing.isEmpty()) {
+            delete(missing);
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        long indexed = transaction.execute(status -> {
+            try (Stream<TripExportRow> rows = tripRepository.streamForExport(null)) {
+                writer.deleteAll();
+                long count = 0;
+                Iterator<TripExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writer.addDocument(toDocument(iterator.next()));
+                    count++;
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            // Searchers keep seeing the old snapshot until the rebuilt index is complete
+            writer.commit();
+            lastCommitNanos = System.nanoTime();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Trip search index rebuilt with {} trips in {} ms", indexed, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public TripIndexSearchResult search(TripSearchCriteria criteria, int page, int size, int facetLimit) {
+        if (page < 0) {
+            throw new BadRequestException("Page index must not be negative");
+        }
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        if (facetLimit < 1 || facetLimit > MAX_FACET_LIMIT) {
+            throw new BadRequestException("Facet limit must be between 1 and " + MAX_FACET_LIMIT);
+        }
+        // Long arithmetic so a huge page index cannot overflow past the window check
+        if ((long) page * size + size > MAX_RESULT_WINDOW) {
+            throw new BadRequestException("Search results are limited to the first " + MAX_RESULT_WINDOW
+                    + " matches, refine the search criteria");
+        }
+        int offset = page * size;
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                FacetsCollector facetsCollector = new FacetsCollector();
+                TopDocs topDocs = FacetsCollector.search(searcher, buildQuery(criteria), offset + size,
+                        NEWEST_FIRST, facetsCollector);
+
+                List<Long> tripIds = new ArrayList<>(size);
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    tripIds.add(Long.valueOf(searcher.doc(topDocs.scoreDocs[i].doc).get(FIELD_ID)));
+                }
+                long totalHits = facetsCollector.getMatchingDocs().stream()
+                        .mapToLong(docs -> docs.totalHits)
+                        .sum();
+
+                Facets facets = countFacets(searcher.getIndexReader(), facetsCollector);
+                return TripIndexSearchResult.builder()
+                        .tripIds(tripIds)
+                        .totalHits(totalHits)
+                        .statusCounts(topChildren(facets, FACET_STATUS, facetLimit))
+                        .loadTypeCounts(topChildren(facets, FACET_LOAD_TYPE, facetLimit))
+                        .topLanes(topChildren(facets, FACET_LANE, facetLimit))
+                        .build();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void afterWrite() throws IOException {
+        searcherManager.maybeRefresh();
+        if (System.nanoTime() - lastCommitNanos >= commitInterval.toNanos()) {
+            writer.commit();
+            lastCommitNanos = System.nanoTime();
+        }
+    }
+
+    private Document toDocument(TripExportRow trip) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, trip.getId().toString(), Field.Store.YES));
+        doc.add(new NumericDocValuesField(FIELD_ID_SORT, trip.getId()));
+
+        addText(doc, FIELD_PICKUP, trip.getPickup());
+        addText(doc, FIELD_DESTINATION, trip.getDestination());
+        addText(doc, FIELD_RECEIVER, trip.getReceiver());
+        addText(doc, FIELD_LOAD_TYPE, trip.getLoadType());
+        doc.add(new TextField(FIELD_TEXT, String.join(" ", nonNull(trip.getPickup()), nonNull(trip.getDestination()),
+                nonNull(trip.getReceiver()), nonNull(trip.getLoadType()), nonNull(trip.getNotes())), Field.Store.NO));
+
+        if (trip.getStatus() != null) {
+            doc.add(new StringField(FIELD_STATUS, trip.getStatus().name(), Field.Store.NO));
+            doc.add(new SortedSetDocValuesFacetField(FACET_STATUS, trip.getStatus().name()));
+        }
+        if (StringUtils.hasText(trip.getLoadType())) {
+            doc.add(new SortedSetDocValuesFacetField(FACET_LOAD_TYPE, trip.getLoadType().trim()));
+        }
+        if (StringUtils.hasText(trip.getPickup()) && StringUtils.hasText(trip.getDestination())) {
+            doc.add(new SortedSetDocValuesFacetField(FACET_LANE,
+                    trip.getPickup().trim() + " -> " + trip.getDestination().trim()));
+        }
+        if (trip.getLoanAmount() != null) {
+            doc.add(new DoublePoint(FIELD_LOAN_AMOUNT, trip.getLoanAmount().doubleValue()));
+        }
+        long createdAt = trip.getCreatedAt() != null ? toEpochMillis(trip.getCreatedAt()) : 0L;
+        doc.add(new LongPoint(FIELD_CREATED_AT, createdAt));
+        doc.add(new NumericDocValuesField(FIELD_CREATED_AT_SORT, createdAt));
+
+        return facetsConfig.build(doc);
+    }
+
+    private void addText(Document doc, String field, String value) {
+        if (StringUtils.hasText(value)) {
+            doc.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private Query buildQuery(TripSearchCriteria criteria) throws IOException {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        addPrefixClauses(query, FIELD_TEXT, criteria.getKeyword());
+        addPrefixClauses(query, FIELD_PICKUP, criteria.getPickup());
+        addPrefixClauses(query, FIELD_DESTINATION, criteria.getDestination());
+        addPrefixClauses(query, FIELD_RECEIVER, criteria.getReceiver());
+        addPrefixClauses(query, FIELD_LOAD_TYPE, criteria.getLoadType());
+
+        if (criteria.getStatus() != null) {
+            query.add(new TermQuery(new Term(FIELD_STATUS, criteria.getStatus().name())), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.getMinLoanAmount() != null || criteria.getMaxLoanAmount() != null) {
+            query.add(DoublePoint.newRangeQuery(FIELD_LOAN_AMOUNT,
+                    toDouble(criteria.getMinLoanAmount(), Double.NEGATIVE_INFINITY),
+                    toDouble(criteria.getMaxLoanAmount(), Double.POSITIVE_INFINITY)), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.getCreatedFrom() != null || criteria.getCreatedTo() != null) {
+            long from = criteria.getCreatedFrom() != null
+                    ? toEpochMillis(criteria.getCreatedFrom().atStartOfDay()) : Long.MIN_VALUE;
+            long to = criteria.getCreatedTo() != null
+                    ? toEpochMillis(criteria.getCreatedTo().plusDays(1).atStartOfDay()) - 1 : Long.MAX_VALUE;
+            query.add(LongPoint.newRangeQuery(FIELD_CREATED_AT, from, to), BooleanClause.Occur.FILTER);
+        }
+
+        BooleanQuery built = query.build();
+        return built.clauses().isEmpty() ? new MatchAllDocsQuery() : built;
+    }
+
+    /**
+     * Every analyzed token of the input must prefix-match a token of the field
+     */
+    private void addPrefixClauses(BooleanQuery.Builder query, String field, String text) throws IOException {
+        if (!StringUtils.hasText(text)) {
+            return;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                query.add(new PrefixQuery(new Term(field, term.toString())), BooleanClause.Occur.FILTER);
+            }
+            tokens.end();
+        }
+    }
+
+    private Facets countFacets(IndexReader reader, FacetsCollector facetsCollector) throws IOException {
+        SortedSetDocValuesReaderState state;
+        synchronized (this) {
+            if (facetStateReader != reader) {
+                try {
+                    facetState = new DefaultSortedSetDocValuesReaderState(reader);
+                } catch (IllegalArgumentException e) {
+                    // No document with a facet field yet
+                    facetState = null;
+                }
+                facetStateReader = reader;
+            }
+            state = facetState;
+        }
+        return state != null ? new SortedSetDocValuesFacetCounts(state, facetsCollector) : null;
+    }
+
+    private Map<String, Long> topChildren(Facets facets, String dimension, int limit) throws IOException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (facets == null || limit <= 0) {
+            return counts;
+        }
+        FacetResult result;
+        try {
+            result = facets.getTopChildren(limit, dimension);
+        } catch (IllegalArgumentException e) {
+            // Dimension not present in the current index
+            return counts;
+        }
+        if (result != null) {
+            for (LabelAndValue labelAndValue : result.labelValues) {
+                counts.put(labelAndValue.label, labelAndValue.value.longValue());
+            }
+        }
+        return counts;
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+
+    private static double toDouble(BigDecimal value, double defaultValue) {
+        return value != null ? value.doubleValue() : defaultValue;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
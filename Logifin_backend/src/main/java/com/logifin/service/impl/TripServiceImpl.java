@@ -1,5 +1,6 @@
 package com.logifin.service.impl;
 
+import com.logifin.config.UploadConfig;
 import com.logifin.dto.*;
 import com.logifin.entity.Company;
 import com.logifin.entity.Contract;
@@ -7,40 +8,62 @@ import com.logifin.entity.DocumentType;
 import com.logifin.entity.Trip;
 import com.logifin.entity.TripDocument;
 import com.logifin.entity.User;
+import com.logifin.event.TripDocumentUploadedEvent;
+import com.logifin.event.TripsChangedEvent;
 import com.logifin.exception.BadRequestException;
 import com.logifin.exception.DuplicateResourceException;
 import com.logifin.exception.ResourceNotFoundException;
 import com.logifin.repository.ContractRepository;
 import com.logifin.repository.DocumentTypeRepository;
+import com.logifin.repository.LenderTripFeedRepository;
 import com.logifin.repository.TripDocumentRepository;
 import com.logifin.repository.TripRepository;
 import com.logifin.repository.UserRepository;
+import com.logifin.repository.projection.TripExportRow;
 import com.logifin.repository.specification.TripSpecification;
+import com.logifin.service.TripCountService;
+import com.logifin.service.TripSearchIndexService;
 import com.logifin.service.TripService;
+import com.logifin.util.FileUploadUtil;
+import com.logifin.util.TripCursor;
 import com.logifin.util.TripExcelParser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of TripService.
@@ -58,6 +81,12 @@ public class TripServiceImpl implements TripService {
     private final UserRepository userRepository;
     private final ContractRepository contractRepository;
     private final TripExcelParser tripExcelParser;
+    private final UploadConfig uploadConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TripSearchIndexService tripSearchIndexService;
+    private final TripCountService tripCountService;
+    private final LenderTripFeedRepository lenderTripFeedRepository;
+    private final PlatformTransactionManager transactionManager;
 
     private static final String[] CSV_HEADERS = {
             "pickup", "destination", "senderId", "receiver",
@@ -65,6 +94,24 @@ public class TripServiceImpl implements TripService {
             "distanceKm", "loadType", "weightKg", "notes"
     };
 
+    // Parsed rows held before handing them to the batch insert (flushed in JDBC batches of its own)
+    private static final int BULK_INSERT_CHUNK_SIZE = 500;
+
+    // Ids per IN query when resolving the users referenced by bulk upload rows
+    private static final int USER_LOOKUP_BATCH_SIZE = 1000;
+
+    // Characters buffered before export output is pushed to the response
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    // Rows of an Excel export kept in memory before being flushed to the temp file
+    private static final int EXCEL_ROW_WINDOW = 100;
+
+    // Excel export column widths, in characters
+    // Largest page of a cursor (keyset) listing
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final int[] EXCEL_COLUMN_WIDTHS = {20, 20, 10, 25, 12, 14, 14, 14, 14, 16, 12, 40, 12, 20};
+
     // ==================== CRUD Operations ====================
 
     @Override
@@ -84,6 +131,7 @@ public class TripServiceImpl implements TripService {
             uploadDocuments(savedTrip, requestDTO.getDocuments(), user);
         }
 
+        eventPublisher.publishEvent(TripsChangedEvent.saved(Collections.singletonList(savedTrip)));
         log.info("Trip created successfully with ID: {}", savedTrip.getId());
         return mapToResponseDTO(savedTrip);
     }
@@ -115,6 +163,7 @@ public class TripServiceImpl implements TripService {
             updateDocuments(updatedTrip, requestDTO.getDocuments(), user);
         }
 
+        eventPublisher.publishEvent(TripsChangedEvent.saved(Collections.singletonList(updatedTrip)));
         log.info("Trip updated successfully: {}", tripId);
         return mapToResponseDTO(updatedTrip);
     }
@@ -127,6 +176,7 @@ public class TripServiceImpl implements TripService {
         }
         // Documents will be cascade deleted
         tripRepository.deleteById(tripId);
+        eventPublisher.publishEvent(TripsChangedEvent.deleted(tripId));
         log.info("Trip deleted successfully: {}", tripId);
     }
 
@@ -149,6 +199,81 @@ public class TripServiceImpl implements TripService {
         return createPagedResponse(tripPage);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<TripResponseDTO> searchTrips(TripSearchCriteria criteria, String cursor, int size,
+                                                            boolean includeTotal) {
+        log.debug("Searching trips with criteria after cursor {}", cursor);
+        validateCursorPageSize(size);
+        Specification<Trip> spec = TripSpecification.fromCriteria(criteria);
+        if (StringUtils.hasText(cursor)) {
+            TripCursor after = TripCursor.decode(cursor);
+            spec = spec.and(TripSpecification.createdBefore(after.getCreatedAt(), after.getId()));
+        }
+        CompletableFuture<Long> total = includeTotal ? countTripsAsync(criteria) : null;
+
+        // One extra row tells whether another page follows
+        List<Trip> trips = tripRepository.findNewestFirst(spec, size + 1);
+        boolean hasNext = trips.size() > size;
+        if (hasNext) {
+            trips = trips.subList(0, size);
+        }
+        List<TripResponseDTO> content = trips.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+
+        return CursorPagedResponse.<TripResponseDTO>builder()
+                .content(content)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? TripCursor.encode(trips.get(trips.size() - 1)) : null)
+                .totalElements(total != null ? total.join() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<TripResponseDTO> getFinanceableTrips(Long lenderId, String cursor, int size) {
+        log.debug("Fetching financeable trips for lender {} after cursor {}", lenderId, cursor);
+        validateCursorPageSize(size);
+        // One extra row tells whether another page follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Trip> trips;
+        if (StringUtils.hasText(cursor)) {
+            TripCursor after = TripCursor.decode(cursor);
+            trips = lenderTripFeedRepository.findFinanceableTripsAfter(
+                    lenderId, after.getCreatedAt(), after.getId(), limit);
+        } else {
+            trips = lenderTripFeedRepository.findFinanceableTrips(lenderId, limit);
+        }
+
+        boolean hasNext = trips.size() > size;
+        if (hasNext) {
+            trips = trips.subList(0, size);
+        }
+        return CursorPagedResponse.<TripResponseDTO>builder()
+                .content(trips.stream().map(this::mapToResponseDTO).collect(Collectors.toList()))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? TripCursor.encode(trips.get(trips.size() - 1)) : null)
+                .build();
+    }
+
+    private static void validateCursorPageSize(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+    }
+
+    private CompletableFuture<Long> countTripsAsync(TripSearchCriteria criteria) {
+        try {
+            return tripCountService.countTrips(criteria);
+        } catch (TaskRejectedException e) {
+            log.warn("Trip count skipped, count executor is saturated");
+            return null;
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PagedResponse<TripResponseDTO> searchByKeyword(String keyword, Pageable pageable) {
@@ -157,6 +282,40 @@ public class TripServiceImpl implements TripService {
         return createPagedResponse(tripPage);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<TripResponseDTO> searchByKeywordRanked(String keyword, Pageable pageable) {
+        log.debug("Searching trips by keyword ranked by relevance: {}", keyword);
+        // Relevance is the order; a caller-supplied sort would be appended to the native query
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Trip> tripPage = tripRepository.searchByKeywordRanked(keyword.trim(), unsorted);
+        return createPagedResponse(tripPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TripFacetedSearchResultDTO facetedSearch(TripSearchCriteria criteria, int page, int size, int facetLimit) {
+        log.debug("Faceted trip search: page {}, size {}", page, size);
+        TripIndexSearchResult hits = tripSearchIndexService.search(criteria, page, size, facetLimit);
+
+        // Keep the index order; ids deleted since the last index refresh are skipped
+        Map<Long, Trip> tripsById = tripRepository.findAllById(hits.getTripIds()).stream()
+                .collect(Collectors.toMap(Trip::getId, trip -> trip));
+        List<TripResponseDTO> content = hits.getTripIds().stream()
+                .map(tripsById::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+
+        Page<TripResponseDTO> tripPage = new PageImpl<>(content, PageRequest.of(page, size), hits.getTotalHits());
+        return TripFacetedSearchResultDTO.builder()
+                .trips(PagedResponse.of(tripPage))
+                .statusCounts(hits.getStatusCounts())
+                .loadTypeCounts(hits.getLoadTypeCounts())
+                .topLanes(hits.getTopLanes())
+                .build();
+    }
+
     @Override
     public TripResponseDTO financeTrip(Long tripId, TripFinanceRequestDTO request, Long lenderId) {
         log.debug("Financing trip {} by lender {} with contract {}", tripId, lenderId, request.getContractId());
@@ -204,6 +363,7 @@ public class TripServiceImpl implements TripService {
 
         // Save the updated trip
         Trip savedTrip = tripRepository.save(trip);
+        eventPublisher.publishEvent(TripsChangedEvent.saved(Collections.singletonList(savedTrip)));
 
         log.info("Trip {} successfully financed by lender {} using contract {}", tripId, lenderId, request.getContractId());
 
@@ -212,7 +372,12 @@ public class TripServiceImpl implements TripService {
 
     // ==================== Bulk Operations ====================
 
+    /**
+     * Runs outside a transaction: every chunk commits in its own transaction, so the
+     * trips reported as saved are exactly the ones that were committed.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BulkUploadResponseDTO bulkUploadTrips(MultipartFile file, Long userId) {
         log.debug("Processing bulk upload for user: {}", userId);
         long startTime = System.currentTimeMillis();
@@ -233,39 +398,21 @@ public class TripServiceImpl implements TripService {
         }
 
         try {
-            List<TripRequestDTO> tripRequests;
+            // Rows are inserted in chunks while the file is still being read
+            BulkInsertPipeline pipeline = new BulkInsertPipeline(user, response);
             String lowerFilename = filename.toLowerCase();
 
             if (lowerFilename.endsWith(".csv")) {
-                tripRequests = tripExcelParser.parseCsv(file, response);
+                tripExcelParser.parseCsvParallel(file, response, pipeline::accept);
             } else if (lowerFilename.endsWith(".xlsx") || lowerFilename.endsWith(".xls")) {
-                tripRequests = tripExcelParser.parseExcel(file, response);
+                tripExcelParser.parseExcel(file, response, pipeline::accept);
             } else {
                 response.addError(ErrorRowDTO.parsingError(0, null,
                         "Unsupported file format. Please use CSV, XLS, or XLSX"));
                 response.calculateSummary();
                 return response;
             }
-
-            // Process each trip
-            int rowNumber = 2; // Start from 2 (row 1 is header)
-            for (TripRequestDTO request : tripRequests) {
-                try {
-                    Trip trip = buildTripFromRequest(request, user);
-                    Trip savedTrip = tripRepository.save(trip);
-                    response.addSuccessfulTripId(savedTrip.getId());
-                } catch (Exception e) {
-                    log.error("Error saving trip at row {}: {}", rowNumber, e.getMessage());
-                    String rowIdentifier = "TransporterID:" + request.getTransporterId() + " - " + request.getPickup();
-                    response.addError(ErrorRowDTO.builder()
-                            .rowNumber(rowNumber)
-                            .rowIdentifier(rowIdentifier)
-                            .errorType(ErrorRowDTO.ErrorType.DATABASE_ERROR)
-                            .errors(new ArrayList<>(Collections.singletonList(e.getMessage())))
-                            .build());
-                }
-                rowNumber++;
-            }
+            pipeline.flush();
 
         } catch (Exception e) {
             log.error("Error processing bulk upload: {}", e.getMessage());
@@ -278,49 +425,234 @@ public class TripServiceImpl implements TripService {
         return response;
     }
 
+    @Override
+    public void saveBulkUploadChunk(Map<Integer, TripRequestDTO> rows, Long userId, BulkUploadResponseDTO response) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        Map<Integer, Trip> trips = buildBulkChunk(rows, user, response);
+        if (!trips.isEmpty()) {
+            persistBulkChunk(trips.values()).forEach(trip -> response.addSuccessfulTripId(trip.getId()));
+        }
+    }
+
+    /**
+     * Build trips for a chunk of parsed rows. Rows referencing unknown users are
+     * reported individually and left out of the result.
+     */
+    private Map<Integer, Trip> buildBulkChunk(Map<Integer, TripRequestDTO> rows, User user, BulkUploadResponseDTO response) {
+        Map<Long, User> users = findUsersReferencedBy(rows.values());
+
+        Map<Integer, Trip> trips = new LinkedHashMap<>();
+        for (Map.Entry<Integer, TripRequestDTO> row : rows.entrySet()) {
+            TripRequestDTO request = row.getValue();
+            User sender = users.get(request.getSenderId());
+            User transporter = users.get(request.getTransporterId());
+            if (sender == null || transporter == null) {
+                response.addError(buildMissingUserError(row.getKey(), request, sender, transporter));
+                continue;
+            }
+            trips.put(row.getKey(), buildTripFromRequest(request, user, sender, transporter));
+        }
+        return trips;
+    }
+
+    /**
+     * Insert built trips with JDBC batching in the current transaction. Failures
+     * propagate so the caller rolls the whole chunk back.
+     */
+    private List<Trip> persistBulkChunk(Collection<Trip> trips) {
+        List<Trip> saved = new ArrayList<>(trips);
+        tripRepository.persistInBatches(saved);
+        eventPublisher.publishEvent(TripsChangedEvent.saved(saved));
+        return saved;
+    }
+
+    /**
+     * Incremental sink for parsed bulk-upload rows. Buffers rows as they arrive and
+     * inserts them every BULK_INSERT_CHUNK_SIZE rows, so neither the parsed requests
+     * nor the managed entities for the whole file are held in memory at once. Each
+     * chunk commits in its own transaction; a failed chunk is rolled back and reported
+     * row by row without affecting the chunks before or after it.
+     */
+    private class BulkInsertPipeline {
+
+        private final User user;
+        private final BulkUploadResponseDTO response;
+        private final Map<Integer, TripRequestDTO> pendingRows = new LinkedHashMap<>();
+
+        BulkInsertPipeline(User user, BulkUploadResponseDTO response) {
+            this.user = user;
+            this.response = response;
+        }
+
+        void accept(int rowNumber, TripRequestDTO request) {
+            pendingRows.put(rowNumber, request);
+            if (pendingRows.size() >= BULK_INSERT_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pendingRows.isEmpty()) {
+                return;
+            }
+            Map<Integer, Trip> trips = buildBulkChunk(pendingRows, user, response);
+            if (!trips.isEmpty()) {
+                try {
+                    List<Trip> saved = new TransactionTemplate(transactionManager)
+                            .execute(status -> persistBulkChunk(trips.values()));
+                    saved.forEach(trip -> response.addSuccessfulTripId(trip.getId()));
+                } catch (RuntimeException e) {
+                    log.error("Error saving trips in batch: {}", e.getMessage());
+                    trips.keySet().forEach(rowNumber ->
+                            response.addError(buildDatabaseError(rowNumber, pendingRows.get(rowNumber), e.getMessage())));
+                }
+            }
+            pendingRows.clear();
+        }
+    }
+
+    /**
+     * Resolve every sender and transporter referenced by the rows with IN queries
+     * (USER_LOOKUP_BATCH_SIZE ids per query) instead of two point lookups per row.
+     */
+    private Map<Long, User> findUsersReferencedBy(Collection<TripRequestDTO> requests) {
+        Set<Long> userIds = new HashSet<>();
+        for (TripRequestDTO request : requests) {
+            userIds.add(request.getSenderId());
+            userIds.add(request.getTransporterId());
+        }
+        userIds.remove(null);
+
+        List<Long> ids = new ArrayList<>(userIds);
+        Map<Long, User> users = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += USER_LOOKUP_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + USER_LOOKUP_BATCH_SIZE, ids.size()));
+            userRepository.findAllById(batch).forEach(found -> users.put(found.getId(), found));
+        }
+        return users;
+    }
+
+    private ErrorRowDTO buildMissingUserError(int rowNumber, TripRequestDTO request, User sender, User transporter) {
+        List<String> errors = new ArrayList<>();
+        if (sender == null) {
+            errors.add(String.format("Sender not found with id: '%s'", request.getSenderId()));
+        }
+        if (transporter == null) {
+            errors.add(String.format("Transporter not found with id: '%s'", request.getTransporterId()));
+        }
+        return ErrorRowDTO.builder()
+                .rowNumber(rowNumber)
+                .rowIdentifier("TransporterID:" + request.getTransporterId() + " - " + request.getPickup())
+                .errorType(ErrorRowDTO.ErrorType.VALIDATION_ERROR)
+                .errors(errors)
+                .build();
+    }
+
+    private ErrorRowDTO buildDatabaseError(int rowNumber, TripRequestDTO request, String message) {
+        String rowIdentifier = "TransporterID:" + request.getTransporterId() + " - " + request.getPickup();
+        return ErrorRowDTO.builder()
+                .rowNumber(rowNumber)
+                .rowIdentifier(rowIdentifier)
+                .errorType(ErrorRowDTO.ErrorType.DATABASE_ERROR)
+                .errors(new ArrayList<>(Collections.singletonList(message)))
+                .build();
+    }
+
     // ==================== Export Operations ====================
 
     @Override
     @Transactional(readOnly = true)
     public byte[] exportTripsToCsv(TripSearchCriteria criteria) {
-        log.debug("Exporting trips to CSV");
-        List<Trip> trips = getTripsForExport(criteria);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeTripsCsv(criteria, out);
+        } catch (IOException e) {
+            log.error("Error creating CSV export: {}", e.getMessage());
+            throw new RuntimeException("Error creating CSV export", e);
+        }
+        return out.toByteArray();
+    }
 
-        StringBuilder csv = new StringBuilder();
+    @Override
+    @Transactional(readOnly = true)
+    public void writeTripsCsv(TripSearchCriteria criteria, OutputStream out) throws IOException {
+        log.debug("Exporting trips to CSV");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
         // Header
-        csv.append(String.join(",", CSV_HEADERS)).append(",status,createdAt\n");
+        writer.write(String.join(",", CSV_HEADERS));
+        writer.write(",status,createdAt\n");
 
         // Data rows
-        for (Trip trip : trips) {
-            csv.append(escapeCsvField(trip.getPickup())).append(",");
-            csv.append(escapeCsvField(trip.getDestination())).append(",");
-            csv.append(trip.getSender() != null ? trip.getSender().getId() : "").append(",");
-            csv.append(escapeCsvField(trip.getReceiver())).append(",");
-            csv.append(trip.getTransporter() != null ? trip.getTransporter().getId() : "").append(",");
-            csv.append(trip.getLoanAmount()).append(",");
-            csv.append(trip.getInterestRate()).append(",");
-            csv.append(trip.getMaturityDays()).append(",");
-            csv.append(trip.getDistanceKm() != null ? trip.getDistanceKm() : "").append(",");
-            csv.append(escapeCsvField(trip.getLoadType())).append(",");
-            csv.append(trip.getWeightKg() != null ? trip.getWeightKg() : "").append(",");
-            csv.append(escapeCsvField(trip.getNotes())).append(",");
-            csv.append(trip.getStatus()).append(",");
-            csv.append(trip.getCreatedAt() != null ? trip.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "");
-            csv.append("\n");
+        long count = 0;
+        Specification<Trip> spec = criteria != null ? TripSpecification.fromCriteria(criteria) : null;
+        try (Stream<TripExportRow> rows = tripRepository.streamForExport(spec)) {
+            Iterator<TripExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writeCsvRow(writer, iterator.next());
+                count++;
+            }
         }
+        writer.flush();
+        log.debug("Exported {} trips to CSV", count);
+    }
 
-        return csv.toString().getBytes();
+    private void writeCsvRow(Writer writer, TripExportRow trip) throws IOException {
+        writer.write(escapeCsvField(trip.getPickup()));
+        writer.write(',');
+        writer.write(escapeCsvField(trip.getDestination()));
+        writer.write(',');
+        writer.write(toCsvValue(trip.getSenderId()));
+        writer.write(',');
+        writer.write(escapeCsvField(trip.getReceiver()));
+        writer.write(',');
+        writer.write(toCsvValue(trip.getTransporterId()));
+        writer.write(',');
+        writer.write(String.valueOf(trip.getLoanAmount()));
+        writer.write(',');
+        writer.write(String.valueOf(trip.getInterestRate()));
+        writer.write(',');
+        writer.write(String.valueOf(trip.getMaturityDays()));
+        writer.write(',');
+        writer.write(toCsvValue(trip.getDistanceKm()));
+        writer.write(',');
+        writer.write(escapeCsvField(trip.getLoadType()));
+        writer.write(',');
+        writer.write(toCsvValue(trip.getWeightKg()));
+        writer.write(',');
+        writer.write(escapeCsvField(trip.getNotes()));
+        writer.write(',');
+        writer.write(String.valueOf(trip.getStatus()));
+        writer.write(',');
+        writer.write(trip.getCreatedAt() != null ? trip.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "");
+        writer.write('\n');
+    }
+
+    private String toCsvValue(Object value) {
+        return value != null ? value.toString() : "";
     }
 
     @Override
     @Transactional(readOnly = true)
     public byte[] exportTripsToExcel(TripSearchCriteria criteria) {
-        log.debug("Exporting trips to Excel");
-        List<Trip> trips = getTripsForExport(criteria);
-
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeTripsExcel(criteria, out);
+        } catch (IOException e) {
+            log.error("Error creating Excel export: {}", e.getMessage());
+            throw new RuntimeException("Error creating Excel export", e);
+        }
+        return out.toByteArray();
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void writeTripsExcel(TripSearchCriteria criteria, OutputStream out) throws IOException {
+        log.debug("Exporting trips to Excel");
+        // Only the last EXCEL_ROW_WINDOW rows stay in memory; older rows go to a compressed temp file
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("Trips");
 
             // Create header style
@@ -338,43 +670,48 @@ public class TripServiceImpl implements TripService {
                 Cell cell = headerRow.createCell(i);
                 cell.setCellValue(headers[i]);
                 cell.setCellStyle(headerStyle);
+                // Auto-sizing needs every row in memory, so columns get fixed widths instead
+                sheet.setColumnWidth(i, EXCEL_COLUMN_WIDTHS[i] * 256);
             }
 
             // Data rows
             int rowNum = 1;
-            for (Trip trip : trips) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(trip.getPickup());
-                row.createCell(1).setCellValue(trip.getDestination());
-                row.createCell(2).setCellValue(trip.getSender() != null ? trip.getSender().getId() : 0);
-                row.createCell(3).setCellValue(trip.getReceiver());
-                row.createCell(4).setCellValue(trip.getTransporter() != null ? trip.getTransporter().getId() : 0);
-                row.createCell(5).setCellValue(trip.getLoanAmount().doubleValue());
-                row.createCell(6).setCellValue(trip.getInterestRate().doubleValue());
-                row.createCell(7).setCellValue(trip.getMaturityDays());
-                row.createCell(8).setCellValue(trip.getDistanceKm() != null ? trip.getDistanceKm().doubleValue() : 0);
-                row.createCell(9).setCellValue(trip.getLoadType() != null ? trip.getLoadType() : "");
-                row.createCell(10).setCellValue(trip.getWeightKg() != null ? trip.getWeightKg().doubleValue() : 0);
-                row.createCell(11).setCellValue(trip.getNotes() != null ? trip.getNotes() : "");
-                row.createCell(12).setCellValue(trip.getStatus().name());
-                row.createCell(13).setCellValue(trip.getCreatedAt() != null ?
-                        trip.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "");
-            }
-
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            Specification<Trip> spec = criteria != null ? TripSpecification.fromCriteria(criteria) : null;
+            try (Stream<TripExportRow> rows = tripRepository.streamForExport(spec)) {
+                Iterator<TripExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writeExcelRow(sheet.createRow(rowNum++), iterator.next());
+                }
             }
 
             workbook.write(out);
-            return out.toByteArray();
-
-        } catch (IOException e) {
-            log.error("Error creating Excel export: {}", e.getMessage());
-            throw new RuntimeException("Error creating Excel export", e);
+            out.flush();
+            log.debug("Exported {} trips to Excel", rowNum - 1);
+        } finally {
+            // Deletes the temp files backing the flushed rows
+            workbook.dispose();
+            workbook.close();
         }
     }
 
+    private void writeExcelRow(Row row, TripExportRow trip) {
+        row.createCell(0).setCellValue(trip.getPickup());
+        row.createCell(1).setCellValue(trip.getDestination());
+        row.createCell(2).setCellValue(trip.getSenderId() != null ? trip.getSenderId() : 0);
+        row.createCell(3).setCellValue(trip.getReceiver());
+        row.createCell(4).setCellValue(trip.getTransporterId() != null ? trip.getTransporterId() : 0);
+        row.createCell(5).setCellValue(trip.getLoanAmount().doubleValue());
+        row.createCell(6).setCellValue(trip.getInterestRate().doubleValue());
+        row.createCell(7).setCellValue(trip.getMaturityDays());
+        row.createCell(8).setCellValue(trip.getDistanceKm() != null ? trip.getDistanceKm().doubleValue() : 0);
+        row.createCell(9).setCellValue(trip.getLoadType() != null ? trip.getLoadType() : "");
+        row.createCell(10).setCellValue(trip.getWeightKg() != null ? trip.getWeightKg().doubleValue() : 0);
+        row.createCell(11).setCellValue(trip.getNotes() != null ? trip.getNotes() : "");
+        row.createCell(12).setCellValue(trip.getStatus().name());
+        row.createCell(13).setCellValue(trip.getCreatedAt() != null ?
+                trip.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "");
+    }
+
     @Override
     public byte[] getCsvTemplate() {
         StringBuilder csv = new StringBuilder();
@@ -530,38 +867,31 @@ public class TripServiceImpl implements TripService {
                     documentDTO.getDocumentBase64().replaceFirst("^data:[^;]+;base64,", ""));
         }
 
-        // Check if document of same type already exists for this trip - update instead of create
-        Optional<TripDocument> existingDocument = tripDocumentRepository.findByTripIdAndDocumentTypeId(tripId, docType.getId());
+        TripDocument savedDocument = saveOrReplaceDocument(trip, docType, documentDTO.getDocumentNumber(),
+                documentData, documentDTO.getContentType(), user);
+        return mapToDocumentMetadataDTO(savedDocument);
+    }
 
-        TripDocument document;
-        if (existingDocument.isPresent()) {
-            // Update existing document
-            document = existingDocument.get();
-            document.setDocumentData(documentData);
-            document.setContentType(documentDTO.getContentType());
-            document.setFileSize(documentData != null ? (long) documentData.length : null);
-            document.setUploadedByUser(user);
-            if (StringUtils.hasText(documentDTO.getDocumentNumber())) {
-                document.setDocumentNumber(documentDTO.getDocumentNumber());
-            }
-            log.info("Updating existing document for trip {}, type: {}", tripId, docType.getCode());
-        } else {
-            // Create new document
-            document = TripDocument.builder()
-                    .trip(trip)
-                    .documentType(docType)
-                    .documentNumber(documentDTO.getDocumentNumber())
-                    .documentData(documentData)
-                    .contentType(documentDTO.getContentType())
-                    .fileSize(documentData != null ? (long) documentData.length : null)
-                    .uploadedByUser(user)
-                    .build();
-            log.info("Creating new document for trip {}, type: {}", tripId, docType.getCode());
-        }
+    @Override
+    public TripDocumentDTO.TripDocumentMetadataDTO uploadDocumentFile(Long tripId, String documentTypeCode,
+                                                                      String documentNumber, MultipartFile file,
+                                                                      Long userId) {
+        log.debug("Uploading multipart document for trip: {}, type: {}", tripId, documentTypeCode);
 
-        TripDocument savedDocument = tripDocumentRepository.save(document);
-        log.info("Document saved for trip {}: {}", tripId, savedDocument.getId());
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", "id", tripId));
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+        DocumentType docType = documentTypeRepository.findByCode(documentTypeCode)
+                .orElseThrow(() -> new ResourceNotFoundException("DocumentType", "code", documentTypeCode));
 
+        // Size limit is enforced before the part is read
+        byte[] documentData = FileUploadUtil.readBounded(file, uploadConfig.getMaxDocumentSize().toBytes());
+        String contentType = FileUploadUtil.resolveContentType(file, "application/octet-stream");
+
+        TripDocument savedDocument = saveOrReplaceDocument(trip, docType, documentNumber, documentData, contentType, user);
         return mapToDocumentMetadataDTO(savedDocument);
     }
 
@@ -607,6 +937,51 @@ public class TripServiceImpl implements TripService {
         log.info("Document deleted: {}", documentId);
     }
 
+    /**
+     * Save a document for a trip, updating the existing document of the same type if present
+     */
+    private TripDocument saveOrReplaceDocument(Trip trip, DocumentType docType, String documentNumber,
+                                               byte[] documentData, String contentType, User user) {
+        Long tripId = trip.getId();
+
+        // Check if document of same type already exists for this trip - update instead of create
+        Optional<TripDocument> existingDocument = tripDocumentRepository.findByTripIdAndDocumentTypeId(tripId, docType.getId());
+
+        TripDocument document;
+        if (existingDocument.isPresent()) {
+            // Update existing document
+            document = existingDocument.get();
+            document.setDocumentData(documentData);
+            document.setContentType(contentType);
+            document.setFileSize(documentData != null ? (long) documentData.length : null);
+            document.setUploadedByUser(user);
+            document.setThumbnailData(null);
+            document.setThumbnailContentType(null);
+            document.setThumbnailGeneratedAt(null);
+            if (StringUtils.hasText(documentNumber)) {
+                document.setDocumentNumber(documentNumber);
+            }
+            log.info("Updating existing document for trip {}, type: {}", tripId, docType.getCode());
+        } else {
+            // Create new document
+            document = TripDocument.builder()
+                    .trip(trip)
+                    .documentType(docType)
+                    .documentNumber(documentNumber)
+                    .documentData(documentData)
+                    .contentType(contentType)
+                    .fileSize(documentData != null ? (long) documentData.length : null)
+                    .uploadedByUser(user)
+                    .build();
+            log.info("Creating new document for trip {}, type: {}", tripId, docType.getCode());
+        }
+
+        TripDocument savedDocument = tripDocumentRepository.save(document);
+        log.info("Document saved for trip {}: {}", tripId, savedDocument.getId());
+        publishDocumentUploaded(savedDocument);
+        return savedDocument;
+    }
+
     // ==================== Validation ====================
 
     // ==================== Helper Methods ====================
@@ -620,6 +995,10 @@ public class TripServiceImpl implements TripService {
         User transporter = userRepository.findById(request.getTransporterId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", request.getTransporterId()));
 
+        return buildTripFromRequest(request, user, sender, transporter);
+    }
+
+    private Trip buildTripFromRequest(TripRequestDTO request, User user, User sender, User transporter) {
         return Trip.builder()
                 .pickup(request.getPickup())
                 .destination(request.getDestination())
@@ -734,6 +1113,7 @@ public class TripServiceImpl implements TripService {
                 .documentNumber(document.getDocumentNumber())
                 .contentType(document.getContentType())
                 .fileSize(document.getFileSize())
+                .thumbnailUrl(buildThumbnailUrl(document))
                 .uploadedByUserId(document.getUploadedByUser() != null ? document.getUploadedByUser().getId() : null)
                 .uploadedByUserName(document.getUploadedByUser() != null ?
                         document.getUploadedByUser().getFirstName() + " " + document.getUploadedByUser().getLastName() : null)
@@ -762,14 +1142,6 @@ public class TripServiceImpl implements TripService {
                 .build();
     }
 
-    private List<Trip> getTripsForExport(TripSearchCriteria criteria) {
-        if (criteria != null) {
-            Specification<Trip> spec = TripSpecification.fromCriteria(criteria);
-            return tripRepository.findAll(spec);
-        }
-        return tripRepository.findAll();
-    }
-
     private String escapeCsvField(String field) {
         if (field == null) return "";
         if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
@@ -853,7 +1225,8 @@ public class TripServiceImpl implements TripService {
                     .uploadedByUser(user)
                     .build();
 
-            tripDocumentRepository.save(document);
+            TripDocument savedDocument = tripDocumentRepository.save(document);
+            publishDocumentUploaded(savedDocument);
             log.debug("Document uploaded for trip ID: {}, type: {}, number: {}",
                     trip.getId(), docType.getCode(), dto.getDocumentNumber());
         } catch (IllegalArgumentException e) {
@@ -865,6 +1238,26 @@ public class TripServiceImpl implements TripService {
         }
     }
 
+    /**
+     * Trigger asynchronous thumbnail generation once the upload transaction commits
+     */
+    private void publishDocumentUploaded(TripDocument document) {
+        if (document.getDocumentData() != null) {
+            eventPublisher.publishEvent(new TripDocumentUploadedEvent(document.getId()));
+        }
+    }
+
+    /**
+     * Build the thumbnail URL for a document, versioned so it can be cached indefinitely
+     */
+    private String buildThumbnailUrl(TripDocument document) {
+        if (document.getThumbnailGeneratedAt() == null) {
+            return null;
+        }
+        return "/api/v1/trip/document/" + document.getId() + "/thumbnail?v="
+                + document.getThumbnailGeneratedAt().toEpochSecond(java.time.ZoneOffset.UTC);
+    }
+
     /**
      * Map TripDocument entity to DocumentInfoDTO
      */
@@ -878,6 +1271,7 @@ public class TripServiceImpl implements TripService {
                 .hasData(document.getDocumentData() != null && document.getDocumentData().length > 0)
                 .contentType(document.getContentType())
                 .fileSize(document.getFileSize())
+                .thumbnailUrl(buildThumbnailUrl(document))
                 .uploadedAt(document.getCreatedAt())
                 .uploadedByUserId(document.getUploadedByUser() != null ? document.getUploadedByUser().getId() : null)
                 .uploadedByUserName(document.getUploadedByUser() != null ?
@@ -1,6 +1,7 @@
 package com.logifin.service.impl;
 
 import com.logifin.config.CacheConfig;
+import com.logifin.config.CacheTags;
 import com.logifin.dto.PagedResponse;
 import com.logifin.dto.UserDTO;
 import com.logifin.entity.Company;
@@ -13,19 +14,21 @@ import com.logifin.repository.CompanyRepository;
 import com.logifin.repository.RoleRepository;
 import com.logifin.repository.UserRepository;
 import com.logifin.repository.WalletRepository;
+import com.logifin.service.CacheTagService;
 import com.logifin.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,14 +42,11 @@ public class UserServiceImpl implements UserService {
     private final CompanyRepository companyRepository;
     private final PasswordEncoder passwordEncoder;
     private final WalletRepository walletRepository;
+    private final CacheTagService cacheTagService;
 
     private static final String DEFAULT_ROLE = "ROLE_USER";
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_USERS, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_ACTIVE_USERS, allEntries = true)
-    })
     public UserDTO createUser(UserDTO userDTO) {
         log.debug("Creating user with email: {}", userDTO.getEmail());
         if (userRepository.existsByEmail(userDTO.getEmail())) {
@@ -79,6 +79,7 @@ public class UserServiceImpl implements UserService {
         // Create default wallet for the user
         createDefaultWallet(savedUser.getId());
 
+        cacheTagService.evictTags(CacheTags.lists(CacheTags.USER));
         return mapToDTO(savedUser);
     }
 
@@ -153,13 +154,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_USER_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_USER_BY_EMAIL, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_USERS, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_ACTIVE_USERS, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_USER_SEARCH, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_USER_BY_ID, key = "#id")
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         log.debug("Updating user with id: {}", id);
         User existingUser = userRepository.findById(id)
@@ -170,6 +165,11 @@ public class UserServiceImpl implements UserService {
             throw new DuplicateResourceException("User", "email", userDTO.getEmail());
         }
 
+        // Renamed or activated users can join cached searches and the active list
+        boolean listsChange = !Objects.equals(existingUser.getFirstName(), userDTO.getFirstName())
+                || !Objects.equals(existingUser.getLastName(), userDTO.getLastName())
+                || (Boolean.TRUE.equals(userDTO.getActive()) && !Boolean.TRUE.equals(existingUser.getActive()));
+
         existingUser.setFirstName(userDTO.getFirstName());
         existingUser.setLastName(userDTO.getLastName());
         existingUser.setEmail(userDTO.getEmail());
@@ -196,49 +196,45 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(existingUser);
+        if (listsChange) {
+            cacheTagService.evictTags(CacheTags.entity(CacheTags.USER, id), CacheTags.lists(CacheTags.USER));
+        } else {
+            cacheTagService.evictTags(CacheTags.entity(CacheTags.USER, id));
+        }
         return mapToDTO(updatedUser);
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_USER_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_USER_BY_EMAIL, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_USERS, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_ACTIVE_USERS, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_USER_SEARCH, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_USER_BY_ID, key = "#id")
     public void deleteUser(Long id) {
         log.debug("Deleting user with id: {}", id);
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User", "id", id);
         }
         userRepository.deleteById(id);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.USER, id));
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_USER_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_ACTIVE_USERS, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_USER_BY_ID, key = "#id")
     public void deactivateUser(Long id) {
         log.debug("Deactivating user with id: {}", id);
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         user.setActive(false);
         userRepository.save(user);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.USER, id));
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_USER_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.CACHE_ACTIVE_USERS, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.CACHE_USER_BY_ID, key = "#id")
     public void activateUser(Long id) {
         log.debug("Activating user with id: {}", id);
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         user.setActive(true);
         userRepository.save(user);
+        cacheTagService.evictTags(CacheTags.entity(CacheTags.USER, id), CacheTags.lists(CacheTags.USER));
     }
 
     private UserDTO mapToDTO(User user) {
@@ -314,6 +310,19 @@ public class UserServiceImpl implements UserService {
         return PagedResponse.of(userPage, userDTOs);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<UserDTO> searchUsersRanked(String keyword, Pageable pageable) {
+        log.debug("Searching users by keyword ranked by relevance: {} with pagination: page={}, size={}", keyword, pageable.getPageNumber(), pageable.getPageSize());
+        // Relevance is the order; a caller-supplied sort would be appended to the native query
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<User> userPage = userRepository.searchByKeywordRanked(keyword.trim(), unsorted);
+        List<UserDTO> userDTOs = userPage.getContent().stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+        return PagedResponse.of(userPage, userDTOs);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PagedResponse<UserDTO> getUsersByRole(String roleName, Pageable pageable) {
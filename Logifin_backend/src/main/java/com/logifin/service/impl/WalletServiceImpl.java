@@ -1,11 +1,13 @@
 package com.logifin.service.impl;
 
+import com.logifin.config.UploadConfig;
 import com.logifin.dto.*;
 import com.logifin.entity.*;
 import com.logifin.exception.*;
 import com.logifin.repository.*;
 import com.logifin.service.ConfigurationService;
 import com.logifin.service.WalletService;
+import com.logifin.util.FileUploadUtil;
 import com.logifin.util.FinancialCalculationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +16,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -35,6 +38,7 @@ public class WalletServiceImpl implements WalletService {
     private final TripFinancialRepository tripFinancialRepository;
     private final TripRepository tripRepository;
     private final ContractRepository contractRepository;
+    private final UploadConfig uploadConfig;
 
     @Override
     @Transactional
@@ -344,6 +348,31 @@ public class WalletServiceImpl implements WalletService {
         return mapToTransactionResponseDTO(transaction, Arrays.asList(debitEntry, creditEntry), manualRequest);
     }
 
+    @Override
+    @Transactional
+    public TransactionDocumentDTO uploadProofDocument(UUID transactionId, MultipartFile file) {
+        log.info("Uploading proof document for transaction: {}", transactionId);
+
+        if (!transactionRepository.existsById(transactionId)) {
+            throw new InvalidTransactionException("Transaction not found: " + transactionId);
+        }
+
+        // Size limit is enforced before the part is read
+        byte[] fileData = FileUploadUtil.readBounded(file, uploadConfig.getMaxProofSize().toBytes());
+        TransactionDocument document = persistDocument(transactionId, fileData,
+                file.getOriginalFilename(), FileUploadUtil.resolveContentType(file, null));
+
+        return TransactionDocumentDTO.builder()
+                .documentId(document.getId())
+                .transactionId(document.getTransactionId())
+                .documentType(document.getDocumentType())
+                .fileName(document.getFileName())
+                .mimeType(document.getMimeType())
+                .fileSize(document.getFileSize())
+                .uploadedAt(document.getUploadedAt())
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public WalletStatementDTO getWalletStatement(Long userId, LocalDateTime fromDate, LocalDateTime toDate) {
@@ -778,18 +807,7 @@ public class WalletServiceImpl implements WalletService {
                 return;
             }
 
-            TransactionDocument document = TransactionDocument.builder()
-                    .transactionId(transactionId)
-                    .documentType("PROOF_OF_PAYMENT")
-                    .fileName(fileName != null && !fileName.trim().isEmpty() ? fileName : "document.jpg")
-                    .mimeType(mimeType != null && !mimeType.trim().isEmpty() ? mimeType : "image/jpeg")
-                    .fileData(fileData)
-                    .fileSize(fileData.length)
-                    .uploadedAt(LocalDateTime.now())
-                    .build();
-
-            documentRepository.save(document);
-            log.info("Document saved successfully for transaction: {} (size: {} bytes)", transactionId, fileData.length);
+            persistDocument(transactionId, fileData, fileName, mimeType);
         } catch (IllegalArgumentException e) {
             log.error("Invalid Base64 format for transaction: {} - Error: {}", transactionId, e.getMessage());
             throw new InvalidTransactionException("Invalid proof image format. Please provide valid Base64 encoded image data.");
@@ -799,6 +817,22 @@ public class WalletServiceImpl implements WalletService {
         }
     }
 
+    private TransactionDocument persistDocument(UUID transactionId, byte[] fileData, String fileName, String mimeType) {
+        TransactionDocument document = TransactionDocument.builder()
+                .transactionId(transactionId)
+                .documentType("PROOF_OF_PAYMENT")
+                .fileName(fileName != null && !fileName.trim().isEmpty() ? fileName : "document.jpg")
+                .mimeType(mimeType != null && !mimeType.trim().isEmpty() ? mimeType : "image/jpeg")
+                .fileData(fileData)
+                .fileSize(fileData.length)
+                .uploadedAt(LocalDateTime.now())
+                .build();
+
+        document = documentRepository.save(document);
+        log.info("Document saved successfully for transaction: {} (size: {} bytes)", transactionId, fileData.length);
+        return document;
+    }
+
     private WalletDTO mapToWalletDTO(Wallet wallet) {
         BigDecimal balance = getCurrentBalance(wallet.getId());
 
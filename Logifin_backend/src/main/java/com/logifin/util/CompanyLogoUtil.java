@@ -0,0 +1,129 @@
+package com.logifin.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Iterator;
+
+/**
+ * Utility class for normalizing uploaded company logos.
+ * Logos are decoded, downscaled to fit a bounding box and re-encoded as PNG,
+ * so every stored logo is small and served with a single content type.
+ */
+public class CompanyLogoUtil {
+
+    public static final String LOGO_CONTENT_TYPE = "image/png";
+
+    /** Largest accepted source image, checked against the header before decoding */
+    public static final long MAX_SOURCE_PIXELS = 40_000_000L;
+
+    private static final String DATA_URL_PREFIX = "data:";
+
+    private CompanyLogoUtil() {
+    }
+
+    /**
+     * Decode a base64 logo, accepting both plain base64 and data URLs (data:image/png;base64,...)
+     *
+     * @param value Base64 encoded image
+     * @return Image bytes
+     * @throws IllegalArgumentException if the value is not valid base64
+     */
+    public static byte[] decodeBase64(String value) {
+        String encoded = value.trim();
+        if (encoded.startsWith(DATA_URL_PREFIX) && encoded.indexOf(',') > 0) {
+            encoded = encoded.substring(encoded.indexOf(',') + 1);
+        }
+        return Base64.getMimeDecoder().decode(encoded);
+    }
+
+    /**
+     * Re-encode an image as a PNG that fits within maxDimension x maxDimension.
+     * Smaller images keep their size; transparency is preserved. The dimensions are read from
+     * the image header before decoding, so a small file declaring a huge image is rejected
+     * instead of being decoded, and large images are decoded subsampled.
+     *
+     * @param data Original image bytes
+     * @param maxDimension Maximum width and height in pixels
+     * @return PNG bytes, or null if the content is not a readable image
+     * @throws ImageTooLargeException if the image has more than MAX_SOURCE_PIXELS pixels
+     * @throws IOException if the image cannot be read or the PNG cannot be written
+     */
+    public static byte[] normalize(byte[] data, int maxDimension) throws IOException {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        BufferedImage source = read(data, maxDimension);
+        if (source == null) {
+            return null;
+        }
+
+        double ratio = Math.min(1.0, Math.min(
+                (double) maxDimension / source.getWidth(),
+                (double) maxDimension / source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(target, "png", out)) {
+            throw new IOException("No PNG image writer available");
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode an image, checking its declared size first and subsampling it to at most about
+     * twice the target size, so the decoded raster stays small whatever the source size
+     */
+    private static BufferedImage read(byte[] data, int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new ImageTooLargeException(width, height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * maxDimension));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Thrown for images whose declared size exceeds MAX_SOURCE_PIXELS
+     */
+    public static class ImageTooLargeException extends IOException {
+
+        public ImageTooLargeException(int width, int height) {
+            super("Image of " + width + "x" + height + " pixels exceeds the limit of " + MAX_SOURCE_PIXELS + " pixels");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.logifin.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads CSV records (not physical lines) from a character stream.
+ * A newline inside a quoted field belongs to the field, so one record may span
+ * several lines. Quotes are kept in the returned text for the field parser.
+ */
+public class CsvRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private int recordNumber;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next record without its line terminator
+     *
+     * @return Record text, or null at end of stream
+     * @throws IOException if the stream cannot be read
+     */
+    public String readRecord() throws IOException {
+        StringBuilder record = new StringBuilder(128);
+        boolean inQuotes = false;
+        boolean readAny = false;
+
+        while (true) {
+            if (position >= limit) {
+                limit = reader.read(buffer, 0, BUFFER_SIZE);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    break;
+                }
+            }
+            readAny = true;
+
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"') {
+                    // An escaped quote ("") toggles twice, leaving the state unchanged
+                    inQuotes = !inQuotes;
+                } else if (c == '\n' && !inQuotes) {
+                    record.append(buffer, start, position - start);
+                    position++;
+                    return endRecord(record);
+                }
+                position++;
+            }
+            record.append(buffer, start, position - start);
+        }
+
+        return readAny ? endRecord(record) : null;
+    }
+
+    /**
+     * @return 1-indexed number of the record last returned by readRecord (the header is record 1)
+     */
+    public int getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String endRecord(StringBuilder record) {
+        recordNumber++;
+        int length = record.length();
+        if (length > 0 && record.charAt(length - 1) == '\r') {
+            record.setLength(length - 1);
+        }
+        return record.toString();
+    }
+}
@@ -0,0 +1,170 @@
+package com.logifin.util;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Utility class for producing small JPEG previews of uploaded documents.
+ * Images are downscaled directly; PDFs are rendered from their first page.
+ * Neither is ever decoded or rendered much larger than the thumbnail itself.
+ */
+public class DocumentThumbnailUtil {
+
+    public static final String THUMBNAIL_CONTENT_TYPE = "image/jpeg";
+
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final float PDF_RENDER_DPI = 72f;
+
+    private DocumentThumbnailUtil() {
+    }
+
+    /**
+     * Check if a thumbnail can be produced for the given content type
+     *
+     * @param contentType MIME type of the original document
+     * @return true for images and PDFs
+     */
+    public static boolean isSupported(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        return type.startsWith("image/") || type.equals("application/pdf");
+    }
+
+    /**
+     * Create a JPEG thumbnail that fits within maxDimension x maxDimension.
+     * Image dimensions are read from the header first, as in CompanyLogoUtil: images above
+     * CompanyLogoUtil.MAX_SOURCE_PIXELS are rejected and the rest are decoded subsampled.
+     * PDF pages are rendered at a scale that fits about twice the thumbnail size, whatever
+     * size the page declares.
+     *
+     * @param data Original document bytes
+     * @param contentType MIME type of the original document
+     * @param maxDimension Maximum width and height of the thumbnail in pixels
+     * @return JPEG bytes, or null if the content could not be decoded
+     * @throws CompanyLogoUtil.ImageTooLargeException if the image has too many pixels to decode
+     * @throws IOException if the document cannot be read or the JPEG cannot be written
+     */
+    public static byte[] createThumbnail(byte[] data, String contentType, int maxDimension) throws IOException {
+        if (data == null || data.length == 0 || !isSupported(contentType)) {
+            return null;
+        }
+
+        BufferedImage source = contentType.equalsIgnoreCase("application/pdf")
+                ? renderFirstPdfPage(data, maxDimension)
+                : readImage(data, maxDimension);
+        if (source == null) {
+            return null;
+        }
+
+        return writeJpeg(scale(source, maxDimension));
+    }
+
+    /**
+     * Decode an image, checking its declared size first and subsampling it to at most about
+     * twice the thumbnail size
+     */
+    private static BufferedImage readImage(byte[] data, int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > CompanyLogoUtil.MAX_SOURCE_PIXELS) {
+                    throw new CompanyLogoUtil.ImageTooLargeException(width, height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * maxDimension));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Render the first page at PDF_RENDER_DPI, or smaller when that would exceed about twice
+     * the thumbnail size, so an oversized page box cannot produce a huge raster
+     */
+    private static BufferedImage renderFirstPdfPage(byte[] data, int maxDimension) throws IOException {
+        try (PDDocument document = PDDocument.load(data)) {
+            if (document.getNumberOfPages() == 0) {
+                return null;
+            }
+            PDRectangle box = document.getPage(0).getCropBox();
+            float longestSide = Math.max(box.getWidth(), box.getHeight());
+            if (!(longestSide > 0)) {
+                return null;
+            }
+            float scale = Math.min(PDF_RENDER_DPI / 72f, 2f * maxDimension / longestSide);
+            return new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxDimension) {
+        double ratio = Math.min(1.0, Math.min(
+                (double) maxDimension / source.getWidth(),
+                (double) maxDimension / source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        // JPEG has no alpha channel - draw onto an opaque white RGB canvas
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] writeJpeg(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG image writer available");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,73 @@
+package com.logifin.util;
+
+import com.logifin.exception.BadRequestException;
+import com.logifin.exception.PayloadTooLargeException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Utility class for reading multipart uploads into memory with a hard size limit.
+ * The declared part size is checked before the stream is opened, and the content is
+ * copied in fixed-size chunks straight into an exactly sized array (no base64 string,
+ * no intermediate growable buffer).
+ */
+public class FileUploadUtil {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private FileUploadUtil() {
+    }
+
+    /**
+     * Read the content of a multipart file, rejecting it if it exceeds the given size
+     *
+     * @param file Uploaded file
+     * @param maxBytes Maximum allowed size in bytes
+     * @return File content
+     * @throws PayloadTooLargeException if the file is larger than maxBytes, answered with 413 like
+     *         a request over the multipart limit
+     */
+    public static byte[] readBounded(MultipartFile file, long maxBytes) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("File is required and must not be empty");
+        }
+
+        long declaredSize = file.getSize();
+        if (declaredSize > maxBytes) {
+            throw new PayloadTooLargeException(String.format(
+                    "File size %d bytes exceeds the maximum allowed size of %d bytes", declaredSize, maxBytes));
+        }
+
+        byte[] data = new byte[(int) declaredSize];
+        try (InputStream in = file.getInputStream()) {
+            int offset = 0;
+            while (offset < data.length) {
+                int read = in.read(data, offset, Math.min(BUFFER_SIZE, data.length - offset));
+                if (read == -1) {
+                    break;
+                }
+                offset += read;
+            }
+            if (offset != data.length || in.read() != -1) {
+                throw new BadRequestException("Uploaded file content does not match its declared size");
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Error reading uploaded file: " + e.getMessage(), e);
+        }
+        return data;
+    }
+
+    /**
+     * Resolve the content type of an uploaded file, falling back to a default
+     *
+     * @param file Uploaded file
+     * @param defaultContentType Content type to use when the client did not send one
+     * @return Content type
+     */
+    public static String resolveContentType(MultipartFile file, String defaultContentType) {
+        String contentType = file.getContentType();
+        return contentType != null && !contentType.trim().isEmpty() ? contentType : defaultContentType;
+    }
+}
@@ -4,22 +4,49 @@ import com.logifin.dto.BulkUploadResponseDTO;
 import com.logifin.dto.ErrorRowDTO;
 import com.logifin.dto.TripRequestDTO;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.annotation.PreDestroy;
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Utility class for parsing CSV and Excel files for bulk trip upload.
+ * Rows are handed to a {@link TripRowHandler} one at a time as they are read, so callers
+ * can process an upload incrementally instead of holding every parsed row in memory.
+ * XLSX files are read with POI's event (SAX) model; only legacy XLS files are loaded as a DOM.
+ * CSV files can also be validated in parallel on a dedicated fork-join pool.
  */
 @Component
 @Slf4j
@@ -38,48 +65,219 @@ public class TripExcelParser {
     private static final int WEIGHT_KG_COL = 10;
     private static final int NOTES_COL = 11;
 
+    // Records per parallel CSV parse task
+    private static final int CSV_BLOCK_SIZE = 1000;
+
+    private final ForkJoinPool parsePool;
+
+    public TripExcelParser() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    TripExcelParser(int parseParallelism) {
+        this.parsePool = new ForkJoinPool(parseParallelism);
+    }
+
+    /**
+     * Callback receiving each valid row as soon as it is parsed
+     */
+    @FunctionalInterface
+    public interface TripRowHandler {
+
+        /**
+         * @param rowNumber 1-indexed row number in the uploaded file (row 1 is the header)
+         * @param trip Parsed and validated trip request
+         */
+        void handle(int rowNumber, TripRequestDTO trip);
+    }
+
     /**
      * Parse CSV file and return list of TripRequestDTO
      */
     public List<TripRequestDTO> parseCsv(MultipartFile file, BulkUploadResponseDTO response) {
         List<TripRequestDTO> trips = new ArrayList<>();
-        int rowNumber = 1; // Start from 1 (header is row 0)
+        parseCsv(file, response, (rowNumber, trip) -> trips.add(trip));
+        return trips;
+    }
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean isFirstLine = true;
+    /**
+     * Parse CSV file, passing each valid row to the handler as it is read
+     */
+    public void parseCsv(MultipartFile file, BulkUploadResponseDTO response, TripRowHandler handler) {
+        try {
+            parseCsv(file.getInputStream(), response, handler);
+        } catch (IOException e) {
+            log.error("Error reading CSV file: {}", e.getMessage());
+            response.addError(ErrorRowDTO.parsingError(0, null, "Error reading CSV file: " + e.getMessage()));
+        }
+    }
 
-            while ((line = reader.readLine()) != null) {
-                rowNumber++;
+    /**
+     * Parse CSV content from a stream, passing each valid row to the handler as it is read.
+     * The stream is closed when parsing completes.
+     */
+    public void parseCsv(InputStream content, BulkUploadResponseDTO response, TripRowHandler handler) {
+        try (CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(content))) {
+            // Skip header row
+            if (reader.readRecord() == null) {
+                return;
+            }
 
-                // Skip header row
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue;
+            String record;
+            while ((record = reader.readRecord()) != null) {
+                int rowNumber = reader.getRecordNumber();
+                TripRequestDTO trip = parseCsvRecord(record, rowNumber, response);
+                if (trip != null) {
+                    handler.handle(rowNumber, trip);
                 }
+            }
+        } catch (IOException e) {
+            log.error("Error reading CSV file: {}", e.getMessage());
+            response.addError(ErrorRowDTO.parsingError(0, null, "Error reading CSV file: " + e.getMessage()));
+        }
+    }
 
-                // Skip empty lines
-                if (!StringUtils.hasText(line.trim())) {
-                    continue;
-                }
+    /**
+     * Parse CSV file in parallel, passing each valid row to the handler in file order
+     */
+    public void parseCsvParallel(MultipartFile file, BulkUploadResponseDTO response, TripRowHandler handler) {
+        try {
+            parseCsvParallel(file.getInputStream(), response, handler);
+        } catch (IOException e) {
+            log.error("Error reading CSV file: {}", e.getMessage());
+            response.addError(ErrorRowDTO.parsingError(0, null, "Error reading CSV file: " + e.getMessage()));
+        }
+    }
 
-                try {
-                    String[] values = parseCsvLine(line);
-                    TripRequestDTO trip = parseCsvRow(values, rowNumber, response);
-                    if (trip != null) {
-                        trips.add(trip);
+    /**
+     * Parse CSV content in parallel. The calling thread splits the stream into blocks of
+     * CSV_BLOCK_SIZE records and validates them on the parse pool; finished blocks are merged
+     * back in file order, so the handler is called on the calling thread with rows and
+     * ErrorRowDTOs in the same order as {@link #parseCsv(InputStream, BulkUploadResponseDTO, TripRowHandler)}.
+     * At most two blocks per pool thread are in flight, which bounds memory for large files.
+     * On a single-core host this falls back to the sequential parser.
+     * The stream is closed when parsing completes.
+     */
+    public void parseCsvParallel(InputStream content, BulkUploadResponseDTO response, TripRowHandler handler) {
+        if (parsePool.getParallelism() < 2) {
+            // Block hand-off only adds overhead without a second core
+            parseCsv(content, response, handler);
+            return;
+        }
+
+        Deque<ForkJoinTask<CsvBlockResult>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parsePool.getParallelism() * 2;
+
+        try (CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(content))) {
+            // Skip header row
+            if (reader.readRecord() == null) {
+                return;
+            }
+
+            List<String> block = new ArrayList<>(CSV_BLOCK_SIZE);
+            int blockFirstRow = 0;
+            String record;
+            while ((record = reader.readRecord()) != null) {
+                if (block.isEmpty()) {
+                    blockFirstRow = reader.getRecordNumber();
+                }
+                block.add(record);
+                if (block.size() == CSV_BLOCK_SIZE) {
+                    inFlight.add(submitCsvBlock(blockFirstRow, block));
+                    block = new ArrayList<>(CSV_BLOCK_SIZE);
+                    if (inFlight.size() >= maxInFlight) {
+                        mergeCsvBlock(inFlight.poll().join(), response, handler);
                     }
-                } catch (Exception e) {
-                    log.error("Error parsing CSV row {}: {}", rowNumber, e.getMessage());
-                    response.addError(ErrorRowDTO.parsingError(rowNumber, line, "Parse error: " + e.getMessage()));
                 }
             }
+            if (!block.isEmpty()) {
+                inFlight.add(submitCsvBlock(blockFirstRow, block));
+            }
+            while (!inFlight.isEmpty()) {
+                mergeCsvBlock(inFlight.poll().join(), response, handler);
+            }
         } catch (IOException e) {
             log.error("Error reading CSV file: {}", e.getMessage());
             response.addError(ErrorRowDTO.parsingError(0, null, "Error reading CSV file: " + e.getMessage()));
+        } finally {
+            inFlight.forEach(task -> task.cancel(false));
         }
+    }
 
-        return trips;
+    /**
+     * Release the parse pool threads on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdown();
+    }
+
+    private ForkJoinTask<CsvBlockResult> submitCsvBlock(int firstRowNumber, List<String> records) {
+        return parsePool.submit(() -> {
+            CsvBlockResult result = new CsvBlockResult(records.size());
+            for (int i = 0; i < records.size(); i++) {
+                int rowNumber = firstRowNumber + i;
+                TripRequestDTO trip = parseCsvRecord(records.get(i), rowNumber, result.errors);
+                if (trip != null) {
+                    result.rowNumbers.add(rowNumber);
+                    result.trips.add(trip);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Hand over a block's rows and errors interleaved by row number, as the sequential parser
+     * does, so an error is only reported once every earlier valid row reached the handler
+     */
+    private void mergeCsvBlock(CsvBlockResult result, BulkUploadResponseDTO response, TripRowHandler handler) {
+        List<ErrorRowDTO> errors = result.errors.getErrors();
+        int nextError = 0;
+        for (int i = 0; i < result.trips.size(); i++) {
+            int rowNumber = result.rowNumbers.get(i);
+            while (nextError < errors.size() && errors.get(nextError).getRowNumber() < rowNumber) {
+                response.addError(errors.get(nextError++));
+            }
+            handler.handle(rowNumber, result.trips.get(i));
+        }
+        while (nextError < errors.size()) {
+            response.addError(errors.get(nextError++));
+        }
+    }
+
+    /**
+     * Parse and validate a single CSV record
+     * @return Parsed trip, or null if the record is blank or invalid (errors are added to the response)
+     */
+    private TripRequestDTO parseCsvRecord(String record, int rowNumber, BulkUploadResponseDTO response) {
+        // Skip empty lines
+        if (!StringUtils.hasText(record.trim())) {
+            return null;
+        }
+        try {
+            String[] values = parseCsvLine(record);
+            return parseRowValues(values, rowNumber, response);
+        } catch (Exception e) {
+            log.error("Error parsing CSV row {}: {}", rowNumber, e.getMessage());
+            response.addError(ErrorRowDTO.parsingError(rowNumber, record, "Parse error: " + e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Rows and errors of one block of CSV records, in record order
+     */
+    private static class CsvBlockResult {
+
+        private final List<Integer> rowNumbers;
+        private final List<TripRequestDTO> trips;
+        private final BulkUploadResponseDTO errors = BulkUploadResponseDTO.builder().build();
+
+        CsvBlockResult(int capacity) {
+            this.rowNumbers = new ArrayList<>(capacity);
+            this.trips = new ArrayList<>(capacity);
+        }
     }
 
     /**
@@ -87,13 +285,85 @@ public class TripExcelParser {
      */
     public List<TripRequestDTO> parseExcel(MultipartFile file, BulkUploadResponseDTO response) {
         List<TripRequestDTO> trips = new ArrayList<>();
+        parseExcel(file, response, (rowNumber, trip) -> trips.add(trip));
+        return trips;
+    }
 
-        String filename = file.getOriginalFilename();
+    /**
+     * Parse Excel file (XLS or XLSX), passing each valid row to the handler as it is read
+     */
+    public void parseExcel(MultipartFile file, BulkUploadResponseDTO response, TripRowHandler handler) {
+        try {
+            parseExcel(file.getInputStream(), file.getOriginalFilename(), response, handler);
+        } catch (IOException e) {
+            log.error("Error reading Excel file: {}", e.getMessage());
+            response.addError(ErrorRowDTO.parsingError(0, null, "Error reading Excel file: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Parse Excel content (XLS or XLSX, chosen by filename) from a stream, passing each valid
+     * row to the handler as it is read. The stream is closed when parsing completes.
+     */
+    public void parseExcel(InputStream content, String filename, BulkUploadResponseDTO response,
+                           TripRowHandler handler) {
         boolean isXlsx = filename != null && filename.toLowerCase().endsWith(".xlsx");
 
-        try (Workbook workbook = isXlsx ?
-                new XSSFWorkbook(file.getInputStream()) :
-                new HSSFWorkbook(file.getInputStream())) {
+        if (isXlsx) {
+            parseXlsxStreaming(content, response, handler);
+        } else {
+            parseXls(content, response, handler);
+        }
+    }
+
+    /**
+     * Stream the first sheet of an XLSX file through a SAX handler.
+     * The upload is spooled to a temp file so OPCPackage can read zip entries lazily
+     * instead of inflating the whole package into memory.
+     */
+    private void parseXlsxStreaming(InputStream content, BulkUploadResponseDTO response, TripRowHandler handler) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("trip-upload-", ".xlsx");
+            try (InputStream in = content) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ);
+            try {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader xmlReader = XMLHelper.newXMLReader();
+                    xmlReader.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                            new TripSheetHandler(response, handler), new RawNumberFormatter(), false));
+                    xmlReader.parse(new InputSource(sheet));
+                }
+            } finally {
+                // Read-only package: revert instead of close, close() would try to save
+                pkg.revert();
+            }
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            log.error("Error reading Excel file: {}", e.getMessage());
+            response.addError(ErrorRowDTO.parsingError(0, null, "Error reading Excel file: " + e.getMessage()));
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * Parse a legacy XLS file. HSSF has no practical streaming reader and the
+     * format is capped at 65,536 rows, so the workbook is loaded as a DOM.
+     */
+    private void parseXls(InputStream content, BulkUploadResponseDTO response, TripRowHandler handler) {
+        try (InputStream in = content;
+             Workbook workbook = new HSSFWorkbook(in)) {
 
             Sheet sheet = workbook.getSheetAt(0);
             int lastRowNum = sheet.getLastRowNum();
@@ -105,29 +375,105 @@ public class TripExcelParser {
                 }
 
                 int displayRowNum = rowNum + 1; // 1-indexed for display
+                TripRequestDTO trip;
                 try {
-                    TripRequestDTO trip = parseExcelRow(row, displayRowNum, response);
-                    if (trip != null) {
-                        trips.add(trip);
-                    }
+                    trip = parseExcelRow(row, displayRowNum, response);
                 } catch (Exception e) {
                     log.error("Error parsing Excel row {}: {}", displayRowNum, e.getMessage());
                     response.addError(ErrorRowDTO.parsingError(displayRowNum, rowToString(row),
                             "Parse error: " + e.getMessage()));
+                    continue;
+                }
+                if (trip != null) {
+                    handler.handle(displayRowNum, trip);
                 }
             }
         } catch (IOException e) {
             log.error("Error reading Excel file: {}", e.getMessage());
             response.addError(ErrorRowDTO.parsingError(0, null, "Error reading Excel file: " + e.getMessage()));
         }
+    }
 
-        return trips;
+    /**
+     * Formats numeric cells as their plain stored value, ignoring the cell's number format, so
+     * a percent cell reads "0.125" rather than "12.50%", a currency cell "100000" rather than
+     * "₹1,00,000" and large numbers never arrive in scientific notation. This matches the raw
+     * values the XLS parser reads. Date formats keep their display form.
+     */
+    private static class RawNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                                            boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+            }
+            if (value == Math.floor(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+                return String.valueOf((long) value);
+            }
+            return BigDecimal.valueOf(value).toPlainString();
+        }
     }
 
     /**
-     * Parse a CSV row into TripRequestDTO
+     * SAX callback collecting the cell values of one sheet row at a time.
+     * Text cells arrive as stored and numeric cells as plain numbers (via RawNumberFormatter);
+     * they are validated with the same rules as CSV rows.
      */
-    private TripRequestDTO parseCsvRow(String[] values, int rowNumber, BulkUploadResponseDTO response) {
+    private class TripSheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final BulkUploadResponseDTO response;
+        private final TripRowHandler handler;
+        private final String[] values = new String[NOTES_COL + 1];
+        private int lastColumn;
+
+        TripSheetHandler(BulkUploadResponseDTO response, TripRowHandler handler) {
+            this.response = response;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(values, null);
+            lastColumn = -1;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : lastColumn + 1;
+            lastColumn = column;
+            if (column < values.length) {
+                values[column] = formattedValue;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // Skip header row and rows without any content
+            if (rowNum == 0 || isEmptyValues(values)) {
+                return;
+            }
+
+            int displayRowNum = rowNum + 1; // 1-indexed for display
+            TripRequestDTO trip;
+            try {
+                trip = parseRowValues(values, displayRowNum, response);
+            } catch (Exception e) {
+                log.error("Error parsing Excel row {}: {}", displayRowNum, e.getMessage());
+                response.addError(ErrorRowDTO.parsingError(displayRowNum, valuesToString(values),
+                        "Parse error: " + e.getMessage()));
+                return;
+            }
+            if (trip != null) {
+                handler.handle(displayRowNum, trip);
+            }
+        }
+    }
+
+    /**
+     * Parse the raw values of a CSV line or streamed XLSX row into TripRequestDTO
+     */
+    private TripRequestDTO parseRowValues(String[] values, int rowNumber, BulkUploadResponseDTO response) {
         List<String> errors = new ArrayList<>();
 
         // Validate required fields
@@ -509,6 +855,35 @@ public class TripExcelParser {
         return true;
     }
 
+    private boolean isEmptyValues(String[] values) {
+        for (String value : values) {
+            if (StringUtils.hasText(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String valuesToString(String[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(values[i] != null ? values[i] : "");
+        }
+        return sb.toString();
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temp upload file {}: {}", path, e.getMessage());
+        }
+    }
+
     private String rowToString(Row row) {
         if (row == null) return "";
         StringBuilder sb = new StringBuilder();
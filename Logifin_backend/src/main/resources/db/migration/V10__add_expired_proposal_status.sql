@@ -0,0 +1,19 @@
+-- =====================================================
+-- Expired Finance Proposals
+-- =====================================================
+-- A scheduled sweeper moves PENDING proposals that can no
+-- longer be accepted to EXPIRED (or REJECTED when the trip
+-- was financed through another proposal), so pending work
+-- stays small. The partial index lets each sweep and the
+-- pending listings scan only pending rows.
+-- =====================================================
+
+ALTER TABLE trip_finance_proposals DROP CONSTRAINT IF EXISTS chk_tfp_status;
+ALTER TABLE trip_finance_proposals ADD CONSTRAINT chk_tfp_status
+    CHECK (status IN ('PENDING', 'ACCEPTED', 'REJECTED', 'WITHDRAWN', 'EXPIRED'));
+
+CREATE INDEX IF NOT EXISTS idx_tfp_pending_proposed_at
+    ON trip_finance_proposals (proposed_at)
+    WHERE status = 'PENDING';
+
+COMMENT ON COLUMN trip_finance_proposals.status IS 'Status: PENDING, ACCEPTED, REJECTED, WITHDRAWN, EXPIRED';
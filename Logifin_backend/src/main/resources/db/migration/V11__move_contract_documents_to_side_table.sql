@@ -0,0 +1,40 @@
+-- =====================================================
+-- Contract Documents
+-- =====================================================
+-- The document of a contract moves out of the contracts
+-- row into its own table, stored as raw bytes. Contract
+-- reads, list pages and cache entries then carry only the
+-- document name and content type; the bytes are read
+-- only by the download endpoint, which uses the content
+-- hash as ETag
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS contract_documents (
+    contract_id BIGINT NOT NULL,
+    document_data BYTEA NOT NULL,
+    file_size BIGINT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_contract_documents PRIMARY KEY (contract_id),
+    CONSTRAINT fk_cd_contract FOREIGN KEY (contract_id) REFERENCES contracts(id) ON DELETE CASCADE
+);
+
+-- Decode the stored base16 (hex) strings; anything that is not valid hex is kept as its text bytes
+INSERT INTO contract_documents (contract_id, document_data, file_size, content_hash, updated_at)
+SELECT c.id, d.data, octet_length(d.data), md5(d.data), COALESCE(c.updated_at, c.created_at, CURRENT_TIMESTAMP)
+FROM contracts c
+CROSS JOIN LATERAL (
+    SELECT CASE
+               WHEN c.contract_document ~ '^([0-9A-Fa-f]{2})*$' THEN decode(c.contract_document, 'hex')
+               ELSE convert_to(c.contract_document, 'UTF8')
+           END AS data
+) d
+WHERE c.contract_document IS NOT NULL;
+
+ALTER TABLE contracts DROP COLUMN IF EXISTS contract_document;
+
+-- Comments
+COMMENT ON TABLE contract_documents IS 'Contract documents, one per contract, read only on download';
+COMMENT ON COLUMN contract_documents.file_size IS 'Document size in bytes, sent as Content-Length on download';
+COMMENT ON COLUMN contract_documents.content_hash IS 'MD5 of document_data; ETag of the download response';
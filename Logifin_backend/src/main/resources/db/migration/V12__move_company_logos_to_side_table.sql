@@ -0,0 +1,70 @@
+-- =====================================================
+-- Company Logos
+-- =====================================================
+-- Logos move out of the companies row into their own
+-- table as image bytes. Company responses and cache
+-- entries carry a logo URL versioned by the content
+-- hash; the image is served by the logo endpoint with
+-- a long Cache-Control. New uploads are downscaled and
+-- stored as PNG; existing logos are moved as uploaded
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS company_logos (
+    company_id BIGINT NOT NULL,
+    logo_data BYTEA NOT NULL,
+    content_type VARCHAR(50) NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_company_logos PRIMARY KEY (company_id),
+    CONSTRAINT fk_cl_company FOREIGN KEY (company_id) REFERENCES companies(id) ON DELETE CASCADE
+);
+
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS logo_hash VARCHAR(64);
+
+-- Decode existing base64 logos (plain or data URL); values that are not valid
+-- base64 (bad characters, or a length that is not a multiple of 4 once
+-- whitespace is removed) are dropped instead of aborting the migration
+WITH stripped AS (
+    SELECT c.id,
+           regexp_replace(regexp_replace(c.logo_base64, '^data:[^,]*,', ''), '\s', '', 'g') AS base64,
+           COALESCE(c.updated_at, c.created_at, CURRENT_TIMESTAMP) AS updated_at
+    FROM companies c
+    WHERE c.logo_base64 IS NOT NULL
+),
+decoded AS (
+    -- CASE rather than WHERE, so decode never runs ahead of the checks
+    SELECT s.id,
+           CASE
+               WHEN s.base64 ~ '^[A-Za-z0-9+/]+={0,2}$' AND length(s.base64) % 4 = 0
+                   THEN decode(s.base64, 'base64')
+           END AS data,
+           s.updated_at
+    FROM stripped s
+)
+INSERT INTO company_logos (company_id, logo_data, content_type, content_hash, updated_at)
+SELECT d.id,
+       d.data,
+       CASE
+           WHEN substring(d.data FROM 1 FOR 4) = '\x89504e47'::bytea THEN 'image/png'
+           WHEN substring(d.data FROM 1 FOR 2) = '\xffd8'::bytea THEN 'image/jpeg'
+           WHEN substring(d.data FROM 1 FOR 3) = '\x474946'::bytea THEN 'image/gif'
+           ELSE 'application/octet-stream'
+       END,
+       md5(d.data),
+       d.updated_at
+FROM decoded d
+WHERE d.data IS NOT NULL
+  AND octet_length(d.data) > 0;
+
+UPDATE companies c
+SET logo_hash = l.content_hash
+FROM company_logos l
+WHERE l.company_id = c.id;
+
+ALTER TABLE companies DROP COLUMN IF EXISTS logo_base64;
+
+-- Comments
+COMMENT ON TABLE company_logos IS 'Company logo images, one per company, served by the logo endpoint';
+COMMENT ON COLUMN company_logos.content_hash IS 'MD5 of logo_data; ETag of the logo response';
+COMMENT ON COLUMN companies.logo_hash IS 'Content hash of the company logo, versions the logo URL; null when there is no logo';
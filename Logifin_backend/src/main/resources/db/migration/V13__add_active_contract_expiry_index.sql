@@ -0,0 +1,13 @@
+-- =====================================================
+-- Contract Expiry Job
+-- =====================================================
+-- The scheduled expiry job pages through ACTIVE contracts
+-- past their expiry date by id; this partial index keeps
+-- each batch an index range scan however many expired
+-- or terminated contracts accumulate
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_contract_active_expiry ON contracts(expiry_date, id) WHERE status = 'ACTIVE';
+
+-- Comments
+COMMENT ON INDEX idx_contract_active_expiry IS 'ACTIVE contracts by expiry date, for the contract expiry job';
@@ -0,0 +1,45 @@
+-- =====================================================
+-- Contract Statistics Snapshot
+-- =====================================================
+-- The contract statistics endpoints read precomputed
+-- counts and averages instead of grouping the contracts
+-- table on every call. A scheduled job replaces both
+-- tables in one transaction when the snapshot is older
+-- than its maximum age or enough contracts changed, so
+-- readers keep the previous snapshot until it commits
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS contract_stats_snapshot (
+    id BIGINT NOT NULL,
+    total_contracts BIGINT NOT NULL DEFAULT 0,
+    average_loan_percent NUMERIC(9,4),
+    average_ltv NUMERIC(9,4),
+    average_penalty_ratio NUMERIC(9,4),
+    refreshed_at TIMESTAMP,
+    refresh_duration_ms BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_contract_stats_snapshot PRIMARY KEY (id),
+    CONSTRAINT chk_css_single_row CHECK (id = 1)
+);
+
+-- The refresh locks this row; seeding it lets concurrent first refreshes queue on the lock
+INSERT INTO contract_stats_snapshot (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
+
+CREATE TABLE IF NOT EXISTS contract_stat_counts (
+    id BIGSERIAL,
+    dimension VARCHAR(20) NOT NULL,
+    ref_id BIGINT,
+    label VARCHAR(255),
+    secondary_label VARCHAR(255),
+    contract_count BIGINT NOT NULL,
+    sort_order INTEGER NOT NULL,
+
+    CONSTRAINT pk_contract_stat_counts PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_csc_dimension_sort_order ON contract_stat_counts(dimension, sort_order);
+
+-- Comments
+COMMENT ON TABLE contract_stats_snapshot IS 'Single row of precomputed contract totals and averages';
+COMMENT ON COLUMN contract_stats_snapshot.refreshed_at IS 'As-of time of the snapshot; null until the first refresh';
+COMMENT ON TABLE contract_stat_counts IS 'Precomputed contract counts by type, status, loan stage, top managers and top companies';
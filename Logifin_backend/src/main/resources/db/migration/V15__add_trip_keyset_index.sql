@@ -0,0 +1,14 @@
+-- =====================================================
+-- Trip Keyset Pagination
+-- =====================================================
+-- Cursor listings read trips in (created_at DESC, id DESC)
+-- order from the cursor position. The existing
+-- (created_at DESC, status) index does not cover the id
+-- tie-breaker; this one serves the order and the cursor
+-- bound as a single index range scan
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_trip_created_at_id ON trips(created_at DESC, id DESC);
+
+-- Comments
+COMMENT ON INDEX idx_trip_created_at_id IS 'Trips newest first, for cursor (keyset) pagination';
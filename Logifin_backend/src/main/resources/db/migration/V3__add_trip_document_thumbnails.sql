@@ -0,0 +1,16 @@
+-- =====================================================
+-- Trip Document Thumbnails
+-- =====================================================
+-- Downscaled JPEG previews of image and PDF documents,
+-- generated asynchronously after upload and stored next
+-- to the original so list screens never fetch full files
+-- =====================================================
+
+ALTER TABLE trip_documents ADD COLUMN IF NOT EXISTS thumbnail_data BYTEA;
+ALTER TABLE trip_documents ADD COLUMN IF NOT EXISTS thumbnail_content_type VARCHAR(50);
+ALTER TABLE trip_documents ADD COLUMN IF NOT EXISTS thumbnail_generated_at TIMESTAMP;
+
+-- Comments
+COMMENT ON COLUMN trip_documents.thumbnail_data IS 'Downscaled JPEG preview (first page for PDFs), null until generated';
+COMMENT ON COLUMN trip_documents.thumbnail_content_type IS 'MIME type of the thumbnail (image/jpeg)';
+COMMENT ON COLUMN trip_documents.thumbnail_generated_at IS 'When the thumbnail was generated; used to version the thumbnail URL';
@@ -0,0 +1,19 @@
+-- =====================================================
+-- Pooled Id Sequences for Trips
+-- =====================================================
+-- Trips and trip documents take ids from their BIGSERIAL
+-- sequences through Hibernate's pooled optimizer (one
+-- nextval per 50 rows), so bulk inserts can be JDBC
+-- batched. The sequence increment must match the entity
+-- allocationSize.
+-- The tables are written by the application only: the
+-- BIGSERIAL nextval defaults are dropped so no insert can
+-- take an id outside Hibernate's pooled blocks, and any
+-- manual insert must reserve its id the same way.
+-- =====================================================
+
+ALTER SEQUENCE trips_id_seq INCREMENT BY 50;
+ALTER SEQUENCE trip_documents_id_seq INCREMENT BY 50;
+
+ALTER TABLE trips ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE trip_documents ALTER COLUMN id DROP DEFAULT;
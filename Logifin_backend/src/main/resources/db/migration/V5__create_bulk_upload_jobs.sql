@@ -0,0 +1,62 @@
+-- =====================================================
+-- Bulk Upload Jobs
+-- =====================================================
+-- Asynchronous trip bulk uploads. The uploaded file is
+-- kept with the job until it finishes, and every chunk
+-- of rows commits together with the job progress, so a
+-- job interrupted by a restart resumes after the last
+-- committed row instead of starting over
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS bulk_upload_jobs (
+    job_id UUID PRIMARY KEY,
+    created_by_user_id BIGINT NOT NULL,
+
+    -- Uploaded file (cleared once the job finishes)
+    file_name VARCHAR(255) NOT NULL,
+    file_data BYTEA,
+
+    -- Status and progress
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    last_row_number INTEGER NOT NULL DEFAULT 0,
+    processed_rows INTEGER NOT NULL DEFAULT 0,
+    success_count INTEGER NOT NULL DEFAULT 0,
+    failure_count INTEGER NOT NULL DEFAULT 0,
+    error_message TEXT,
+    claim_token UUID,
+
+    -- Timestamps
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    heartbeat_at TIMESTAMP,
+    completed_at TIMESTAMP,
+
+    CONSTRAINT fk_buj_created_by FOREIGN KEY (created_by_user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT chk_buj_status CHECK (status IN ('QUEUED', 'PROCESSING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE TABLE IF NOT EXISTS bulk_upload_job_errors (
+    id BIGSERIAL PRIMARY KEY,
+    job_id UUID NOT NULL,
+    row_number INTEGER NOT NULL,
+    row_identifier VARCHAR(500),
+    error_type VARCHAR(30) NOT NULL,
+    messages TEXT,
+    raw_data TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_buje_job FOREIGN KEY (job_id) REFERENCES bulk_upload_jobs(job_id) ON DELETE CASCADE
+);
+
+-- Indexes for performance
+CREATE INDEX idx_buj_status_created_at ON bulk_upload_jobs(status, created_at);
+CREATE INDEX idx_buj_created_by ON bulk_upload_jobs(created_by_user_id);
+CREATE INDEX idx_buje_job_row ON bulk_upload_job_errors(job_id, row_number);
+
+-- Comments
+COMMENT ON TABLE bulk_upload_jobs IS 'Asynchronous trip bulk uploads and their progress';
+COMMENT ON COLUMN bulk_upload_jobs.file_data IS 'Uploaded CSV/Excel content, kept until the job completes or fails';
+COMMENT ON COLUMN bulk_upload_jobs.last_row_number IS 'Last file row committed; a resumed job skips rows up to this number';
+COMMENT ON COLUMN bulk_upload_jobs.claim_token IS 'Token of the worker owning the job; progress and completion are only written by that worker';
+COMMENT ON COLUMN bulk_upload_jobs.heartbeat_at IS 'Refreshed periodically by the owning worker; a PROCESSING job with a stale heartbeat can be reclaimed';
+COMMENT ON TABLE bulk_upload_job_errors IS 'Per-row errors accumulated by a bulk upload job';
@@ -0,0 +1,31 @@
+-- =====================================================
+-- Trigram Indexes for Keyword Search
+-- =====================================================
+-- Keyword searches filter with LOWER(column) LIKE '%kw%',
+-- which a B-tree index cannot serve. GIN indexes with
+-- gin_trgm_ops on the same LOWER() expressions serve both
+-- those LIKE patterns and the pg_trgm % (similarity)
+-- operator used by the relevance-ranked searches.
+-- =====================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Trips
+CREATE INDEX IF NOT EXISTS idx_trips_pickup_trgm ON trips USING gin (lower(pickup) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_trips_destination_trgm ON trips USING gin (lower(destination) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_trips_receiver_trgm ON trips USING gin (lower(receiver) gin_trgm_ops);
+
+-- Users (also matched by trip sender/transporter and contract manager keywords)
+CREATE INDEX IF NOT EXISTS idx_users_first_name_trgm ON users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_trgm ON users USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+-- Companies
+CREATE INDEX IF NOT EXISTS idx_companies_name_trgm ON companies USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_companies_display_name_trgm ON companies USING gin (lower(display_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_companies_email_trgm ON companies USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_companies_city_trgm ON companies USING gin (lower(city) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_companies_state_trgm ON companies USING gin (lower(state) gin_trgm_ops);
+
+-- Contracts
+CREATE INDEX IF NOT EXISTS idx_contracts_contract_number_trgm ON contracts USING gin (lower(contract_number) gin_trgm_ops);
@@ -0,0 +1,50 @@
+-- =====================================================
+-- Lender Trip Feed
+-- =====================================================
+-- Precomputed marketplace for lenders: one row per
+-- (lender, trip) where the lender shares an ACTIVE,
+-- unexpired contract with the trip's transporter and
+-- consigner and the trip has no accepted proposal yet.
+-- Maintained in the same transaction as trip, contract
+-- and proposal changes; valid_until lets reads skip rows
+-- whose contracts have since expired
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS lender_trip_feed (
+    lender_id BIGINT NOT NULL,
+    trip_id BIGINT NOT NULL,
+    trip_created_at TIMESTAMP NOT NULL,
+    valid_until DATE NOT NULL,
+
+    CONSTRAINT pk_lender_trip_feed PRIMARY KEY (lender_id, trip_id),
+    CONSTRAINT fk_ltf_lender FOREIGN KEY (lender_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_ltf_trip FOREIGN KEY (trip_id) REFERENCES trips(id) ON DELETE CASCADE
+);
+
+-- Marketplace page for a lender, newest trips first
+CREATE INDEX idx_ltf_lender_created ON lender_trip_feed(lender_id, trip_created_at DESC, trip_id DESC);
+-- Maintenance deletes by trip
+CREATE INDEX idx_ltf_trip ON lender_trip_feed(trip_id);
+
+-- Backfill from existing trips and contracts
+INSERT INTO lender_trip_feed (lender_id, trip_id, trip_created_at, valid_until)
+SELECT lp.user_id, t.id, t.created_at, MAX(c.expiry_date)
+FROM trips t
+JOIN contract_parties tp ON tp.user_id = t.created_by_user_id
+JOIN contracts c ON c.id = tp.contract_id
+JOIN contract_parties sp ON sp.contract_id = c.id AND sp.user_id = t.sender_user_id
+JOIN contract_parties lp ON lp.contract_id = c.id
+JOIN users u ON u.id = lp.user_id
+JOIN user_roles r ON r.id = u.role_id
+WHERE t.contract_id IS NULL
+  AND c.status = 'ACTIVE'
+  AND c.expiry_date > CURRENT_DATE
+  AND r.role_name = 'ROLE_LENDER'
+  AND NOT EXISTS (
+      SELECT 1 FROM trip_finance_proposals p
+      WHERE p.trip_id = t.id AND p.status = 'ACCEPTED')
+GROUP BY lp.user_id, t.id, t.created_at;
+
+-- Comments
+COMMENT ON TABLE lender_trip_feed IS 'Trips each lender can currently finance (shared active contract, no accepted proposal)';
+COMMENT ON COLUMN lender_trip_feed.valid_until IS 'Latest expiry date among the qualifying contracts; rows are ignored once it has passed';
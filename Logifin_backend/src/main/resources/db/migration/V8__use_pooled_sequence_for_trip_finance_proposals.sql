@@ -0,0 +1,15 @@
+-- =====================================================
+-- Pooled Id Sequence for Trip Finance Proposals
+-- =====================================================
+-- Proposals take ids from their BIGSERIAL sequence through
+-- Hibernate's pooled optimizer, so the interests created by
+-- a multi-trip request are inserted in one JDBC batch.
+-- The sequence increment must match the entity
+-- allocationSize. As with trips (V4), the table is written
+-- by the application only and the nextval default is
+-- dropped.
+-- =====================================================
+
+ALTER SEQUENCE trip_finance_proposals_id_seq INCREMENT BY 50;
+
+ALTER TABLE trip_finance_proposals ALTER COLUMN id DROP DEFAULT;
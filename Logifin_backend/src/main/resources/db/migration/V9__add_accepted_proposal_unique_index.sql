@@ -0,0 +1,14 @@
+-- =====================================================
+-- At Most One Accepted Proposal per Trip
+-- =====================================================
+-- Proposal acceptance is a single conditional UPDATE
+-- (status = 'PENDING' and no accepted proposal for the
+-- trip). Two concurrent acceptances for the same trip can
+-- both pass that check under READ COMMITTED; this partial
+-- unique index makes the second one fail once the first
+-- commits, and the service reports it as a conflict.
+-- =====================================================
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_tfp_trip_accepted
+    ON trip_finance_proposals (trip_id)
+    WHERE status = 'ACCEPTED';
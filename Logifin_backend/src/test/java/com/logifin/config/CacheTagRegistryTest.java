@@ -0,0 +1,62 @@
+package com.logifin.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheTagRegistry Tests")
+class CacheTagRegistryTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    private CacheTagRegistry tagRegistry;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        tagRegistry = new CacheTagRegistry(redisTemplate, Duration.ofMinutes(120));
+    }
+
+    @Test
+    @DisplayName("Should pop the tag set in batches until it is drained")
+    void claim_LargeSet_PopsUntilShortBatch() {
+        List<String> fullBatch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            fullBatch.add("contracts::page:" + i);
+        }
+        when(setOperations.pop("cache-tag:contract:lists", 500))
+                .thenReturn(fullBatch)
+                .thenReturn(Collections.singletonList("contracts::page:500"));
+
+        assertThat(tagRegistry.claim("contract:lists")).hasSize(501).contains("contracts::page:500");
+        verify(setOperations, times(2)).pop("cache-tag:contract:lists", 500);
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("Should claim nothing from a missing tag")
+    void claim_MissingTag_ReturnsEmpty() {
+        when(setOperations.pop("cache-tag:user:1", 500)).thenReturn(Collections.emptyList());
+
+        assertThat(tagRegistry.claim("user:1")).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.logifin.config;
+
+import com.logifin.dto.PagedResponse;
+import com.logifin.dto.RoleDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaggingCacheManager Tests")
+class TaggingCacheManagerTest {
+
+    @Mock
+    private CacheTagRegistry tagRegistry;
+
+    private ConcurrentMapCacheManager delegate;
+
+    private TaggingCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapCacheManager("roles", "roleById");
+        Map<String, Function<Object, Set<String>>> resolvers = new HashMap<>();
+        resolvers.put("roles", CacheTags.byEntityList(CacheTags.ROLE));
+        cacheManager = new TaggingCacheManager(delegate, tagRegistry, resolvers);
+    }
+
+    @Test
+    @DisplayName("Should tag a cached page with each element and the list tag")
+    void put_TaggedCache_RecordsEntityAndListTags() {
+        PagedResponse<RoleDTO> page = PagedResponse.<RoleDTO>builder()
+                .content(Arrays.asList(RoleDTO.builder().id(1L).build(), RoleDTO.builder().id(2L).build()))
+                .build();
+
+        cacheManager.getCache("roles").put("page:0", page);
+
+        verify(tagRegistry).record("roles", "page:0", new LinkedHashSet<>(
+                Arrays.asList("role:1", "role:2", "role:lists")));
+        assertThat(delegate.getCache("roles").get("page:0").get()).isSameAs(page);
+    }
+
+    @Test
+    @DisplayName("Should pass caches without a resolver through untouched")
+    void getCache_UntaggedCache_ReturnsDelegateCache() {
+        Cache cache = cacheManager.getCache("roleById");
+        cache.put(1L, RoleDTO.builder().id(1L).build());
+
+        assertThat(cache).isSameAs(delegate.getCache("roleById"));
+        verify(tagRegistry, never()).record(any(), any(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should not tag null values")
+    void put_NullValue_RecordsNothing() {
+        cacheManager.getCache("roles").putIfAbsent("page:1", null);
+
+        verify(tagRegistry, never()).record(eq("roles"), any(), anyCollection());
+    }
+}
@@ -0,0 +1,140 @@
+package com.logifin.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TwoLevelCacheManager Tests")
+class TwoLevelCacheManagerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        remoteCacheManager = new ConcurrentMapCacheManager("roleByName", "userById");
+        cacheManager = new TwoLevelCacheManager(remoteCacheManager, redisTemplate, meterRegistry, 100,
+                Duration.ofMinutes(5));
+        cacheManager.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("Should read through Redis once, then serve from the local level")
+    void get_RemoteHitThenLocalHit_CountsPerLevel() {
+        remoteCacheManager.getCache("roleByName").put("ROLE_ADMIN", "admin");
+        Cache cache = cacheManager.getCache("roleByName");
+
+        assertThat(cache.get("ROLE_ADMIN").get()).isEqualTo("admin");
+        remoteCacheManager.getCache("roleByName").put("ROLE_ADMIN", "changed behind the cache");
+        assertThat(cache.get("ROLE_ADMIN").get()).isEqualTo("admin");
+        assertThat(cache.get("ROLE_USER")).isNull();
+
+        assertThat(gets("l1", "hit")).isEqualTo(1.0);
+        assertThat(gets("l1", "miss")).isEqualTo(2.0);
+        assertThat(gets("l2", "hit")).isEqualTo(1.0);
+        assertThat(gets("l2", "miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should cap the local TTL at half the Redis TTL of short-lived caches")
+    @SuppressWarnings("unchecked")
+    void getCache_ShortRedisTtl_CapsLocalTtl() {
+        CacheManager redisCacheManager = mock(CacheManager.class);
+        RedisCache search = mock(RedisCache.class);
+        RedisCache roles = mock(RedisCache.class);
+        when(search.getCacheConfiguration())
+                .thenReturn(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(5)));
+        when(roles.getCacheConfiguration())
+                .thenReturn(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(120)));
+        when(redisCacheManager.getCache("userSearch")).thenReturn(search);
+        when(redisCacheManager.getCache("roles")).thenReturn(roles);
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(redisCacheManager, redisTemplate, meterRegistry, 100,
+                Duration.ofMinutes(5));
+
+        manager.getCache("userSearch");
+        manager.getCache("roles");
+
+        Map<String, com.github.benmanes.caffeine.cache.Cache<String, Object>> localCaches =
+                (Map<String, com.github.benmanes.caffeine.cache.Cache<String, Object>>)
+                        ReflectionTestUtils.getField(manager, "localCaches");
+        assertThat(localTtl(localCaches.get("userSearch"))).isEqualTo(Duration.ofSeconds(150));
+        assertThat(localTtl(localCaches.get("roles"))).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Should evict both levels by the string form of the key and tell other nodes")
+    void evict_StringKey_EvictsEntryCachedUnderLongKey() {
+        Cache cache = cacheManager.getCache("userById");
+        cache.put(1L, "user");
+        remoteCacheManager.getCache("userById").evict(1L);
+        remoteCacheManager.getCache("userById").put("1", "user");
+
+        cache.evict("1");
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(remoteCacheManager.getCache("userById").get("1")).isNull();
+        verify(redisTemplate, times(2)).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), anyString());
+    }
+
+    @Test
+    @DisplayName("Should drop local copies on invalidations from other nodes only")
+    void onMessage_OtherNode_InvalidatesLocalCopy() {
+        Cache cache = cacheManager.getCache("roleByName");
+        cache.put("ROLE_ADMIN", "admin");
+        ArgumentCaptor<String> ownMessage = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), ownMessage.capture());
+        remoteCacheManager.getCache("roleByName").put("ROLE_ADMIN", "admin v2");
+
+        cacheManager.onMessage(message(ownMessage.getValue()), null);
+        assertThat(cache.get("ROLE_ADMIN").get()).isEqualTo("admin");
+
+        cacheManager.onMessage(message("E|other-node|roleByName|ROLE_ADMIN"), null);
+        assertThat(cache.get("ROLE_ADMIN").get()).isEqualTo("admin v2");
+    }
+
+    private double gets(String level, String result) {
+        return meterRegistry.get("cache.level.gets")
+                .tag("cache", "roleByName").tag("level", level).tag("result", result)
+                .counter().count();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Duration localTtl(com.github.benmanes.caffeine.cache.Cache<String, Object> local) {
+        return local.policy().expireAfterWrite().get().getExpiresAfter();
+    }
+}
@@ -61,7 +61,7 @@ class ContractControllerTest {
         testContractResponse = ContractResponse.builder()
                 .id(1L)
                 .contractNumber("CONT-2024-001")
-                .contractDocument("BASE16ENCODEDSTRING")
+                .contractDocumentUrl("/api/v1/contracts/1/document")
                 .contractDocumentName("contract.pdf")
                 .contractDocumentContentType("application/pdf")
                 .loanPercent(new BigDecimal("75.50"))
@@ -85,7 +85,7 @@ class ContractControllerTest {
                 .build();
 
         createRequest = CreateContractRequest.builder()
-                .contractDocument("BASE16ENCODEDSTRING")
+                .contractDocument("255044462D")
                 .contractDocumentName("contract.pdf")
                 .contractDocumentContentType("application/pdf")
                 .loanPercent(new BigDecimal("75.50"))
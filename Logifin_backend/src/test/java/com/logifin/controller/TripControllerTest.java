@@ -11,9 +11,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -207,4 +209,20 @@ class TripControllerTest {
             criteria.getCreatedByUserId() == null
         ), any());
     }
+
+    @Test
+    @DisplayName("Should gzip the CSV export only when gzip is accepted with a non-zero quality")
+    void exportTripsToCsv_AcceptEncodingQuality() {
+        ResponseEntity<StreamingResponseBody> refused = tripController.exportTripsToCsv(
+                null, null, null, null, "gzip;q=0, identity");
+        ResponseEntity<StreamingResponseBody> accepted = tripController.exportTripsToCsv(
+                null, null, null, null, "deflate, GZIP ; q=0.5");
+
+        assertThat(refused.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(accepted.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(TripController.acceptsGzip("gzip")).isTrue();
+        assertThat(TripController.acceptsGzip("gzip;q=0.000")).isFalse();
+        assertThat(TripController.acceptsGzip("xgzip, br")).isFalse();
+        assertThat(TripController.acceptsGzip(null)).isFalse();
+    }
 }
@@ -0,0 +1,116 @@
+package com.logifin.repository;
+
+import com.logifin.entity.*;
+import com.logifin.repository.projection.ContractDocumentView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("ContractDocumentRepository Tests")
+class ContractDocumentRepositoryTest {
+
+    private static final byte[] DOCUMENT = {0x25, 0x50, 0x44, 0x46, 0x2D};
+    private static final String DOCUMENT_HASH = DigestUtils.md5DigestAsHex(DOCUMENT);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ContractDocumentRepository contractDocumentRepository;
+
+    private Contract contract;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(Role.builder().roleName("ROLE_TRUST_ACCOUNT").description("Trust Account").build());
+        User manager = entityManager.persist(User.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@test.com")
+                .password("password")
+                .active(true)
+                .role(role)
+                .build());
+        Company company = entityManager.persist(Company.builder()
+                .name("ABC Company")
+                .displayName("ABC Co.")
+                .email("abc@company.com")
+                .isActive(true)
+                .isVerified(true)
+                .build());
+        ContractType contractType = entityManager.persist(ContractType.builder()
+                .typeName("TWO_PARTY_WITH_LOGIFIN")
+                .description("Two party contract")
+                .partyCount(2)
+                .build());
+        contract = entityManager.persist(Contract.builder()
+                .contractDocumentName("contract.pdf")
+                .contractDocumentContentType("application/pdf")
+                .loanPercent(new BigDecimal("75.50"))
+                .ltv(new BigDecimal("80.00"))
+                .penaltyRatio(new BigDecimal("5.00"))
+                .contractNumber("CONT-2024-001")
+                .expiryDate(LocalDate.now().plusYears(1))
+                .contractType(contractType)
+                .contractManager(manager)
+                .consignerCompany(company)
+                .status("ACTIVE")
+                .build());
+        contractDocumentRepository.save(ContractDocument.builder()
+                .contract(contract)
+                .documentData(DOCUMENT)
+                .fileSize((long) DOCUMENT.length)
+                .contentHash(DOCUMENT_HASH)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should read document metadata together with the contract's file name")
+    void findViewByContractId_ReturnsMetadata() {
+        Optional<ContractDocumentView> view = contractDocumentRepository.findViewByContractId(contract.getId());
+
+        assertThat(view).isPresent();
+        assertThat(view.get().getFileName()).isEqualTo("contract.pdf");
+        assertThat(view.get().getContentType()).isEqualTo("application/pdf");
+        assertThat(view.get().getFileSize()).isEqualTo(5L);
+        assertThat(view.get().getContentHash()).isEqualTo(DOCUMENT_HASH);
+        assertThat(view.get().getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should copy the stored document bytes of the expected version only")
+    void writeDocument_ExistingDocument_CopiesBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(contractDocumentRepository.writeDocument(contract.getId(), "replaced", out)).isFalse();
+        assertThat(out.size()).isZero();
+        assertThat(contractDocumentRepository.writeDocument(contract.getId(), DOCUMENT_HASH, out)).isTrue();
+        assertThat(out.toByteArray()).containsExactly(DOCUMENT);
+    }
+
+    @Test
+    @DisplayName("Should report a missing document and delete by contract")
+    void writeDocument_AfterDelete_ReturnsFalse() {
+        assertThat(contractDocumentRepository.deleteByContractId(contract.getId())).isEqualTo(1);
+
+        assertThat(contractDocumentRepository.writeDocument(contract.getId(), DOCUMENT_HASH,
+                new ByteArrayOutputStream())).isFalse();
+        assertThat(contractDocumentRepository.findViewByContractId(contract.getId())).isEmpty();
+    }
+}
@@ -1,6 +1,8 @@
 package com.logifin.repository;
 
+import com.logifin.dto.ContractSearchCriteria;
 import com.logifin.entity.*;
+import com.logifin.repository.specification.ContractSpecification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,10 +12,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -94,7 +98,6 @@ class ContractRepositoryTest {
         entityManager.persist(testLoanStage);
 
         testContract = Contract.builder()
-                .contractDocument("BASE16ENCODEDSTRING")
                 .contractDocumentName("contract.pdf")
                 .contractDocumentContentType("application/pdf")
                 .loanPercent(new BigDecimal("75.50"))
@@ -235,6 +238,19 @@ class ContractRepositoryTest {
         assertThat(average).isGreaterThan(BigDecimal.ZERO);
     }
 
+    @Test
+    @DisplayName("Should get contract count and averages in one row")
+    void shouldGetContractTotals() {
+        contractRepository.save(testContract);
+        entityManager.flush();
+
+        Object[] totals = contractRepository.getContractTotals().get(0);
+
+        assertThat(((Number) totals[0]).longValue()).isEqualTo(1L);
+        assertThat(((Number) totals[1]).doubleValue()).isEqualTo(75.5);
+        assertThat(((Number) totals[2]).doubleValue()).isEqualTo(80.0);
+    }
+
     @Test
     @DisplayName("Should search contracts by keyword")
     void shouldSearchContractsByKeyword() {
@@ -247,11 +263,25 @@ class ContractRepositoryTest {
         assertThat(contracts.getContent().get(0).getContractNumber()).contains("CONT");
     }
 
+    @Test
+    @DisplayName("Should search contracts by manager and company name")
+    void shouldSearchContractsByRelatedNames() {
+        contractRepository.save(testContract);
+        entityManager.flush();
+
+        Page<Contract> byManager = contractRepository.searchByKeyword("john", PageRequest.of(0, 10));
+        Page<Contract> byCompany = contractRepository.searchByKeyword("abc comp", PageRequest.of(0, 10));
+        Page<Contract> noMatch = contractRepository.searchByKeyword("nothing-like-this", PageRequest.of(0, 10));
+
+        assertThat(byManager.getTotalElements()).isEqualTo(1);
+        assertThat(byCompany.getTotalElements()).isEqualTo(1);
+        assertThat(noMatch).isEmpty();
+    }
+
     @Test
     @DisplayName("Should find expired contracts")
     void shouldFindExpiredContracts() {
         Contract expiredContract = Contract.builder()
-                .contractDocument("BASE16ENCODEDSTRING")
                 .contractDocumentName("expired_contract.pdf")
                 .contractDocumentContentType("application/pdf")
                 .loanPercent(new BigDecimal("75.50"))
@@ -274,6 +304,72 @@ class ContractRepositoryTest {
         assertThat(expiredContracts.get(0).getExpiryDate()).isBefore(LocalDate.now());
     }
 
+    @Test
+    @DisplayName("Should lock overdue active contracts and move them to EXPIRED")
+    void shouldLockAndExpireOverdueContracts() {
+        Contract savedContract = contractRepository.save(testContract);
+        entityManager.flush();
+        // The entity only accepts future expiry dates, so age the row directly
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE contracts SET expiry_date = :expiry WHERE id = :id")
+                .setParameter("expiry", LocalDate.now().minusDays(1))
+                .setParameter("id", savedContract.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        List<Contract> locked = contractRepository.lockExpiredActive(LocalDate.now(), PageRequest.of(0, 10));
+        assertThat(locked).extracting(Contract::getId).containsExactly(savedContract.getId());
+
+        assertThat(contractRepository.expireActive(Collections.singletonList(savedContract.getId()))).isEqualTo(1);
+        Contract expired = contractRepository.findById(savedContract.getId()).orElseThrow(IllegalStateException::new);
+        assertThat(expired.getStatus()).isEqualTo("EXPIRED");
+        assertThat(expired.getVersion()).isEqualTo(savedContract.getVersion() + 1);
+        assertThat(contractRepository.lockExpiredActive(LocalDate.now(), PageRequest.of(0, 10))).isEmpty();
+        assertThat(contractRepository.expireActive(Collections.singletonList(savedContract.getId()))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should page party contract ids and hydrate them with their parties")
+    void shouldPageContractIdsThenHydrateWithParties() {
+        testContract.addContractParty(ContractParty.builder().contract(testContract).user(testUser).build());
+        Contract savedContract = contractRepository.save(testContract);
+        Contract otherContract = contractRepository.save(Contract.builder()
+                .loanPercent(new BigDecimal("60.00"))
+                .ltv(new BigDecimal("70.00"))
+                .penaltyRatio(new BigDecimal("5.00"))
+                .contractNumber("CONT-2024-002")
+                .expiryDate(LocalDate.now().plusYears(1))
+                .contractType(testContractType)
+                .contractManager(testUser)
+                .consignerCompany(testCompany)
+                .status("ACTIVE")
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<Long> partyIds = contractRepository.findContractIdsByPartyUserId(testUser.getId(), PageRequest.of(0, 10));
+        assertThat(partyIds.getContent()).containsExactly(savedContract.getId());
+        assertThat(partyIds.getTotalElements()).isEqualTo(1);
+
+        Page<Long> involvedIds = contractRepository.findContractIdsByUserInvolvement(testUser.getId(),
+                PageRequest.of(0, 1, Sort.by("contractNumber")));
+        assertThat(involvedIds.getContent()).containsExactly(savedContract.getId());
+        assertThat(involvedIds.getTotalElements()).isEqualTo(2);
+
+        Page<Long> searchIds = contractRepository.findIdPage(ContractSpecification.fromCriteria(
+                ContractSearchCriteria.builder().partyUserId(testUser.getId()).build()), PageRequest.of(0, 10));
+        assertThat(searchIds.getContent()).containsExactly(savedContract.getId());
+        assertThat(contractRepository.findIdPage(null, PageRequest.of(1, 1, Sort.by("contractNumber"))).getContent())
+                .containsExactly(otherContract.getId());
+
+        List<Contract> hydrated = contractRepository.findAllWithDetailsByIdIn(partyIds.getContent());
+        entityManager.clear();
+        assertThat(hydrated).hasSize(1);
+        assertThat(hydrated.get(0).getContractParties()).extracting(party -> party.getUser().getEmail())
+                .containsExactly("john.doe@test.com");
+        assertThat(hydrated.get(0).getContractType().getTypeName()).isEqualTo("TWO_PARTY_WITH_LOGIFIN");
+    }
+
     @Test
     @DisplayName("Should delete contract successfully")
     void shouldDeleteContractSuccessfully() {
@@ -0,0 +1,74 @@
+package com.logifin.repository;
+
+import com.logifin.entity.ContractStatCount;
+import com.logifin.entity.ContractStatsSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("ContractStatCountRepository Tests")
+class ContractStatCountRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ContractStatCountRepository statCountRepository;
+
+    @Autowired
+    private ContractStatsSnapshotRepository snapshotRepository;
+
+    @Test
+    @DisplayName("Should read counts grouped by dimension in stored order and delete them all")
+    void findAllOrdered_AndDeleteAllCounts() {
+        statCountRepository.saveAll(Arrays.asList(
+                count(ContractStatCount.Dimension.TYPE, "SINGLE_PARTY", 1),
+                count(ContractStatCount.Dimension.STATUS, "ACTIVE", 0),
+                count(ContractStatCount.Dimension.TYPE, "TWO_PARTY", 0)));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(statCountRepository.findAllByOrderByDimensionAscSortOrderAsc())
+                .extracting(ContractStatCount::getLabel)
+                .containsExactly("ACTIVE", "TWO_PARTY", "SINGLE_PARTY");
+
+        assertThat(statCountRepository.deleteAllCounts()).isEqualTo(3);
+        assertThat(statCountRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should lock the snapshot row and read its refresh time")
+    void findByIdForUpdate_AndRefreshedAt() {
+        LocalDateTime refreshedAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        entityManager.persist(ContractStatsSnapshot.builder()
+                .id(ContractStatsSnapshot.SNAPSHOT_ID)
+                .totalContracts(4)
+                .refreshedAt(refreshedAt)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(snapshotRepository.findByIdForUpdate(ContractStatsSnapshot.SNAPSHOT_ID))
+                .hasValueSatisfying(snapshot -> assertThat(snapshot.getTotalContracts()).isEqualTo(4));
+        assertThat(snapshotRepository.findRefreshedAtById(ContractStatsSnapshot.SNAPSHOT_ID)).contains(refreshedAt);
+    }
+
+    private static ContractStatCount count(ContractStatCount.Dimension dimension, String label, int sortOrder) {
+        return ContractStatCount.builder()
+                .dimension(dimension)
+                .label(label)
+                .contractCount(1)
+                .sortOrder(sortOrder)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.logifin.repository;
+
+import com.logifin.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("LenderTripFeedRepository Tests")
+class LenderTripFeedRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LenderTripFeedRepository feedRepository;
+
+    private User lender;
+    private User otherLender;
+    private User transporter;
+    private User sender;
+    private Company company;
+    private ContractType contractType;
+    private Trip trip1;
+    private Trip trip2;
+
+    @BeforeEach
+    void setUp() {
+        Role lenderRole = persist(Role.builder().roleName("ROLE_LENDER").description("Lender").build());
+        Role transporterRole = persist(Role.builder().roleName("ROLE_TRANSPORTER").description("Transporter").build());
+        Role senderRole = persist(Role.builder().roleName("ROLE_SHIPPER").description("Shipper").build());
+
+        lender = persist(user("lender@test.com", lenderRole));
+        otherLender = persist(user("other.lender@test.com", lenderRole));
+        transporter = persist(user("transporter@test.com", transporterRole));
+        sender = persist(user("sender@test.com", senderRole));
+
+        company = persist(Company.builder()
+                .name("ABC Company")
+                .displayName("ABC Co.")
+                .email("abc@company.com")
+                .isActive(true)
+                .isVerified(true)
+                .build());
+        contractType = persist(ContractType.builder()
+                .typeName("THREE_PARTY")
+                .description("Three party contract")
+                .partyCount(3)
+                .build());
+
+        contract("CONT-1", "ACTIVE", LocalDate.now().plusMonths(6), lender, transporter, sender);
+        // Inactive contract: gives otherLender nothing
+        contract("CONT-2", "TERMINATED", LocalDate.now().plusMonths(6), otherLender, transporter, sender);
+
+        trip1 = persist(trip("Mumbai"));
+        trip2 = persist(trip("Pune"));
+        // Reload from the database so timestamps carry the stored precision, as cursors do in requests
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should add trips financeable through an active three-party contract")
+    void insertFinanceableTrips_ActiveContract_AddsLenderRows() {
+        int inserted = feedRepository.insertFinanceableTrips(Arrays.asList(trip1.getId(), trip2.getId()));
+
+        assertThat(inserted).isEqualTo(2);
+        List<Trip> feed = feedRepository.findFinanceableTrips(lender.getId(), PageRequest.of(0, 10));
+        assertThat(feed).extracting(Trip::getId).containsExactlyInAnyOrder(trip1.getId(), trip2.getId());
+        assertThat(feedRepository.findFinanceableTrips(otherLender.getId(), PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should skip trips that already have an accepted proposal")
+    void insertFinanceableTrips_AcceptedProposal_SkipsTrip() {
+        Contract contract = entityManager.getEntityManager()
+                .createQuery("SELECT c FROM Contract c WHERE c.contractNumber = 'CONT-1'", Contract.class)
+                .getSingleResult();
+        persist(TripFinanceProposal.builder()
+                .trip(entityManager.find(Trip.class, trip1.getId()))
+                .lender(entityManager.find(User.class, lender.getId()))
+                .contract(contract)
+                .status(TripFinanceProposal.ProposalStatus.ACCEPTED)
+                .build());
+        entityManager.flush();
+
+        feedRepository.insertFinanceableTrips(Arrays.asList(trip1.getId(), trip2.getId()));
+
+        assertThat(feedRepository.findFinanceableTrips(lender.getId(), PageRequest.of(0, 10)))
+                .extracting(Trip::getId).containsExactly(trip2.getId());
+    }
+
+    @Test
+    @DisplayName("Should page after a cursor and remove rows by trip")
+    void findFinanceableTripsAfter_AndDeleteByTripIds() {
+        feedRepository.insertFinanceableTrips(Arrays.asList(trip1.getId(), trip2.getId()));
+        List<Trip> all = feedRepository.findFinanceableTrips(lender.getId(), PageRequest.of(0, 10));
+        Trip first = all.get(0);
+
+        List<Trip> next = feedRepository.findFinanceableTripsAfter(
+                lender.getId(), first.getCreatedAt(), first.getId(), PageRequest.of(0, 10));
+        assertThat(next).extracting(Trip::getId).containsExactly(all.get(1).getId());
+
+        assertThat(feedRepository.deleteByTripIds(Collections.singletonList(first.getId()))).isEqualTo(1);
+        assertThat(feedRepository.findFinanceableTrips(lender.getId(), PageRequest.of(0, 10)))
+                .extracting(Trip::getId).containsExactly(all.get(1).getId());
+    }
+
+    private void contract(String number, String status, LocalDate expiryDate, User... parties) {
+        Contract contract = Contract.builder()
+                .loanPercent(new BigDecimal("75.00"))
+                .ltv(new BigDecimal("80.00"))
+                .penaltyRatio(new BigDecimal("5.00"))
+                .contractNumber(number)
+                .expiryDate(expiryDate)
+                .contractType(contractType)
+                .contractManager(lender)
+                .consignerCompany(company)
+                .status(status)
+                .build();
+        for (User party : parties) {
+            contract.addContractParty(ContractParty.builder().contract(contract).user(party).build());
+        }
+        persist(contract);
+    }
+
+    private Trip trip(String pickup) {
+        return Trip.builder()
+                .pickup(pickup)
+                .destination("Delhi")
+                .sender(sender)
+                .receiver("XYZ Industries")
+                .transporter(transporter)
+                .loanAmount(new BigDecimal("100000"))
+                .interestRate(new BigDecimal("12.5"))
+                .maturityDays(30)
+                .status(Trip.TripStatus.ACTIVE)
+                .createdByUser(transporter)
+                .company(company)
+                .build();
+    }
+
+    private static User user(String email, Role role) {
+        return User.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email(email)
+                .password("password")
+                .active(true)
+                .role(role)
+                .build();
+    }
+
+    private <T> T persist(T entity) {
+        return entityManager.persist(entity);
+    }
+}
@@ -0,0 +1,68 @@
+package com.logifin.repository;
+
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.dialect.Dialect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the SKIP_LOCKED queries render FOR UPDATE SKIP LOCKED under the dialect
+ * configured for production; tests run on H2, which cannot render it.
+ */
+@DisplayName("SKIP LOCKED Query Tests")
+class SkipLockedQueryTest {
+
+    private static final String LOCK_TIMEOUT_HINT = "javax.persistence.lock.timeout";
+
+    private Dialect dialect;
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        String dialectClass = yaml.getObject().getProperty("spring.jpa.properties.hibernate.dialect");
+        dialect = (Dialect) Class.forName(dialectClass).getDeclaredConstructor().newInstance();
+    }
+
+    @Test
+    @DisplayName("Should skip proposals locked by another sweeper or an accept")
+    void lockStalePending_RendersSkipLocked() {
+        assertThat(forUpdateClause(TripFinanceProposalRepository.class, "lockStalePending"))
+                .isEqualTo(" for update skip locked");
+    }
+
+    @Test
+    @DisplayName("Should skip contracts locked by another expiry run or an update in flight")
+    void lockExpiredActive_RendersSkipLocked() {
+        assertThat(forUpdateClause(ContractRepository.class, "lockExpiredActive"))
+                .isEqualTo(" for update skip locked");
+    }
+
+    private String forUpdateClause(Class<?> repository, String methodName) {
+        Method method = Arrays.stream(repository.getMethods())
+                .filter(m -> m.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No method " + methodName));
+        assertThat(method.getAnnotation(Lock.class).value()).isEqualTo(LockModeType.PESSIMISTIC_WRITE);
+        int timeout = Arrays.stream(method.getAnnotation(QueryHints.class).value())
+                .filter(hint -> hint.name().equals(LOCK_TIMEOUT_HINT))
+                .map(QueryHint::value)
+                .mapToInt(Integer::parseInt)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No lock timeout hint on " + methodName));
+        return dialect.getForUpdateString(new LockOptions(LockMode.PESSIMISTIC_WRITE).setTimeOut(timeout));
+    }
+}
@@ -0,0 +1,228 @@
+package com.logifin.repository;
+
+import com.logifin.entity.*;
+import com.logifin.entity.TripFinanceProposal.ProposalStatus;
+import com.logifin.repository.projection.LenderInterestRow;
+import com.logifin.repository.projection.TransporterInterestRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("TripFinanceProposalRepository Tests")
+class TripFinanceProposalRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TripFinanceProposalRepository proposalRepository;
+
+    private User transporter;
+    private User otherTransporter;
+    private TripFinanceProposal first;
+    private TripFinanceProposal second;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(Role.builder().roleName("ROLE_LENDER").description("Lender").build());
+        User lender = entityManager.persist(user("lender@test.com", role));
+        User otherLender = entityManager.persist(user("other.lender@test.com", role));
+        transporter = entityManager.persist(user("transporter@test.com", role));
+        otherTransporter = entityManager.persist(user("other.transporter@test.com", role));
+        User sender = entityManager.persist(user("sender@test.com", role));
+
+        Company company = entityManager.persist(Company.builder()
+                .name("ABC Company")
+                .displayName("ABC Co.")
+                .email("abc@company.com")
+                .isActive(true)
+                .isVerified(true)
+                .build());
+        ContractType contractType = entityManager.persist(ContractType.builder()
+                .typeName("THREE_PARTY")
+                .description("Three party contract")
+                .partyCount(3)
+                .build());
+        Contract contract = entityManager.persist(Contract.builder()
+                .loanPercent(new BigDecimal("75.00"))
+                .ltv(new BigDecimal("80.00"))
+                .penaltyRatio(new BigDecimal("5.00"))
+                .contractNumber("CONT-1")
+                .expiryDate(LocalDate.now().plusMonths(6))
+                .contractType(contractType)
+                .contractManager(lender)
+                .consignerCompany(company)
+                .build());
+
+        Trip trip = entityManager.persist(Trip.builder()
+                .pickup("Mumbai")
+                .destination("Delhi")
+                .sender(sender)
+                .receiver("XYZ Industries")
+                .transporter(transporter)
+                .loanAmount(new BigDecimal("100000"))
+                .interestRate(new BigDecimal("12.5"))
+                .maturityDays(30)
+                .createdByUser(transporter)
+                .company(company)
+                .build());
+
+        first = entityManager.persist(proposal(trip, lender, contract));
+        second = entityManager.persist(proposal(trip, otherLender, contract));
+        entityManager.flush();
+    }
+
+    @Nested
+    @DisplayName("Conditional Accept Tests")
+    class AcceptIfPendingTests {
+
+        @Test
+        @DisplayName("Should accept a pending proposal of the transporter's trip")
+        void acceptIfPending_Pending_Accepts() {
+            int updated = proposalRepository.acceptIfPending(first.getId(), transporter,
+                    ProposalStatus.PENDING, ProposalStatus.ACCEPTED);
+
+            assertThat(updated).isEqualTo(1);
+            assertThat(proposalRepository.findById(first.getId()))
+                    .hasValueSatisfying(p -> assertThat(p.getStatus()).isEqualTo(ProposalStatus.ACCEPTED));
+        }
+
+        @Test
+        @DisplayName("Should not accept a second proposal for the same trip or a repeated accept")
+        void acceptIfPending_TripAlreadyAccepted_UpdatesNothing() {
+            proposalRepository.acceptIfPending(first.getId(), transporter, ProposalStatus.PENDING, ProposalStatus.ACCEPTED);
+
+            assertThat(proposalRepository.acceptIfPending(second.getId(), transporter,
+                    ProposalStatus.PENDING, ProposalStatus.ACCEPTED)).isZero();
+            assertThat(proposalRepository.acceptIfPending(first.getId(), transporter,
+                    ProposalStatus.PENDING, ProposalStatus.ACCEPTED)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should not accept a proposal on another transporter's trip")
+        void acceptIfPending_OtherTransporter_UpdatesNothing() {
+            assertThat(proposalRepository.acceptIfPending(first.getId(), otherTransporter,
+                    ProposalStatus.PENDING, ProposalStatus.ACCEPTED)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Stale Proposal Sweeper Tests")
+    class SweeperTests {
+
+        @Test
+        @DisplayName("Should lock no proposals while trip and contract are open and proposals are recent")
+        void lockStalePendingIds_NothingStale_ReturnsEmpty() {
+            assertThat(lockStale(LocalDateTime.now().minusDays(30), 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should reject pending proposals of a trip financed elsewhere")
+        void rejectFinancedElsewhere_TripFinanced_RejectsPending() {
+            Trip trip = first.getTrip();
+            trip.setContract(first.getContract());
+            entityManager.flush();
+
+            List<Long> ids = lockStale(LocalDateTime.now().minusDays(30), 10);
+
+            assertThat(ids).containsExactlyInAnyOrder(first.getId(), second.getId());
+            assertThat(proposalRepository.rejectFinancedElsewhere(ids)).isEqualTo(2);
+            assertThat(proposalRepository.expirePending(ids)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should expire pending proposals older than the cut-off, one batch at a time")
+        void expirePending_OldProposals_Expires() {
+            List<Long> ids = lockStale(LocalDateTime.now().plusMinutes(1), 1);
+
+            assertThat(ids).containsExactly(Math.min(first.getId(), second.getId()));
+            assertThat(proposalRepository.rejectFinancedElsewhere(ids)).isZero();
+            assertThat(proposalRepository.expirePending(ids)).isEqualTo(1);
+            entityManager.clear();
+            assertThat(proposalRepository.findById(ids.get(0)))
+                    .hasValueSatisfying(p -> assertThat(p.getStatus()).isEqualTo(ProposalStatus.EXPIRED));
+        }
+    }
+
+    @Nested
+    @DisplayName("Listing Projection Tests")
+    class ListingProjectionTests {
+
+        @Test
+        @DisplayName("Should page a lender's proposals as display rows filtered by status")
+        void findLenderInterestRows_ReturnsRowsWithTripAndTransporter() {
+            Page<LenderInterestRow> rows = proposalRepository.findLenderInterestRows(
+                    first.getLender().getId(), PageRequest.of(0, 10));
+
+            assertThat(rows.getTotalElements()).isEqualTo(1);
+            LenderInterestRow row = rows.getContent().get(0);
+            assertThat(row.getTripId()).isEqualTo(first.getTrip().getId());
+            assertThat(row.getPickup()).isEqualTo("Mumbai");
+            assertThat(row.getTransporterId()).isEqualTo(transporter.getId());
+            assertThat(row.getTransporterCompanyName()).isNull();
+            assertThat(proposalRepository.findLenderInterestRowsByStatus(first.getLender().getId(),
+                    ProposalStatus.ACCEPTED, PageRequest.of(0, 10))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should page the proposals on a transporter's trips as display rows")
+        void findTransporterInterestRows_ReturnsRowsWithLenderAndContract() {
+            Page<TransporterInterestRow> byTransporter = proposalRepository.findTransporterInterestRowsByTransporterId(
+                    transporter.getId(), PageRequest.of(0, 1));
+            Page<TransporterInterestRow> byTrip = proposalRepository.findTransporterInterestRowsByTripId(
+                    first.getTrip().getId(), PageRequest.of(0, 10));
+
+            assertThat(byTransporter.getTotalElements()).isEqualTo(2);
+            assertThat(byTransporter.getContent()).hasSize(1);
+            assertThat(byTrip.getContent()).extracting(TransporterInterestRow::getLenderId)
+                    .containsExactlyInAnyOrder(first.getLender().getId(), second.getLender().getId());
+            assertThat(byTrip.getContent().get(0).getLtv()).isEqualByComparingTo("80.00");
+        }
+    }
+
+    private List<Long> lockStale(LocalDateTime proposedBefore, int limit) {
+        return proposalRepository.lockStalePending(ProposalStatus.PENDING, proposedBefore,
+                        Arrays.asList(Trip.TripStatus.COMPLETED, Trip.TripStatus.CANCELLED), PageRequest.of(0, limit))
+                .stream()
+                .map(TripFinanceProposal::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static TripFinanceProposal proposal(Trip trip, User lender, Contract contract) {
+        return TripFinanceProposal.builder()
+                .trip(trip)
+                .lender(lender)
+                .contract(contract)
+                .status(ProposalStatus.PENDING)
+                .build();
+    }
+
+    private static User user(String email, Role role) {
+        return User.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email(email)
+                .password("password")
+                .active(true)
+                .role(role)
+                .build();
+    }
+}
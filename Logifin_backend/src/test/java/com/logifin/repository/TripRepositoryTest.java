@@ -4,6 +4,7 @@ import com.logifin.entity.Company;
 import com.logifin.entity.Role;
 import com.logifin.entity.Trip;
 import com.logifin.entity.User;
+import com.logifin.repository.projection.TripExportRow;
 import com.logifin.repository.specification.TripSpecification;
 import com.logifin.dto.TripSearchCriteria;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +21,8 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -204,6 +207,14 @@ class TripRepositoryTest {
             assertThat(result.getContent()).hasSize(2); // testTrip1 and testTrip3 have Mumbai
         }
 
+        @Test
+        @DisplayName("Should search trips by sender or transporter name")
+        void searchByKeyword_UserName_Success() {
+            Page<Trip> result = tripRepository.searchByKeyword("transporter", PageRequest.of(0, 10));
+
+            assertThat(result.getTotalElements()).isEqualTo(3);
+        }
+
         @Test
         @DisplayName("Should search trips by transporter")
         void findByTransporter_Success() {
@@ -364,6 +375,70 @@ class TripRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Export Stream Tests")
+    class ExportStreamTests {
+
+        @Test
+        @DisplayName("Should stream matching trips as flat rows ordered by id")
+        void streamForExport_WithSpecification_Success() {
+            TripSearchCriteria criteria = TripSearchCriteria.builder()
+                    .pickup("Mumbai")
+                    .build();
+
+            List<TripExportRow> rows;
+            try (Stream<TripExportRow> stream = tripRepository.streamForExport(TripSpecification.fromCriteria(criteria))) {
+                rows = stream.collect(Collectors.toList());
+            }
+
+            assertThat(rows).extracting(TripExportRow::getDestination).containsExactly("Delhi", "Pune");
+            assertThat(rows.get(0).getSenderId()).isEqualTo(senderUser.getId());
+            assertThat(rows.get(0).getTransporterId()).isEqualTo(transporterUser.getId());
+            assertThat(rows.get(0).getStatus()).isEqualTo(Trip.TripStatus.ACTIVE);
+        }
+
+        @Test
+        @DisplayName("Should stream all trips without a specification")
+        void streamForExport_NoSpecification_ReturnsAll() {
+            try (Stream<TripExportRow> stream = tripRepository.streamForExport(null)) {
+                assertThat(stream.count()).isEqualTo(3);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyset Pagination Tests")
+    class KeysetPaginationTests {
+
+        @Test
+        @DisplayName("Should page through all trips newest first without gaps or repeats")
+        void findNewestFirst_WithCursor_ContinuesAfterLastTrip() {
+            List<Trip> all = tripRepository.findNewestFirst(null, 10);
+            List<Trip> firstPage = tripRepository.findNewestFirst(null, 2);
+            Trip last = firstPage.get(1);
+            List<Trip> secondPage = tripRepository.findNewestFirst(
+                    TripSpecification.createdBefore(last.getCreatedAt(), last.getId()), 2);
+
+            assertThat(all).hasSize(3);
+            assertThat(firstPage).extracting(Trip::getId)
+                    .containsExactly(all.get(0).getId(), all.get(1).getId());
+            assertThat(secondPage).extracting(Trip::getId).containsExactly(all.get(2).getId());
+        }
+
+        @Test
+        @DisplayName("Should apply the search specification")
+        void findNewestFirst_WithSpecification_FiltersTrips() {
+            TripSearchCriteria criteria = TripSearchCriteria.builder()
+                    .pickup("Mumbai")
+                    .build();
+
+            List<Trip> result = tripRepository.findNewestFirst(TripSpecification.fromCriteria(criteria), 10);
+
+            assertThat(result).hasSize(2);
+            assertThat(result).allMatch(trip -> trip.getPickup().equals("Mumbai"));
+        }
+    }
+
     @Nested
     @DisplayName("Company and User Relationship Tests")
     class RelationshipTests {
@@ -0,0 +1,332 @@
+package com.logifin.service;
+
+import com.logifin.config.UploadConfig;
+import com.logifin.dto.BulkUploadJobDTO;
+import com.logifin.dto.BulkUploadResponseDTO;
+import com.logifin.dto.ErrorRowDTO;
+import com.logifin.dto.TripRequestDTO;
+import com.logifin.entity.BulkUploadJob;
+import com.logifin.entity.BulkUploadJobError;
+import com.logifin.event.BulkUploadJobSubmittedEvent;
+import com.logifin.exception.BadRequestException;
+import com.logifin.exception.ResourceNotFoundException;
+import com.logifin.repository.BulkUploadJobErrorRepository;
+import com.logifin.repository.BulkUploadJobRepository;
+import com.logifin.repository.projection.BulkUploadJobView;
+import com.logifin.service.impl.BulkUploadJobServiceImpl;
+import com.logifin.util.TripExcelParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkUploadJobService Tests")
+class BulkUploadJobServiceTest {
+
+    private static final String CSV_HEADER = "pickup,destination,senderId,receiver,transporterId,loanAmount,"
+            + "interestRate,maturityDays,distanceKm,loadType,weightKg,notes\n";
+    private static final String CSV_ROW = "Mumbai,Delhi,2,Receiver,3,100000,12.5,30,,,,\n";
+
+    @Mock
+    private BulkUploadJobRepository jobRepository;
+
+    @Mock
+    private BulkUploadJobErrorRepository jobErrorRepository;
+
+    @Mock
+    private TripService tripService;
+
+    @Spy
+    private TripExcelParser tripExcelParser = new TripExcelParser();
+
+    @Mock
+    private UploadConfig uploadConfig;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BulkUploadJobServiceImpl bulkUploadJobService;
+
+    private UUID jobId;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkUploadJobService, "chunkSize", 2);
+        ReflectionTestUtils.setField(bulkUploadJobService, "staleAfter", Duration.ofMinutes(5));
+        jobId = UUID.randomUUID();
+    }
+
+    @Nested
+    @DisplayName("Submit Job Tests")
+    class SubmitJobTests {
+
+        @Test
+        @DisplayName("Should store file and publish job event")
+        void submitJob_Success() {
+            MockMultipartFile file = new MockMultipartFile("file", "trips.csv", "text/csv",
+                    (CSV_HEADER + CSV_ROW).getBytes(StandardCharsets.UTF_8));
+            when(uploadConfig.getMaxBulkUploadSize()).thenReturn(DataSize.ofMegabytes(1));
+            when(jobRepository.save(any(BulkUploadJob.class))).thenAnswer(invocation -> {
+                BulkUploadJob job = invocation.getArgument(0);
+                job.setJobId(jobId);
+                return job;
+            });
+
+            BulkUploadJobDTO result = bulkUploadJobService.submitJob(file, 1L);
+
+            assertThat(result.getJobId()).isEqualTo(jobId);
+            assertThat(result.getStatus()).isEqualTo(BulkUploadJob.JobStatus.QUEUED);
+            verify(eventPublisher).publishEvent(any(BulkUploadJobSubmittedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should reject unsupported file format")
+        void submitJob_UnsupportedFormat_ThrowsBadRequest() {
+            MockMultipartFile file = new MockMultipartFile("file", "trips.txt", "text/plain", new byte[1]);
+
+            assertThatThrownBy(() -> bulkUploadJobService.submitJob(file, 1L))
+                    .isInstanceOf(BadRequestException.class);
+            verify(jobRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Job Tests")
+    class GetJobTests {
+
+        @Test
+        @DisplayName("Should not expose a job to another user")
+        void getJob_OtherUser_ThrowsNotFound() {
+            BulkUploadJobView view = mock(BulkUploadJobView.class);
+            when(view.getCreatedByUserId()).thenReturn(1L);
+            when(jobRepository.findViewById(jobId)).thenReturn(Optional.of(view));
+
+            assertThatThrownBy(() -> bulkUploadJobService.getJob(jobId, 2L, 0, 100))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Run Job Tests")
+    class RunJobTests {
+
+        @Test
+        @DisplayName("Should commit rows in chunks and skip rows committed by an earlier run")
+        @SuppressWarnings("unchecked")
+        void runJob_ResumedJob_CommitsRemainingRowsInChunks() {
+            // Rows 2..6; rows 2 and 3 were committed before a restart, row 5 is invalid
+            String csv = CSV_HEADER + CSV_ROW + CSV_ROW + CSV_ROW + ",,,,,,,,,,,\n" + CSV_ROW;
+            stubJob(3, csv.getBytes(StandardCharsets.UTF_8));
+            stubRecordChunk(1);
+            when(jobRepository.findRunnableJobIds(any(), any(), any())).thenReturn(Collections.emptyList());
+
+            List<Set<Integer>> chunks = new ArrayList<>();
+            doAnswer(invocation -> {
+                Map<Integer, TripRequestDTO> rows = invocation.getArgument(0);
+                BulkUploadResponseDTO result = invocation.getArgument(2);
+                chunks.add(new TreeSet<>(rows.keySet()));
+                rows.keySet().forEach(row -> result.addSuccessfulTripId((long) row));
+                return null;
+            }).when(tripService).saveBulkUploadChunk(anyMap(), eq(1L), any(BulkUploadResponseDTO.class));
+
+            bulkUploadJobService.runJob(jobId);
+
+            assertThat(chunks).containsExactly(new TreeSet<>(Arrays.asList(4, 6)));
+            ArgumentCaptor<List<BulkUploadJobError>> errors = ArgumentCaptor.forClass(List.class);
+            verify(jobErrorRepository).saveAll(errors.capture());
+            assertThat(errors.getValue()).extracting(BulkUploadJobError::getRowNumber).containsExactly(5);
+            verify(jobRepository).recordChunk(eq(jobId), any(UUID.class), eq(6), eq(2), eq(1), any(LocalDateTime.class));
+            verify(jobRepository).finish(eq(jobId), any(UUID.class), eq(BulkUploadJob.JobStatus.COMPLETED), isNull(),
+                    any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should report every row of a chunk whose transaction fails")
+        @SuppressWarnings("unchecked")
+        void runJob_ChunkFailure_ReportsRowsAndContinues() {
+            String csv = CSV_HEADER + CSV_ROW + CSV_ROW + CSV_ROW;
+            stubJob(0, csv.getBytes(StandardCharsets.UTF_8));
+            stubRecordChunk(1);
+            when(jobRepository.findRunnableJobIds(any(), any(), any())).thenReturn(Collections.emptyList());
+            doThrow(new IllegalStateException("connection reset"))
+                    .doNothing()
+                    .when(tripService).saveBulkUploadChunk(anyMap(), eq(1L), any(BulkUploadResponseDTO.class));
+
+            bulkUploadJobService.runJob(jobId);
+
+            ArgumentCaptor<List<BulkUploadJobError>> errors = ArgumentCaptor.forClass(List.class);
+            verify(jobErrorRepository, times(2)).saveAll(errors.capture());
+            assertThat(errors.getAllValues().get(0)).extracting(BulkUploadJobError::getRowNumber)
+                    .containsExactly(2, 3);
+            verify(jobRepository).recordChunk(eq(jobId), any(UUID.class), eq(3), eq(0), eq(2), any(LocalDateTime.class));
+            verify(jobRepository).finish(eq(jobId), any(UUID.class), eq(BulkUploadJob.JobStatus.COMPLETED), isNull(),
+                    any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should resume a parallel CSV job after a crash mid-block without losing rows")
+        @SuppressWarnings("unchecked")
+        void runJob_CrashMidBlock_ResumesAfterLastCommittedRow() {
+            // One parsed block of rows 2..8 with rows 3 and 7 invalid; the first run dies after row 4
+            AtomicBoolean crash = new AtomicBoolean(true);
+            doAnswer(invocation -> {
+                BulkUploadResponseDTO response = invocation.getArgument(1);
+                TripExcelParser.TripRowHandler handler = invocation.getArgument(2);
+                response.addError(ErrorRowDTO.parsingError(3, "row 3", "Invalid"));
+                response.addError(ErrorRowDTO.parsingError(7, "row 7", "Invalid"));
+                for (int row : new int[]{2, 4, 5, 6, 8}) {
+                    if (crash.get() && row == 5) {
+                        throw new IllegalStateException("worker killed");
+                    }
+                    handler.handle(row, TripRequestDTO.builder().build());
+                }
+                return null;
+            }).when(tripExcelParser).parseCsvParallel(any(InputStream.class), any(BulkUploadResponseDTO.class),
+                    any(TripExcelParser.TripRowHandler.class));
+            when(jobRepository.findRunnableJobIds(any(), any(), any())).thenReturn(Collections.emptyList());
+            List<Set<Integer>> chunks = new ArrayList<>();
+            doAnswer(invocation -> {
+                Map<Integer, TripRequestDTO> rows = invocation.getArgument(0);
+                chunks.add(new TreeSet<>(rows.keySet()));
+                return null;
+            }).when(tripService).saveBulkUploadChunk(anyMap(), eq(1L), any(BulkUploadResponseDTO.class));
+
+            stubJob(0, new byte[0]);
+            stubRecordChunk(1);
+            bulkUploadJobService.runJob(jobId);
+            verify(jobRepository).recordChunk(eq(jobId), any(UUID.class), eq(4), eq(0), eq(1), any(LocalDateTime.class));
+
+            crash.set(false);
+            stubJob(4, new byte[0]);
+            stubRecordChunk(1);
+            bulkUploadJobService.runJob(jobId);
+
+            assertThat(chunks).containsExactly(new TreeSet<>(Arrays.asList(2, 4)),
+                    new TreeSet<>(Arrays.asList(5, 6)), new TreeSet<>(Collections.singletonList(8)));
+            ArgumentCaptor<List<BulkUploadJobError>> errors = ArgumentCaptor.forClass(List.class);
+            verify(jobErrorRepository, times(3)).saveAll(errors.capture());
+            assertThat(errors.getAllValues()).flatExtracting(list -> list)
+                    .extracting(error -> ((BulkUploadJobError) error).getRowNumber())
+                    .containsExactly(3, 7);
+            verify(jobRepository).recordChunk(eq(jobId), any(UUID.class), eq(6), eq(0), eq(0), any(LocalDateTime.class));
+            verify(jobRepository).recordChunk(eq(jobId), any(UUID.class), eq(8), eq(0), eq(1), any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should roll back the chunk and stop when another worker took over the job")
+        void runJob_ClaimTakenOver_StopsWithoutFinishing() {
+            String csv = CSV_HEADER + CSV_ROW + CSV_ROW + CSV_ROW + CSV_ROW;
+            stubJob(0, csv.getBytes(StandardCharsets.UTF_8));
+            stubRecordChunk(0);
+            when(jobRepository.findRunnableJobIds(any(), any(), any())).thenReturn(Collections.emptyList());
+
+            bulkUploadJobService.runJob(jobId);
+
+            verify(tripService, times(1)).saveBulkUploadChunk(anyMap(), eq(1L), any(BulkUploadResponseDTO.class));
+            verify(transactionManager).rollback(any());
+            verify(jobRepository, never()).finish(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should stop at the next row when the heartbeat finds the job taken over")
+        void refreshHeartbeats_ClaimTakenOver_StopsRunningJob() {
+            String csv = CSV_HEADER + CSV_ROW + CSV_ROW + CSV_ROW + CSV_ROW;
+            stubJob(0, csv.getBytes(StandardCharsets.UTF_8));
+            stubRecordChunk(1);
+            when(jobRepository.heartbeat(eq(jobId), any(UUID.class), any(LocalDateTime.class))).thenReturn(0);
+            when(jobRepository.findRunnableJobIds(any(), any(), any())).thenReturn(Collections.emptyList());
+            doAnswer(invocation -> {
+                // A long chunk; meanwhile a heartbeat runs and another worker reclaims the job
+                bulkUploadJobService.refreshHeartbeats();
+                return null;
+            }).when(tripService).saveBulkUploadChunk(anyMap(), eq(1L), any(BulkUploadResponseDTO.class));
+
+            bulkUploadJobService.runJob(jobId);
+
+            verify(jobRepository).heartbeat(eq(jobId), any(UUID.class), any(LocalDateTime.class));
+            verify(tripService, times(1)).saveBulkUploadChunk(anyMap(), eq(1L), any(BulkUploadResponseDTO.class));
+            verify(jobRepository, never()).finish(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should refresh the heartbeat from its own thread while a chunk is running")
+        void startHeartbeats_ChunkRunning_RefreshesHeartbeat() {
+            String csv = CSV_HEADER + CSV_ROW;
+            stubJob(0, csv.getBytes(StandardCharsets.UTF_8));
+            stubRecordChunk(1);
+            when(jobRepository.heartbeat(eq(jobId), any(UUID.class), any(LocalDateTime.class))).thenReturn(1);
+            when(jobRepository.findRunnableJobIds(any(), any(), any())).thenReturn(Collections.emptyList());
+            doAnswer(invocation -> {
+                // A long chunk; no scheduler is running, only the service's heartbeat thread
+                verify(jobRepository, timeout(5000).atLeastOnce())
+                        .heartbeat(eq(jobId), any(UUID.class), any(LocalDateTime.class));
+                return null;
+            }).when(tripService).saveBulkUploadChunk(anyMap(), eq(1L), any(BulkUploadResponseDTO.class));
+
+            ReflectionTestUtils.setField(bulkUploadJobService, "heartbeatInterval", Duration.ofMillis(10));
+            bulkUploadJobService.startHeartbeats();
+            try {
+                bulkUploadJobService.runJob(jobId);
+            } finally {
+                bulkUploadJobService.stopHeartbeats();
+            }
+
+            verify(jobRepository).finish(eq(jobId), any(UUID.class), eq(BulkUploadJob.JobStatus.COMPLETED), isNull(),
+                    any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should do nothing when another worker owns the job")
+        void runJob_NotClaimed_DoesNothing() {
+            when(jobRepository.claim(eq(jobId), any(), any(), any(), any(), any())).thenReturn(0);
+
+            bulkUploadJobService.runJob(jobId);
+
+            verify(jobRepository, never()).findFileDataById(any());
+            verifyNoInteractions(tripService);
+        }
+
+        private void stubJob(int lastRowNumber, byte[] data) {
+            BulkUploadJobView view = mock(BulkUploadJobView.class);
+            when(view.getCreatedByUserId()).thenReturn(1L);
+            when(view.getFileName()).thenReturn("trips.csv");
+            when(view.getLastRowNumber()).thenReturn(lastRowNumber);
+            when(jobRepository.claim(eq(jobId), any(), any(), any(), any(), any())).thenReturn(1);
+            when(jobRepository.findViewById(jobId)).thenReturn(Optional.of(view));
+            when(jobRepository.findFileDataById(jobId)).thenReturn(Optional.of(data));
+        }
+
+        private void stubRecordChunk(int updated) {
+            when(jobRepository.recordChunk(eq(jobId), any(UUID.class), anyInt(), anyInt(), anyInt(),
+                    any(LocalDateTime.class))).thenReturn(updated);
+        }
+    }
+}
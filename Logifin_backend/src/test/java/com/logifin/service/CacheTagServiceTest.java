@@ -0,0 +1,99 @@
+package com.logifin.service;
+
+import com.logifin.config.CacheTagRegistry;
+import com.logifin.service.impl.CacheTagServiceImpl;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheTagService Tests")
+class CacheTagServiceTest {
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private CacheTagRegistry tagRegistry;
+
+    @Mock
+    private Cache byIdCache;
+
+    @Mock
+    private Cache listCache;
+
+    private MeterRegistry meterRegistry;
+
+    private CacheTagServiceImpl cacheTagService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheTagService = new CacheTagServiceImpl(cacheManager, tagRegistry, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should evict every entry claimed from the tag and record the fan-out")
+    void evictTags_EvictsTaggedEntries() {
+        when(tagRegistry.claim("contract:1")).thenReturn(new HashSet<>(Arrays.asList(
+                "contractById::1", "contracts::ContractServiceImpl:getAllContracts:0", "dropped::1")));
+        when(cacheManager.getCache("contractById")).thenReturn(byIdCache);
+        when(cacheManager.getCache("contracts")).thenReturn(listCache);
+        when(cacheManager.getCache("dropped")).thenReturn(null);
+
+        cacheTagService.evictTags("contract:1");
+
+        verify(byIdCache).evict("1");
+        verify(listCache).evict("ContractServiceImpl:getAllContracts:0");
+        DistributionSummary fanOut = meterRegistry.get("cache.tag.eviction.fanout").tag("tag", "contract").summary();
+        assertThat(fanOut.totalAmount()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should defer eviction until the surrounding transaction commits")
+    void evictTags_ActiveTransaction_EvictsAfterCommit() {
+        when(tagRegistry.claim("user:lists")).thenReturn(new HashSet<>(Arrays.asList("users::page:0")));
+        when(cacheManager.getCache("users")).thenReturn(listCache);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheTagService.evictTags("user:lists");
+            verifyNoInteractions(tagRegistry);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(listCache).evict("page:0");
+    }
+
+    @Test
+    @DisplayName("Should not fail the write when the tag registry is unavailable")
+    void evictTags_RegistryFailure_ContinuesWithNextTag() {
+        when(tagRegistry.claim("company:1")).thenThrow(new RedisConnectionFailureException("down"));
+        when(tagRegistry.claim("company:lists")).thenReturn(new HashSet<>());
+
+        cacheTagService.evictTags("company:1", "company:lists");
+
+        assertThat(meterRegistry.get("cache.tag.eviction.fanout").tag("tag", "company:lists").summary().count())
+                .isEqualTo(1);
+    }
+}
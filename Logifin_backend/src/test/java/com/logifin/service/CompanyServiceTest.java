@@ -1,10 +1,14 @@
 package com.logifin.service;
 
+import com.logifin.dto.BinaryContentDTO;
 import com.logifin.dto.CompanyDTO;
 import com.logifin.entity.Company;
+import com.logifin.entity.CompanyLogo;
 import com.logifin.entity.User;
+import com.logifin.exception.BadRequestException;
 import com.logifin.exception.DuplicateResourceException;
 import com.logifin.exception.ResourceNotFoundException;
+import com.logifin.repository.CompanyLogoRepository;
 import com.logifin.repository.CompanyRepository;
 import com.logifin.repository.UserRepository;
 import com.logifin.service.impl.CompanyServiceImpl;
@@ -12,12 +16,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,9 +44,15 @@ class CompanyServiceTest {
     @Mock
     private CompanyRepository companyRepository;
 
+    @Mock
+    private CompanyLogoRepository companyLogoRepository;
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CacheTagService cacheTagService;
+
     @InjectMocks
     private CompanyServiceImpl companyService;
 
@@ -85,6 +103,7 @@ class CompanyServiceTest {
                 .email("admin@test.com")
                 .build();
         verifiedByUser.setId(1L);
+        ReflectionTestUtils.setField(companyService, "logoMaxDimension", 256);
     }
 
     @Test
@@ -102,6 +121,48 @@ class CompanyServiceTest {
         assertThat(result.getName()).isEqualTo(companyDTO.getName());
         assertThat(result.getEmail()).isEqualTo(companyDTO.getEmail());
         verify(companyRepository, times(1)).save(any(Company.class));
+        verify(cacheTagService).evictTags("company:lists");
+    }
+
+    @Test
+    @DisplayName("Create Company - Logo normalized and served by URL")
+    void createCompany_WithLogo_StoresNormalizedLogo() throws IOException {
+        BufferedImage image = new BufferedImage(1024, 512, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        companyDTO.setLogoBase64("data:image/png;base64," + Base64.getEncoder().encodeToString(png.toByteArray()));
+        when(companyRepository.existsByEmail(anyString())).thenReturn(false);
+        when(companyRepository.existsByGstNumber(anyString())).thenReturn(false);
+        when(companyRepository.existsByPanNumber(anyString())).thenReturn(false);
+        when(companyRepository.existsByCompanyRegistrationNumber(anyString())).thenReturn(false);
+        when(companyRepository.save(any(Company.class))).thenReturn(company);
+        when(companyLogoRepository.findById(1L)).thenReturn(Optional.empty());
+
+        CompanyDTO result = companyService.createCompany(companyDTO);
+
+        ArgumentCaptor<CompanyLogo> logoCaptor = ArgumentCaptor.forClass(CompanyLogo.class);
+        verify(companyLogoRepository).save(logoCaptor.capture());
+        CompanyLogo logo = logoCaptor.getValue();
+        BufferedImage stored = ImageIO.read(new ByteArrayInputStream(logo.getLogoData()));
+        assertThat(stored.getWidth()).isEqualTo(256);
+        assertThat(stored.getHeight()).isEqualTo(128);
+        assertThat(logo.getContentType()).isEqualTo("image/png");
+        assertThat(result.getLogoBase64()).isNull();
+        assertThat(result.getLogoUrl()).isEqualTo("/api/v1/companies/1/logo?v=" + logo.getContentHash());
+    }
+
+    @Test
+    @DisplayName("Create Company - Logo that is not an image")
+    void createCompany_InvalidLogo_ThrowsBadRequest() {
+        companyDTO.setLogoBase64(Base64.getEncoder().encodeToString("not an image".getBytes()));
+        when(companyRepository.existsByEmail(anyString())).thenReturn(false);
+        when(companyRepository.existsByGstNumber(anyString())).thenReturn(false);
+        when(companyRepository.existsByPanNumber(anyString())).thenReturn(false);
+        when(companyRepository.existsByCompanyRegistrationNumber(anyString())).thenReturn(false);
+
+        assertThatThrownBy(() -> companyService.createCompany(companyDTO))
+                .isInstanceOf(BadRequestException.class);
+        verify(companyRepository, never()).save(any(Company.class));
     }
 
     @Test
@@ -191,6 +252,48 @@ class CompanyServiceTest {
 
         assertThat(result).isNotNull();
         verify(companyRepository, times(1)).save(any(Company.class));
+        // No logoBase64 in the request keeps the current logo
+        verifyNoInteractions(companyLogoRepository);
+    }
+
+    @Test
+    @DisplayName("Update Company - Empty logo removes it")
+    void updateCompany_EmptyLogo_RemovesLogo() {
+        company.setLogoHash("abc");
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(company));
+        when(companyRepository.save(any(Company.class))).thenReturn(company);
+
+        companyDTO.setLogoBase64("");
+        CompanyDTO result = companyService.updateCompany(1L, companyDTO);
+
+        verify(companyLogoRepository).deleteByCompanyId(1L);
+        assertThat(result.getLogoUrl()).isNull();
+    }
+
+    @Test
+    @DisplayName("Get Company Logo - Success")
+    void getCompanyLogo_Success() {
+        CompanyLogo logo = CompanyLogo.builder()
+                .companyId(1L)
+                .logoData(new byte[]{1, 2, 3})
+                .contentType("image/png")
+                .contentHash("abc")
+                .build();
+        when(companyLogoRepository.findById(1L)).thenReturn(Optional.of(logo));
+
+        BinaryContentDTO result = companyService.getCompanyLogo(1L);
+
+        assertThat(result.getData()).containsExactly(1, 2, 3);
+        assertThat(result.getEtag()).isEqualTo("\"abc\"");
+    }
+
+    @Test
+    @DisplayName("Get Company Logo - Not Found")
+    void getCompanyLogo_NotFound() {
+        when(companyLogoRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> companyService.getCompanyLogo(1L))
+                .isInstanceOf(ResourceNotFoundException.class);
     }
 
     @Test
@@ -211,7 +314,9 @@ class CompanyServiceTest {
 
         companyService.deleteCompany(1L);
 
+        verify(companyLogoRepository).deleteByCompanyId(1L);
         verify(companyRepository, times(1)).deleteById(1L);
+        verify(cacheTagService).evictTags("company:1");
     }
 
     @Test
@@ -0,0 +1,100 @@
+package com.logifin.service;
+
+import com.logifin.config.CacheConfig;
+import com.logifin.entity.Contract;
+import com.logifin.repository.ContractRepository;
+import com.logifin.service.impl.ContractExpiryServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContractExpiryService Tests")
+class ContractExpiryServiceTest {
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache byIdCache;
+
+    @Mock
+    private CacheTagService cacheTagService;
+
+    @Mock
+    private ContractStatsService contractStatsService;
+
+    private MeterRegistry meterRegistry;
+
+    private ContractExpiryServiceImpl contractExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        contractExpiryService = new ContractExpiryServiceImpl(contractRepository, transactionManager, cacheManager,
+                contractStatsService, cacheTagService, meterRegistry);
+        ReflectionTestUtils.setField(contractExpiryService, "batchSize", 2);
+    }
+
+    @Test
+    @DisplayName("Should expire in batches until a short batch, evicting each batch and counting expirations")
+    void expireOverdueContracts_MultipleBatches_ExpiresEvictsAndCounts() {
+        when(contractRepository.lockExpiredActive(any(), any(Pageable.class)))
+                .thenReturn(Arrays.asList(contract(1L, "CONT-1"), contract(2L, "CONT-2")))
+                .thenReturn(Collections.singletonList(contract(3L, "CONT-3")));
+        when(contractRepository.expireActive(anyCollection())).thenReturn(2, 1);
+        when(cacheManager.getCache(CacheConfig.CACHE_CONTRACT_BY_ID)).thenReturn(byIdCache);
+
+        int expired = contractExpiryService.expireOverdueContracts();
+
+        assertThat(expired).isEqualTo(3);
+        verify(contractRepository).expireActive(Arrays.asList(1L, 2L));
+        verify(contractRepository).expireActive(Collections.singletonList(3L));
+        verify(byIdCache).evict(3L);
+        verify(cacheTagService).evictTags("contract:1", "contract:2");
+        verify(cacheTagService).evictTags("contract:3");
+        verify(contractStatsService).recordContractWrites(3);
+        assertThat(meterRegistry.get("contracts.expired").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("contracts.expiry.run").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should touch no caches when nothing is overdue")
+    void expireOverdueContracts_NothingOverdue_ReturnsZero() {
+        when(contractRepository.lockExpiredActive(any(), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        assertThat(contractExpiryService.expireOverdueContracts()).isZero();
+        verify(contractRepository, never()).expireActive(anyCollection());
+        verifyNoInteractions(cacheManager, cacheTagService, contractStatsService);
+    }
+
+    private static Contract contract(Long id, String number) {
+        Contract contract = Contract.builder().contractNumber(number).build();
+        contract.setId(id);
+        return contract;
+    }
+}
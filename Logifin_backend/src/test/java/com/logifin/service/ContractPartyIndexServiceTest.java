@@ -0,0 +1,111 @@
+package com.logifin.service;
+
+import com.logifin.repository.ContractPartyRepository;
+import com.logifin.repository.projection.ContractPartyRow;
+import com.logifin.service.impl.ContractPartyIndexServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContractPartyIndexService Tests")
+class ContractPartyIndexServiceTest {
+
+    private static final Long LENDER = 1L;
+    private static final Long TRANSPORTER = 2L;
+    private static final Long SENDER = 3L;
+
+    @Mock
+    private ContractPartyRepository contractPartyRepository;
+
+    @InjectMocks
+    private ContractPartyIndexServiceImpl contractPartyIndexService;
+
+    private final LocalDate nearExpiry = LocalDate.now().plusMonths(1);
+    private final LocalDate farExpiry = LocalDate.now().plusMonths(6);
+
+    @BeforeEach
+    void setUp() {
+        when(contractPartyRepository.findActiveContractPartyRows()).thenReturn(Arrays.asList(
+                new ContractPartyRow(10L, LENDER, nearExpiry),
+                new ContractPartyRow(10L, TRANSPORTER, nearExpiry),
+                new ContractPartyRow(10L, SENDER, nearExpiry),
+                new ContractPartyRow(20L, LENDER, farExpiry),
+                new ContractPartyRow(20L, TRANSPORTER, farExpiry),
+                new ContractPartyRow(20L, SENDER, farExpiry)));
+        contractPartyIndexService.rebuild();
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should return contracts of the three parties furthest expiry first")
+        void findActiveContractIds_IndexedParties_ReturnsFurthestExpiryFirst() {
+            assertThat(contractPartyIndexService.isReady()).isTrue();
+            assertThat(contractPartyIndexService.findActiveContractIds(LENDER, TRANSPORTER, SENDER))
+                    .containsExactly(20L, 10L);
+            assertThat(contractPartyIndexService.findActiveContractIds(LENDER, TRANSPORTER, 99L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should only match contracts shared by all three users")
+        void findActiveContractIds_PartiesOnDifferentContracts_ReturnsIntersection() {
+            when(contractPartyRepository.findActiveContractPartyRowsByContractId(30L)).thenReturn(Arrays.asList(
+                    new ContractPartyRow(30L, LENDER, farExpiry),
+                    new ContractPartyRow(30L, 4L, farExpiry)));
+            contractPartyIndexService.refreshContract(30L);
+
+            assertThat(contractPartyIndexService.findActiveContractIds(LENDER, 4L, SENDER)).isEmpty();
+            assertThat(contractPartyIndexService.findActiveContractIds(LENDER, 4L, LENDER)).containsExactly(30L);
+            assertThat(contractPartyIndexService.findActiveContractIds(SENDER, TRANSPORTER, LENDER))
+                    .containsExactly(20L, 10L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Refresh Tests")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Should drop a contract that is no longer active")
+        void refreshContract_Inactive_RemovesEntries() {
+            when(contractPartyRepository.findActiveContractPartyRowsByContractId(20L))
+                    .thenReturn(Collections.emptyList());
+
+            contractPartyIndexService.refreshContract(20L);
+
+            assertThat(contractPartyIndexService.findActiveContractIds(LENDER, TRANSPORTER, SENDER))
+                    .containsExactly(10L);
+        }
+
+        @Test
+        @DisplayName("Should index a new party combination of a changed contract")
+        void refreshContract_PartyReplaced_ReindexesContract() {
+            when(contractPartyRepository.findActiveContractPartyRowsByContractId(10L)).thenReturn(Arrays.asList(
+                    new ContractPartyRow(10L, LENDER, nearExpiry),
+                    new ContractPartyRow(10L, TRANSPORTER, nearExpiry),
+                    new ContractPartyRow(10L, 4L, nearExpiry)));
+
+            contractPartyIndexService.refreshContract(10L);
+
+            assertThat(contractPartyIndexService.findActiveContractIds(LENDER, TRANSPORTER, SENDER))
+                    .containsExactly(20L);
+            assertThat(contractPartyIndexService.findActiveContractIds(LENDER, TRANSPORTER, 4L))
+                    .containsExactly(10L);
+        }
+    }
+}
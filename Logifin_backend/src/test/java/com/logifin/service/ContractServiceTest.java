@@ -2,23 +2,30 @@ package com.logifin.service;
 
 import com.logifin.dto.*;
 import com.logifin.entity.*;
+import com.logifin.event.ContractPartiesChangedEvent;
+import com.logifin.exception.BadRequestException;
 import com.logifin.exception.DuplicateResourceException;
 import com.logifin.exception.ResourceNotFoundException;
 import com.logifin.repository.*;
+import com.logifin.repository.projection.ContractDocumentView;
 import com.logifin.service.impl.ContractServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.util.DigestUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -26,8 +33,10 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,12 +55,27 @@ class ContractServiceTest {
     @Mock
     private ContractPartyRepository contractPartyRepository;
 
+    @Mock
+    private ContractDocumentRepository contractDocumentRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private CompanyRepository companyRepository;
 
+    @Mock
+    private ContractExpiryService contractExpiryService;
+
+    @Mock
+    private ContractStatsService contractStatsService;
+
+    @Mock
+    private CacheTagService cacheTagService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ContractServiceImpl contractService;
 
@@ -94,7 +118,6 @@ class ContractServiceTest {
         testLoanStage.setId(1L);
 
         testContract = Contract.builder()
-                .contractDocument("BASE16ENCODEDSTRING")
                 .contractDocumentName("contract.pdf")
                 .contractDocumentContentType("application/pdf")
                 .loanPercent(new BigDecimal("75.50"))
@@ -115,7 +138,7 @@ class ContractServiceTest {
         testContract.setUpdatedAt(LocalDateTime.now());
 
         createRequest = CreateContractRequest.builder()
-                .contractDocument("BASE16ENCODEDSTRING")
+                .contractDocument("255044462D")
                 .contractDocumentName("contract.pdf")
                 .contractDocumentContentType("application/pdf")
                 .loanPercent(new BigDecimal("75.50"))
@@ -158,7 +181,33 @@ class ContractServiceTest {
             assertThat(result).isNotNull();
             assertThat(result.getContractNumber()).isEqualTo("CONT-2024-001");
             assertThat(result.getLoanPercent()).isEqualByComparingTo(new BigDecimal("75.50"));
+            assertThat(result.getContractDocumentUrl()).isEqualTo("/api/v1/contracts/1/document");
             verify(contractRepository).save(any(Contract.class));
+
+            ArgumentCaptor<ContractDocument> documentCaptor = ArgumentCaptor.forClass(ContractDocument.class);
+            verify(contractDocumentRepository).save(documentCaptor.capture());
+            assertThat(documentCaptor.getValue().getContract()).isSameAs(testContract);
+            assertThat(documentCaptor.getValue().getDocumentData()).containsExactly(0x25, 0x50, 0x44, 0x46, 0x2D);
+            assertThat(documentCaptor.getValue().getContentHash()).isEqualTo(DigestUtils.md5DigestAsHex(
+                    documentCaptor.getValue().getDocumentData()));
+            assertThat(documentCaptor.getValue().getFileSize()).isEqualTo(5L);
+        }
+
+        @Test
+        @DisplayName("Should reject a document that is not base16 encoded")
+        void shouldRejectDocumentThatIsNotHex() {
+            createRequest.setContractDocument("NOT-HEX");
+            when(contractRepository.existsByContractNumber(anyString())).thenReturn(false);
+            when(contractTypeRepository.findById(anyLong())).thenReturn(Optional.of(testContractType));
+            when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
+            when(companyRepository.findById(anyLong())).thenReturn(Optional.of(testCompany));
+            when(loanStageRepository.findById(anyLong())).thenReturn(Optional.of(testLoanStage));
+
+            assertThatThrownBy(() -> contractService.createContract(createRequest, 1L))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("hex");
+
+            verify(contractRepository, never()).save(any(Contract.class));
         }
 
         @Test
@@ -256,6 +305,39 @@ class ContractServiceTest {
             assertThat(result.getContent().get(0).getContractNumber()).isEqualTo("CONT-2024-001");
             verify(contractRepository).findAllWithDetails(any(Pageable.class));
         }
+
+        @Test
+        @DisplayName("Should page contract ids first and hydrate them in page order")
+        void shouldSearchContractsByIdPageThenHydrate() {
+            Contract second = Contract.builder().contractNumber("CONT-2024-002").status("ACTIVE").build();
+            second.setId(2L);
+            Pageable pageable = PageRequest.of(0, 10);
+            when(contractRepository.findIdPage(any(), eq(pageable)))
+                    .thenReturn(new PageImpl<>(Arrays.asList(2L, 1L), pageable, 2));
+            when(contractRepository.findAllWithDetailsByIdIn(Arrays.asList(2L, 1L)))
+                    .thenReturn(Arrays.asList(testContract, second));
+
+            PagedResponse<ContractResponse> result = contractService.searchContracts(
+                    ContractSearchCriteria.builder().partyUserId(1L).build(), pageable);
+
+            assertThat(result.getContent()).extracting(ContractResponse::getId).containsExactly(2L, 1L);
+            assertThat(result.getTotalElements()).isEqualTo(2);
+            verify(contractRepository, never()).findAll(any(org.springframework.data.jpa.domain.Specification.class),
+                    any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should skip hydration when no contract ids match")
+        void shouldNotHydrateEmptyIdPage() {
+            Pageable pageable = PageRequest.of(0, 10);
+            when(contractRepository.findContractIdsByPartyUserId(1L, pageable))
+                    .thenReturn(new PageImpl<>(Collections.emptyList(), pageable, 0));
+
+            PagedResponse<ContractResponse> result = contractService.getContractsByPartyUser(1L, pageable);
+
+            assertThat(result.getContent()).isEmpty();
+            verify(contractRepository, never()).findAllWithDetailsByIdIn(any());
+        }
     }
 
     @Nested
@@ -272,6 +354,28 @@ class ContractServiceTest {
 
             assertThat(result).isNotNull();
             verify(contractRepository).save(any(Contract.class));
+            verify(contractDocumentRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should replace the stored document when a new one is sent")
+        void shouldReplaceDocumentOnUpdate() {
+            ContractDocument existing = ContractDocument.builder()
+                    .contractId(1L)
+                    .contract(testContract)
+                    .documentData(new byte[]{1, 2, 3})
+                    .fileSize(3L)
+                    .build();
+            updateRequest.setContractDocument("0A0b");
+            when(contractRepository.findById(anyLong())).thenReturn(Optional.of(testContract));
+            when(contractRepository.save(any(Contract.class))).thenReturn(testContract);
+            when(contractDocumentRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+            contractService.updateContract(1L, updateRequest);
+
+            verify(contractDocumentRepository).save(existing);
+            assertThat(existing.getDocumentData()).containsExactly(0x0A, 0x0B);
+            assertThat(existing.getFileSize()).isEqualTo(2L);
         }
 
         @Test
@@ -287,6 +391,42 @@ class ContractServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Contract Document Tests")
+    class ContractDocumentTests {
+
+        @Test
+        @DisplayName("Should describe the document for download without loading its data")
+        void shouldReturnDocumentMetadata() {
+            ContractDocumentView view = mock(ContractDocumentView.class);
+            when(view.getFileName()).thenReturn("contract.pdf");
+            when(view.getContentType()).thenReturn("application/pdf");
+            when(view.getFileSize()).thenReturn(5L);
+            when(view.getContentHash()).thenReturn("4ba3b1f7d4e1a8d1");
+            when(view.getUpdatedAt()).thenReturn(LocalDateTime.of(2024, 1, 1, 0, 0));
+            when(contractDocumentRepository.findViewByContractId(1L)).thenReturn(Optional.of(view));
+
+            BinaryContentDTO result = contractService.getContractDocumentMetadata(1L);
+
+            assertThat(result.getData()).isNull();
+            assertThat(result.getFileName()).isEqualTo("contract.pdf");
+            assertThat(result.getContentType()).isEqualTo("application/pdf");
+            assertThat(result.getSize()).isEqualTo(5L);
+            assertThat(result.getEtag()).isEqualTo("\"4ba3b1f7d4e1a8d1\"");
+        }
+
+        @Test
+        @DisplayName("Should throw exception when the document is missing or was replaced")
+        void shouldThrowExceptionWhenDocumentMissing() {
+            when(contractDocumentRepository.writeDocument(eq(1L), eq("4ba3b1f7d4e1a8d1"), any())).thenReturn(false);
+
+            assertThatThrownBy(() -> contractService.writeContractDocument(1L, "\"4ba3b1f7d4e1a8d1\"",
+                    new ByteArrayOutputStream()))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessageContaining("ContractDocument");
+        }
+    }
+
     @Nested
     @DisplayName("Delete Contract Tests")
     class DeleteContractTests {
@@ -300,7 +440,10 @@ class ContractServiceTest {
             contractService.deleteContract(1L);
 
             verify(contractRepository).existsById(1L);
+            verify(contractDocumentRepository).deleteByContractId(1L);
             verify(contractRepository).deleteById(1L);
+            verify(contractStatsService).recordContractWrites(1);
+            verify(cacheTagService).evictTags("contract:1", "contract:lists");
         }
 
         @Test
@@ -316,6 +459,36 @@ class ContractServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Contract Party Tests")
+    class ContractPartyTests {
+
+        @Test
+        @DisplayName("Should publish the contract's parties when a party is added")
+        void shouldPublishPartiesChangedWhenPartyAdded() {
+            User lender = User.builder()
+                    .firstName("Jane")
+                    .lastName("Lender")
+                    .email("jane@example.com")
+                    .build();
+            lender.setId(2L);
+            testContract.addContractParty(ContractParty.builder().user(testUser).build());
+            ContractPartyDTO partyDTO = ContractPartyDTO.builder().userId(2L).build();
+
+            when(contractRepository.findById(1L)).thenReturn(Optional.of(testContract));
+            when(userRepository.findById(2L)).thenReturn(Optional.of(lender));
+            when(contractPartyRepository.existsByContractIdAndUserId(1L, 2L)).thenReturn(false);
+            when(contractRepository.save(any(Contract.class))).thenReturn(testContract);
+
+            contractService.addPartyToContract(1L, partyDTO);
+
+            ArgumentCaptor<ContractPartiesChangedEvent> event = ArgumentCaptor.forClass(ContractPartiesChangedEvent.class);
+            verify(eventPublisher).publishEvent(event.capture());
+            assertThat(event.getValue().getContractId()).isEqualTo(1L);
+            assertThat(event.getValue().getPartyUserIds()).containsExactlyInAnyOrder(1L, 2L);
+        }
+    }
+
     @Nested
     @DisplayName("Statistics Tests")
     class StatisticsTests {
@@ -332,31 +505,47 @@ class ContractServiceTest {
         }
 
         @Test
-        @DisplayName("Should get average loan percent")
+        @DisplayName("Should get average loan percent from the statistics snapshot")
         void shouldGetAverageLoanPercent() {
-            when(contractRepository.getAverageLoanPercent()).thenReturn(new BigDecimal("75.00"));
+            when(contractStatsService.getStatistics()).thenReturn(ContractStatisticsDTO.builder()
+                    .averageLoanPercent(new BigDecimal("75.00"))
+                    .build());
 
             BigDecimal average = contractService.getAverageLoanPercent();
 
             assertThat(average).isEqualByComparingTo(new BigDecimal("75.00"));
-            verify(contractRepository).getAverageLoanPercent();
+            verify(contractRepository, never()).getAverageLoanPercent();
         }
 
         @Test
-        @DisplayName("Should get contract count by type")
+        @DisplayName("Should get contract count by type from the statistics snapshot")
         void shouldGetContractCountByType() {
-            List<Object[]> mockResults = Arrays.asList(
-                    new Object[]{"SINGLE_PARTY_WITH_LOGIFIN", 5L},
-                    new Object[]{"TWO_PARTY_WITH_LOGIFIN", 10L}
-            );
-            when(contractRepository.getContractCountByType()).thenReturn(mockResults);
+            Map<String, Long> byType = new LinkedHashMap<>();
+            byType.put("TWO_PARTY_WITH_LOGIFIN", 10L);
+            byType.put("SINGLE_PARTY_WITH_LOGIFIN", 5L);
+            when(contractStatsService.getStatistics()).thenReturn(ContractStatisticsDTO.builder()
+                    .contractsByType(byType)
+                    .build());
 
             Map<String, Long> result = contractService.getContractCountByType();
 
-            assertThat(result).hasSize(2);
-            assertThat(result.get("SINGLE_PARTY_WITH_LOGIFIN")).isEqualTo(5L);
-            assertThat(result.get("TWO_PARTY_WITH_LOGIFIN")).isEqualTo(10L);
-            verify(contractRepository).getContractCountByType();
+            assertThat(result).containsExactly(entry("TWO_PARTY_WITH_LOGIFIN", 10L), entry("SINGLE_PARTY_WITH_LOGIFIN", 5L));
+            verify(contractRepository, never()).getContractCountByType();
+        }
+
+        @Test
+        @DisplayName("Should cut the snapshot's top managers to the requested limit")
+        void shouldLimitTopContractManagers() {
+            List<Map<String, Object>> managers = Arrays.asList(
+                    Collections.<String, Object>singletonMap("id", 1L),
+                    Collections.<String, Object>singletonMap("id", 2L),
+                    Collections.<String, Object>singletonMap("id", 3L));
+            when(contractStatsService.getStatistics()).thenReturn(ContractStatisticsDTO.builder()
+                    .topContractManagers(managers)
+                    .build());
+
+            assertThat(contractService.getTopContractManagers(2)).extracting(m -> m.get("id")).containsExactly(1L, 2L);
+            assertThat(contractService.getTopContractManagers(10)).hasSize(3);
         }
     }
 
@@ -0,0 +1,180 @@
+package com.logifin.service;
+
+import com.logifin.dto.ContractStatisticsDTO;
+import com.logifin.entity.ContractStatCount;
+import com.logifin.entity.ContractStatsSnapshot;
+import com.logifin.repository.ContractRepository;
+import com.logifin.repository.ContractStatCountRepository;
+import com.logifin.repository.ContractStatsSnapshotRepository;
+import com.logifin.service.impl.ContractStatsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContractStatsService Tests")
+class ContractStatsServiceTest {
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private ContractStatsSnapshotRepository snapshotRepository;
+
+    @Mock
+    private ContractStatCountRepository statCountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    private ContractStatsServiceImpl contractStatsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        contractStatsService = new ContractStatsServiceImpl(contractRepository, snapshotRepository,
+                statCountRepository, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(contractStatsService, "topLimit", 100);
+        ReflectionTestUtils.setField(contractStatsService, "maxAge", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(contractStatsService, "writeThreshold", 3);
+    }
+
+    @Test
+    @DisplayName("Should serve every statistic from the stored snapshot without grouping contracts")
+    void getStatistics_SnapshotExists_ReadsSnapshot() {
+        LocalDateTime refreshedAt = LocalDateTime.now().minusMinutes(5);
+        when(snapshotRepository.findById(ContractStatsSnapshot.SNAPSHOT_ID)).thenReturn(Optional.of(
+                ContractStatsSnapshot.builder()
+                        .id(ContractStatsSnapshot.SNAPSHOT_ID)
+                        .totalContracts(15)
+                        .averageLtv(new BigDecimal("80.0000"))
+                        .refreshedAt(refreshedAt)
+                        .build()));
+        when(statCountRepository.findAllByOrderByDimensionAscSortOrderAsc()).thenReturn(Arrays.asList(
+                count(ContractStatCount.Dimension.TYPE, null, "TWO_PARTY", null, 10, 0),
+                count(ContractStatCount.Dimension.TYPE, null, "SINGLE_PARTY", null, 5, 1),
+                count(ContractStatCount.Dimension.MANAGER, 7L, "John", "Doe", 9, 0)));
+
+        ContractStatisticsDTO statistics = contractStatsService.getStatistics();
+
+        assertThat(statistics.getAsOf()).isEqualTo(refreshedAt);
+        assertThat(statistics.getTotalContracts()).isEqualTo(15);
+        assertThat(statistics.getContractsByType()).containsExactly(entry("TWO_PARTY", 10L), entry("SINGLE_PARTY", 5L));
+        assertThat(statistics.getTopContractManagers()).hasSize(1);
+        assertThat(statistics.getTopContractManagers().get(0))
+                .containsEntry("id", 7L).containsEntry("lastName", "Doe").containsEntry("contractCount", 9L);
+        verifyNoInteractions(contractRepository);
+    }
+
+    @Test
+    @DisplayName("Should replace the stored counts and totals on refresh")
+    @SuppressWarnings("unchecked")
+    void refresh_ReplacesCountsAndSnapshot() {
+        ContractStatsSnapshot snapshot = ContractStatsSnapshot.builder().id(ContractStatsSnapshot.SNAPSHOT_ID).build();
+        when(snapshotRepository.findByIdForUpdate(ContractStatsSnapshot.SNAPSHOT_ID)).thenReturn(Optional.of(snapshot));
+        when(contractRepository.getContractCountByType())
+                .thenReturn(Collections.singletonList(new Object[]{"TWO_PARTY", 2L}));
+        when(contractRepository.getContractCountByStatus())
+                .thenReturn(Arrays.asList(new Object[]{"ACTIVE", 1L}, new Object[]{"EXPIRED", 1L}));
+        when(contractRepository.getContractCountByLoanStage()).thenReturn(Collections.emptyList());
+        when(contractRepository.getTopContractManagers(any(Pageable.class)))
+                .thenReturn(Collections.singletonList(new Object[]{7L, "John", "Doe", 2L}));
+        when(contractRepository.getTopConsignerCompanies(any(Pageable.class)))
+                .thenReturn(Collections.singletonList(new Object[]{3L, "ABC Company", 2L}));
+        when(contractRepository.getContractTotals())
+                .thenReturn(Collections.singletonList(new Object[]{2L, 75.5, 80.0, null}));
+
+        contractStatsService.refresh();
+
+        ArgumentCaptor<List<ContractStatCount>> counts = ArgumentCaptor.forClass(List.class);
+        verify(statCountRepository).deleteAllCounts();
+        verify(statCountRepository).saveAll(counts.capture());
+        assertThat(counts.getValue()).extracting(ContractStatCount::getDimension).containsExactly(
+                ContractStatCount.Dimension.TYPE, ContractStatCount.Dimension.STATUS, ContractStatCount.Dimension.STATUS,
+                ContractStatCount.Dimension.MANAGER, ContractStatCount.Dimension.COMPANY);
+        assertThat(counts.getValue().get(2).getSortOrder()).isEqualTo(1);
+        assertThat(snapshot.getTotalContracts()).isEqualTo(2);
+        assertThat(snapshot.getAverageLoanPercent()).isEqualByComparingTo("75.5");
+        assertThat(snapshot.getAveragePenaltyRatio()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(snapshot.getRefreshedAt()).isNotNull();
+        verify(snapshotRepository).save(snapshot);
+        assertThat(meterRegistry.get("contracts.stats.refresh").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should skip the recompute when another instance refreshed while waiting for the lock")
+    void refresh_RefreshedWhileWaiting_SkipsRecompute() {
+        ContractStatsSnapshot snapshot = ContractStatsSnapshot.builder()
+                .id(ContractStatsSnapshot.SNAPSHOT_ID)
+                .refreshedAt(LocalDateTime.now().plusSeconds(1))
+                .build();
+        when(snapshotRepository.findByIdForUpdate(ContractStatsSnapshot.SNAPSHOT_ID)).thenReturn(Optional.of(snapshot));
+
+        contractStatsService.refresh();
+
+        verifyNoInteractions(contractRepository, statCountRepository);
+        verify(snapshotRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should skip the refresh while the snapshot is fresh and few contracts changed")
+    void refreshIfStale_FreshSnapshot_SkipsRefresh() {
+        when(snapshotRepository.findRefreshedAtById(ContractStatsSnapshot.SNAPSHOT_ID))
+                .thenReturn(Optional.of(LocalDateTime.now().minusMinutes(1)));
+        contractStatsService.recordContractWrites(2);
+
+        contractStatsService.refreshIfStale();
+
+        verify(snapshotRepository, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    @DisplayName("Should refresh once enough contracts changed, however fresh the snapshot")
+    void refreshIfStale_WriteThresholdReached_Refreshes() {
+        when(snapshotRepository.findByIdForUpdate(ContractStatsSnapshot.SNAPSHOT_ID)).thenReturn(Optional.empty());
+        when(contractRepository.getContractTotals())
+                .thenReturn(Collections.singletonList(new Object[]{0L, null, null, null}));
+        contractStatsService.recordContractWrites(3);
+
+        contractStatsService.refreshIfStale();
+
+        verify(snapshotRepository).save(any(ContractStatsSnapshot.class));
+        verify(snapshotRepository, never()).findRefreshedAtById(any());
+    }
+
+    private static ContractStatCount count(ContractStatCount.Dimension dimension, Long refId, String label,
+                                           String secondaryLabel, long contractCount, int sortOrder) {
+        return ContractStatCount.builder()
+                .dimension(dimension)
+                .refId(refId)
+                .label(label)
+                .secondaryLabel(secondaryLabel)
+                .contractCount(contractCount)
+                .sortOrder(sortOrder)
+                .build();
+    }
+}
@@ -33,6 +33,9 @@ class RoleServiceTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private CacheTagService cacheTagService;
+
     @InjectMocks
     private RoleServiceImpl roleService;
 
@@ -188,6 +191,7 @@ class RoleServiceTest {
             roleService.deleteRole(1L);
 
             verify(roleRepository).deleteById(1L);
+            verify(cacheTagService).evictTags("role:1");
         }
 
         @Test
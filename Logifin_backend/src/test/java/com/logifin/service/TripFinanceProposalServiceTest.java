@@ -0,0 +1,261 @@
+package com.logifin.service;
+
+import com.logifin.dto.BatchFinanceInterestResponse;
+import com.logifin.dto.CreateFinanceInterestRequest;
+import com.logifin.dto.InterestCreationResult;
+import com.logifin.entity.Contract;
+import com.logifin.entity.ContractParty;
+import com.logifin.entity.Trip;
+import com.logifin.entity.TripFinanceProposal;
+import com.logifin.entity.User;
+import com.logifin.exception.ConflictException;
+import com.logifin.repository.*;
+import com.logifin.repository.projection.ThreePartyContractRow;
+import com.logifin.service.impl.TripFinanceProposalServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TripFinanceProposalService Tests")
+class TripFinanceProposalServiceTest {
+
+    @Mock
+    private TripFinanceProposalRepository proposalRepository;
+
+    @Mock
+    private TripRepository tripRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private ContractPartyRepository contractPartyRepository;
+
+    @Mock
+    private ContractPartyIndexService contractPartyIndexService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TripFinanceProposalServiceImpl proposalService;
+
+    private User lender;
+    private User transporter;
+    private User sender;
+    private User otherSender;
+    private Contract contract;
+
+    @BeforeEach
+    void setUp() {
+        lender = user(1L, "Lender");
+        transporter = user(2L, "Transporter");
+        sender = user(3L, "Sender");
+        otherSender = user(4L, "Other");
+        contract = Contract.builder().build();
+        contract.setId(50L);
+    }
+
+    @Nested
+    @DisplayName("Mark Interest In Multiple Trips Tests")
+    class MarkInterestTests {
+
+        @Test
+        @DisplayName("Should resolve all trips with set-based lookups and keep per-trip results in request order")
+        void markInterestInMultipleTrips_MixedTrips_ReturnsPerTripResults() {
+            Trip financeable = trip(10L, sender);
+            Trip alreadyInterested = trip(11L, sender);
+            Trip noContract = trip(12L, otherSender);
+            CreateFinanceInterestRequest request = new CreateFinanceInterestRequest();
+            request.setTripIds(Arrays.asList(10L, 11L, 12L, 99L, 10L));
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(lender));
+            when(tripRepository.findAllWithPartiesByIdIn(anyCollection()))
+                    .thenReturn(Arrays.asList(financeable, alreadyInterested, noContract));
+            when(contractPartyRepository.findActiveContractsForLender(eq(1L), anyCollection(), anyCollection()))
+                    .thenReturn(Collections.singletonList(new ThreePartyContractRow(2L, 3L, contract)));
+            when(proposalRepository.findTripAndContractIdsByLenderIdAndTripIdIn(eq(1L), anyCollection()))
+                    .thenReturn(Collections.singletonList(new Object[]{11L, 50L}));
+            when(proposalRepository.saveAll(any())).thenAnswer(invocation -> {
+                List<TripFinanceProposal> proposals = invocation.getArgument(0);
+                proposals.forEach(p -> p.setId(500L));
+                return proposals;
+            });
+
+            BatchFinanceInterestResponse response = proposalService.markInterestInMultipleTrips(1L, request);
+
+            assertThat(response.getTotalRequested()).isEqualTo(5);
+            assertThat(response.getSuccessCount()).isEqualTo(1);
+            assertThat(response.getFailureCount()).isEqualTo(4);
+            assertThat(response.getResults()).extracting(InterestCreationResult::getTripId)
+                    .containsExactly(10L, 11L, 12L, 99L, 10L);
+            assertThat(response.getResults()).extracting(InterestCreationResult::isSuccess)
+                    .containsExactly(true, false, false, false, false);
+            assertThat(response.getResults().get(0).getInterestId()).isEqualTo(500L);
+            assertThat(response.getResults().get(1).getMessage()).isEqualTo("You have already marked interest in this trip");
+            assertThat(response.getResults().get(2).getMessage()).startsWith("No active contract found");
+            assertThat(response.getResults().get(3).getMessage()).isEqualTo("Trip not found");
+            assertThat(response.getResults().get(4).getMessage()).isEqualTo("You have already marked interest in this trip");
+
+            verify(tripRepository, never()).findById(any());
+            verify(proposalRepository, never()).save(any());
+            verify(proposalRepository).saveAll(argThat(proposals -> ((List<?>) proposals).size() == 1));
+        }
+
+        @Test
+        @DisplayName("Should use the contract index and query only for pairs it cannot resolve")
+        void markInterestInMultipleTrips_IndexReady_QueriesOnlyMisses() {
+            CreateFinanceInterestRequest request = new CreateFinanceInterestRequest();
+            request.setTripIds(Arrays.asList(10L, 12L));
+            contract.setStatus("ACTIVE");
+            contract.setExpiryDate(LocalDate.now().plusMonths(6));
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(lender));
+            when(tripRepository.findAllWithPartiesByIdIn(anyCollection()))
+                    .thenReturn(Arrays.asList(trip(10L, sender), trip(12L, otherSender)));
+            when(contractPartyIndexService.isReady()).thenReturn(true);
+            when(contractPartyIndexService.findActiveContractIds(1L, 2L, 3L)).thenReturn(Collections.singletonList(50L));
+            when(contractPartyIndexService.findActiveContractIds(1L, 2L, 4L)).thenReturn(Collections.emptyList());
+            withParties(contract, lender, transporter, sender);
+            when(contractRepository.findAllWithPartiesByIdIn(Collections.singleton(50L)))
+                    .thenReturn(Collections.singletonList(contract));
+            when(contractPartyRepository.findActiveContractsForLender(1L, Collections.singleton(2L), Collections.singleton(4L)))
+                    .thenReturn(Collections.emptyList());
+
+            BatchFinanceInterestResponse response = proposalService.markInterestInMultipleTrips(1L, request);
+
+            assertThat(response.getResults()).extracting(InterestCreationResult::isSuccess).containsExactly(true, false);
+            assertThat(response.getResults().get(1).getMessage()).startsWith("No active contract found");
+            verify(contractPartyIndexService, never()).refreshContract(any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to the query when an indexed contract no longer has all three parties")
+        void markInterestInMultipleTrips_IndexedContractLostParty_QueriesInstead() {
+            CreateFinanceInterestRequest request = new CreateFinanceInterestRequest();
+            request.setTripIds(Collections.singletonList(10L));
+            contract.setStatus("ACTIVE");
+            contract.setExpiryDate(LocalDate.now().plusMonths(6));
+            // The sender was removed on another node; this node's index still has the triple
+            withParties(contract, lender, transporter);
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(lender));
+            when(tripRepository.findAllWithPartiesByIdIn(anyCollection()))
+                    .thenReturn(Collections.singletonList(trip(10L, sender)));
+            when(contractPartyIndexService.isReady()).thenReturn(true);
+            when(contractPartyIndexService.findActiveContractIds(1L, 2L, 3L)).thenReturn(Collections.singletonList(50L));
+            when(contractRepository.findAllWithPartiesByIdIn(Collections.singleton(50L)))
+                    .thenReturn(Collections.singletonList(contract));
+            when(contractPartyRepository.findActiveContractsForLender(1L, Collections.singleton(2L), Collections.singleton(3L)))
+                    .thenReturn(Collections.emptyList());
+
+            BatchFinanceInterestResponse response = proposalService.markInterestInMultipleTrips(1L, request);
+
+            assertThat(response.getResults()).extracting(InterestCreationResult::isSuccess).containsExactly(false);
+            assertThat(response.getResults().get(0).getMessage()).startsWith("No active contract found");
+            verify(contractPartyIndexService).refreshContract(50L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Accept Lender Tests")
+    class AcceptLenderTests {
+
+        @Test
+        @DisplayName("Should report a conflict when the trip already has an accepted proposal")
+        void acceptLender_TripAlreadyAccepted_ThrowsConflict() {
+            TripFinanceProposal proposal = TripFinanceProposal.builder()
+                    .trip(trip(10L, sender))
+                    .status(TripFinanceProposal.ProposalStatus.PENDING)
+                    .build();
+            when(userRepository.getReferenceById(2L)).thenReturn(transporter);
+            when(proposalRepository.acceptIfPending(eq(7L), eq(transporter), any(), any())).thenReturn(0);
+            when(proposalRepository.findByIdAndTransporterId(7L, 2L)).thenReturn(Optional.of(proposal));
+
+            assertThatThrownBy(() -> proposalService.acceptLender(2L, 7L))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessage("This trip already has an accepted financing proposal");
+            verify(tripRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should report a conflict when a concurrent acceptance wins the unique index")
+        void acceptLender_ConcurrentAcceptance_ThrowsConflict() {
+            when(userRepository.getReferenceById(2L)).thenReturn(transporter);
+            when(proposalRepository.acceptIfPending(eq(7L), eq(transporter), any(), any()))
+                    .thenThrow(new DataIntegrityViolationException("uq_tfp_trip_accepted"));
+
+            assertThatThrownBy(() -> proposalService.acceptLender(2L, 7L))
+                    .isInstanceOf(ConflictException.class);
+            verify(proposalRepository, never()).rejectOtherPendingProposals(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should link the trip and reject the other proposals once accepted")
+        void acceptLender_Accepted_LinksTripAndRejectsOthers() {
+            contract.setInterestRate(new BigDecimal("11.0"));
+            contract.setMaturityDays(45);
+            Trip trip = trip(10L, sender);
+            TripFinanceProposal proposal = TripFinanceProposal.builder()
+                    .trip(trip)
+                    .contract(contract)
+                    .status(TripFinanceProposal.ProposalStatus.ACCEPTED)
+                    .build();
+            when(userRepository.getReferenceById(2L)).thenReturn(transporter);
+            when(proposalRepository.acceptIfPending(eq(7L), eq(transporter), any(), any())).thenReturn(1);
+            when(proposalRepository.findByIdAndTransporterId(7L, 2L)).thenReturn(Optional.of(proposal));
+
+            proposalService.acceptLender(2L, 7L);
+
+            assertThat(trip.getContract()).isSameAs(contract);
+            assertThat(trip.getMaturityDays()).isEqualTo(45);
+            verify(tripRepository).save(trip);
+            verify(proposalRepository).rejectOtherPendingProposals(10L, 7L);
+        }
+    }
+
+    private Trip trip(Long id, User tripSender) {
+        return Trip.builder()
+                .id(id)
+                .createdByUser(transporter)
+                .sender(tripSender)
+                .build();
+    }
+
+    private static void withParties(Contract contract, User... users) {
+        for (User user : users) {
+            contract.addContractParty(ContractParty.builder().contract(contract).user(user).build());
+        }
+    }
+
+    private static User user(Long id, String firstName) {
+        User user = User.builder().firstName(firstName).lastName("User").build();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,179 @@
+package com.logifin.service;
+
+import com.logifin.dto.TripIndexSearchResult;
+import com.logifin.dto.TripSearchCriteria;
+import com.logifin.entity.Trip;
+import com.logifin.exception.BadRequestException;
+import com.logifin.repository.TripRepository;
+import com.logifin.repository.projection.TripExportRow;
+import com.logifin.service.impl.TripSearchIndexServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TripSearchIndexService Tests")
+class TripSearchIndexServiceTest {
+
+    @Mock
+    private TripRepository tripRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path indexDir;
+
+    private TripSearchIndexServiceImpl tripSearchIndexService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tripSearchIndexService = new TripSearchIndexServiceImpl(tripRepository, transactionManager);
+        ReflectionTestUtils.setField(tripSearchIndexService, "indexDir", indexDir.toString());
+        ReflectionTestUtils.setField(tripSearchIndexService, "commitInterval", Duration.ofSeconds(30));
+        tripSearchIndexService.init();
+
+        tripSearchIndexService.upsert(Arrays.asList(
+                row(1L, "Mumbai", "Delhi", "Electronics", "50000", Trip.TripStatus.ACTIVE, "2024-01-10T10:00"),
+                row(2L, "Mumbai", "Delhi", "Textiles", "150000", Trip.TripStatus.ACTIVE, "2024-02-10T10:00"),
+                row(3L, "Pune", "Delhi", "Electronics", "250000", Trip.TripStatus.COMPLETED, "2024-03-10T10:00"),
+                row(4L, "Mumbai", "Chennai", "Electronics", "80000", Trip.TripStatus.CANCELLED, "2024-04-10T10:00")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripSearchIndexService.close();
+    }
+
+    @Nested
+    @DisplayName("Search Tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should return newest matches first with facet counts over all matches")
+        void search_KeywordPrefix_ReturnsIdsAndFacets() {
+            TripSearchCriteria criteria = TripSearchCriteria.builder().keyword("mum").build();
+
+            TripIndexSearchResult result = tripSearchIndexService.search(criteria, 0, 2, 10);
+
+            assertThat(result.getTripIds()).containsExactly(4L, 2L);
+            assertThat(result.getTotalHits()).isEqualTo(3);
+            assertThat(result.getStatusCounts()).containsOnly(entry("ACTIVE", 2L), entry("CANCELLED", 1L));
+            assertThat(result.getLoadTypeCounts()).containsOnly(entry("Electronics", 2L), entry("Textiles", 1L));
+            assertThat(result.getTopLanes()).containsOnly(entry("Mumbai -> Delhi", 2L), entry("Mumbai -> Chennai", 1L));
+        }
+
+        @Test
+        @DisplayName("Should combine status, loan amount and created date filters")
+        void search_Filters_ReturnsMatchingIds() {
+            TripSearchCriteria criteria = TripSearchCriteria.builder()
+                    .destination("delhi")
+                    .status(Trip.TripStatus.ACTIVE)
+                    .minLoanAmount(new BigDecimal("100000"))
+                    .createdFrom(LocalDate.of(2024, 2, 10))
+                    .createdTo(LocalDate.of(2024, 2, 10))
+                    .build();
+
+            TripIndexSearchResult result = tripSearchIndexService.search(criteria, 0, 10, 10);
+
+            assertThat(result.getTripIds()).containsExactly(2L);
+            assertThat(result.getTotalHits()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject pages beyond the result window")
+        void search_BeyondResultWindow_ThrowsBadRequest() {
+            assertThatThrownBy(() -> tripSearchIndexService.search(new TripSearchCriteria(), 1000, 10, 10))
+                    .isInstanceOf(BadRequestException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject a negative page, a non-positive size or an out of range facet limit")
+        void search_InvalidPaging_ThrowsBadRequest() {
+            assertThatThrownBy(() -> tripSearchIndexService.search(new TripSearchCriteria(), -1, 10, 10))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> tripSearchIndexService.search(new TripSearchCriteria(), 0, 0, 10))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> tripSearchIndexService.search(new TripSearchCriteria(), Integer.MAX_VALUE, 10, 10))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> tripSearchIndexService.search(new TripSearchCriteria(), 0, 10, 0))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> tripSearchIndexService.search(new TripSearchCriteria(), 0, 10, 2_000_000_000))
+                    .isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Index Maintenance Tests")
+    class MaintenanceTests {
+
+        @Test
+        @DisplayName("Should replace an updated trip and drop a deleted one")
+        void upsertAndDelete_UpdatesSearchResults() {
+            tripSearchIndexService.upsert(Collections.singletonList(
+                    row(1L, "Nagpur", "Delhi", "Electronics", "50000", Trip.TripStatus.ACTIVE, "2024-01-10T10:00")));
+            tripSearchIndexService.delete(Collections.singletonList(4L));
+
+            TripIndexSearchResult result = tripSearchIndexService.search(new TripSearchCriteria(), 0, 10, 10);
+
+            assertThat(result.getTripIds()).containsExactly(3L, 2L, 1L);
+            assertThat(result.getTopLanes()).containsEntry("Nagpur -> Delhi", 1L);
+        }
+
+        @Test
+        @DisplayName("Should re-read changed trips, indexing those found and dropping the rest")
+        void reindex_ChangedElsewhere_MatchesDatabase() {
+            when(tripRepository.streamForExport(any())).thenReturn(Stream.of(
+                    row(1L, "Nagpur", "Delhi", "Electronics", "50000", Trip.TripStatus.ACTIVE, "2024-01-10T10:00")));
+
+            tripSearchIndexService.reindex(Arrays.asList(1L, 4L));
+
+            TripIndexSearchResult result = tripSearchIndexService.search(new TripSearchCriteria(), 0, 10, 10);
+            assertThat(result.getTripIds()).containsExactly(3L, 2L, 1L);
+            assertThat(result.getTopLanes()).containsEntry("Nagpur -> Delhi", 1L);
+        }
+
+        @Test
+        @DisplayName("Should rebuild the index from the database")
+        void rebuild_ReplacesIndexContents() {
+            when(tripRepository.streamForExport(null)).thenReturn(Stream.of(
+                    row(5L, "Jaipur", "Delhi", "Steel", "90000", Trip.TripStatus.ACTIVE, "2024-05-10T10:00")));
+
+            tripSearchIndexService.rebuild();
+
+            TripIndexSearchResult result = tripSearchIndexService.search(new TripSearchCriteria(), 0, 10, 10);
+            assertThat(result.getTripIds()).containsExactly(5L);
+            assertThat(result.getLoadTypeCounts()).containsOnly(entry("Steel", 1L));
+        }
+    }
+
+    private static TripExportRow row(Long id, String pickup, String destination, String loadType, String loanAmount,
+                                     Trip.TripStatus status, String createdAt) {
+        return new TripExportRow(id, pickup, destination, 2L, "Receiver " + id, 3L, new BigDecimal(loanAmount),
+                new BigDecimal("12.5"), 30, null, loadType, null, null, status, LocalDateTime.parse(createdAt));
+    }
+}
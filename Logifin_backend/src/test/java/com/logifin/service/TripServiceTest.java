@@ -2,13 +2,21 @@ package com.logifin.service;
 
 import com.logifin.dto.*;
 import com.logifin.entity.*;
+import com.logifin.event.TripsChangedEvent;
+import com.logifin.exception.BadRequestException;
 import com.logifin.exception.ResourceNotFoundException;
 import com.logifin.repository.DocumentTypeRepository;
+import com.logifin.repository.LenderTripFeedRepository;
 import com.logifin.repository.TripDocumentRepository;
 import com.logifin.repository.TripRepository;
 import com.logifin.repository.UserRepository;
+import com.logifin.repository.projection.TripExportRow;
 import com.logifin.service.impl.TripServiceImpl;
+import com.logifin.util.TripCursor;
 import com.logifin.util.TripExcelParser;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,15 +25,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -51,6 +69,21 @@ class TripServiceTest {
     @Mock
     private TripExcelParser tripExcelParser;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TripSearchIndexService tripSearchIndexService;
+
+    @Mock
+    private TripCountService tripCountService;
+
+    @Mock
+    private LenderTripFeedRepository lenderTripFeedRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TripServiceImpl tripService;
 
@@ -284,6 +317,7 @@ class TripServiceTest {
             tripService.deleteTrip(1L);
 
             verify(tripRepository).deleteById(1L);
+            verify(eventPublisher).publishEvent(any(TripsChangedEvent.class));
         }
 
         @Test
@@ -336,6 +370,256 @@ class TripServiceTest {
             assertThat(result).isNotNull();
             assertThat(result.getContent()).hasSize(1);
         }
+
+        @Test
+        @DisplayName("Should return a keyset page with the next cursor and the requested total")
+        @SuppressWarnings("unchecked")
+        void searchTrips_Keyset_ReturnsNextCursorAndTotal() {
+            Trip olderTrip = Trip.builder()
+                    .pickup("Pune")
+                    .destination("Delhi")
+                    .sender(senderUser)
+                    .transporter(transporterUser)
+                    .loanAmount(new BigDecimal("50000"))
+                    .interestRate(new BigDecimal("12.5"))
+                    .maturityDays(30)
+                    .status(Trip.TripStatus.ACTIVE)
+                    .createdByUser(testUser)
+                    .build();
+            olderTrip.setId(2L);
+            olderTrip.setCreatedAt(testTrip.getCreatedAt().minusDays(1));
+            TripSearchCriteria criteria = TripSearchCriteria.builder().build();
+
+            when(tripCountService.countTrips(criteria)).thenReturn(CompletableFuture.completedFuture(5L));
+            when(tripRepository.findNewestFirst(any(Specification.class), eq(2)))
+                    .thenReturn(new ArrayList<>(Arrays.asList(testTrip, olderTrip)));
+            when(tripDocumentRepository.findByTripId(anyLong())).thenReturn(Collections.emptyList());
+
+            CursorPagedResponse<TripResponseDTO> result = tripService.searchTrips(criteria, null, 1, true);
+
+            assertThat(result.getContent()).extracting(TripResponseDTO::getId).containsExactly(1L);
+            assertThat(result.isHasNext()).isTrue();
+            assertThat(result.getTotalElements()).isEqualTo(5L);
+            TripCursor next = TripCursor.decode(result.getNextCursor());
+            assertThat(next.getId()).isEqualTo(1L);
+            assertThat(next.getCreatedAt()).isEqualTo(testTrip.getCreatedAt());
+        }
+
+        @Test
+        @DisplayName("Should page a lender's financeable trips from the feed after the cursor")
+        void getFinanceableTrips_WithCursor_ReadsFeedAfterCursor() {
+            Trip newer = Trip.builder().build();
+            newer.setId(5L);
+            newer.setCreatedAt(testTrip.getCreatedAt().plusDays(1));
+            String cursor = TripCursor.encode(newer);
+
+            when(lenderTripFeedRepository.findFinanceableTripsAfter(eq(7L), eq(newer.getCreatedAt()), eq(5L),
+                    eq(PageRequest.of(0, 2)))).thenReturn(Collections.singletonList(testTrip));
+            when(tripDocumentRepository.findByTripId(anyLong())).thenReturn(Collections.emptyList());
+
+            CursorPagedResponse<TripResponseDTO> result = tripService.getFinanceableTrips(7L, cursor, 1);
+
+            assertThat(result.getContent()).extracting(TripResponseDTO::getId).containsExactly(1L);
+            assertThat(result.isHasNext()).isFalse();
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor page size outside 1..100")
+        void searchTrips_InvalidSize_ThrowsBadRequest() {
+            assertThatThrownBy(() -> tripService.searchTrips(new TripSearchCriteria(), null, 0, false))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> tripService.searchTrips(new TripSearchCriteria(), null, -1, false))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> tripService.searchTrips(new TripSearchCriteria(), null, 101, false))
+                    .isInstanceOf(BadRequestException.class);
+            verifyNoInteractions(tripRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a financeable trips page size outside 1..100")
+        void getFinanceableTrips_InvalidSize_ThrowsBadRequest() {
+            assertThatThrownBy(() -> tripService.getFinanceableTrips(7L, null, 0))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> tripService.getFinanceableTrips(7L, null, -1))
+                    .isInstanceOf(BadRequestException.class);
+            verifyNoInteractions(lenderTripFeedRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor")
+        void searchTrips_InvalidCursor_ThrowsBadRequest() {
+            assertThatThrownBy(() -> tripService.searchTrips(new TripSearchCriteria(), "not-a-cursor", 10, false))
+                    .isInstanceOf(BadRequestException.class);
+            verifyNoInteractions(tripCountService);
+        }
+
+        @Test
+        @DisplayName("Should hydrate faceted search hits in index order and skip deleted trips")
+        void facetedSearch_HydratesPageInIndexOrder() {
+            Trip otherTrip = Trip.builder()
+                    .pickup("Pune")
+                    .destination("Delhi")
+                    .sender(senderUser)
+                    .transporter(transporterUser)
+                    .loanAmount(new BigDecimal("50000"))
+                    .interestRate(new BigDecimal("12.5"))
+                    .maturityDays(30)
+                    .status(Trip.TripStatus.ACTIVE)
+                    .createdByUser(testUser)
+                    .build();
+            otherTrip.setId(2L);
+            TripSearchCriteria criteria = TripSearchCriteria.builder().destination("Delhi").build();
+            Map<String, Long> statusCounts = Collections.singletonMap("ACTIVE", 3L);
+
+            when(tripSearchIndexService.search(criteria, 0, 3, 5)).thenReturn(TripIndexSearchResult.builder()
+                    .tripIds(Arrays.asList(2L, 99L, 1L))
+                    .totalHits(3)
+                    .statusCounts(statusCounts)
+                    .loadTypeCounts(Collections.emptyMap())
+                    .topLanes(Collections.emptyMap())
+                    .build());
+            when(tripRepository.findAllById(Arrays.asList(2L, 99L, 1L))).thenReturn(Arrays.asList(testTrip, otherTrip));
+            when(tripDocumentRepository.findByTripId(anyLong())).thenReturn(Collections.emptyList());
+
+            TripFacetedSearchResultDTO result = tripService.facetedSearch(criteria, 0, 3, 5);
+
+            assertThat(result.getTrips().getContent()).extracting(TripResponseDTO::getId).containsExactly(2L, 1L);
+            assertThat(result.getTrips().getTotalElements()).isEqualTo(3);
+            assertThat(result.getStatusCounts()).isEqualTo(statusCounts);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Upload Tests")
+    class BulkUploadTests {
+
+        @Test
+        @DisplayName("Should persist valid rows in one batch and report unknown users per row")
+        @SuppressWarnings("unchecked")
+        void bulkUploadTrips_MixedRows_BatchesValidRows() {
+            TripRequestDTO unknownSender = TripRequestDTO.builder()
+                    .pickup("Pune")
+                    .destination("Goa")
+                    .senderId(99L)
+                    .transporterId(3L)
+                    .build();
+            MockMultipartFile file = new MockMultipartFile("file", "trips.csv", "text/csv", new byte[1]);
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(userRepository.findAllById(argThat(ids -> ids != null
+                    && new HashSet<>((Collection<Long>) ids).equals(new HashSet<>(Arrays.asList(2L, 3L, 99L))))))
+                    .thenReturn(Arrays.asList(senderUser, transporterUser));
+            doAnswer(invocation -> {
+                TripExcelParser.TripRowHandler handler = invocation.getArgument(2);
+                handler.handle(2, testTripRequestDTO);
+                handler.handle(4, unknownSender);
+                return null;
+            }).when(tripExcelParser).parseCsvParallel(eq(file), any(BulkUploadResponseDTO.class), any());
+            doAnswer(invocation -> {
+                List<Trip> trips = invocation.getArgument(0);
+                assertThat(trips).hasSize(1);
+                trips.get(0).setId(50L);
+                return null;
+            }).when(tripRepository).persistInBatches(anyList());
+
+            BulkUploadResponseDTO result = tripService.bulkUploadTrips(file, 1L);
+
+            assertThat(result.getSuccessfulTripIds()).containsExactly(50L);
+            assertThat(result.getErrors()).hasSize(1);
+            assertThat(result.getErrors().get(0).getRowNumber()).isEqualTo(4);
+            assertThat(result.getErrors().get(0).getErrors()).containsExactly("Sender not found with id: '99'");
+            verify(userRepository, never()).findById(2L);
+            verify(tripRepository).persistInBatches(anyList());
+            verify(tripRepository, never()).save(any(Trip.class));
+        }
+
+        @Test
+        @DisplayName("Should commit each chunk separately and report only the failed chunk's rows")
+        void bulkUploadTrips_ChunkFails_OtherChunksStillCommitted() {
+            MockMultipartFile file = new MockMultipartFile("file", "trips.csv", "text/csv", new byte[1]);
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(userRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(senderUser, transporterUser));
+            doAnswer(invocation -> {
+                TripExcelParser.TripRowHandler handler = invocation.getArgument(2);
+                // One full chunk of 500 rows followed by a second chunk of one row
+                for (int row = 2; row <= 502; row++) {
+                    handler.handle(row, testTripRequestDTO);
+                }
+                return null;
+            }).when(tripExcelParser).parseCsvParallel(eq(file), any(BulkUploadResponseDTO.class), any());
+            doThrow(new RuntimeException("duplicate key"))
+                    .doAnswer(invocation -> {
+                        List<Trip> trips = invocation.getArgument(0);
+                        trips.get(0).setId(77L);
+                        return null;
+                    })
+                    .when(tripRepository).persistInBatches(anyList());
+
+            BulkUploadResponseDTO result = tripService.bulkUploadTrips(file, 1L);
+
+            assertThat(result.getSuccessfulTripIds()).containsExactly(77L);
+            assertThat(result.getErrors()).hasSize(500);
+            assertThat(result.getErrors()).allSatisfy(error -> {
+                assertThat(error.getErrorType()).isEqualTo(ErrorRowDTO.ErrorType.DATABASE_ERROR);
+                assertThat(error.getRowNumber()).isLessThanOrEqualTo(501);
+            });
+            verify(transactionManager, times(1)).rollback(any());
+            verify(transactionManager, times(1)).commit(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Tests")
+    class ExportTests {
+
+        @Test
+        @DisplayName("Should write streamed rows as CSV and close the cursor")
+        void writeTripsCsv_Success() throws IOException {
+            AtomicBoolean closed = new AtomicBoolean();
+            TripExportRow row = new TripExportRow(1L, "Mumbai", "Delhi", 2L, "Receiver, Unit 4", 3L,
+                    new BigDecimal("100000"), new BigDecimal("12.5"), 30, null, "Electronics", null,
+                    "Handle \"with\" care", Trip.TripStatus.ACTIVE, LocalDateTime.of(2024, 1, 15, 10, 30));
+            when(tripRepository.streamForExport(any())).thenReturn(Stream.of(row).onClose(() -> closed.set(true)));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            tripService.writeTripsCsv(TripSearchCriteria.builder().build(), out);
+
+            String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).endsWith(",notes,status,createdAt");
+            assertThat(lines[1]).isEqualTo("Mumbai,Delhi,2,\"Receiver, Unit 4\",3,100000,12.5,30,,Electronics,,"
+                    + "\"Handle \"\"with\"\" care\",ACTIVE,2024-01-15T10:30:00");
+            assertThat(closed).isTrue();
+            verify(tripRepository, never()).findAll(any(Specification.class));
+        }
+
+        @Test
+        @DisplayName("Should write streamed rows as an Excel workbook")
+        void writeTripsExcel_Success() throws IOException {
+            List<TripExportRow> rows = new ArrayList<>();
+            for (int i = 0; i < 250; i++) {
+                rows.add(new TripExportRow((long) i, "Pickup " + i, "Delhi", 2L, "Receiver", 3L,
+                        new BigDecimal("100000"), new BigDecimal("12.5"), 30, null, null, null,
+                        null, Trip.TripStatus.ACTIVE, null));
+            }
+            when(tripRepository.streamForExport(any())).thenReturn(rows.stream());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            tripService.writeTripsExcel(null, out);
+
+            // More rows than the in-memory window, so earlier rows were flushed to the temp file
+            try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+                Sheet sheet = workbook.getSheet("Trips");
+                assertThat(sheet.getLastRowNum()).isEqualTo(250);
+                assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("Pickup");
+                assertThat(sheet.getRow(1).getCell(0).getStringCellValue()).isEqualTo("Pickup 0");
+                assertThat(sheet.getRow(250).getCell(0).getStringCellValue()).isEqualTo("Pickup 249");
+                assertThat(sheet.getRow(250).getCell(4).getNumericCellValue()).isEqualTo(3.0);
+            }
+            verify(tripRepository, never()).findAll(any(Specification.class));
+        }
     }
 
     @Nested
@@ -1,5 +1,6 @@
 package com.logifin.service;
 
+import com.logifin.dto.PagedResponse;
 import com.logifin.dto.UserDTO;
 import com.logifin.entity.Role;
 import com.logifin.entity.User;
@@ -16,9 +17,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -31,6 +37,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,6 +59,9 @@ class UserServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private CacheTagService cacheTagService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -225,6 +235,23 @@ class UserServiceTest {
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getFirstName()).isEqualTo("John");
         }
+
+        @Test
+        @DisplayName("Should search users ranked by relevance without the requested sort")
+        void shouldSearchUsersRanked() {
+            when(userRepository.searchByKeywordRanked(eq("jon"), any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(Arrays.asList(testUser)));
+
+            PagedResponse<UserDTO> result = userService.searchUsersRanked(" jon ",
+                    PageRequest.of(1, 20, Sort.by("createdAt").descending()));
+
+            assertThat(result.getContent()).hasSize(1);
+            ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+            verify(userRepository).searchByKeywordRanked(eq("jon"), pageable.capture());
+            assertThat(pageable.getValue().getPageNumber()).isEqualTo(1);
+            assertThat(pageable.getValue().getPageSize()).isEqualTo(20);
+            assertThat(pageable.getValue().getSort().isUnsorted()).isTrue();
+        }
     }
 
     @Nested
@@ -249,6 +276,7 @@ class UserServiceTest {
 
             assertThat(result).isNotNull();
             verify(userRepository).save(any(User.class));
+            verify(cacheTagService).evictTags("user:1", "user:lists");
         }
 
         @Test
@@ -306,6 +334,7 @@ class UserServiceTest {
             userService.deactivateUser(1L);
 
             verify(userRepository).save(any(User.class));
+            verify(cacheTagService).evictTags("user:1");
         }
 
         @Test
@@ -0,0 +1,81 @@
+package com.logifin.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CompanyLogoUtil Tests")
+class CompanyLogoUtilTest {
+
+    @Test
+    @DisplayName("Should downscale a large JPEG to a PNG within the bounding box")
+    void normalize_LargeJpeg_ReturnsScaledPng() throws IOException {
+        BufferedImage image = new BufferedImage(400, 1600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+
+        byte[] logo = CompanyLogoUtil.normalize(out.toByteArray(), 256);
+
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(logo));
+        assertThat(logo).startsWith(0x89, 'P', 'N', 'G');
+        assertThat(result.getWidth()).isEqualTo(64);
+        assertThat(result.getHeight()).isEqualTo(256);
+    }
+
+    @Test
+    @DisplayName("Should keep the size of small logos and their transparency")
+    void normalize_SmallPng_KeepsSizeAndAlpha() throws IOException {
+        BufferedImage image = new BufferedImage(100, 50, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(CompanyLogoUtil.normalize(out.toByteArray(), 256)));
+
+        assertThat(result.getWidth()).isEqualTo(100);
+        assertThat(result.getHeight()).isEqualTo(50);
+        assertThat(result.getColorModel().hasAlpha()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject an image whose header declares too many pixels without decoding it")
+    void normalize_HugeDeclaredSize_ThrowsBeforeDecoding() throws IOException {
+        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        byte[] png = out.toByteArray();
+        // Patch the IHDR chunk to declare 100000 x 100000 pixels and fix its CRC
+        ByteBuffer header = ByteBuffer.wrap(png);
+        header.putInt(16, 100_000).putInt(20, 100_000);
+        CRC32 crc = new CRC32();
+        crc.update(png, 12, 17);
+        header.putInt(29, (int) crc.getValue());
+
+        assertThatThrownBy(() -> CompanyLogoUtil.normalize(png, 256))
+                .isInstanceOf(CompanyLogoUtil.ImageTooLargeException.class)
+                .hasMessageContaining("100000x100000");
+    }
+
+    @Test
+    @DisplayName("Should decode data URLs and reject content that is not an image")
+    void decodeBase64_AndNormalize_InvalidContent() throws IOException {
+        byte[] text = "hello".getBytes();
+        String encoded = Base64.getEncoder().encodeToString(text);
+
+        assertThat(CompanyLogoUtil.decodeBase64("data:text/plain;base64," + encoded)).isEqualTo(text);
+        assertThat(CompanyLogoUtil.decodeBase64(encoded)).isEqualTo(text);
+        assertThat(CompanyLogoUtil.normalize(text, 256)).isNull();
+        assertThatThrownBy(() -> CompanyLogoUtil.decodeBase64("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
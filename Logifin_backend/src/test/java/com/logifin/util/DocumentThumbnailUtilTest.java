@@ -0,0 +1,97 @@
+package com.logifin.util;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DocumentThumbnailUtil Tests")
+class DocumentThumbnailUtilTest {
+
+    @Test
+    @DisplayName("Should downscale PNG image to JPEG thumbnail")
+    void createThumbnail_Png_ReturnsScaledJpeg() throws IOException {
+        BufferedImage image = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+
+        byte[] thumbnail = DocumentThumbnailUtil.createThumbnail(out.toByteArray(), "image/png", 240);
+
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(thumbnail));
+        assertThat(result.getWidth()).isEqualTo(240);
+        assertThat(result.getHeight()).isEqualTo(160);
+    }
+
+    @Test
+    @DisplayName("Should render first page of PDF")
+    void createThumbnail_Pdf_ReturnsFirstPageRaster() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(out);
+        }
+
+        byte[] thumbnail = DocumentThumbnailUtil.createThumbnail(out.toByteArray(), "application/pdf", 240);
+
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(thumbnail));
+        assertThat(result.getHeight()).isEqualTo(240);
+        assertThat(result.getWidth()).isLessThan(240);
+    }
+
+    @Test
+    @DisplayName("Should reject an image declaring a huge size before decoding it")
+    void createThumbnail_HugeDeclaredSize_ThrowsBeforeDecoding() throws IOException {
+        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        byte[] png = out.toByteArray();
+        // Patch the IHDR chunk to declare 100000 x 100000 pixels and fix its CRC
+        ByteBuffer header = ByteBuffer.wrap(png);
+        header.putInt(16, 100_000).putInt(20, 100_000);
+        CRC32 crc = new CRC32();
+        crc.update(png, 12, 17);
+        header.putInt(29, (int) crc.getValue());
+
+        assertThatThrownBy(() -> DocumentThumbnailUtil.createThumbnail(png, "image/png", 240))
+                .isInstanceOf(CompanyLogoUtil.ImageTooLargeException.class)
+                .hasMessageContaining("100000x100000");
+    }
+
+    @Test
+    @DisplayName("Should render an oversized PDF page at a bounded scale")
+    void createThumbnail_HugePdfPage_RendersBounded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            // 14400pt square: 200 inches, 14400 x 14400 pixels at 72 DPI
+            document.addPage(new PDPage(new PDRectangle(14_400, 14_400)));
+            document.save(out);
+        }
+
+        byte[] thumbnail = DocumentThumbnailUtil.createThumbnail(out.toByteArray(), "application/pdf", 240);
+
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(thumbnail));
+        assertThat(result.getWidth()).isEqualTo(240);
+        assertThat(result.getHeight()).isEqualTo(240);
+    }
+
+    @Test
+    @DisplayName("Should skip unsupported content types")
+    void createThumbnail_UnsupportedType_ReturnsNull() throws IOException {
+        assertThat(DocumentThumbnailUtil.createThumbnail(new byte[]{1, 2, 3}, "text/plain", 240)).isNull();
+        assertThat(DocumentThumbnailUtil.isSupported("image/jpeg")).isTrue();
+        assertThat(DocumentThumbnailUtil.isSupported(null)).isFalse();
+    }
+}
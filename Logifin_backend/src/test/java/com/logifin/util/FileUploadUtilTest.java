@@ -0,0 +1,56 @@
+package com.logifin.util;
+
+import com.logifin.exception.BadRequestException;
+import com.logifin.exception.PayloadTooLargeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FileUploadUtil Tests")
+class FileUploadUtilTest {
+
+    @Test
+    @DisplayName("Should read file content within the size limit")
+    void readBounded_WithinLimit_ReturnsContent() {
+        byte[] content = new byte[20000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "pod.pdf", "application/pdf", content);
+
+        byte[] result = FileUploadUtil.readBounded(file, 1024 * 1024);
+
+        assertThat(result).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("Should reject file larger than the size limit")
+    void readBounded_OverLimit_ThrowsPayloadTooLarge() {
+        MockMultipartFile file = new MockMultipartFile("file", "pod.pdf", "application/pdf", new byte[2048]);
+
+        assertThatThrownBy(() -> FileUploadUtil.readBounded(file, 1024))
+                .isInstanceOf(PayloadTooLargeException.class)
+                .hasMessageContaining("exceeds the maximum allowed size");
+    }
+
+    @Test
+    @DisplayName("Should reject empty file")
+    void readBounded_EmptyFile_ThrowsBadRequest() {
+        MockMultipartFile file = new MockMultipartFile("file", "pod.pdf", "application/pdf", new byte[0]);
+
+        assertThatThrownBy(() -> FileUploadUtil.readBounded(file, 1024))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should fall back to default content type")
+    void resolveContentType_Missing_ReturnsDefault() {
+        MockMultipartFile file = new MockMultipartFile("file", "pod.bin", null, new byte[1]);
+
+        assertThat(FileUploadUtil.resolveContentType(file, "application/octet-stream"))
+                .isEqualTo("application/octet-stream");
+    }
+}
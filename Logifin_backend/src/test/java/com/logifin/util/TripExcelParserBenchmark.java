@@ -0,0 +1,119 @@
+package com.logifin.util;
+
+import com.logifin.dto.BulkUploadResponseDTO;
+import com.logifin.dto.ErrorRowDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares sequential and parallel CSV parsing on a generated 100k row upload.
+ * Not matched by the default surefire includes; run explicitly with
+ * {@code mvn test -Dtest=TripExcelParserBenchmark}.
+ */
+@DisplayName("TripExcelParser Benchmark")
+class TripExcelParserBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    private TripExcelParser tripExcelParser;
+    private TripExcelParser parallelParser;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() {
+        tripExcelParser = new TripExcelParser();
+        // At least two workers so the parallel path is measured even on a single-core host
+        parallelParser = new TripExcelParser(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        StringBuilder csv = new StringBuilder("pickup,destination,senderId,receiver,transporterId,loanAmount,"
+                + "interestRate,maturityDays,distanceKm,loadType,weightKg,notes\n");
+        for (int i = 0; i < ROWS; i++) {
+            if (i % 50 == 0) {
+                // Roughly 2% invalid rows so error collection is part of the measurement
+                csv.append("Mumbai,Delhi,2,Receiver,3,-1,12.5,30,1400,Electronics,5000,\n");
+            } else {
+                csv.append("City").append(i).append(",Delhi,2,\"Receiver, Unit ").append(i)
+                        .append("\",3,\"1,00,000\",12.5,").append(1 + i % 365)
+                        .append(",1400,Electronics,5000,\"Handle with care\"\n");
+            }
+        }
+        content = csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripExcelParser.shutdown();
+        parallelParser.shutdown();
+    }
+
+    @Test
+    @DisplayName("Parallel parsing of 100k rows should match sequential results")
+    void parse100kRows_SequentialVsParallel() {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runSequential();
+            runParallel();
+        }
+
+        long sequentialNanos = 0;
+        long parallelNanos = 0;
+        Result sequential = null;
+        Result parallel = null;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            sequential = runSequential();
+            sequentialNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            parallel = runParallel();
+            parallelNanos += System.nanoTime() - start;
+        }
+
+        double sequentialMs = sequentialNanos / 1_000_000.0 / MEASURED_ITERATIONS;
+        double parallelMs = parallelNanos / 1_000_000.0 / MEASURED_ITERATIONS;
+        System.out.printf("CSV parse of %d rows on %d cores: sequential %.1f ms, parallel %.1f ms, speedup %.2fx%n",
+                ROWS, Runtime.getRuntime().availableProcessors(), sequentialMs, parallelMs,
+                sequentialMs / parallelMs);
+
+        assertThat(parallel.rowNumbers).isEqualTo(sequential.rowNumbers);
+        assertThat(parallel.errorRowNumbers).isEqualTo(sequential.errorRowNumbers);
+        assertThat(sequential.rowNumbers.size() + sequential.errorRowNumbers.size()).isEqualTo(ROWS);
+    }
+
+    private Result runSequential() {
+        Result result = new Result();
+        tripExcelParser.parseCsv(new ByteArrayInputStream(content), result.response,
+                (row, trip) -> result.rowNumbers.add(row));
+        return result.complete();
+    }
+
+    private Result runParallel() {
+        Result result = new Result();
+        parallelParser.parseCsvParallel(new ByteArrayInputStream(content), result.response,
+                (row, trip) -> result.rowNumbers.add(row));
+        return result.complete();
+    }
+
+    private static class Result {
+        private final BulkUploadResponseDTO response = BulkUploadResponseDTO.builder().build();
+        private final List<Integer> rowNumbers = new ArrayList<>(ROWS);
+        private List<Integer> errorRowNumbers;
+
+        private Result complete() {
+            errorRowNumbers = response.getErrors().stream()
+                    .map(ErrorRowDTO::getRowNumber)
+                    .collect(Collectors.toList());
+            return this;
+        }
+    }
+}
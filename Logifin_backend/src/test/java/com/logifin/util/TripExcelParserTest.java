@@ -5,17 +5,20 @@ import com.logifin.dto.ErrorRowDTO;
 import com.logifin.dto.TripRequestDTO;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -34,6 +37,11 @@ class TripExcelParserTest {
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        tripExcelParser.shutdown();
+    }
+
     @Nested
     @DisplayName("CSV Parsing Tests")
     class CsvParsingTests {
@@ -189,6 +197,82 @@ class TripExcelParserTest {
         }
     }
 
+    @Nested
+    @DisplayName("Parallel CSV Parsing Tests")
+    class ParallelCsvParsingTests {
+
+        private static final String HEADER = "pickup,destination,senderId,receiver,transporterId,loanAmount,"
+                + "interestRate,maturityDays,distanceKm,loadType,weightKg,notes\n";
+
+        @Test
+        @DisplayName("Should keep quoted newlines inside a single record")
+        void parseCsv_QuotedNewline_SingleRecord() {
+            String csvContent = HEADER
+                    + "Mumbai,Delhi,2,Receiver,3,100000,12.5,30,,,,\"Line one\r\nLine two\"\r\n"
+                    + "Chennai,Bangalore,2,Receiver,3,200000,10.0,45,,,,";
+
+            List<Integer> rowNumbers = new ArrayList<>();
+            List<TripRequestDTO> trips = new ArrayList<>();
+            tripExcelParser.parseCsv(new ByteArrayInputStream(csvContent.getBytes()), response, (row, trip) -> {
+                rowNumbers.add(row);
+                trips.add(trip);
+            });
+
+            assertThat(response.getErrors()).isEmpty();
+            assertThat(rowNumbers).containsExactly(2, 3);
+            assertThat(trips.get(0).getNotes()).isEqualTo("Line one\r\nLine two");
+            assertThat(trips.get(1).getPickup()).isEqualTo("Chennai");
+        }
+
+        @Test
+        @DisplayName("Should report rows and errors in file order across blocks")
+        void parseCsvParallel_ManyBlocks_MatchesSequentialOrder() {
+            StringBuilder csv = new StringBuilder(HEADER);
+            for (int i = 0; i < 3500; i++) {
+                if (i % 7 == 0) {
+                    csv.append("Mumbai,Delhi,2,Receiver,3,-1,12.5,30,,,,\n");
+                } else if (i % 11 == 0) {
+                    csv.append("\n");
+                } else {
+                    csv.append("City").append(i).append(",Delhi,2,Receiver,3,100000,12.5,30,,,,\n");
+                }
+            }
+            byte[] content = csv.toString().getBytes();
+
+            List<Integer> sequentialRows = new ArrayList<>();
+            List<Integer> sequentialErrorsSeen = new ArrayList<>();
+            BulkUploadResponseDTO sequential = BulkUploadResponseDTO.builder().build();
+            tripExcelParser.parseCsv(new ByteArrayInputStream(content), sequential, (row, trip) -> {
+                sequentialRows.add(row);
+                sequentialErrorsSeen.add(sequential.getErrors().size());
+            });
+
+            List<Integer> parallelRows = new ArrayList<>();
+            List<String> parallelPickups = new ArrayList<>();
+            List<Integer> parallelErrorsSeen = new ArrayList<>();
+            TripExcelParser parallelParser = new TripExcelParser(4);
+            try {
+                parallelParser.parseCsvParallel(new ByteArrayInputStream(content), response, (row, trip) -> {
+                    parallelRows.add(row);
+                    parallelPickups.add(trip.getPickup());
+                    parallelErrorsSeen.add(response.getErrors().size());
+                });
+            } finally {
+                parallelParser.shutdown();
+            }
+
+            assertThat(parallelRows).isEqualTo(sequentialRows).isSorted();
+            // Errors are interleaved with rows as the sequential parser reports them
+            assertThat(parallelErrorsSeen).isEqualTo(sequentialErrorsSeen);
+            assertThat(parallelPickups.get(0)).isEqualTo("City1");
+            assertThat(response.getErrors()).extracting(ErrorRowDTO::getRowNumber)
+                    .isEqualTo(sequential.getErrors().stream().map(ErrorRowDTO::getRowNumber)
+                            .collect(Collectors.toList()))
+                    .hasSize(500)
+                    .isSorted();
+        }
+    }
+
     @Nested
     @DisplayName("Excel Parsing Tests")
     class ExcelParsingTests {
@@ -248,6 +332,27 @@ class TripExcelParserTest {
             assertThat(result.get(0).getLoanAmount()).isEqualByComparingTo(new BigDecimal("100000"));
         }
 
+        @Test
+        @DisplayName("Should read percent, currency and scientific cells as their stored numbers")
+        void parseExcel_FormattedNumbers_ReadsRawValues() throws IOException {
+            MockMultipartFile file = new MockMultipartFile(
+                    "file",
+                    "trips.xlsx",
+                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                    createExcelWithFormattedNumbers()
+            );
+
+            List<TripRequestDTO> result = tripExcelParser.parseExcel(file, response);
+
+            assertThat(response.getErrors()).isEmpty();
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getLoanAmount()).isEqualByComparingTo(new BigDecimal("100000"));
+            assertThat(result.get(0).getInterestRate()).isEqualByComparingTo(new BigDecimal("0.125"));
+            assertThat(result.get(0).getMaturityDays()).isEqualTo(30);
+            assertThat(result.get(0).getDistanceKm()).isEqualByComparingTo(new BigDecimal("1234567"));
+            assertThat(result.get(0).getWeightKg()).isEqualByComparingTo(new BigDecimal("2500.75"));
+        }
+
         @Test
         @DisplayName("Should skip empty rows in Excel")
         void parseExcel_SkipEmptyRows() throws IOException {
@@ -265,6 +370,60 @@ class TripExcelParserTest {
             assertThat(response.getErrors()).isEmpty();
         }
 
+        @Test
+        @DisplayName("Should stream XLSX rows to the handler with their sheet row numbers")
+        void parseExcel_Streaming_PassesRowNumbers() throws IOException {
+            byte[] excelContent;
+            try (Workbook workbook = new XSSFWorkbook();
+                 ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                Sheet sheet = workbook.createSheet("Trips");
+                sheet.createRow(0).createCell(0).setCellValue("pickup");
+
+                Row row1 = sheet.createRow(1);
+                row1.createCell(0).setCellValue("Mumbai");
+                row1.createCell(1).setCellValue("Delhi");
+                row1.createCell(2).setCellValue(2);
+                row1.createCell(3).setCellValue("Receiver A");
+                row1.createCell(4).setCellValue(3);
+                row1.createCell(5).setCellValue(100000);
+                row1.createCell(6).setCellValue(12.5);
+                row1.createCell(7).setCellValue(30);
+                // Column 8 (distance) intentionally left out
+                row1.createCell(9).setCellValue("Electronics");
+
+                // Row 3 (index 2) does not exist in the sheet
+                Row row3 = sheet.createRow(3);
+                row3.createCell(0).setCellValue("Chennai");
+                row3.createCell(1).setCellValue("Bangalore");
+                row3.createCell(2).setCellValue(2);
+                row3.createCell(3).setCellValue("Receiver B");
+                row3.createCell(4).setCellValue(3);
+                row3.createCell(5).setCellValue(200000);
+                row3.createCell(6).setCellValue(10);
+                row3.createCell(7).setCellValue(45);
+
+                workbook.write(out);
+                excelContent = out.toByteArray();
+            }
+            MockMultipartFile file = new MockMultipartFile("file", "trips.xlsx",
+                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", excelContent);
+
+            List<Integer> rowNumbers = new ArrayList<>();
+            List<TripRequestDTO> result = new ArrayList<>();
+            tripExcelParser.parseExcel(file, response, (rowNumber, trip) -> {
+                rowNumbers.add(rowNumber);
+                result.add(trip);
+            });
+
+            assertThat(response.getErrors()).isEmpty();
+            assertThat(rowNumbers).containsExactly(2, 4);
+            assertThat(result.get(0).getSenderId()).isEqualTo(2L);
+            assertThat(result.get(0).getInterestRate()).isEqualByComparingTo(new BigDecimal("12.5"));
+            assertThat(result.get(0).getDistanceKm()).isNull();
+            assertThat(result.get(0).getLoadType()).isEqualTo("Electronics");
+            assertThat(result.get(1).getMaturityDays()).isEqualTo(45);
+        }
+
         // Helper methods to create Excel files for testing
 
         private byte[] createValidExcelFile() throws IOException {
@@ -312,6 +471,37 @@ class TripExcelParserTest {
             }
         }
 
+        private byte[] createExcelWithFormattedNumbers() throws IOException {
+            try (Workbook workbook = new XSSFWorkbook();
+                 ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                Sheet sheet = workbook.createSheet("Trips");
+                sheet.createRow(0).createCell(0).setCellValue("pickup");
+
+                Row row = sheet.createRow(1);
+                row.createCell(0).setCellValue("Mumbai");
+                row.createCell(1).setCellValue("Delhi");
+                row.createCell(2).setCellValue(2);
+                row.createCell(3).setCellValue("Receiver A");
+                row.createCell(4).setCellValue(3);
+                formattedCell(workbook, row, 5, 100000, "[$\u20b9-4009] #,##,##0.00");
+                formattedCell(workbook, row, 6, 0.125, "0.00%");
+                formattedCell(workbook, row, 7, 30, "#,##0");
+                formattedCell(workbook, row, 8, 1234567, "0.00E+00");
+                formattedCell(workbook, row, 10, 2500.75, "#,##0");
+
+                workbook.write(out);
+                return out.toByteArray();
+            }
+        }
+
+        private void formattedCell(Workbook workbook, Row row, int column, double value, String format) {
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat(format));
+            Cell cell = row.createCell(column);
+            cell.setCellValue(value);
+            cell.setCellStyle(style);
+        }
+
         private byte[] createExcelWithMissingFields() throws IOException {
             try (Workbook workbook = new XSSFWorkbook();
                  ByteArrayOutputStream out = new ByteArrayOutputStream()) {